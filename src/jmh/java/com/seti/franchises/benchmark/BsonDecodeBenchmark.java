@@ -0,0 +1,136 @@
+package com.seti.franchises.benchmark;
+
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.persistence.codec.RawFranchiseAggregate;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura y escritura de una franquicia entre bytes BSON y entidades de dominio:
+ * <ul>
+ *   <li>{@code twoStep*}: camino de Spring Data (DocumentCodec → org.bson.Document →
+ *   MappingMongoConverter → FranchiseDocument → FranchisePersistenceMapper → Franchise, y al revés).</li>
+ *   <li>{@code direct*}: {@link FranchiseCodec} leyendo/escribiendo el BsonReader/BsonWriter del driver.</li>
+ *   <li>{@code *ProductLookup}: localizar un producto de la última sucursal (el peor caso del recorrido)
+ *   decodificando la franquicia entera o con {@link RawFranchiseAggregate}.</li>
+ * </ul>
+ * Los bytes de entrada los genera MappingMongoConverter, es decir, documentos tal como están hoy en MongoDB.
+ * <p>
+ * Ejecutar: {@code ./gradlew jmh -Pjmh.includes=BsonDecodeBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BsonDecodeBenchmark {
+
+    @Param({"10x10", "100x50", "1000x100", "5000x100"})
+    public String size;
+
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().build();
+
+    private final FranchisePersistenceMapper mapper = new FranchisePersistenceMapper();
+    private final FranchiseCodec codec = new FranchiseCodec(null);
+    private MappingMongoConverter converter;
+
+    private Franchise franchise;
+    private byte[] bson;
+    private String branchId;
+    private String productId;
+
+    @Setup
+    public void setUp() {
+        MongoMappingContext context = new MongoMappingContext();
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.afterPropertiesSet();
+
+        String[] dims = size.split("x");
+        int branches = Integer.parseInt(dims[0]);
+        int productsPerBranch = Integer.parseInt(dims[1]);
+        franchise = FranchiseFixtures.franchise(branches, productsPerBranch);
+        branchId = FranchiseFixtures.branchId(branches - 1);
+        productId = FranchiseFixtures.productId(branches - 1, productsPerBranch / 2);
+        Document document = new Document();
+        converter.write(mapper.toDocument(franchise), document);
+        RawBsonDocument raw = new RawBsonDocument(document, DOCUMENT_CODEC);
+        bson = new byte[raw.getByteBuffer().remaining()];
+        raw.getByteBuffer().asNIO().get(bson);
+        System.out.printf("%n[bson] size=%s bytes=%d%n", size, bson.length);
+    }
+
+    @Benchmark
+    public Franchise twoStepDecode() {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            Document document = DOCUMENT_CODEC.decode(reader, DECODER_CONTEXT);
+            return mapper.toEntity(converter.read(FranchiseDocument.class, document));
+        }
+    }
+
+    @Benchmark
+    public Franchise directDecode() {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return codec.decode(reader, DECODER_CONTEXT);
+        }
+    }
+
+    @Benchmark
+    public int twoStepEncode() {
+        Document document = new Document();
+        converter.write(mapper.toDocument(franchise), document);
+        try (BasicOutputBuffer buffer = new BasicOutputBuffer(); BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            DOCUMENT_CODEC.encode(writer, document, ENCODER_CONTEXT);
+            return buffer.getPosition();
+        }
+    }
+
+    @Benchmark
+    public int directEncode() {
+        try (BasicOutputBuffer buffer = new BasicOutputBuffer(); BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            codec.encode(writer, franchise, ENCODER_CONTEXT);
+            return buffer.getPosition();
+        }
+    }
+
+    @Benchmark
+    public Optional<Product> directProductLookup() {
+        return directDecode().getBranches().stream()
+                .filter(b -> branchId.equals(b.getId()))
+                .flatMap(b -> b.getProducts().stream())
+                .filter(p -> productId.equals(p.getId()))
+                .findFirst();
+    }
+
+    @Benchmark
+    public Optional<Product> lazyProductLookup() {
+        return new RawFranchiseAggregate(new RawBsonDocument(bson)).findProduct(branchId, productId);
+    }
+}
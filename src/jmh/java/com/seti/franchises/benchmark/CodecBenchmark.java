@@ -0,0 +1,64 @@
+package com.seti.franchises.benchmark;
+
+import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.mapper.ApiMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara JSON, CBOR y Smile al codificar/decodificar {@link FranchiseResponse}.
+ * El tamaño de cada payload se imprime en el setup para comparar bytes en red.
+ * <p>
+ * Ejecutar: {@code ./gradlew jmh -Pjmh.includes=CodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CodecBenchmark {
+
+    @Param({"10x10", "100x50", "1000x100"})
+    public String size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private FranchiseResponse response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        String[] dims = size.split("x");
+        response = new ApiMapper().toFranchiseResponse(
+                FranchiseFixtures.franchise(Integer.parseInt(dims[0]), Integer.parseInt(dims[1])));
+        mapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+        encoded = mapper.writeValueAsBytes(response);
+        System.out.printf("%n[payload] size=%s format=%s bytes=%d%n", size, format, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public FranchiseResponse decode() {
+        return mapper.readValue(encoded, FranchiseResponse.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.seti.franchises.benchmark;
+
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.mapping.LargeAggregateMapping;
+import com.seti.franchises.infrastructure.mapping.LargeAggregateMappingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos sintéticos para los benchmarks: franquicias de tamaño parametrizable
+ * (sucursales x productos) con ids y nombres realistas.
+ */
+public final class FranchiseFixtures {
+
+    private FranchiseFixtures() {
+    }
+
+    /**
+     * Crea una franquicia con {@code branches} sucursales y {@code productsPerBranch} productos cada una.
+     * Uno de cada diez productos queda deshabilitado (borrado lógico).
+     */
+    public static Franchise franchise(int branches, int productsPerBranch) {
+        List<Branch> branchList = new ArrayList<>(branches);
+        for (int b = 0; b < branches; b++) {
+            List<Product> products = new ArrayList<>(productsPerBranch);
+            for (int p = 0; p < productsPerBranch; p++) {
+                products.add(Product.builder()
+                        .id(productId(b, p))
+                        .name("Producto " + b + "-" + p)
+                        .stockQuantity((b * 31 + p * 17) % 500)
+                        .enabled(p % 10 != 9)
+                        .build());
+            }
+            branchList.add(Branch.builder()
+                    .id(branchId(b))
+                    .name("Sucursal " + b)
+                    .products(products)
+                    .build());
+        }
+        return Franchise.builder()
+                .id("franchise-" + branches + "x" + productsPerBranch)
+                .name("Franquicia " + branches + "x" + productsPerBranch)
+                .branches(branchList)
+                .build();
+    }
+
+    /**
+     * Mapeo siempre en el hilo que llama: los benchmarks miden el coste del mapeo, no el reparto.
+     */
+    public static LargeAggregateMapping inlineMapping() {
+        return new LargeAggregateMapping(new LargeAggregateMappingProperties(false, 0, 0, 0), new SimpleMeterRegistry());
+    }
+
+    public static String branchId(int branch) {
+        return String.format("branch-%08d", branch);
+    }
+
+    public static String productId(int branch, int product) {
+        return String.format("product-%08d-%06d", branch, product);
+    }
+}
@@ -0,0 +1,77 @@
+package com.seti.franchises.benchmark;
+
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.web.mapper.ApiMapper;
+import com.seti.franchises.infrastructure.web.mapper.FranchiseJsonWriter;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.bson.BsonBinaryReader;
+import org.bson.codecs.DecoderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET franquicia en JSON desde los bytes BSON que entrega el driver:
+ * <ul>
+ *   <li>{@code mapped}: FranchiseCodec → Franchise → ApiMapper → FranchiseResponse → Jackson.</li>
+ *   <li>{@code passthrough}: {@link FranchiseJsonWriter} transcodificando BSON → JSON en un buffer
+ *   pooled de Netty, sin grafos de objetos intermedios.</li>
+ * </ul>
+ * Ejecutar: {@code ./gradlew jmh -Pjmh.includes=JsonPassthroughBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JsonPassthroughBenchmark {
+
+    @Param({"10x10", "100x50", "1000x100", "5000x100"})
+    public String size;
+
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final FranchiseCodec codec = new FranchiseCodec(null);
+    private final ApiMapper apiMapper = new ApiMapper();
+    private final FranchiseJsonWriter writer = new FranchiseJsonWriter(jsonMapper, true);
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    private ByteBuffer bson;
+
+    @Setup
+    public void setUp() {
+        String[] dims = size.split("x");
+        Franchise franchise = FranchiseFixtures.franchise(Integer.parseInt(dims[0]), Integer.parseInt(dims[1]));
+        bson = FranchiseCodec.toBson(franchise);
+    }
+
+    @Benchmark
+    public int mapped() {
+        try (BsonBinaryReader reader = new BsonBinaryReader(bson.duplicate())) {
+            Franchise franchise = codec.decode(reader, DECODER_CONTEXT);
+            return jsonMapper.writeValueAsBytes(apiMapper.toFranchiseResponse(franchise)).length;
+        }
+    }
+
+    @Benchmark
+    public int passthrough() {
+        DataBuffer buffer = writer.write(bson, bufferFactory);
+        int length = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return length;
+    }
+}
@@ -0,0 +1,146 @@
+package com.seti.franchises.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.seti.franchises.application.observation.LogRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo que paga el hilo que registra (en la aplicación, un hilo del event loop de Netty) por cada
+ * línea de log, con 4 hilos registrando a la vez.
+ * <p>
+ * {@code sync}: ConsoleAppender directo (configuración anterior). {@code async}: AsyncAppender acotado
+ * y sin bloqueo (configuración actual). La consola se simula con un sink que tarda
+ * {@code sinkNanos} por escritura (terminal, pipe o recolector de logs lento).
+ * {@code logStockSampled} añade el LogRateLimiter de las actualizaciones de stock.
+ * <p>
+ * Ejecutar: {@code ./gradlew jmh -Pjmh.includes=LoggingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    @Param({"0", "5000"})
+    public long sinkNanos;
+
+    private LoggerContext context;
+    private Logger logger;
+    private LogRateLimiter stockLogLimiter;
+
+    @State(Scope.Thread)
+    public static class RequestMdc {
+        @Setup
+        public void setUp() {
+            MDC.put("requestId", "req-" + Thread.currentThread().threadId());
+            MDC.put("franchiseId", "franchise-10x10");
+        }
+
+        @TearDown
+        public void tearDown() {
+            MDC.clear();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("{\"@timestamp\":\"%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX}\",\"log.level\":\"%level\",\"process.thread.name\":\"%thread\","
+                + "\"log.logger\":\"%logger\",\"requestId\":\"%X{requestId}\",\"franchiseId\":\"%X{franchiseId}\",\"message\":\"%msg\"}%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(context);
+        console.setName("CONSOLE");
+        console.setEncoder(encoder);
+        console.setOutputStream(new SlowSink(sinkNanos));
+        console.start();
+
+        Appender<ILoggingEvent> root = console;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_CONSOLE");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(console);
+            async.start();
+            root = async;
+        }
+        logger = context.getLogger(LoggingBenchmark.class);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(root);
+        stockLogLimiter = new LogRateLimiter(10, Duration.ofSeconds(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void logInfo(RequestMdc mdc) {
+        logger.info("Stock actualizado: productId={}, newStock={}", "product-00000001-000001", 42);
+    }
+
+    @Benchmark
+    public void logStockSampled(RequestMdc mdc) {
+        long skipped = stockLogLimiter.tryAcquire();
+        if (skipped >= 0) {
+            logger.info("Stock actualizado: productId={}, newStock={}, omitidos={}", "product-00000001-000001", 42, skipped);
+        }
+    }
+
+    /**
+     * Destino de consola simulado: descarta los bytes tras una espera activa de {@code nanos}.
+     */
+    static final class SlowSink extends OutputStream {
+        private final long nanos;
+
+        SlowSink(long nanos) {
+            this.nanos = nanos;
+        }
+
+        @Override
+        public void write(int b) {
+            // Solo se usa write(byte[], int, int)
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
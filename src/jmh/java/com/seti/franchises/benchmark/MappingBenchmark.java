@@ -0,0 +1,64 @@
+package com.seti.franchises.benchmark;
+
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.mapper.ApiMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput y asignación de los mapeos del camino caliente: documento ↔ entidad
+ * ({@link FranchisePersistenceMapper}) y entidad → DTO de respuesta ({@link ApiMapper}), para
+ * franquicias de 10x10 a 5000x100 (sucursales x productos).
+ * <p>
+ * Ejecutar: {@code ./gradlew jmh -Pjmh.includes=MappingBenchmark} (con {@code -prof gc}: mirar
+ * {@code gc.alloc.rate.norm}, bytes asignados por operación).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MappingBenchmark {
+
+    @Param({"10x10", "100x50", "1000x100", "5000x100"})
+    public String size;
+
+    private final FranchisePersistenceMapper persistenceMapper = new FranchisePersistenceMapper();
+    private final ApiMapper apiMapper = new ApiMapper();
+
+    private Franchise franchise;
+    private FranchiseDocument document;
+
+    @Setup
+    public void setUp() {
+        String[] dims = size.split("x");
+        franchise = FranchiseFixtures.franchise(Integer.parseInt(dims[0]), Integer.parseInt(dims[1]));
+        document = persistenceMapper.toDocument(franchise);
+    }
+
+    @Benchmark
+    public Franchise toEntity() {
+        return persistenceMapper.toEntity(document);
+    }
+
+    @Benchmark
+    public FranchiseDocument toDocument() {
+        return persistenceMapper.toDocument(franchise);
+    }
+
+    @Benchmark
+    public FranchiseResponse toFranchiseResponse() {
+        return apiMapper.toFranchiseResponse(franchise);
+    }
+}
@@ -0,0 +1,133 @@
+package com.seti.franchises.benchmark;
+
+import com.seti.franchises.application.service.FranchiseUseCaseService;
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.persistence.inmemory.InMemoryFranchiseRepository;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput y asignación de cada mutación de {@link FranchiseUseCaseService} sobre el repositorio en
+ * memoria (perfil {@code inmemory}), que mapea documento ↔ entidad en cada lectura/escritura como el
+ * adaptador de MongoDB pero sin red. Parametrizado por tamaño de franquicia (sucursales x productos).
+ * <p>
+ * Las mutaciones idempotentes (stock, nombres, deshabilitar) repiten sobre el mismo estado. Las que
+ * hacen crecer o encoger la franquicia (alta de sucursal/producto, borrado) restauran la franquicia
+ * original antes de cada invocación ({@link Level#Invocation}, fuera de la medición) para que el
+ * tamaño no derive durante la iteración.
+ * <p>
+ * El logger del servicio se sube a WARN: aquí se mide el caso de uso, no el appender
+ * (eso lo cubre {@link LoggingBenchmark}).
+ * <p>
+ * Ejecutar: {@code ./gradlew jmh -Pjmh.includes=MutationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MutationBenchmark {
+
+    @Param({"10x10", "100x50", "1000x100", "5000x100"})
+    public String size;
+
+    private Franchise pristine;
+    private InMemoryFranchiseRepository repository;
+    private FranchiseUseCaseService service;
+    private String franchiseId;
+    private String branchId;
+    private String productId;
+    private String disabledProductId;
+    private String deletedProductId;
+    private int stock;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FranchiseUseCaseService.class))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        String[] dims = size.split("x");
+        int branches = Integer.parseInt(dims[0]);
+        pristine = FranchiseFixtures.franchise(branches, Integer.parseInt(dims[1]));
+        repository = new InMemoryFranchiseRepository(new FranchisePersistenceMapper(), FranchiseFixtures.inlineMapping());
+        service = new FranchiseUseCaseService(repository, ObservationRegistry.NOOP);
+        franchiseId = pristine.getId();
+        // Sucursal del medio: las búsquedas lineales recorren la mitad de la lista
+        int branch = branches / 2;
+        branchId = FranchiseFixtures.branchId(branch);
+        productId = FranchiseFixtures.productId(branch, 0);
+        disabledProductId = FranchiseFixtures.productId(branch, 1);
+        deletedProductId = FranchiseFixtures.productId(branch, 2);
+        restore();
+    }
+
+    /**
+     * Estado por invocación para las mutaciones que cambian el tamaño de la franquicia.
+     */
+    @State(Scope.Thread)
+    public static class Fresh {
+
+        @Setup(Level.Invocation)
+        public void restore(MutationBenchmark benchmark) {
+            benchmark.restore();
+        }
+    }
+
+    void restore() {
+        repository.save(pristine).block();
+    }
+
+    @Benchmark
+    public Product updateProductStock() {
+        stock = (stock + 1) % 500;
+        return service.updateProductStock(franchiseId, branchId, productId, stock).block();
+    }
+
+    @Benchmark
+    public Franchise updateFranchiseName() {
+        return service.updateFranchiseName(franchiseId, "Franquicia renombrada").block();
+    }
+
+    @Benchmark
+    public Branch updateBranchName() {
+        return service.updateBranchName(franchiseId, branchId, "Sucursal renombrada").block();
+    }
+
+    @Benchmark
+    public Product updateProductName() {
+        return service.updateProductName(franchiseId, branchId, productId, "Producto renombrado").block();
+    }
+
+    @Benchmark
+    public Product disableProductInBranch() {
+        return service.disableProductInBranch(franchiseId, branchId, disabledProductId).block();
+    }
+
+    @Benchmark
+    public Branch addBranchToFranchise(Fresh fresh) {
+        return service.addBranchToFranchise(franchiseId, "Sucursal nueva").block();
+    }
+
+    @Benchmark
+    public Product addProductToBranch(Fresh fresh) {
+        return service.addProductToBranch(franchiseId, branchId, "Producto nuevo", 5).block();
+    }
+
+    @Benchmark
+    public Void deleteProductFromBranch(Fresh fresh) {
+        return service.deleteProductFromBranch(franchiseId, branchId, deletedProductId).block();
+    }
+}
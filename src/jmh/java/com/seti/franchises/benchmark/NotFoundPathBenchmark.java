@@ -0,0 +1,92 @@
+package com.seti.franchises.benchmark;
+
+import com.seti.franchises.application.service.FranchiseUseCaseService;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.infrastructure.persistence.inmemory.InMemoryFranchiseRepository;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste del camino 404 (franquicia inexistente) en los casos de uso.
+ * <p>
+ * {@code legacyNotFound} reproduce el patrón anterior: excepción con stack trace creada de forma
+ * ansiosa en cada suscripción y re-emitida con {@code onErrorResume(..., Mono::error)}.
+ * {@code getNotFound} / {@code updateStockNotFound} usan el servicio actual (excepciones sin stack
+ * trace creadas de forma perezosa) sobre un repositorio en memoria.
+ * <p>
+ * Ejecutar: {@code ./gradlew jmh -Pjmh.includes=NotFoundPathBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NotFoundPathBenchmark {
+
+    private static final String MISSING_ID = "franchise-missing";
+
+    private InMemoryFranchiseRepository repository;
+    private FranchiseUseCaseService service;
+
+    @Setup
+    public void setUp() {
+        repository = new InMemoryFranchiseRepository(new FranchisePersistenceMapper(), FranchiseFixtures.inlineMapping());
+        repository.save(FranchiseFixtures.franchise(10, 10)).block();
+        service = new FranchiseUseCaseService(repository, ObservationRegistry.NOOP);
+    }
+
+    @Benchmark
+    public Throwable legacyNotFound() {
+        return Mono.justOrEmpty(MISSING_ID)
+                .flatMap(repository::findById)
+                .switchIfEmpty(Mono.error(new LegacyNotFoundException("Franquicia no encontrada: " + MISSING_ID)))
+                .onErrorResume(LegacyNotFoundException.class, Mono::error)
+                .map(Franchise::getName)
+                .onErrorResume(LegacyNotFoundException.class, Mono::error)
+                .materialize()
+                .block()
+                .getThrowable();
+    }
+
+    @Benchmark
+    public Throwable getNotFound() {
+        return service.findById(MISSING_ID)
+                .switchIfEmpty(Mono.error(() -> new FranchiseUseCaseService.NotFoundException("Franquicia no encontrada: " + MISSING_ID)))
+                .materialize()
+                .block()
+                .getThrowable();
+    }
+
+    @Benchmark
+    public Throwable updateStockNotFound() {
+        return service.updateProductStock(MISSING_ID, "branch", "product", 10)
+                .materialize()
+                .block()
+                .getThrowable();
+    }
+
+    @Benchmark
+    public Throwable invalidStock() {
+        return service.updateProductStock(MISSING_ID, "branch", "product", -1)
+                .materialize()
+                .block()
+                .getThrowable();
+    }
+
+    /**
+     * Excepción de dominio tal como era antes: con stack trace completo.
+     */
+    static class LegacyNotFoundException extends RuntimeException {
+        LegacyNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.seti.franchises.benchmark;
+
+import com.seti.franchises.infrastructure.web.dto.request.AddProductRequest;
+import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.json.ApiJsonModule;
+import com.seti.franchises.infrastructure.web.mapper.ApiMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificación de {@link FranchiseResponse} (y decodificación de una petición) con la serialización
+ * reflexiva por defecto de Jackson frente a los (de)serializadores escritos a mano de
+ * {@link ApiJsonModule}, que es lo que usan los codecs de WebFlux.
+ * <p>
+ * Ejecutar: {@code ./gradlew jmh -Pjmh.includes=ResponseEncodingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ResponseEncodingBenchmark {
+
+    @Param({"10x10", "100x50", "1000x100", "5000x100"})
+    public String size;
+
+    private static final byte[] ADD_PRODUCT = "{\"name\":\"Producto A\",\"stockQuantity\":10}".getBytes(StandardCharsets.UTF_8);
+
+    private final JsonMapper reflective = JsonMapper.builder().build();
+    private final JsonMapper handWritten = JsonMapper.builder().addModule(new ApiJsonModule()).build();
+
+    private FranchiseResponse response;
+
+    @Setup
+    public void setUp() {
+        String[] dims = size.split("x");
+        response = new ApiMapper().toFranchiseResponse(
+                FranchiseFixtures.franchise(Integer.parseInt(dims[0]), Integer.parseInt(dims[1])));
+    }
+
+    @Benchmark
+    public byte[] encodeReflective() {
+        return reflective.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] encodeHandWritten() {
+        return handWritten.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public AddProductRequest decodeReflective() {
+        return reflective.readValue(ADD_PRODUCT, AddProductRequest.class);
+    }
+
+    @Benchmark
+    public AddProductRequest decodeHandWritten() {
+        return handWritten.readValue(ADD_PRODUCT, AddProductRequest.class);
+    }
+}
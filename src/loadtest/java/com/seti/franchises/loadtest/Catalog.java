@@ -0,0 +1,50 @@
+package com.seti.franchises.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Ids conocidos por el generador: los del seed inicial más los creados por las operaciones de alta.
+ * Las altas llegan desde los hilos del cliente HTTP, de ahí la sincronización.
+ */
+final class Catalog {
+
+    record BranchRef(String franchiseId, String branchId) {
+    }
+
+    record ProductRef(String franchiseId, String branchId, String productId) {
+    }
+
+    private final List<String> franchises = new ArrayList<>();
+    private final List<BranchRef> branches = new ArrayList<>();
+    private final List<ProductRef> products = new ArrayList<>();
+
+    synchronized void addFranchise(String franchiseId) {
+        franchises.add(franchiseId);
+    }
+
+    synchronized void addBranch(String franchiseId, String branchId) {
+        branches.add(new BranchRef(franchiseId, branchId));
+    }
+
+    synchronized void addProduct(String franchiseId, String branchId, String productId) {
+        products.add(new ProductRef(franchiseId, branchId, productId));
+    }
+
+    synchronized String randomFranchise(SplittableRandom random) {
+        return franchises.get(random.nextInt(franchises.size()));
+    }
+
+    synchronized BranchRef randomBranch(SplittableRandom random) {
+        return branches.get(random.nextInt(branches.size()));
+    }
+
+    synchronized ProductRef randomProduct(SplittableRandom random) {
+        return products.get(random.nextInt(products.size()));
+    }
+
+    synchronized String summary() {
+        return franchises.size() + " franquicias, " + branches.size() + " sucursales, " + products.size() + " productos";
+    }
+}
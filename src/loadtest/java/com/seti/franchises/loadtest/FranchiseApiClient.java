@@ -0,0 +1,78 @@
+package com.seti.franchises.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+/**
+ * Cliente HTTP de la API sobre Reactor Netty. El cuerpo de la respuesta se lee siempre entero
+ * (la latencia incluye la transferencia), pero solo se decodifica cuando hace falta un id.
+ */
+final class FranchiseApiClient {
+
+    static final String BASE_PATH = "/api/v1/franchises";
+    private static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    /**
+     * @param status código HTTP
+     * @param body   cuerpo decodificado (solo si se pidió)
+     */
+    record Response(int status, String body) {
+
+        boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private final HttpClient client;
+    private final ConnectionProvider connections;
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    FranchiseApiClient(String baseUrl, int maxConnections) {
+        connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofSeconds(60))
+                .build();
+        client = HttpClient.create(connections)
+                .baseUrl(baseUrl)
+                .responseTimeout(Duration.ofSeconds(30));
+    }
+
+    Mono<Response> get(String uri, String accept, String clientId) {
+        return client.headers(h -> h.set(HttpHeaderNames.ACCEPT, accept).set(CLIENT_ID_HEADER, clientId))
+                .get()
+                .uri(uri)
+                .responseSingle((response, bytes) -> bytes.thenReturn(new Response(response.status().code(), null)));
+    }
+
+    Mono<Response> send(HttpMethod method, String uri, String contentType, String body, String clientId, boolean readBody) {
+        return client.headers(h -> h.set(HttpHeaderNames.CONTENT_TYPE, contentType).set(CLIENT_ID_HEADER, clientId))
+                .request(method)
+                .uri(uri)
+                .send(ByteBufFlux.fromString(Mono.just(body)))
+                .responseSingle((response, bytes) -> {
+                    int status = response.status().code();
+                    return readBody
+                            ? bytes.asString().map(b -> new Response(status, b)).defaultIfEmpty(new Response(status, ""))
+                            : bytes.thenReturn(new Response(status, null));
+                });
+    }
+
+    /**
+     * Campo "id" del cuerpo JSON de una respuesta de alta.
+     */
+    String id(Response response) {
+        return json.readTree(response.body()).get("id").asString();
+    }
+
+    void close() {
+        connections.dispose();
+    }
+}
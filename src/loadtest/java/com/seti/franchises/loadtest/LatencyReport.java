@@ -0,0 +1,203 @@
+package com.seti.franchises.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias (HdrHistogram, microsegundos, 3 dígitos significativos) y códigos de estado por operación.
+ * Escribe un resumen JSON con metadatos de la ejecución (commit, perfil, tasa, semilla) para comparar
+ * ejecuciones entre commits, y la distribución completa de percentiles (.hgrm) por operación.
+ */
+final class LatencyReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Histogram all = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> drops = new EnumMap<>(Operation.class);
+    private final JsonMapper json = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+            failures.put(operation, new LongAdder());
+            drops.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, int status, long latencyNanos) {
+        long micros = Math.min(HIGHEST_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        histograms.get(operation).recordValue(micros);
+        all.recordValue(micros);
+        statuses.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    /**
+     * Error de red o timeout (sin respuesta HTTP).
+     */
+    void failed(Operation operation, Throwable error) {
+        failures.get(operation).increment();
+    }
+
+    /**
+     * Llegada descartada por superar el máximo de peticiones en vuelo.
+     */
+    void dropped(Operation operation) {
+        drops.get(operation).increment();
+    }
+
+    /**
+     * Resumen en consola, resumen JSON y ficheros .hgrm. Devuelve la ruta del JSON.
+     */
+    Path write(LoadTestConfig config, Instant startedAt, double measuredSeconds, String target) throws IOException {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("commit", config.commit());
+        summary.put("profile", config.profile().name().toLowerCase());
+        summary.put("target", target);
+        summary.put("startedAt", startedAt.toString());
+        summary.put("rate", config.rate());
+        summary.put("durationSeconds", config.duration().toSeconds());
+        summary.put("warmupSeconds", config.warmup().toSeconds());
+        summary.put("seed", config.seed());
+        summary.put("seedData", config.franchises() + "x" + config.branches() + "x" + config.products());
+        summary.put("java", Runtime.version().toString());
+        summary.put("cpus", Runtime.getRuntime().availableProcessors());
+        summary.put("total", describe(all, totalStatuses(), sum(failures), sum(drops), measuredSeconds));
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() > 0 || drops.get(operation).sum() > 0 || failures.get(operation).sum() > 0) {
+                operations.put(operation.name(), describe(histogram, statusCounts(statuses.get(operation)),
+                        failures.get(operation).sum(), drops.get(operation).sum(), measuredSeconds));
+            }
+        }
+        summary.put("operations", operations);
+
+        Files.createDirectories(config.output());
+        String prefix = config.profile().name().toLowerCase() + "-" + config.commit() + "-" + startedAt.getEpochSecond();
+        Path summaryFile = config.output().resolve(prefix + ".json");
+        json.writeValue(summaryFile.toFile(), summary);
+        writePercentiles(config.output().resolve(prefix + "-ALL.hgrm"), all);
+        for (Operation operation : Operation.values()) {
+            if (histograms.get(operation).getTotalCount() > 0) {
+                writePercentiles(config.output().resolve(prefix + "-" + operation.name() + ".hgrm"), histograms.get(operation));
+            }
+        }
+
+        print(System.out, operations, summary);
+        if (config.baseline() != null) {
+            compare(System.out, json.readTree(config.baseline().toFile()), json.valueToTree(summary));
+        }
+        return summaryFile;
+    }
+
+    private static Map<String, Object> describe(Histogram histogram, Map<String, Long> statusCounts, long failures,
+                                                long drops, double seconds) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", histogram.getTotalCount());
+        result.put("throughput", round(histogram.getTotalCount() / seconds));
+        result.put("statuses", statusCounts);
+        result.put("failures", failures);
+        result.put("dropped", drops);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(histogram.getMean() / 1000d));
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    round(histogram.getValueAtPercentile(percentile) / 1000d));
+        }
+        latency.put("max", round(histogram.getMaxValue() / 1000d));
+        result.put("latencyMillis", latency);
+        return result;
+    }
+
+    private Map<String, Long> totalStatuses() {
+        Map<String, Long> total = new TreeMap<>();
+        statuses.values().forEach(counts -> statusCounts(counts).forEach((status, count) -> total.merge(status, count, Long::sum)));
+        return total;
+    }
+
+    private static Map<String, Long> statusCounts(Map<Integer, LongAdder> counts) {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((status, count) -> result.put(String.valueOf(status), count.sum()));
+        return result;
+    }
+
+    private static long sum(Map<Operation, LongAdder> counters) {
+        return counters.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static void writePercentiles(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            // Valores en milisegundos (registrados en microsegundos)
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(PrintStream out, Map<String, Object> operations, Map<String, Object> summary) {
+        out.printf("%n%-18s %9s %9s %9s %9s %9s %9s %9s  %s%n", "operation", "req/s", "mean", "p50", "p90", "p99", "p99.9", "max", "statuses");
+        Map<String, Object> rows = new LinkedHashMap<>(operations);
+        rows.put("TOTAL", summary.get("total"));
+        rows.forEach((name, value) -> {
+            Map<String, Object> row = (Map<String, Object>) value;
+            Map<String, Object> latency = (Map<String, Object>) row.get("latencyMillis");
+            out.printf("%-18s %9s %9s %9s %9s %9s %9s %9s  %s failures=%s dropped=%s%n", name, row.get("throughput"),
+                    latency.get("mean"), latency.get("p50"), latency.get("p90"), latency.get("p99"), latency.get("p99.9"),
+                    latency.get("max"), row.get("statuses"), row.get("failures"), row.get("dropped"));
+        });
+        out.println("(latencias en ms desde la hora de llegada prevista)");
+    }
+
+    /**
+     * Diferencias de throughput y p99 frente a una ejecución anterior (mismo perfil, tasa y semilla).
+     */
+    private static void compare(PrintStream out, JsonNode baseline, JsonNode current) {
+        out.printf("%nComparación con %s (commit %s):%n", baseline.path("startedAt").asString(), baseline.path("commit").asString());
+        if (!baseline.path("profile").equals(current.path("profile")) || !baseline.path("rate").equals(current.path("rate"))
+                || !baseline.path("seed").equals(current.path("seed"))) {
+            out.println("  aviso: perfil, tasa o semilla distintos; la comparación no es homogénea");
+        }
+        compareRow(out, "TOTAL", baseline.path("total"), current.path("total"));
+        current.path("operations").properties().forEach(entry ->
+                compareRow(out, entry.getKey(), baseline.path("operations").path(entry.getKey()), entry.getValue()));
+    }
+
+    private static void compareRow(PrintStream out, String name, JsonNode before, JsonNode after) {
+        if (before.isMissingNode()) {
+            return;
+        }
+        out.printf("  %-18s req/s %9.1f -> %9.1f (%+6.1f%%)   p99 %9.3f -> %9.3f ms (%+6.1f%%)%n", name,
+                before.path("throughput").asDouble(), after.path("throughput").asDouble(),
+                change(before.path("throughput").asDouble(), after.path("throughput").asDouble()),
+                before.path("latencyMillis").path("p99").asDouble(), after.path("latencyMillis").path("p99").asDouble(),
+                change(before.path("latencyMillis").path("p99").asDouble(), after.path("latencyMillis").path("p99").asDouble()));
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000d;
+    }
+}
@@ -0,0 +1,105 @@
+package com.seti.franchises.loadtest;
+
+import com.seti.franchises.AndresApplication;
+import io.netty.handler.codec.http.HttpMethod;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Prueba de carga HTTP de la API con tasa de llegada constante (modelo abierto).
+ * <ol>
+ *   <li>Si no se indica {@code load.base-url}, arranca la aplicación en este proceso con el perfil
+ *   {@code inmemory} (sin MongoDB). Con {@code load.base-url} ataca una instancia ya levantada, p. ej.
+ *   con MongoDB vía docker compose.</li>
+ *   <li>Crea los datos iniciales (franquicias x sucursales x productos) por la propia API.</li>
+ *   <li>Calienta y después mide durante {@code load.duration} con la mezcla {@code load.profile}.</li>
+ *   <li>Escribe percentiles y throughput (consola, JSON y .hgrm) en {@code load.output}.</li>
+ * </ol>
+ * Ejecutar: {@code ./gradlew loadTest -Pload.profile=checkout -Pload.rate=500}
+ */
+public final class LoadTest {
+
+    private static final int SEED_CONCURRENCY = 16;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext app = null;
+        String baseUrl = config.baseUrl();
+        if (config.embedded()) {
+            app = new SpringApplicationBuilder(AndresApplication.class)
+                    .profiles("inmemory")
+                    .properties("server.port=0", "franchises.tracing.in-memory.enabled=false")
+                    .run();
+            baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+        FranchiseApiClient api = new FranchiseApiClient(baseUrl, config.connections());
+        try {
+            Catalog catalog = seed(api, config);
+            System.out.printf("Datos iniciales: %s%n", catalog.summary());
+
+            OpenModelDriver driver = new OpenModelDriver(api, catalog, config);
+            if (!config.warmup().isZero()) {
+                System.out.printf("Calentamiento: %s a %.0f req/s%n", config.warmup(), config.rate());
+                driver.run(config.rate(), config.warmup(), new LatencyReport()).block();
+            }
+
+            System.out.printf("Medición: perfil=%s, %s a %.0f req/s contra %s%n",
+                    config.profile().name().toLowerCase(), config.duration(), config.rate(), baseUrl);
+            LatencyReport report = new LatencyReport();
+            Instant startedAt = Instant.now();
+            long start = System.nanoTime();
+            driver.run(config.rate(), config.duration(), report).block();
+            double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+
+            Path summary = report.write(config, startedAt, seconds, config.embedded() ? "embedded:inmemory" : baseUrl);
+            System.out.printf("%nResumen: %s%n", summary);
+        } finally {
+            api.close();
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    /**
+     * Crea franquicias, sucursales y productos por la API y devuelve sus ids. Cada sucursal usa su propio
+     * X-Client-Id para no agotar el token bucket del servidor; los 429/503 se reintentan.
+     */
+    private static Catalog seed(FranchiseApiClient api, LoadTestConfig config) {
+        Catalog catalog = new Catalog();
+        Flux.range(0, config.franchises())
+                .flatMap(f -> create(api, FranchiseApiClient.BASE_PATH, "{\"name\": \"Franquicia " + f + "\"}", "seed-" + f)
+                        .doOnNext(catalog::addFranchise)
+                        .flatMapMany(franchiseId -> Flux.range(0, config.branches())
+                                .concatMap(b -> create(api, FranchiseApiClient.BASE_PATH + "/" + franchiseId + "/branches",
+                                        "{\"name\": \"Sucursal " + b + "\"}", "seed-" + f + "-" + b)
+                                        .doOnNext(branchId -> catalog.addBranch(franchiseId, branchId))
+                                        .flatMapMany(branchId -> Flux.range(0, config.products())
+                                                .concatMap(p -> create(api,
+                                                        FranchiseApiClient.BASE_PATH + "/" + franchiseId + "/branches/" + branchId + "/products",
+                                                        "{\"name\": \"Producto " + b + "-" + p + "\", \"stockQuantity\": " + (p * 7 % 500) + "}",
+                                                        "seed-" + f + "-" + b)
+                                                        .doOnNext(productId -> catalog.addProduct(franchiseId, branchId, productId)))))),
+                        SEED_CONCURRENCY)
+                .blockLast();
+        return catalog;
+    }
+
+    private static Mono<String> create(FranchiseApiClient api, String uri, String body, String clientId) {
+        return api.send(HttpMethod.POST, uri, Operation.JSON, body, clientId, true)
+                .flatMap(response -> response.isSuccess()
+                        ? Mono.just(api.id(response))
+                        : Mono.<String>error(new IllegalStateException("Alta fallida (" + response.status() + "): " + uri)))
+                .retryWhen(Retry.backoff(5, Duration.ofMillis(200)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.seti.franchises.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Parámetros de una ejecución, leídos de propiedades de sistema {@code load.*}
+ * (la tarea Gradle {@code loadTest} las pasa desde {@code -Pload.*}).
+ *
+ * @param baseUrl       URL de la API; vacío = arranca la aplicación en este mismo proceso con el perfil inmemory
+ * @param profile       mezcla de operaciones
+ * @param rate          peticiones por segundo (tasa de llegada constante, modelo abierto)
+ * @param duration      duración de la medición
+ * @param warmup        calentamiento previo (no se mide)
+ * @param seed          semilla de la mezcla y de los objetivos: misma semilla, misma secuencia
+ * @param franchises    franquicias creadas antes de medir
+ * @param branches      sucursales por franquicia
+ * @param products      productos por sucursal
+ * @param clients       valores distintos de X-Client-Id (reparte la carga entre los token buckets del servidor)
+ * @param connections   conexiones HTTP máximas del cliente
+ * @param maxInFlight   peticiones en vuelo a partir de las cuales las nuevas llegadas se cuentan como descartadas
+ * @param output        directorio de resultados
+ * @param baseline      resumen JSON de otra ejecución con el que comparar (opcional)
+ * @param commit        commit medido (lo rellena la tarea Gradle)
+ */
+record LoadTestConfig(String baseUrl, WorkloadProfile profile, double rate, Duration duration, Duration warmup,
+                      long seed, int franchises, int branches, int products, int clients, int connections,
+                      int maxInFlight, Path output, Path baseline, String commit) {
+
+    static LoadTestConfig fromSystemProperties() {
+        String baseline = property("baseline", "");
+        return new LoadTestConfig(
+                property("base-url", ""),
+                WorkloadProfile.valueOf(property("profile", "mixed").toUpperCase(Locale.ROOT)),
+                Double.parseDouble(property("rate", "200")),
+                Duration.parse(property("duration", "PT60S")),
+                Duration.parse(property("warmup", "PT10S")),
+                Long.parseLong(property("seed", "42")),
+                Integer.parseInt(property("franchises", "20")),
+                Integer.parseInt(property("branches", "10")),
+                Integer.parseInt(property("products", "20")),
+                Integer.parseInt(property("clients", "64")),
+                Integer.parseInt(property("connections", "256")),
+                Integer.parseInt(property("max-in-flight", "10000")),
+                Path.of(property("output", "build/loadtest")),
+                baseline.isBlank() ? null : Path.of(baseline),
+                property("commit", "unknown"));
+    }
+
+    boolean embedded() {
+        return baseUrl.isBlank();
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty("load." + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,90 @@
+package com.seti.franchises.loadtest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generador de modelo abierto: las peticiones llegan a tasa constante sin esperar a que terminen las
+ * anteriores (como usuarios independientes), así una API lenta acumula peticiones en vuelo en lugar
+ * de frenar al generador.
+ * <p>
+ * Cada llegada tiene una hora prevista ({@code inicio + n / rate}); la latencia se mide desde esa hora,
+ * no desde el envío real, para no ocultar el tiempo de cola si el generador se retrasa
+ * (coordinated omission). El planificador es un único hilo, así que la secuencia de operaciones y
+ * objetivos depende solo de la semilla.
+ */
+final class OpenModelDriver {
+
+    private static final Duration TICK = Duration.ofMillis(1);
+
+    private final FranchiseApiClient api;
+    private final Catalog catalog;
+    private final WorkloadProfile profile;
+    private final SplittableRandom random;
+    private final int clients;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenModelDriver(FranchiseApiClient api, Catalog catalog, LoadTestConfig config) {
+        this.api = api;
+        this.catalog = catalog;
+        this.profile = config.profile();
+        this.random = new SplittableRandom(config.seed());
+        this.clients = config.clients();
+        this.maxInFlight = config.maxInFlight();
+    }
+
+    /**
+     * Genera llegadas durante {@code duration} y espera a que terminen las que quedan en vuelo.
+     */
+    Mono<Void> run(double rate, Duration duration, LatencyReport report) {
+        Scheduler scheduler = Schedulers.newSingle("loadtest-arrivals");
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    long end = start + duration.toNanos();
+                    double intervalNanos = 1_000_000_000d / rate;
+                    long[] issued = {0};
+                    return Flux.interval(Duration.ZERO, TICK, scheduler)
+                            .onBackpressureDrop()
+                            .map(tick -> System.nanoTime())
+                            .takeWhile(now -> now < end)
+                            .concatMapIterable(now -> {
+                                long due = (long) ((now - start) / intervalNanos);
+                                List<Long> arrivals = new ArrayList<>((int) Math.max(0, due - issued[0]));
+                                for (long n = issued[0]; n < due; n++) {
+                                    arrivals.add(start + (long) (n * intervalNanos));
+                                }
+                                issued[0] = Math.max(issued[0], due);
+                                return arrivals;
+                            })
+                            .flatMap(intended -> arrive(intended, report), Integer.MAX_VALUE)
+                            .then();
+                })
+                .doFinally(signal -> scheduler.dispose());
+    }
+
+    private Mono<Void> arrive(long intendedNanos, LatencyReport report) {
+        Operation operation = profile.pick(random);
+        if (inFlight.get() >= maxInFlight) {
+            report.dropped(operation);
+            return Mono.empty();
+        }
+        String clientId = "loadtest-" + random.nextInt(clients);
+        Mono<FranchiseApiClient.Response> request = operation.call(api, catalog, random, clientId);
+        inFlight.incrementAndGet();
+        return request
+                .doOnNext(response -> report.record(operation, response.status(), System.nanoTime() - intendedNanos))
+                .doOnError(e -> report.failed(operation, e))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .then();
+    }
+}
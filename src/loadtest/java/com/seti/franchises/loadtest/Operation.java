@@ -0,0 +1,113 @@
+package com.seti.franchises.loadtest;
+
+import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.util.SplittableRandom;
+
+/**
+ * Operaciones del generador. {@link #call} elige los objetivos (franquicia, sucursal, producto) en el
+ * momento de la llegada, con el random del planificador, y devuelve la petición sin suscribir.
+ */
+enum Operation {
+
+    GET_FRANCHISE {
+        @Override
+        Mono<FranchiseApiClient.Response> call(FranchiseApiClient api, Catalog catalog, SplittableRandom random, String clientId) {
+            return api.get(FranchiseApiClient.BASE_PATH + "/" + catalog.randomFranchise(random), JSON, clientId);
+        }
+    },
+
+    MAX_STOCK {
+        @Override
+        Mono<FranchiseApiClient.Response> call(FranchiseApiClient api, Catalog catalog, SplittableRandom random, String clientId) {
+            return api.get(FranchiseApiClient.BASE_PATH + "/" + catalog.randomFranchise(random) + "/branches/products/max-stock",
+                    JSON, clientId);
+        }
+    },
+
+    LIST_FRANCHISES {
+        @Override
+        Mono<FranchiseApiClient.Response> call(FranchiseApiClient api, Catalog catalog, SplittableRandom random, String clientId) {
+            return api.get(FranchiseApiClient.BASE_PATH, NDJSON, clientId);
+        }
+    },
+
+    UPDATE_STOCK {
+        @Override
+        Mono<FranchiseApiClient.Response> call(FranchiseApiClient api, Catalog catalog, SplittableRandom random, String clientId) {
+            Catalog.ProductRef product = catalog.randomProduct(random);
+            String uri = FranchiseApiClient.BASE_PATH + "/" + product.franchiseId() + "/branches/" + product.branchId()
+                    + "/products/" + product.productId() + "/stock";
+            return api.send(HttpMethod.PATCH, uri, JSON, "{\"stockQuantity\": " + random.nextInt(500) + "}", clientId, false);
+        }
+    },
+
+    ADD_FRANCHISE {
+        @Override
+        Mono<FranchiseApiClient.Response> call(FranchiseApiClient api, Catalog catalog, SplittableRandom random, String clientId) {
+            return api.send(HttpMethod.POST, FranchiseApiClient.BASE_PATH, JSON,
+                            "{\"name\": \"Franquicia carga " + random.nextInt(1_000_000) + "\"}", clientId, true)
+                    .doOnNext(response -> {
+                        if (response.isSuccess()) {
+                            catalog.addFranchise(api.id(response));
+                        }
+                    });
+        }
+    },
+
+    ADD_BRANCH {
+        @Override
+        Mono<FranchiseApiClient.Response> call(FranchiseApiClient api, Catalog catalog, SplittableRandom random, String clientId) {
+            String franchiseId = catalog.randomFranchise(random);
+            return api.send(HttpMethod.POST, FranchiseApiClient.BASE_PATH + "/" + franchiseId + "/branches", JSON,
+                            "{\"name\": \"Sucursal carga " + random.nextInt(1_000_000) + "\"}", clientId, true)
+                    .doOnNext(response -> {
+                        if (response.isSuccess()) {
+                            catalog.addBranch(franchiseId, api.id(response));
+                        }
+                    });
+        }
+    },
+
+    ADD_PRODUCT {
+        @Override
+        Mono<FranchiseApiClient.Response> call(FranchiseApiClient api, Catalog catalog, SplittableRandom random, String clientId) {
+            Catalog.BranchRef branch = catalog.randomBranch(random);
+            String uri = FranchiseApiClient.BASE_PATH + "/" + branch.franchiseId() + "/branches/" + branch.branchId() + "/products";
+            String body = "{\"name\": \"Producto carga " + random.nextInt(1_000_000) + "\", \"stockQuantity\": " + random.nextInt(500) + "}";
+            return api.send(HttpMethod.POST, uri, JSON, body, clientId, true)
+                    .doOnNext(response -> {
+                        if (response.isSuccess()) {
+                            catalog.addProduct(branch.franchiseId(), branch.branchId(), api.id(response));
+                        }
+                    });
+        }
+    },
+
+    IMPORT_PRODUCTS {
+        @Override
+        Mono<FranchiseApiClient.Response> call(FranchiseApiClient api, Catalog catalog, SplittableRandom random, String clientId) {
+            Catalog.BranchRef branch = catalog.randomBranch(random);
+            StringBuilder body = new StringBuilder(IMPORT_LINES * 80);
+            int batch = random.nextInt(1_000_000);
+            for (int i = 0; i < IMPORT_LINES; i++) {
+                body.append("{\"branchId\": \"").append(branch.branchId())
+                        .append("\", \"name\": \"Importado ").append(batch).append('-').append(i)
+                        .append("\", \"stockQuantity\": ").append(random.nextInt(500)).append("}\n");
+            }
+            return api.send(HttpMethod.POST, FranchiseApiClient.BASE_PATH + "/" + branch.franchiseId() + "/products/import",
+                    NDJSON, body.toString(), clientId, false);
+        }
+    };
+
+    static final String JSON = "application/json";
+    static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Líneas por importación NDJSON (lote típico de un alta de catálogo).
+     */
+    static final int IMPORT_LINES = 50;
+
+    abstract Mono<FranchiseApiClient.Response> call(FranchiseApiClient api, Catalog catalog, SplittableRandom random, String clientId);
+}
@@ -0,0 +1,211 @@
+package com.seti.franchises.loadtest;
+
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo hasta la primera petición correcta (time-to-first-successful-request) de la aplicación en cada modo
+ * de arranque. Por cada modo y ejecución lanza un proceso nuevo, sondea {@code startup.path} cada 10 ms y
+ * mide desde el lanzamiento del proceso hasta la primera respuesta 2xx.
+ * <ul>
+ *   <li>{@code current}: {@code java -jar} del bootJar, como hasta ahora.</li>
+ *   <li>{@code aot}: bootJar extraído con {@code -Dspring.aot.enabled=true}.</li>
+ *   <li>{@code optimized}: igual que {@code aot} más el archivo AppCDS del training run (lo que usa el Dockerfile).</li>
+ * </ul>
+ * La tarea Gradle {@code startupTime} genera el jar, la extracción y el archivo, y pasa {@code -Pstartup.*}.
+ * El endpoint por defecto lee de MongoDB: la URI se indica con {@code startup.args}.
+ */
+public final class StartupTime {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private StartupTime() {
+    }
+
+    /**
+     * Modo de arranque: línea de comandos y directorio de trabajo.
+     */
+    private enum Mode {
+        CURRENT, AOT, OPTIMIZED;
+
+        List<String> command(Settings settings) {
+            List<String> command = new ArrayList<>(List.of(settings.java()));
+            switch (this) {
+                case CURRENT -> command.addAll(List.of("-jar", settings.jar().toString()));
+                case AOT -> command.addAll(List.of("-Dspring.aot.enabled=true", "-jar", "application.jar"));
+                case OPTIMIZED -> command.addAll(List.of("-XX:SharedArchiveFile=application.jsa", "-Xlog:cds=off",
+                        "-Dspring.aot.enabled=true", "-jar", "application.jar"));
+            }
+            return command;
+        }
+
+        /**
+         * El archivo CDS guarda el classpath relativo del training run: se arranca desde el mismo directorio.
+         */
+        Path workingDir(Settings settings) {
+            return this == CURRENT ? settings.jar().getParent() : settings.cdsDir();
+        }
+    }
+
+    /**
+     * @param java    ejecutable java (el del toolchain del build, el mismo que generó el archivo CDS)
+     * @param jar     bootJar (modo current)
+     * @param cdsDir  bootJar extraído con application.jsa (modos aot y optimized)
+     * @param modes   modos a medir, en orden
+     * @param runs    arranques por modo
+     * @param path    petición que debe responder 2xx
+     * @param args    argumentos extra de la aplicación (p. ej. --spring.mongodb.uri=...)
+     * @param timeout tiempo máximo de un arranque
+     * @param output  directorio de resultados (resumen JSON y log de cada arranque)
+     * @param commit  commit medido
+     */
+    private record Settings(String java, Path jar, Path cdsDir, List<Mode> modes, int runs, String path,
+                            List<String> args, Duration timeout, Path output, String commit) {
+
+        static Settings fromSystemProperties() {
+            String args = property("args", "");
+            return new Settings(
+                    property("java", Path.of(System.getProperty("java.home"), "bin", "java").toString()),
+                    Path.of(property("jar", "")).toAbsolutePath(),
+                    Path.of(property("cds-dir", "build/cds")).toAbsolutePath(),
+                    Arrays.stream(property("modes", "current,aot,optimized").split(","))
+                            .map(mode -> Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)))
+                            .toList(),
+                    Integer.parseInt(property("runs", "5")),
+                    property("path", FranchiseApiClient.BASE_PATH),
+                    args.isBlank() ? List.of() : List.of(args.trim().split("\\s+")),
+                    Duration.parse(property("timeout", "PT60S")),
+                    Path.of(property("output", "build/startup")),
+                    property("commit", "unknown"));
+        }
+
+        private static String property(String name, String defaultValue) {
+            String value = System.getProperty("startup." + name);
+            return value == null || value.isBlank() ? defaultValue : value;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        Files.createDirectories(settings.output());
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        Map<String, Object> modes = new LinkedHashMap<>();
+        for (Mode mode : settings.modes()) {
+            long[] millis = new long[settings.runs()];
+            for (int run = 0; run < settings.runs(); run++) {
+                millis[run] = measure(settings, mode, run, http);
+                System.out.printf("%-10s arranque %d: %d ms%n", name(mode), run + 1, millis[run]);
+            }
+            Arrays.sort(millis);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("minMs", millis[0]);
+            result.put("medianMs", millis[millis.length / 2]);
+            result.put("maxMs", millis[millis.length - 1]);
+            result.put("runsMs", millis);
+            modes.put(name(mode), result);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("commit", settings.commit());
+        summary.put("startedAt", Instant.now().toString());
+        summary.put("path", settings.path());
+        summary.put("runs", settings.runs());
+        summary.put("java", Runtime.version().toString());
+        summary.put("cpus", Runtime.getRuntime().availableProcessors());
+        summary.put("modes", modes);
+        Path summaryFile = settings.output().resolve("startup-" + settings.commit() + "-" + Instant.now().getEpochSecond() + ".json");
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(summaryFile.toFile(), summary);
+
+        print(modes);
+        System.out.printf("%nResumen: %s%n", summaryFile);
+    }
+
+    /**
+     * Un arranque: lanza el proceso en un puerto libre y devuelve los ms hasta la primera respuesta 2xx.
+     * El proceso se detiene siempre al terminar.
+     */
+    private static long measure(Settings settings, Mode mode, int run, HttpClient http) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(mode.command(settings));
+        command.add("--server.port=" + port);
+        command.addAll(settings.args());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + settings.path()))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(mode.workingDir(settings).toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(settings.output().resolve(name(mode) + "-" + (run + 1) + ".log").toFile())
+                .start();
+        try {
+            long deadline = start + settings.timeout().toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("La aplicación terminó con código " + process.exitValue()
+                            + " (modo " + name(mode) + "), ver " + settings.output());
+                }
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException notListeningYet) {
+                    // Servidor aún sin escuchar: se reintenta
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            throw new IllegalStateException("Sin respuesta 2xx en " + settings.timeout() + " (modo " + name(mode)
+                    + "), ver " + settings.output());
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String name(Mode mode) {
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> modes) {
+        System.out.printf("%n%-10s %10s %10s %10s %10s%n", "modo", "min ms", "mediana ms", "max ms", "vs current");
+        Object current = modes.get(name(Mode.CURRENT));
+        Long baseline = current == null ? null : (Long) ((Map<String, Object>) current).get("medianMs");
+        modes.forEach((mode, value) -> {
+            Map<String, Object> result = (Map<String, Object>) value;
+            long median = (Long) result.get("medianMs");
+            System.out.printf("%-10s %10d %10d %10d %10s%n", mode, result.get("minMs"), median, result.get("maxMs"),
+                    baseline == null ? "-" : String.format(Locale.ROOT, "%.2fx", (double) baseline / median));
+        });
+    }
+}
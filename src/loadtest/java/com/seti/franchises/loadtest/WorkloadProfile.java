@@ -0,0 +1,73 @@
+package com.seti.franchises.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Mezclas de operaciones (pesos relativos) que imitan el tráfico real.
+ */
+enum WorkloadProfile {
+
+    /**
+     * Paneles de consulta: lecturas de franquicia completa y del producto con más stock.
+     */
+    DASHBOARD(Map.of(
+            Operation.GET_FRANCHISE, 65,
+            Operation.MAX_STOCK, 30,
+            Operation.LIST_FRANCHISES, 5)),
+
+    /**
+     * Caja: ajustes de stock con alguna lectura para refrescar.
+     */
+    CHECKOUT(Map.of(
+            Operation.UPDATE_STOCK, 80,
+            Operation.GET_FRANCHISE, 15,
+            Operation.MAX_STOCK, 5)),
+
+    /**
+     * Alta de clientes: franquicias, sucursales y productos nuevos, en parte por importación NDJSON.
+     */
+    ONBOARDING(Map.of(
+            Operation.ADD_FRANCHISE, 10,
+            Operation.ADD_BRANCH, 25,
+            Operation.ADD_PRODUCT, 35,
+            Operation.IMPORT_PRODUCTS, 30)),
+
+    /**
+     * Día típico: sobre todo lecturas y stock, con algo de alta.
+     */
+    MIXED(Map.of(
+            Operation.GET_FRANCHISE, 45,
+            Operation.MAX_STOCK, 15,
+            Operation.LIST_FRANCHISES, 2,
+            Operation.UPDATE_STOCK, 30,
+            Operation.ADD_BRANCH, 2,
+            Operation.ADD_PRODUCT, 4,
+            Operation.IMPORT_PRODUCTS, 2));
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    WorkloadProfile(Map<Operation, Integer> weights) {
+        // Orden del enum (no el del Map) para que la misma semilla dé siempre la misma secuencia
+        Map<Operation, Integer> ordered = new EnumMap<>(weights);
+        operations = ordered.keySet().toArray(Operation[]::new);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += ordered.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Operation pick(SplittableRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
@@ -0,0 +1,40 @@
+package com.seti.franchises.application.observation;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita las líneas de log de eventos de alto volumen (p. ej. actualizaciones de stock) a
+ * {@code permits} por ventana. Las omitidas se cuentan y se informan en la siguiente línea emitida.
+ * Sin bloqueos: se consulta desde los hilos del event loop.
+ */
+public final class LogRateLimiter {
+
+    private final int permits;
+    private final long windowNanos;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(int permits, Duration window) {
+        this.permits = permits;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * @return -1 si la línea debe omitirse; si no, cuántas se omitieron desde la última emitida
+     */
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permits) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,89 @@
+package com.seti.franchises.application.observation;
+
+import com.seti.franchises.application.service.FranchiseUseCaseService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Observaciones Micrometer sobre publishers de Reactor, compartidas por controlador, casos de uso y
+ * adaptador de persistencia.
+ * <p>
+ * Cada suscripción abre una observación hija de la que haya en el Reactor Context (la del servidor HTTP
+ * o la de la capa superior) y la publica a su vez en el contexto, así los spans de cada capa (y los de
+ * los comandos de MongoDB) quedan anidados sin pasar nada a mano. Al terminar se etiqueta con
+ * {@code outcome} y, con los handlers de Spring Boot, genera un timer con el mismo nombre y un span.
+ */
+public final class ReactiveObservation {
+
+    private ReactiveObservation() {
+    }
+
+    /**
+     * Observa un Mono desde la suscripción hasta su terminación.
+     *
+     * @param registry  registro de observaciones
+     * @param name      nombre de la observación (nombre del timer)
+     * @param key       clave low-cardinality que identifica la operación (p. ej. use_case)
+     * @param operation valor de la clave; también nombra el span ("name operation")
+     */
+    public static <T> Function<Mono<T>, Mono<T>> mono(ObservationRegistry registry, String name, String key, String operation) {
+        return source -> Mono.deferContextual(context -> {
+            Observation observation = start(registry, name, key, operation, context.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+            return source
+                    .doOnSuccess(v -> stop(observation, "success"))
+                    .doOnError(e -> stop(observation, e))
+                    .doOnCancel(() -> stop(observation, "cancelled"))
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Observa un Flux desde la suscripción hasta su terminación (un único span para todo el stream).
+     */
+    public static <T> Function<Flux<T>, Flux<T>> flux(ObservationRegistry registry, String name, String key, String operation) {
+        return source -> Flux.deferContextual(context -> {
+            Observation observation = start(registry, name, key, operation, context.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+            return source
+                    .doOnComplete(() -> stop(observation, "success"))
+                    .doOnError(e -> stop(observation, e))
+                    .doOnCancel(() -> stop(observation, "cancelled"))
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    private static Observation start(ObservationRegistry registry, String name, String key, String operation, Observation parent) {
+        return Observation.createNotStarted(name, registry)
+                .contextualName(name + " " + operation)
+                .lowCardinalityKeyValue(key, operation)
+                .parentObservation(parent)
+                .start();
+    }
+
+    private static void stop(Observation observation, Throwable error) {
+        observation.error(error);
+        stop(observation, outcome(error));
+    }
+
+    private static void stop(Observation observation, String outcome) {
+        observation.lowCardinalityKeyValue("outcome", outcome).stop();
+    }
+
+    static String outcome(Throwable error) {
+        if (error instanceof FranchiseUseCaseService.NotFoundException) {
+            return "not_found";
+        }
+        if (error instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+}
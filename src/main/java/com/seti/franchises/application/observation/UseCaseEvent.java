@@ -0,0 +1,40 @@
+package com.seti.franchises.application.observation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR por ejecución de un caso de uso de {@link com.seti.franchises.application.service.FranchiseUseCaseService}.
+ * La duración es la del propio evento (suscripción → terminación). Se emite con {@link UseCaseEvents}.
+ */
+@Name("com.seti.franchises.UseCase")
+@Label("Franchise Use Case")
+@Category({"Franchises", "Use Cases"})
+@Description("Ejecución de un caso de uso: franquicia, tamaño del agregado y resultado")
+@StackTrace(false)
+public class UseCaseEvent extends jdk.jfr.Event {
+
+    @Label("Use Case")
+    String useCase;
+
+    @Label("Franchise Id")
+    String franchiseId;
+
+    @Label("Branches")
+    @Description("Sucursales del agregado leído o escrito por el caso de uso (-1 si no cargó ninguno)")
+    int branchCount = -1;
+
+    @Label("Products")
+    @Description("Productos del agregado leído o escrito por el caso de uso (-1 si no cargó ninguno)")
+    int productCount = -1;
+
+    @Label("Items")
+    @Description("Elementos emitidos por los casos de uso que devuelven un stream")
+    long items;
+
+    @Label("Outcome")
+    String outcome;
+}
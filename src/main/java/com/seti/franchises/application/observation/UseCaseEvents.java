@@ -0,0 +1,96 @@
+package com.seti.franchises.application.observation;
+
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Operadores que emiten un {@link UseCaseEvent} (JFR) por suscripción a un caso de uso.
+ * <p>
+ * Si no hay ninguna grabación que tenga el evento habilitado, el operador devuelve el publisher sin
+ * tocarlo: coste cero en producción hasta que se arranca una grabación. Con grabación activa el evento
+ * viaja en el Reactor Context para que el repositorio informe el tamaño del agregado que carga o guarda
+ * ({@link #aggregate(Mono)}).
+ */
+public final class UseCaseEvents {
+
+    private UseCaseEvents() {
+    }
+
+    public static <T> Function<Mono<T>, Mono<T>> mono(String useCase, String franchiseId) {
+        return source -> {
+            if (!new UseCaseEvent().isEnabled()) {
+                return source;
+            }
+            return Mono.defer(() -> {
+                UseCaseEvent event = start(useCase, franchiseId);
+                return source
+                        .doOnSuccess(v -> commit(event, "success"))
+                        .doOnError(e -> commit(event, ReactiveObservation.outcome(e)))
+                        .doOnCancel(() -> commit(event, "cancelled"))
+                        .contextWrite(ctx -> ctx.put(UseCaseEvent.class, event));
+            });
+        };
+    }
+
+    public static <T> Function<Flux<T>, Flux<T>> flux(String useCase, String franchiseId) {
+        return source -> {
+            if (!new UseCaseEvent().isEnabled()) {
+                return source;
+            }
+            return Flux.defer(() -> {
+                UseCaseEvent event = start(useCase, franchiseId);
+                return source
+                        .doOnNext(v -> event.items++)
+                        .doOnComplete(() -> commit(event, "success"))
+                        .doOnError(e -> commit(event, ReactiveObservation.outcome(e)))
+                        .doOnCancel(() -> commit(event, "cancelled"))
+                        .contextWrite(ctx -> ctx.put(UseCaseEvent.class, event));
+            });
+        };
+    }
+
+    /**
+     * Anota en el evento del caso de uso en curso (si lo hay) el número de sucursales y productos de la
+     * franquicia emitida. Lo aplican los repositorios en findById y save.
+     */
+    public static Mono<Franchise> aggregate(Mono<Franchise> source) {
+        return source.doOnEach(signal -> {
+            if (signal.isOnNext()) {
+                signal.getContextView().<UseCaseEvent>getOrEmpty(UseCaseEvent.class)
+                        .ifPresent(event -> describe(event, signal.get()));
+            }
+        });
+    }
+
+    private static UseCaseEvent start(String useCase, String franchiseId) {
+        UseCaseEvent event = new UseCaseEvent();
+        event.useCase = useCase;
+        event.franchiseId = franchiseId;
+        event.begin();
+        return event;
+    }
+
+    private static void describe(UseCaseEvent event, Franchise franchise) {
+        List<Branch> branches = franchise.getBranches() != null ? franchise.getBranches() : List.of();
+        if (event.franchiseId == null) {
+            event.franchiseId = franchise.getId();
+        }
+        event.branchCount = branches.size();
+        event.productCount = branches.stream()
+                .mapToInt(b -> b.getProducts() != null ? b.getProducts().size() : 0)
+                .sum();
+    }
+
+    private static void commit(UseCaseEvent event, String outcome) {
+        if (event.outcome != null) {
+            return;
+        }
+        event.outcome = outcome;
+        event.commit();
+    }
+}
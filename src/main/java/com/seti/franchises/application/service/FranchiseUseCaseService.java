@@ -1,9 +1,15 @@
 package com.seti.franchises.application.service;
 
+import com.seti.franchises.application.observation.LogRateLimiter;
+import com.seti.franchises.application.observation.ReactiveObservation;
+import com.seti.franchises.application.observation.UseCaseEvent;
+import com.seti.franchises.application.observation.UseCaseEvents;
 import com.seti.franchises.domain.entity.Branch;
 import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.FranchiseAggregate;
 import com.seti.franchises.domain.entity.Product;
 import com.seti.franchises.domain.port.FranchiseRepository;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,22 +17,67 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuples;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Application service (use cases) for franchise operations.
- * Implements business logic using reactive operators: map, flatMap, switchIfEmpty, zip, onErrorResume.
+ * Implements business logic using reactive operators: map, flatMap, switchIfEmpty, zip.
+ * Errors are signalled with stackless domain exceptions, created lazily (Mono.error(Supplier)) only
+ * when the path is taken; none is shared between requests.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FranchiseUseCaseService {
 
+    /**
+     * Líneas agrupadas por ventana de importación; cada ventana se reparte por sucursal en un solo $push.
+     */
+    static final int IMPORT_BATCH_SIZE = 500;
+
+    /**
+     * Ventanas de importación escribiéndose a la vez (memoria acotada a IMPORT_BATCH_SIZE * concurrencia).
+     */
+    static final int IMPORT_WRITE_CONCURRENCY = 4;
+
+    /**
+     * Escrituras de stock en paralelo dentro de un lote del canal de alta frecuencia.
+     */
+    static final int STOCK_WRITE_CONCURRENCY = 8;
+
+    /**
+     * Las actualizaciones de stock son el evento más frecuente: como mucho 10 líneas por segundo.
+     */
+    private static final LogRateLimiter STOCK_LOG_LIMITER = new LogRateLimiter(10, Duration.ofSeconds(1));
+
+    private static final String FRANCHISE_NAME_REQUIRED = "El nombre de la franquicia es obligatorio";
+    private static final String FRANCHISE_ID_REQUIRED = "El id de la franquicia es obligatorio";
+    private static final String BRANCH_NAME_REQUIRED = "El nombre de la sucursal es obligatorio";
+    private static final String BRANCH_ID_REQUIRED = "El id de la sucursal es obligatorio";
+    private static final String PRODUCT_NAME_REQUIRED = "El nombre del producto es obligatorio";
+    private static final String INVALID_STOCK = "El stock debe ser un número mayor o igual a 0";
+    private static final String INVALID_QUANTITY = "La cantidad debe ser un número mayor que 0";
+
+    /**
+     * Observación por caso de uso (tags use_case y outcome): span + timer; percentiles/histograma en
+     * application.properties.
+     */
+    static final String USE_CASE_OBSERVATION = "franchises.usecase";
+
     private final FranchiseRepository franchiseRepository;
+    private final ObservationRegistry observationRegistry;
 
     /**
      * Add a new franchise (POST agregar franquicia).
@@ -34,99 +85,71 @@ public class FranchiseUseCaseService {
     public Mono<Franchise> addFranchise(String name) {
         return Mono.justOrEmpty(name)
                 .filter(n -> n != null && !n.isBlank())
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("El nombre de la franquicia es obligatorio")))
+                .switchIfEmpty(Mono.error(() -> new ValidationException(FRANCHISE_NAME_REQUIRED)))
                 .map(n -> Franchise.builder()
                         .name(n.trim())
                         .branches(List.of())
                         .build())
                 .flatMap(franchiseRepository::save)
                 .doOnNext(f -> log.info("Franquicia creada: id={}, name={}", f.getId(), f.getName()))
-                .onErrorResume(IllegalArgumentException.class, e -> Mono.error(e));
+                .transform(observed("addFranchise", null));
     }
 
     /**
      * Add a branch to a franchise (POST agregar sucursal a una franquicia).
+     * Appended with a targeted $push: the rest of the franchise (stock included) is not rewritten.
      */
     public Mono<Branch> addBranchToFranchise(String franchiseId, String branchName) {
         return Mono.justOrEmpty(franchiseId)
-                .filter(id -> id != null && !id.isBlank())
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("El id de la franquicia es obligatorio")))
-                .flatMap(franchiseRepository::findById)
-                .switchIfEmpty(Mono.error(new NotFoundException("Franquicia no encontrada: " + franchiseId)))
-                .zipWith(Mono.justOrEmpty(branchName)
-                        .filter(n -> n != null && !n.isBlank())
-                        .switchIfEmpty(Mono.error(new IllegalArgumentException("El nombre de la sucursal es obligatorio"))))
-                .map(tuple -> {
-                    Franchise f = tuple.getT1();
-                    String name = tuple.getT2().trim();
-                    Branch newBranch = Branch.builder()
-                            .id(UUID.randomUUID().toString())
-                            .name(name)
-                            .products(List.of())
-                            .build();
-                    List<Branch> updated = Optional.ofNullable(f.getBranches()).orElse(List.of()).stream()
-                            .collect(Collectors.toList());
-                    updated.add(newBranch);
-                    return Franchise.builder()
-                            .id(f.getId())
-                            .name(f.getName())
-                            .branches(updated)
-                            .build();
-                })
-                .flatMap(franchiseRepository::save)
-                .map(saved -> saved.getBranches().stream()
-                        .filter(b -> b.getName().equals(branchName.trim()))
-                        .findFirst()
-                        .orElseThrow())
+                .filter(id -> !id.isBlank())
+                .switchIfEmpty(Mono.error(() -> new ValidationException(FRANCHISE_ID_REQUIRED)))
+                .flatMap(id -> Mono.justOrEmpty(branchName)
+                        .filter(n -> !n.isBlank())
+                        .switchIfEmpty(Mono.error(() -> new ValidationException(BRANCH_NAME_REQUIRED))))
+                .map(name -> Branch.builder()
+                        .id(UUID.randomUUID().toString())
+                        .name(name.trim())
+                        .products(List.of())
+                        .build())
+                .flatMap(branch -> franchiseRepository.addBranch(franchiseId, branch)
+                        .filter(Boolean::booleanValue)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                        .thenReturn(branch))
                 .doOnNext(b -> log.info("Sucursal agregada: franchiseId={}, branchId={}", franchiseId, b.getId()))
-                .onErrorResume(NotFoundException.class, e -> Mono.error(e))
-                .onErrorResume(IllegalArgumentException.class, e -> Mono.error(e));
+                .transform(observed("addBranchToFranchise", franchiseId));
     }
 
     /**
      * Add a product to a branch (POST agregar producto a una sucursal).
+     * Appended with a targeted $push: the stock of the other products is not rewritten.
      */
     public Mono<Product> addProductToBranch(String franchiseId, String branchId, String productName, Integer stockQuantity) {
         if (branchId == null || branchId.isBlank()) {
-            return Mono.error(new IllegalArgumentException("El id de la sucursal es obligatorio"));
+            return Mono.error(() -> new ValidationException(BRANCH_ID_REQUIRED));
         }
         Integer stock = Optional.ofNullable(stockQuantity).filter(q -> q >= 0).orElse(0);
-        String pname = Optional.ofNullable(productName).map(String::trim).filter(n -> !n.isBlank())
-                .orElseThrow(() -> new IllegalArgumentException("El nombre del producto es obligatorio"));
+        String pname = Optional.ofNullable(productName).map(String::trim).filter(n -> !n.isBlank()).orElse(null);
+        if (pname == null) {
+            return Mono.error(() -> new ValidationException(PRODUCT_NAME_REQUIRED));
+        }
         return Mono.justOrEmpty(franchiseId)
-                .flatMap(franchiseRepository::findById)
-                .switchIfEmpty(Mono.error(new NotFoundException("Franquicia no encontrada: " + franchiseId)))
-                .map(f -> {
-                    Optional<Branch> branchOpt = f.getBranches().stream().filter(b -> branchId.equals(b.getId())).findFirst();
-                    if (branchOpt.isEmpty()) {
-                        throw new NotFoundException("Sucursal no encontrada: " + branchId);
-                    }
-                    Branch branch = branchOpt.get();
-                    Product newProduct = Product.builder()
-                            .id(UUID.randomUUID().toString())
-                            .name(pname)
-                            .stockQuantity(stock)
-                            .enabled(true)
-                            .build();
-                    List<Product> updatedProducts = Optional.ofNullable(branch.getProducts()).orElse(List.of()).stream()
-                            .collect(Collectors.toList());
-                    updatedProducts.add(newProduct);
-                    List<Branch> updatedBranches = f.getBranches().stream()
-                            .map(b -> b.getId().equals(branchId)
-                                    ? Branch.builder().id(b.getId()).name(b.getName()).products(updatedProducts).build()
-                                    : b)
-                            .collect(Collectors.toList());
-                    Franchise toSave = Franchise.builder()
-                            .id(f.getId())
-                            .name(f.getName())
-                            .branches(updatedBranches)
-                            .build();
-                    return Tuples.of(toSave, newProduct);
-                })
-                .flatMap(pair -> franchiseRepository.save(pair.getT1()).thenReturn(pair.getT2()))
+                .flatMap(franchiseRepository::findAggregateById)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                .filter(f -> f.hasBranch(branchId))
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Sucursal no encontrada: " + branchId)))
+                .map(f -> Product.builder()
+                        .id(UUID.randomUUID().toString())
+                        .name(pname)
+                        .stockQuantity(stock)
+                        .enabled(true)
+                        .build())
+                // addProductsToBranch solo casa si la sucursal existe: cubre un borrado concurrente
+                .flatMap(newProduct -> franchiseRepository.addProductsToBranch(franchiseId, branchId, List.of(newProduct))
+                        .filter(Boolean::booleanValue)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Sucursal no encontrada: " + branchId)))
+                        .thenReturn(newProduct))
                 .doOnNext(p -> log.info("Producto agregado: franchiseId={}, branchId={}, productId={}", franchiseId, branchId, p.getId()))
-                .onErrorResume(NotFoundException.class, e -> Mono.error(e))
-                .onErrorResume(IllegalArgumentException.class, e -> Mono.error(e));
+                .transform(observed("addProductToBranch", franchiseId));
     }
 
     /**
@@ -135,71 +158,43 @@ public class FranchiseUseCaseService {
      */
     public Mono<Product> disableProductInBranch(String franchiseId, String branchId, String productId) {
         return Mono.justOrEmpty(franchiseId)
-                .flatMap(franchiseRepository::findById)
-                .switchIfEmpty(Mono.error(new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                .flatMap(franchiseRepository::findAggregateById)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
                 .map(f -> {
-                    Branch branch = f.getBranches().stream().filter(b -> branchId.equals(b.getId())).findFirst().orElse(null);
-                    if (branch == null) {
-                        throw new NotFoundException("Sucursal no encontrada: " + branchId);
-                    }
-                    Product product = branch.getProducts().stream().filter(p -> productId.equals(p.getId())).findFirst().orElse(null);
-                    if (product == null) {
-                        throw new NotFoundException("Producto no encontrado: " + productId);
-                    }
-                    Product disabled = Product.builder()
+                    Product product = requireProduct(f, branchId, productId);
+                    return Product.builder()
                             .id(product.getId())
                             .name(product.getName())
                             .stockQuantity(product.getStockQuantity())
                             .enabled(false)
+                            .disabledAt(Boolean.FALSE.equals(product.getEnabled()) && product.getDisabledAt() != null
+                                    ? product.getDisabledAt()
+                                    : Instant.now())
                             .build();
-                    List<Product> updatedProducts = branch.getProducts().stream()
-                            .map(p -> p.getId().equals(productId) ? disabled : p)
-                            .collect(Collectors.toList());
-                    List<Branch> updatedBranches = f.getBranches().stream()
-                            .map(b -> b.getId().equals(branchId)
-                                    ? Branch.builder().id(branch.getId()).name(branch.getName()).products(updatedProducts).build()
-                                    : b)
-                            .collect(Collectors.toList());
-                    return Tuples.of(Franchise.builder()
-                            .id(f.getId())
-                            .name(f.getName())
-                            .branches(updatedBranches)
-                            .build(), disabled);
                 })
-                .flatMap(pair -> franchiseRepository.save(pair.getT1()).thenReturn(pair.getT2()))
+                .flatMap(disabled -> franchiseRepository.disableProduct(franchiseId, branchId, productId, disabled.getDisabledAt())
+                        .filter(Boolean::booleanValue)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Producto no encontrado: " + productId)))
+                        .thenReturn(disabled))
                 .doOnNext(p -> log.info("Producto deshabilitado (borrado lógico): franchiseId={}, branchId={}, productId={}", franchiseId, branchId, productId))
-                .onErrorResume(NotFoundException.class, e -> Mono.error(e));
+                .transform(observed("disableProductInBranch", franchiseId));
     }
 
     /**
-     * Delete a product from a branch (DELETE eliminar producto de una sucursal). Physical delete.
+     * Delete a product from a branch (DELETE eliminar producto de una sucursal). Physical delete with a
+     * targeted $pull.
      */
     public Mono<Void> deleteProductFromBranch(String franchiseId, String branchId, String productId) {
         return Mono.justOrEmpty(franchiseId)
-                .flatMap(franchiseRepository::findById)
-                .switchIfEmpty(Mono.error(new NotFoundException("Franquicia no encontrada: " + franchiseId)))
-                .map(f -> {
-                    Branch branch = f.getBranches().stream().filter(b -> branchId.equals(b.getId())).findFirst().orElse(null);
-                    if (branch == null) {
-                        throw new NotFoundException("Sucursal no encontrada: " + branchId);
-                    }
-                    boolean removed = branch.getProducts().removeIf(p -> productId.equals(p.getId()));
-                    if (!removed) {
-                        throw new NotFoundException("Producto no encontrado: " + productId);
-                    }
-                    List<Branch> updated = f.getBranches().stream()
-                            .map(b -> b.getId().equals(branchId) ? branch : b)
-                            .collect(Collectors.toList());
-                    return Franchise.builder()
-                            .id(f.getId())
-                            .name(f.getName())
-                            .branches(updated)
-                            .build();
-                })
-                .flatMap(franchiseRepository::save)
+                .flatMap(franchiseRepository::findAggregateById)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                .map(f -> requireProduct(f, branchId, productId))
+                .flatMap(product -> franchiseRepository.removeProduct(franchiseId, branchId, productId)
+                        .filter(Boolean::booleanValue)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Producto no encontrado: " + productId))))
                 .then()
                 .doOnSuccess(v -> log.info("Producto eliminado: franchiseId={}, branchId={}, productId={}", franchiseId, branchId, productId))
-                .onErrorResume(NotFoundException.class, e -> Mono.error(e));
+                .transform(observed("deleteProductFromBranch", franchiseId));
     }
 
     /**
@@ -208,51 +203,68 @@ public class FranchiseUseCaseService {
     public Mono<Product> updateProductStock(String franchiseId, String branchId, String productId, Integer newStock) {
         return Mono.justOrEmpty(newStock)
                 .filter(q -> q != null && q >= 0)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("El stock debe ser un número mayor o igual a 0")))
+                .switchIfEmpty(Mono.error(() -> new ValidationException(INVALID_STOCK)))
                 .flatMap(stock -> Mono.justOrEmpty(franchiseId)
-                        .flatMap(franchiseRepository::findById)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                        .flatMap(franchiseRepository::findAggregateById)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
                         .map(f -> {
-                            Branch branch = f.getBranches().stream().filter(b -> branchId.equals(b.getId())).findFirst().orElse(null);
-                            if (branch == null) {
-                                throw new NotFoundException("Sucursal no encontrada: " + branchId);
-                            }
-                            Product product = branch.getProducts().stream().filter(p -> productId.equals(p.getId())).findFirst().orElse(null);
-                            if (product == null) {
-                                throw new NotFoundException("Producto no encontrado: " + productId);
-                            }
+                            Product product = requireProduct(f, branchId, productId);
                             if (Boolean.FALSE.equals(product.getEnabled())) {
                                 throw new NotFoundException("Producto deshabilitado (borrado lógico): " + productId);
                             }
-                            Product updatedProduct = Product.builder()
+                            return Product.builder()
                                     .id(product.getId())
                                     .name(product.getName())
                                     .stockQuantity(stock)
                                     .enabled(product.getEnabled())
                                     .build();
-                            List<Product> updatedProducts = branch.getProducts().stream()
-                                    .map(p -> p.getId().equals(productId) ? updatedProduct : p)
-                                    .collect(Collectors.toList());
-                            List<Branch> updatedBranches = f.getBranches().stream()
-                                    .map(b -> b.getId().equals(branchId)
-                                            ? Branch.builder().id(branch.getId()).name(branch.getName()).products(updatedProducts).build()
-                                            : b)
-                                    .collect(Collectors.toList());
-                            return Franchise.builder()
-                                    .id(f.getId())
-                                    .name(f.getName())
-                                    .branches(updatedBranches)
-                                    .build();
                         })
-                        .flatMap(franchiseRepository::save)
-                        .flatMap(saved -> {
-                            Branch b = saved.getBranches().stream().filter(x -> x.getId().equals(branchId)).findFirst().orElse(null);
-                            if (b == null) return Mono.<Product>empty();
-                            return Mono.justOrEmpty(b.getProducts().stream().filter(p -> p.getId().equals(productId)).findFirst().orElse(null));
-                        }))
-                .doOnNext(p -> log.info("Stock actualizado: productId={}, newStock={}", productId, newStock))
-                .onErrorResume(NotFoundException.class, e -> Mono.error(e))
-                .onErrorResume(IllegalArgumentException.class, e -> Mono.error(e));
+                        // setProductStock solo casa productos habilitados: cubre un borrado concurrente
+                        .flatMap(updated -> franchiseRepository.setProductStock(franchiseId, branchId, productId, stock)
+                                .filter(Boolean::booleanValue)
+                                .switchIfEmpty(Mono.error(() -> new NotFoundException("Producto no encontrado: " + productId)))
+                                .thenReturn(updated)))
+                .doOnNext(p -> {
+                    long skipped = STOCK_LOG_LIMITER.tryAcquire();
+                    if (skipped >= 0) {
+                        log.info("Stock actualizado: productId={}, newStock={}, omitidos={}", productId, newStock, skipped);
+                    }
+                })
+                .transform(observed("updateProductStock", franchiseId));
+    }
+
+    /**
+     * Decrement product stock (venta desde un terminal): atomic in the repository and never below zero.
+     * On failure the product is read to tell 404 (missing or disabled) from 409 (insufficient stock);
+     * on success it is read again so the response carries the stock left.
+     */
+    public Mono<Product> decrementProductStock(String franchiseId, String branchId, String productId, Integer quantity) {
+        return Mono.justOrEmpty(quantity)
+                .filter(q -> q > 0)
+                .switchIfEmpty(Mono.error(() -> new ValidationException(INVALID_QUANTITY)))
+                .flatMap(q -> franchiseRepository.decrementProductStock(franchiseId, branchId, productId, q)
+                        .flatMap(decremented -> Mono.justOrEmpty(franchiseId)
+                                .flatMap(franchiseRepository::findAggregateById)
+                                .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                                .map(f -> {
+                                    Product product = requireProduct(f, branchId, productId);
+                                    if (Boolean.FALSE.equals(product.getEnabled())) {
+                                        throw new NotFoundException("Producto deshabilitado (borrado lógico): " + productId);
+                                    }
+                                    if (!decremented) {
+                                        throw new InsufficientStockException("Stock insuficiente: productId=" + productId
+                                                + ", disponible=" + product.getStockQuantity() + ", solicitado=" + q);
+                                    }
+                                    return product;
+                                })))
+                .doOnNext(p -> {
+                    long skipped = STOCK_LOG_LIMITER.tryAcquire();
+                    if (skipped >= 0) {
+                        log.info("Stock decrementado: productId={}, cantidad={}, stock={}, omitidos={}",
+                                productId, quantity, p.getStockQuantity(), skipped);
+                    }
+                })
+                .transform(observed("decrementProductStock", franchiseId));
     }
 
     /**
@@ -262,7 +274,7 @@ public class FranchiseUseCaseService {
     public Flux<ProductWithBranchDto> getProductWithMostStockPerBranch(String franchiseId) {
         return Mono.justOrEmpty(franchiseId)
                 .flatMap(franchiseRepository::findById)
-                .switchIfEmpty(Mono.error(new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
                 .flatMapMany(franchise -> Flux.fromIterable(franchise.getBranches())
                         .map(branch -> {
                             Product maxProduct = branch.getProducts().stream()
@@ -273,28 +285,31 @@ public class FranchiseUseCaseService {
                         })
                         .filter(dto -> dto.getProduct() != null))
                 .doOnComplete(() -> log.debug("Consulta producto con más stock por sucursal: franchiseId={}", franchiseId))
-                .onErrorResume(NotFoundException.class, e -> Mono.error(e));
+                .transform(observedMany("getProductWithMostStockPerBranch", franchiseId));
     }
 
     /**
-     * Update franchise name (punto extra).
+     * Update franchise name (punto extra). Targeted $set of the name; the response carries the
+     * branches read before the update.
      */
     public Mono<Franchise> updateFranchiseName(String franchiseId, String newName) {
         return Mono.justOrEmpty(newName)
                 .filter(n -> n != null && !n.isBlank())
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("El nombre de la franquicia es obligatorio")))
+                .switchIfEmpty(Mono.error(() -> new ValidationException(FRANCHISE_NAME_REQUIRED)))
                 .flatMap(name -> Mono.justOrEmpty(franchiseId)
                         .flatMap(franchiseRepository::findById)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
                         .map(f -> Franchise.builder()
                                 .id(f.getId())
                                 .name(name.trim())
                                 .branches(f.getBranches())
                                 .build())
-                        .flatMap(franchiseRepository::save))
+                        .flatMap(updated -> franchiseRepository.setFranchiseName(franchiseId, updated.getName())
+                                .filter(Boolean::booleanValue)
+                                .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                                .thenReturn(updated)))
                 .doOnNext(f -> log.info("Nombre de franquicia actualizado: id={}, name={}", f.getId(), f.getName()))
-                .onErrorResume(NotFoundException.class, e -> Mono.error(e))
-                .onErrorResume(IllegalArgumentException.class, e -> Mono.error(e));
+                .transform(observed("updateFranchiseName", franchiseId));
     }
 
     /**
@@ -303,36 +318,25 @@ public class FranchiseUseCaseService {
     public Mono<Branch> updateBranchName(String franchiseId, String branchId, String newName) {
         return Mono.justOrEmpty(newName)
                 .filter(n -> n != null && !n.isBlank())
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("El nombre de la sucursal es obligatorio")))
+                .switchIfEmpty(Mono.error(() -> new ValidationException(BRANCH_NAME_REQUIRED)))
                 .flatMap(name -> Mono.justOrEmpty(franchiseId)
-                        .flatMap(franchiseRepository::findById)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                        .flatMap(franchiseRepository::findAggregateById)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
                         .map(f -> {
-                            Branch branch = f.getBranches().stream().filter(b -> branchId.equals(b.getId())).findFirst().orElse(null);
-                            if (branch == null) {
-                                throw new NotFoundException("Sucursal no encontrada: " + branchId);
-                            }
-                            Branch updated = Branch.builder()
+                            Branch branch = f.findBranch(branchId)
+                                    .orElseThrow(() -> new NotFoundException("Sucursal no encontrada: " + branchId));
+                            return Branch.builder()
                                     .id(branch.getId())
                                     .name(name.trim())
                                     .products(branch.getProducts())
                                     .build();
-                            List<Branch> updatedBranches = f.getBranches().stream()
-                                    .map(b -> b.getId().equals(branchId) ? updated : b)
-                                    .collect(Collectors.toList());
-                            return Franchise.builder()
-                                    .id(f.getId())
-                                    .name(f.getName())
-                                    .branches(updatedBranches)
-                                    .build();
                         })
-                        .flatMap(franchiseRepository::save)
-                        .flatMap(saved -> Mono.justOrEmpty(saved.getBranches().stream()
-                                .filter(b -> b.getId().equals(branchId))
-                                .findFirst().orElse(null))))
+                        .flatMap(updated -> franchiseRepository.setBranchName(franchiseId, branchId, updated.getName())
+                                .filter(Boolean::booleanValue)
+                                .switchIfEmpty(Mono.error(() -> new NotFoundException("Sucursal no encontrada: " + branchId)))
+                                .thenReturn(updated)))
                 .doOnNext(b -> log.info("Nombre de sucursal actualizado: branchId={}, name={}", b.getId(), b.getName()))
-                .onErrorResume(NotFoundException.class, e -> Mono.error(e))
-                .onErrorResume(IllegalArgumentException.class, e -> Mono.error(e));
+                .transform(observed("updateBranchName", franchiseId));
     }
 
     /**
@@ -341,59 +345,306 @@ public class FranchiseUseCaseService {
     public Mono<Product> updateProductName(String franchiseId, String branchId, String productId, String newName) {
         return Mono.justOrEmpty(newName)
                 .filter(n -> n != null && !n.isBlank())
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("El nombre del producto es obligatorio")))
+                .switchIfEmpty(Mono.error(() -> new ValidationException(PRODUCT_NAME_REQUIRED)))
                 .flatMap(name -> Mono.justOrEmpty(franchiseId)
-                        .flatMap(franchiseRepository::findById)
-                        .switchIfEmpty(Mono.error(new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                        .flatMap(franchiseRepository::findAggregateById)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
                         .map(f -> {
-                            Branch branch = f.getBranches().stream().filter(b -> branchId.equals(b.getId())).findFirst().orElse(null);
-                            if (branch == null) {
-                                throw new NotFoundException("Sucursal no encontrada: " + branchId);
-                            }
-                            Product product = branch.getProducts().stream().filter(p -> productId.equals(p.getId())).findFirst().orElse(null);
-                            if (product == null) {
-                                throw new NotFoundException("Producto no encontrado: " + productId);
-                            }
+                            Product product = requireProduct(f, branchId, productId);
                             if (Boolean.FALSE.equals(product.getEnabled())) {
                                 throw new NotFoundException("Producto deshabilitado (borrado lógico): " + productId);
                             }
-                            Product updatedProduct = Product.builder()
+                            return Product.builder()
                                     .id(product.getId())
                                     .name(name.trim())
                                     .stockQuantity(product.getStockQuantity())
                                     .enabled(product.getEnabled())
                                     .build();
-                            List<Product> updatedProducts = branch.getProducts().stream()
-                                    .map(p -> p.getId().equals(productId) ? updatedProduct : p)
-                                    .collect(Collectors.toList());
-                            List<Branch> updatedBranches = f.getBranches().stream()
-                                    .map(b -> b.getId().equals(branchId)
-                                            ? Branch.builder().id(branch.getId()).name(branch.getName()).products(updatedProducts).build()
-                                            : b)
-                                    .collect(Collectors.toList());
-                            return Franchise.builder()
-                                    .id(f.getId())
-                                    .name(f.getName())
-                                    .branches(updatedBranches)
-                                    .build();
                         })
-                        .flatMap(franchiseRepository::save)
-                        .flatMap(saved -> {
-                            Branch b = saved.getBranches().stream().filter(x -> x.getId().equals(branchId)).findFirst().orElse(null);
-                            if (b == null) return Mono.<Product>empty();
-                            return Mono.justOrEmpty(b.getProducts().stream().filter(p -> p.getId().equals(productId)).findFirst().orElse(null));
-                        }))
+                        // setProductName solo casa productos habilitados: cubre un borrado concurrente
+                        .flatMap(updated -> franchiseRepository.setProductName(franchiseId, branchId, productId, updated.getName())
+                                .filter(Boolean::booleanValue)
+                                .switchIfEmpty(Mono.error(() -> new NotFoundException("Producto no encontrado: " + productId)))
+                                .thenReturn(updated)))
                 .doOnNext(p -> log.info("Nombre de producto actualizado: productId={}, name={}", p.getId(), p.getName()))
-                .onErrorResume(NotFoundException.class, e -> Mono.error(e))
-                .onErrorResume(IllegalArgumentException.class, e -> Mono.error(e));
+                .transform(observed("updateProductName", franchiseId));
+    }
+
+    /**
+     * Bulk import of products into a franchise (carga masiva NDJSON).
+     * Commands are consumed incrementally in windows of IMPORT_BATCH_SIZE, grouped by branch and appended
+     * with one atomic write per branch, with at most IMPORT_WRITE_CONCURRENCY windows in flight.
+     * Emits one ERROR event per rejected line, one PROGRESS event per written batch and a final SUMMARY.
+     */
+    public Flux<ImportEventDto> importProducts(String franchiseId, Flux<ProductImportCommand> commands) {
+        return Mono.justOrEmpty(franchiseId)
+                .filter(id -> !id.isBlank())
+                .switchIfEmpty(Mono.error(() -> new ValidationException(FRANCHISE_ID_REQUIRED)))
+                .flatMap(franchiseRepository::existsById)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                .flatMapMany(exists -> Flux.defer(() -> {
+                    AtomicLong imported = new AtomicLong();
+                    AtomicLong failed = new AtomicLong();
+                    Flux<ImportEventDto> events = commands
+                            .buffer(IMPORT_BATCH_SIZE)
+                            .flatMap(window -> importWindow(franchiseId, window), IMPORT_WRITE_CONCURRENCY)
+                            .doOnNext(event -> {
+                                if (event.getType() == ImportEventType.ERROR) {
+                                    failed.incrementAndGet();
+                                } else {
+                                    event.setImported(imported.addAndGet(event.getCount()));
+                                }
+                            });
+                    return events.concatWith(Mono.fromSupplier(() -> ImportEventDto.builder()
+                            .type(ImportEventType.SUMMARY)
+                            .imported(imported.get())
+                            .failed(failed.get())
+                            .build()));
+                }))
+                .doOnComplete(() -> log.info("Importación completada: franchiseId={}", franchiseId))
+                .transform(observedMany("importProducts", franchiseId));
+    }
+
+    private Flux<ImportEventDto> importWindow(String franchiseId, List<ProductImportCommand> window) {
+        List<ImportEventDto> rejected = new ArrayList<>();
+        Map<String, List<ProductImportCommand>> byBranch = new LinkedHashMap<>();
+        for (ProductImportCommand command : window) {
+            String error = validateImportCommand(command);
+            if (error != null) {
+                rejected.add(ImportEventDto.error(command.getLine(), error));
+            } else {
+                byBranch.computeIfAbsent(command.getBranchId(), k -> new ArrayList<>()).add(command);
+            }
+        }
+        return Flux.fromIterable(rejected)
+                .concatWith(Flux.fromIterable(byBranch.entrySet())
+                        .concatMap(entry -> writeImportBatch(franchiseId, entry.getKey(), entry.getValue())));
+    }
+
+    private Flux<ImportEventDto> writeImportBatch(String franchiseId, String branchId, List<ProductImportCommand> batch) {
+        List<Product> products = batch.stream()
+                .map(command -> Product.builder()
+                        .id(UUID.randomUUID().toString())
+                        .name(command.getName().trim())
+                        .stockQuantity(Optional.ofNullable(command.getStockQuantity()).orElse(0))
+                        .enabled(true)
+                        .build())
+                .collect(Collectors.toList());
+        return franchiseRepository.addProductsToBranch(franchiseId, branchId, products)
+                .flatMapMany(matched -> matched
+                        ? Flux.just(ImportEventDto.builder()
+                                .type(ImportEventType.PROGRESS)
+                                .branchId(branchId)
+                                .count(products.size())
+                                .build())
+                        : Flux.fromIterable(batch)
+                                .map(command -> ImportEventDto.error(command.getLine(), "Sucursal no encontrada: " + branchId)));
+    }
+
+    private static String validateImportCommand(ProductImportCommand command) {
+        if (command.getError() != null) {
+            return command.getError();
+        }
+        if (command.getBranchId() == null || command.getBranchId().isBlank()) {
+            return "El id de la sucursal es obligatorio";
+        }
+        if (command.getName() == null || command.getName().isBlank()) {
+            return "El nombre del producto es obligatorio";
+        }
+        if (command.getStockQuantity() != null && command.getStockQuantity() < 0) {
+            return "El stock no puede ser negativo";
+        }
+        return null;
+    }
+
+    /**
+     * Applies a batch of stock updates from the streaming channel (WebSocket).
+     * Updates to the same product inside the batch are coalesced (last one wins, stock is a "set"),
+     * distinct products are written in parallel with one atomic update each.
+     * Emits one result per command, in the order received.
+     */
+    public Flux<StockUpdateResultDto> applyStockUpdates(List<StockUpdateCommand> batch) {
+        Map<String, StockUpdateCommand> latest = new LinkedHashMap<>();
+        for (StockUpdateCommand command : batch) {
+            if (validateStockCommand(command) == null) {
+                latest.put(stockKey(command), command);
+            }
+        }
+        return Flux.fromIterable(latest.entrySet())
+                .flatMap(entry -> franchiseRepository.setProductStock(entry.getValue().getFranchiseId(),
+                                entry.getValue().getBranchId(), entry.getValue().getProductId(), entry.getValue().getStockQuantity())
+                        .map(matched -> Tuples.of(entry.getKey(), matched)), STOCK_WRITE_CONCURRENCY)
+                .collectMap(tuple -> tuple.getT1(), tuple -> tuple.getT2())
+                .flatMapIterable(matchedByKey -> batch.stream()
+                        .map(command -> {
+                            String error = validateStockCommand(command);
+                            if (error != null) {
+                                return new StockUpdateResultDto(command.getSeq(), StockUpdateStatus.INVALID, null, error);
+                            }
+                            return Boolean.TRUE.equals(matchedByKey.get(stockKey(command)))
+                                    ? new StockUpdateResultDto(command.getSeq(), StockUpdateStatus.OK, command.getStockQuantity(), null)
+                                    : new StockUpdateResultDto(command.getSeq(), StockUpdateStatus.NOT_FOUND, null,
+                                            "Producto no encontrado: " + command.getProductId());
+                        })
+                        .collect(Collectors.toList()))
+                .doOnComplete(() -> log.debug("Lote de stock aplicado: comandos={}, escrituras={}", batch.size(), latest.size()))
+                .transform(observedMany("applyStockUpdates", null));
+    }
+
+    /**
+     * Producto (habilitado o no) de la sucursal; solo decodifica ese producto del agregado.
+     */
+    private static Product requireProduct(FranchiseAggregate franchise, String branchId, String productId) {
+        return franchise.findProduct(branchId, productId).orElseThrow(() -> franchise.hasBranch(branchId)
+                ? new NotFoundException("Producto no encontrado: " + productId)
+                : new NotFoundException("Sucursal no encontrada: " + branchId));
+    }
+
+    private static String stockKey(StockUpdateCommand command) {
+        return command.getFranchiseId() + '/' + command.getBranchId() + '/' + command.getProductId();
+    }
+
+    private static String validateStockCommand(StockUpdateCommand command) {
+        if (command.getFranchiseId() == null || command.getBranchId() == null || command.getProductId() == null) {
+            return "franchiseId, branchId y productId son obligatorios";
+        }
+        if (command.getStockQuantity() == null || command.getStockQuantity() < 0) {
+            return "El stock debe ser un número mayor o igual a 0";
+        }
+        return null;
+    }
+
+    /**
+     * Observación Micrometer + evento JFR {@link UseCaseEvent} (solo si hay una grabación activa).
+     */
+    private <T> Function<Mono<T>, Mono<T>> observed(String useCase, String franchiseId) {
+        Function<Mono<T>, Mono<T>> observation = ReactiveObservation.mono(observationRegistry, USE_CASE_OBSERVATION, "use_case", useCase);
+        return source -> source.transform(UseCaseEvents.mono(useCase, franchiseId)).transform(observation);
+    }
+
+    private <T> Function<Flux<T>, Flux<T>> observedMany(String useCase, String franchiseId) {
+        Function<Flux<T>, Flux<T>> observation = ReactiveObservation.flux(observationRegistry, USE_CASE_OBSERVATION, "use_case", useCase);
+        return source -> source.transform(UseCaseEvents.flux(useCase, franchiseId)).transform(observation);
     }
 
     public Mono<Franchise> findById(String id) {
-        return franchiseRepository.findById(id);
+        return franchiseRepository.findById(id)
+                .transform(observed("findById", id));
+    }
+
+    /**
+     * Franquicia en su forma BSON almacenada, sin decodificar (lectura de paso para la respuesta JSON).
+     */
+    public Mono<ByteBuffer> findBsonById(String id) {
+        return franchiseRepository.findBsonById(id)
+                .transform(observed("findBsonById", id));
     }
 
     public Flux<Franchise> findAll() {
-        return franchiseRepository.findAll();
+        return franchiseRepository.findAll()
+                .transform(observedMany("findAll", null));
+    }
+
+    /**
+     * Full catalog export: one entry per product (franchise + branch + product).
+     * Entries are emitted lazily franchise by franchise, so the consumer's demand drives the Mongo cursor.
+     */
+    public Flux<CatalogEntryDto> exportCatalog() {
+        return franchiseRepository.findAll()
+                .concatMap(franchise -> Flux.fromIterable(Optional.ofNullable(franchise.getBranches()).orElse(List.of()))
+                        .concatMap(branch -> Flux.fromIterable(Optional.ofNullable(branch.getProducts()).orElse(List.of()))
+                                .map(product -> new CatalogEntryDto(franchise.getId(), franchise.getName(),
+                                        branch.getId(), branch.getName(), product))))
+                .doOnComplete(() -> log.debug("Exportación de catálogo completada"))
+                .transform(observedMany("exportCatalog", null));
+    }
+
+    /**
+     * DTO for a catalog export entry (franquicia + sucursal + producto).
+     */
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    @lombok.NoArgsConstructor
+    @lombok.Builder
+    public static class CatalogEntryDto {
+        private String franchiseId;
+        private String franchiseName;
+        private String branchId;
+        private String branchName;
+        private Product product;
+    }
+
+    /**
+     * Command for one line of a bulk import. {@code error} is set when the line could not be parsed.
+     */
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    @lombok.NoArgsConstructor
+    @lombok.Builder
+    public static class ProductImportCommand {
+        private long line;
+        private String branchId;
+        private String name;
+        private Integer stockQuantity;
+        private String error;
+    }
+
+    public enum ImportEventType {
+        ERROR, PROGRESS, SUMMARY
+    }
+
+    /**
+     * Event streamed back during a bulk import: rejected line, written batch or final summary.
+     */
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    @lombok.NoArgsConstructor
+    @lombok.Builder
+    public static class ImportEventDto {
+        private ImportEventType type;
+        private Long line;
+        private String branchId;
+        private int count;
+        private Long imported;
+        private Long failed;
+        private String message;
+
+        static ImportEventDto error(long line, String message) {
+            return ImportEventDto.builder().type(ImportEventType.ERROR).line(line).message(message).build();
+        }
+    }
+
+    /**
+     * Stock update received over the streaming channel. {@code seq} is the client sequence number.
+     */
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    @lombok.NoArgsConstructor
+    @lombok.Builder
+    public static class StockUpdateCommand {
+        private Long seq;
+        private String franchiseId;
+        private String branchId;
+        private String productId;
+        private Integer stockQuantity;
+    }
+
+    public enum StockUpdateStatus {
+        OK, NOT_FOUND, INVALID
+    }
+
+    /**
+     * Result of one stock update command (ack).
+     */
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    @lombok.NoArgsConstructor
+    public static class StockUpdateResultDto {
+        private Long seq;
+        private StockUpdateStatus status;
+        private Integer stockQuantity;
+        private String message;
     }
 
     /**
@@ -411,10 +662,36 @@ public class FranchiseUseCaseService {
 
     /**
      * Domain exception for 404 (recurso no encontrado).
+     * Stackless: it is an expected outcome, not a bug, so capturing the stack trace is pure overhead.
      */
     public static class NotFoundException extends RuntimeException {
         public NotFoundException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Domain exception for 409 (stock insuficiente para el decremento). Stackless, like NotFoundException.
+     */
+    public static class InsufficientStockException extends RuntimeException {
+        public InsufficientStockException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Domain exception for 400 (datos inválidos). Stackless, but allocated per failure: an
+     * IllegalArgumentException cannot disable suppression, so a shared instance would accumulate
+     * addSuppressed() calls across requests.
+     */
+    public static class ValidationException extends IllegalArgumentException {
+        public ValidationException(String message) {
             super(message);
         }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
     }
 }
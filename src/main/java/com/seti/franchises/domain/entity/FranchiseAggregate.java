@@ -0,0 +1,37 @@
+package com.seti.franchises.domain.entity;
+
+import java.util.Optional;
+
+/**
+ * Read model of a franchise that materializes branches and products on demand.
+ * For use cases that touch a single branch or product: the read cost depends on what is accessed,
+ * not on the size of the franchise. Writes go through the partial updates of the repository port.
+ */
+public interface FranchiseAggregate {
+
+    String getId();
+
+    String getName();
+
+    /**
+     * @return true if the franchise has a branch with that id (without materializing it)
+     */
+    boolean hasBranch(String branchId);
+
+    /**
+     * @return the branch with its products, or empty if it does not exist
+     */
+    Optional<Branch> findBranch(String branchId);
+
+    /**
+     * @return the product (enabled or not), or empty if the branch or the product does not exist
+     */
+    Optional<Product> findProduct(String branchId, String productId);
+
+    /**
+     * Aggregate over an already loaded franchise (nothing left to materialize).
+     */
+    static FranchiseAggregate of(Franchise franchise) {
+        return new LoadedFranchiseAggregate(franchise);
+    }
+}
@@ -0,0 +1,40 @@
+package com.seti.franchises.domain.entity;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+/**
+ * {@link FranchiseAggregate} sobre una franquicia ya cargada en memoria.
+ */
+@RequiredArgsConstructor
+class LoadedFranchiseAggregate implements FranchiseAggregate {
+
+    private final Franchise franchise;
+
+    @Override
+    public String getId() {
+        return franchise.getId();
+    }
+
+    @Override
+    public String getName() {
+        return franchise.getName();
+    }
+
+    @Override
+    public boolean hasBranch(String branchId) {
+        return findBranch(branchId).isPresent();
+    }
+
+    @Override
+    public Optional<Branch> findBranch(String branchId) {
+        return franchise.getBranches().stream().filter(b -> branchId.equals(b.getId())).findFirst();
+    }
+
+    @Override
+    public Optional<Product> findProduct(String branchId, String productId) {
+        return findBranch(branchId)
+                .flatMap(branch -> branch.getProducts().stream().filter(p -> productId.equals(p.getId())).findFirst());
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 /**
  * Domain entity representing a product offered in a branch.
  */
@@ -24,4 +26,10 @@ public class Product {
      */
     @Builder.Default
     private Boolean enabled = true;
+
+    /**
+     * Momento del borrado lógico (null si está habilitado). Cuenta para el periodo de retención
+     * antes de archivar el producto fuera del documento de la franquicia.
+     */
+    private Instant disabledAt;
 }
@@ -1,9 +1,16 @@
 package com.seti.franchises.domain.port;
 
+import com.seti.franchises.domain.entity.Branch;
 import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.FranchiseAggregate;
+import com.seti.franchises.domain.entity.Product;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+
 /**
  * Port (repository interface) for franchise persistence.
  * Dependency inversion: the domain defines the contract; infrastructure implements it.
@@ -11,7 +18,9 @@ import reactor.core.publisher.Mono;
 public interface FranchiseRepository {
 
     /**
-     * Saves or updates a franchise.
+     * Saves a franchise, replacing the whole stored document.
+     * Meant for new franchises: changes to an existing one go through the targeted updates below, so a
+     * concurrent stock change is never overwritten with the stock of an earlier read.
      *
      * @param franchise the franchise to save
      * @return Mono emitting the saved franchise (with id if new)
@@ -26,6 +35,24 @@ public interface FranchiseRepository {
      */
     Mono<Franchise> findById(String id);
 
+    /**
+     * Finds a franchise by its id as a lazy aggregate: branches and products are only materialized
+     * when accessed. Meant for use cases that read a single branch or product of a large franchise.
+     *
+     * @param id franchise id
+     * @return Mono emitting the aggregate or empty if not found
+     */
+    Mono<FranchiseAggregate> findAggregateById(String id);
+
+    /**
+     * Finds a franchise by its id and returns it in its stored BSON form, without decoding it.
+     * Meant for pass-through reads that transcode the document straight into a response.
+     *
+     * @param id franchise id
+     * @return Mono emitting the BSON bytes of the franchise or empty if not found
+     */
+    Mono<ByteBuffer> findBsonById(String id);
+
     /**
      * Returns all franchises.
      *
@@ -48,4 +75,99 @@ public interface FranchiseRepository {
      * @return Mono emitting true if exists, false otherwise
      */
     Mono<Boolean> existsById(String id);
+
+    /**
+     * Appends a branch to a franchise atomically, without rewriting the rest of the franchise.
+     *
+     * @param franchiseId franchise id
+     * @param branch      branch to append (with id already assigned)
+     * @return Mono emitting true if the franchise exists and was updated, false otherwise
+     */
+    Mono<Boolean> addBranch(String franchiseId, Branch branch);
+
+    /**
+     * Renames a franchise atomically, without rewriting its branches.
+     *
+     * @param franchiseId franchise id
+     * @param name        new franchise name
+     * @return Mono emitting true if the franchise exists, false otherwise
+     */
+    Mono<Boolean> setFranchiseName(String franchiseId, String name);
+
+    /**
+     * Appends products to a branch atomically, without rewriting the rest of the franchise.
+     * Safe to call concurrently for the same franchise.
+     *
+     * @param franchiseId franchise id
+     * @param branchId    branch id
+     * @param products    products to append (with ids already assigned)
+     * @return Mono emitting true if the branch exists and was updated, false otherwise
+     */
+    Mono<Boolean> addProductsToBranch(String franchiseId, String branchId, List<Product> products);
+
+    /**
+     * Sets the stock of an enabled product atomically, without rewriting the rest of the franchise.
+     *
+     * @param franchiseId   franchise id
+     * @param branchId      branch id
+     * @param productId     product id
+     * @param stockQuantity new stock
+     * @return Mono emitting true if the enabled product exists, false otherwise
+     */
+    Mono<Boolean> setProductStock(String franchiseId, String branchId, String productId, int stockQuantity);
+
+    /**
+     * Decrements the stock of an enabled product atomically, never below zero.
+     * Safe to call concurrently for the same product.
+     *
+     * @param franchiseId franchise id
+     * @param branchId    branch id
+     * @param productId   product id
+     * @param quantity    units to subtract (greater than zero)
+     * @return Mono emitting true if the stock was decremented, false if the enabled product does not
+     * exist or has fewer than {@code quantity} units
+     */
+    Mono<Boolean> decrementProductStock(String franchiseId, String branchId, String productId, int quantity);
+
+    /**
+     * Renames a branch atomically, without rewriting the rest of the franchise.
+     *
+     * @param franchiseId franchise id
+     * @param branchId    branch id
+     * @param name        new branch name
+     * @return Mono emitting true if the branch exists, false otherwise
+     */
+    Mono<Boolean> setBranchName(String franchiseId, String branchId, String name);
+
+    /**
+     * Renames an enabled product atomically, without rewriting the rest of the franchise.
+     *
+     * @param franchiseId franchise id
+     * @param branchId    branch id
+     * @param productId   product id
+     * @param name        new product name
+     * @return Mono emitting true if the enabled product exists, false otherwise
+     */
+    Mono<Boolean> setProductName(String franchiseId, String branchId, String productId, String name);
+
+    /**
+     * Disables a product (soft delete) atomically, without rewriting the rest of the franchise.
+     *
+     * @param franchiseId franchise id
+     * @param branchId    branch id
+     * @param productId   product id
+     * @param disabledAt  soft-delete timestamp to store
+     * @return Mono emitting true if the product exists, false otherwise
+     */
+    Mono<Boolean> disableProduct(String franchiseId, String branchId, String productId, Instant disabledAt);
+
+    /**
+     * Removes a product from a branch (physical delete) atomically, without rewriting the rest of the franchise.
+     *
+     * @param franchiseId franchise id
+     * @param branchId    branch id
+     * @param productId   product id
+     * @return Mono emitting true if the product existed and was removed, false otherwise
+     */
+    Mono<Boolean> removeProduct(String franchiseId, String branchId, String productId);
 }
@@ -0,0 +1,35 @@
+package com.seti.franchises.infrastructure.context;
+
+import io.micrometer.context.ContextRegistry;
+import org.slf4j.MDC;
+
+/**
+ * Campos de log por petición (requestId, franchiseId) guardados en el Context de Reactor.
+ * <p>
+ * Se registran como ThreadLocalAccessor del MDC: con la propagación automática de contexto
+ * (spring.reactor.context-propagation=auto) Reactor los restaura en el MDC del hilo que ejecuta
+ * cada operador, así las líneas de log los incluyen sin pasarlos a mano.
+ */
+public final class LoggingContext {
+
+    public static final String REQUEST_ID = "requestId";
+    public static final String FRANCHISE_ID = "franchiseId";
+
+    private LoggingContext() {
+    }
+
+    /**
+     * Registra las claves en el ContextRegistry (idempotente: registrar de nuevo reemplaza).
+     */
+    public static void registerMdcAccessors() {
+        registerMdcAccessor(REQUEST_ID);
+        registerMdcAccessor(FRANCHISE_ID);
+    }
+
+    private static void registerMdcAccessor(String key) {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(key,
+                () -> MDC.get(key),
+                value -> MDC.put(key, value),
+                () -> MDC.remove(key));
+    }
+}
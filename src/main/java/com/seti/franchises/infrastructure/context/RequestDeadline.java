@@ -0,0 +1,43 @@
+package com.seti.franchises.infrastructure.context;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Plazo máximo (deadline) de la petición en curso, propagado en el Context de Reactor.
+ * Lo fija el filtro web y lo consultan los adaptadores para acotar sus operaciones
+ * (timeout() y maxTimeMS en MongoDB).
+ */
+public record RequestDeadline(long expiresAtNanos) {
+
+    public static RequestDeadline in(Duration timeout) {
+        return new RequestDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static Optional<RequestDeadline> from(ContextView context) {
+        return context.getOrEmpty(RequestDeadline.class);
+    }
+
+    /**
+     * Tiempo restante (nunca negativo).
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Aplica timeout() con el tiempo restante del deadline del Context, si lo hay.
+     */
+    public static <T> Mono<T> bound(Mono<T> source) {
+        return Mono.deferContextual(context -> from(context)
+                .map(deadline -> source.timeout(deadline.remaining()))
+                .orElse(source));
+    }
+}
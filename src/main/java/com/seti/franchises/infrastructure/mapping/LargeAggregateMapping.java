@@ -0,0 +1,179 @@
+package com.seti.franchises.infrastructure.mapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Mapeo de agregados (franquicia → sucursales → productos) según su tamaño.
+ * <ul>
+ *     <li>Pequeños (por debajo de {@code branch-threshold} sucursales y {@code product-threshold} productos):
+ *     se mapean en el hilo que llama, sin saltos de hilo ni asignaciones extra.</li>
+ *     <li>Grandes: se reparten las sucursales en trozos contiguos de peso parecido (productos) que se mapean
+ *     en paralelo en un scheduler acotado ({@code franchises-mapping}, un hilo por núcleo) y se unen en el
+ *     orden original. El event loop de Netty queda libre para el resto de peticiones.</li>
+ * </ul>
+ * Métricas: {@code franchises.mapping} (timer por {@code aggregate} y {@code path=inline|offloaded}) y
+ * {@code franchises.mapping.event-loop.stall}: tiempo de mapeo ejecutado en un hilo no bloqueante
+ * (event loop), es decir, tiempo en que ese hilo no atendió otras peticiones.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(LargeAggregateMappingProperties.class)
+public class LargeAggregateMapping implements DisposableBean {
+
+    /**
+     * Cómo partir un agregado por sucursales.
+     *
+     * @param aggregate nombre del agregado (tag de las métricas)
+     * @param branches  sucursales del agregado (null = ninguna)
+     * @param products  productos de una sucursal (peso para el umbral y el reparto)
+     * @param slice     copia del agregado con solo las sucursales indicadas
+     * @param merge     une los resultados de los trozos, en orden, en el resultado completo
+     */
+    public record Split<T, B, R>(String aggregate, Function<T, List<B>> branches, ToIntFunction<B> products,
+                                 BiFunction<T, List<B>, T> slice, Function<List<R>, R> merge) {
+    }
+
+    private record Meters(Timer inline, Timer offloaded, Timer stall) {
+    }
+
+    private final LargeAggregateMappingProperties properties;
+    private final MeterRegistry registry;
+    private final int parallelism;
+    private final Scheduler scheduler;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public LargeAggregateMapping(LargeAggregateMappingProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+        this.parallelism = properties.parallelism() > 0
+                ? properties.parallelism() : Runtime.getRuntime().availableProcessors();
+        this.scheduler = properties.enabled() ? Schedulers.newParallel("franchises-mapping", parallelism, true) : null;
+        if (properties.enabled()) {
+            log.info("Mapeo de franquicias grandes fuera del event loop: sucursales>={} o productos>={}, paralelismo={}",
+                    properties.branchThreshold(), properties.productThreshold(), parallelism);
+        }
+    }
+
+    /**
+     * Aplica {@code mapper} a {@code source}: en el hilo actual si el agregado es pequeño; si es grande,
+     * repartiendo sus sucursales entre los hilos de mapeo (cada trozo pasa por el mismo {@code mapper}).
+     */
+    public <T, B, R> Mono<R> map(T source, Split<T, B, R> split, Function<T, R> mapper) {
+        if (source == null) {
+            return Mono.empty();
+        }
+        Meters timers = meters(split.aggregate());
+        List<B> branches = Objects.requireNonNullElse(split.branches().apply(source), List.of());
+        if (scheduler == null || !isLarge(branches, split.products())) {
+            return Mono.justOrEmpty(inline(source, mapper, timers));
+        }
+        List<List<B>> chunks = partition(branches, split.products(), parallelism);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<R> mapped = chunks.size() == 1
+                    ? Mono.fromSupplier(() -> mapper.apply(source)).subscribeOn(scheduler)
+                    : Flux.fromIterable(chunks)
+                    .flatMapSequential(chunk -> Mono.fromSupplier(() -> mapper.apply(split.slice().apply(source, chunk)))
+                            .subscribeOn(scheduler), chunks.size())
+                    .collectList()
+                    .map(split.merge());
+            return mapped.doOnSuccess(result -> timers.offloaded().record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private <T, R> R inline(T source, Function<T, R> mapper, Meters timers) {
+        long start = System.nanoTime();
+        R result = mapper.apply(source);
+        long elapsed = System.nanoTime() - start;
+        timers.inline().record(elapsed, TimeUnit.NANOSECONDS);
+        if (Schedulers.isInNonBlockingThread()) {
+            timers.stall().record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    private <B> boolean isLarge(List<B> branches, ToIntFunction<B> products) {
+        if (branches.size() >= properties.branchThreshold()) {
+            return true;
+        }
+        long total = 0;
+        for (B branch : branches) {
+            total += products.applyAsInt(branch);
+            if (total >= properties.productThreshold()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Trozos contiguos (conservan el orden) de peso parecido: cada sucursal pesa sus productos + 1.
+     */
+    static <B> List<List<B>> partition(List<B> branches, ToIntFunction<B> products, int maxChunks) {
+        int chunks = Math.max(1, Math.min(maxChunks, branches.size()));
+        long total = 0;
+        for (B branch : branches) {
+            total += products.applyAsInt(branch) + 1L;
+        }
+        long target = Math.ceilDiv(total, chunks);
+        List<List<B>> result = new ArrayList<>(chunks);
+        int from = 0;
+        long weight = 0;
+        for (int i = 0; i < branches.size() && result.size() < chunks - 1; i++) {
+            weight += products.applyAsInt(branches.get(i)) + 1L;
+            if (weight >= target) {
+                result.add(branches.subList(from, i + 1));
+                from = i + 1;
+                weight = 0;
+            }
+        }
+        if (from < branches.size()) {
+            result.add(branches.subList(from, branches.size()));
+        }
+        return result;
+    }
+
+    private Meters meters(String aggregate) {
+        return meters.computeIfAbsent(aggregate, name -> new Meters(
+                mappingTimer(name, "inline"),
+                mappingTimer(name, "offloaded"),
+                Timer.builder("franchises.mapping.event-loop.stall")
+                        .description("Tiempo de mapeo ejecutado en el event loop (sin atender otras peticiones)")
+                        .tag("aggregate", name)
+                        .register(registry)));
+    }
+
+    private Timer mappingTimer(String aggregate, String path) {
+        return Timer.builder("franchises.mapping")
+                .description("Tiempo de mapeo de un agregado")
+                .tag("aggregate", aggregate)
+                .tag("path", path)
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+}
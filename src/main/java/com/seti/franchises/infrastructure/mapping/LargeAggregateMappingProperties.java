@@ -0,0 +1,21 @@
+package com.seti.franchises.infrastructure.mapping;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Mapeo de franquicias grandes fuera del event loop (franchises.mapping.offload.*).
+ *
+ * @param enabled          activa el reparto; desactivado, todo se mapea en el hilo que llama
+ * @param branchThreshold  a partir de cuántas sucursales la franquicia se considera grande
+ * @param productThreshold a partir de cuántos productos (suma de todas las sucursales) se considera grande
+ * @param parallelism      hilos del scheduler de mapeo y trozos máximos por franquicia (0 = núcleos disponibles)
+ */
+@ConfigurationProperties("franchises.mapping.offload")
+public record LargeAggregateMappingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200") int branchThreshold,
+        @DefaultValue("2000") int productThreshold,
+        @DefaultValue("0") int parallelism
+) {
+}
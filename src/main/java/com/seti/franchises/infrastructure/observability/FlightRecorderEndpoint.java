@@ -0,0 +1,225 @@
+package com.seti.franchises.infrastructure.observability;
+
+import com.seti.franchises.application.observation.UseCaseEvent;
+import com.seti.franchises.infrastructure.persistence.jfr.MongoCallEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/jfr: grabación de JDK Flight Recorder bajo demanda (eventos de la JVM + UseCaseEvent y
+ * MongoCallEvent de la aplicación).
+ * <ul>
+ *   <li>GET: estado de la grabación.</li>
+ *   <li>POST {"settings": "profile"}: arranca una grabación (settings: default | profile).</li>
+ *   <li>DELETE: la detiene; los datos se conservan hasta la siguiente grabación.</li>
+ *   <li>GET /actuator/jfr/dump: descarga un fichero .jfr (también con la grabación en curso).</li>
+ * </ul>
+ * Las operaciones de Actuator se ejecutan fuera del event loop, así que el volcado a disco no lo bloquea.
+ * <p>
+ * Desactivado por defecto: no hay autenticación y un volcado incluye propiedades del sistema y variables
+ * de entorno (credenciales de MongoDB). Activarlo con {@code franchises.jfr.endpoint.enabled=true}, añadir
+ * {@code jfr} a {@code management.endpoints.web.exposure.include} y servir Actuator en un puerto de gestión
+ * aparte ({@code management.server.port}) cerrado al exterior.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+@ConditionalOnProperty(name = "franchises.jfr.endpoint.enabled", havingValue = "true")
+public class FlightRecorderEndpoint {
+
+    private static final String RECORDING_NAME = "franchises";
+    private static final String DUMP = "dump";
+    private static final int STATUS_CONFLICT = 409;
+
+    private final String defaultSettings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final boolean continuous;
+
+    private Recording recording;
+
+    public FlightRecorderEndpoint(@Value("${franchises.jfr.settings:default}") String defaultSettings,
+                                  @Value("${franchises.jfr.max-age:PT30M}") Duration maxAge,
+                                  @Value("${franchises.jfr.max-size-bytes:104857600}") long maxSizeBytes,
+                                  @Value("${franchises.jfr.continuous:false}") boolean continuous) {
+        this.defaultSettings = defaultSettings;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeBytes;
+        this.continuous = continuous;
+    }
+
+    /**
+     * Con franchises.jfr.continuous=true la grabación arranca con la aplicación (buffer circular acotado
+     * por max-age/max-size) y basta con un dump cuando se investiga una regresión.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startContinuous() {
+        if (continuous) {
+            start(null);
+        }
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        return describe(recording);
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@OptionalParameter String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(describe(recording), STATUS_CONFLICT);
+        }
+        String settingsName = settings != null ? settings : defaultSettings;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(Map.of("error", "Configuración JFR no válida: " + settingsName),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        close();
+        recording = new Recording(configuration);
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeBytes);
+        recording.enable(UseCaseEvent.class).withoutThreshold();
+        recording.enable(MongoCallEvent.class).withoutThreshold();
+        recording.start();
+        log.info("Grabación JFR iniciada: settings={}, maxAge={}, maxSizeBytes={}", settingsName, maxAge, maxSizeBytes);
+        return new WebEndpointResponse<>(describe(recording));
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Grabación JFR detenida");
+        }
+        return describe(recording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String action) throws IOException {
+        if (!DUMP.equals(action)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording == null || recording.getState() == RecordingState.NEW || recording.getState() == RecordingState.CLOSED) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile("franchises-", ".jfr");
+        recording.dump(file);
+        return new WebEndpointResponse<>(new TemporaryRecordingResource(file));
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (recording == null) {
+            map.put("state", "NONE");
+            return map;
+        }
+        map.put("state", recording.getState().name());
+        map.put("name", recording.getName());
+        map.put("startTime", recording.getStartTime());
+        map.put("stopTime", recording.getStopTime());
+        map.put("maxAge", recording.getMaxAge());
+        map.put("maxSizeBytes", recording.getMaxSize());
+        map.put("sizeBytes", recording.getSize());
+        return map;
+    }
+
+    /**
+     * Fichero temporal que se borra al terminar de enviarse. No se expone como fichero para que WebFlux
+     * no use zero-copy (que no pasaría por close()).
+     */
+    private static final class TemporaryRecordingResource extends FileSystemResource {
+
+        private final Path path;
+
+        private TemporaryRecordingResource(Path path) {
+            super(path);
+            this.path = path;
+        }
+
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            ReadableByteChannel channel = super.readableChannel();
+            return new ReadableByteChannel() {
+                @Override
+                public int read(ByteBuffer dst) throws IOException {
+                    return channel.read(dst);
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return channel.isOpen();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        channel.close();
+                    } finally {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            };
+        }
+    }
+}
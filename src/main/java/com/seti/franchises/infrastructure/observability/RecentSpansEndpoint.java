@@ -0,0 +1,52 @@
+package com.seti.franchises.infrastructure.observability;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /actuator/spans: spans recientes del {@link RecentSpansExporter} (filtrables con ?traceId=...).
+ * DELETE vacía el buffer.
+ */
+@Component
+@Endpoint(id = "spans")
+@ConditionalOnProperty(name = "franchises.tracing.in-memory.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RecentSpansEndpoint {
+
+    private final RecentSpansExporter exporter;
+
+    @ReadOperation
+    public List<Map<String, Object>> spans(@OptionalParameter String traceId) {
+        return exporter.recent(traceId).stream().map(RecentSpansEndpoint::toMap).toList();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        exporter.clear();
+    }
+
+    private static Map<String, Object> toMap(SpanData span) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("traceId", span.getTraceId());
+        map.put("spanId", span.getSpanId());
+        map.put("parentSpanId", span.getParentSpanId());
+        map.put("name", span.getName());
+        map.put("durationMicros", TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+        map.put("status", span.getStatus().getStatusCode().name());
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        map.put("attributes", attributes);
+        return map;
+    }
+}
@@ -0,0 +1,69 @@
+package com.seti.franchises.infrastructure.observability;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Exportador de spans en memoria: guarda los últimos {@code max-spans} para revisarlos en
+ * /actuator/spans sin Jaeger/Tempo ni collector OTLP. Pensado para desarrollo y pruebas de carga locales.
+ */
+@Component
+@ConditionalOnProperty(name = "franchises.tracing.in-memory.enabled", havingValue = "true")
+public class RecentSpansExporter implements SpanExporter {
+
+    private final int maxSpans;
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+
+    public RecentSpansExporter(@Value("${franchises.tracing.in-memory.max-spans:2000}") int maxSpans) {
+        this.maxSpans = Math.max(1, maxSpans);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData span : batch) {
+            if (spans.size() == maxSpans) {
+                spans.removeFirst();
+            }
+            spans.addLast(span);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Spans guardados, del más reciente al más antiguo; si traceId no es null, solo los de esa traza.
+     */
+    public synchronized List<SpanData> recent(String traceId) {
+        List<SpanData> result = new ArrayList<>();
+        spans.descendingIterator().forEachRemaining(span -> {
+            if (traceId == null || traceId.equals(span.getTraceId())) {
+                result.add(span);
+            }
+        });
+        return result;
+    }
+
+    public synchronized void clear() {
+        spans.clear();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        clear();
+        return CompletableResultCode.ofSuccess();
+    }
+}
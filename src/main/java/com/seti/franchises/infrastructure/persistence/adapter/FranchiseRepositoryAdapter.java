@@ -1,68 +1,387 @@
 package com.seti.franchises.infrastructure.persistence.adapter;
 
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.seti.franchises.application.observation.ReactiveObservation;
+import com.seti.franchises.application.observation.UseCaseEvents;
+import com.seti.franchises.domain.entity.Branch;
 import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.FranchiseAggregate;
+import com.seti.franchises.domain.entity.Product;
 import com.seti.franchises.domain.port.FranchiseRepository;
+import com.seti.franchises.infrastructure.context.RequestDeadline;
+import com.seti.franchises.infrastructure.persistence.adapter.FranchiseUpdates.TargetedUpdate;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.persistence.codec.RawFranchiseAggregate;
 import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.jfr.MongoCallEvents;
 import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import com.seti.franchises.infrastructure.persistence.metrics.FranchiseDocumentMetrics;
 import com.seti.franchises.infrastructure.persistence.repository.FranchiseMongoRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
 /**
- * Adapter that implements the domain port FranchiseRepository using ReactiveMongoRepository.
+ * Adapter that implements the domain port FranchiseRepository on MongoDB.
+ * Whole-document reads and writes (findById, findAll, save) go through FranchiseCodec, which decodes
+ * BSON straight into domain entities; findAggregateById and findBsonById keep the raw BSON (decoded on
+ * access or transcoded straight into the response);
+ * partial updates ($push, $set) use ReactiveMongoTemplate.
+ * Honours the request deadline from the Reactor Context: reads carry maxTimeMS so the server aborts
+ * them, writes (which Spring Data cannot tag with maxTimeMS) are bounded with timeout().
+ * Every operation is observed (franchises.repository span/timer) as a child of the use-case span, and
+ * every Mongo call emits a JFR MongoCallEvent while a recording is running.
+ * Default engine (franchises.persistence.engine=reactive); VirtualThreadFranchiseRepositoryAdapter is
+ * the blocking alternative.
+ * Products flagged in franchises.hot-stock keep part of their stock in HotStockCounters shards: their
+ * decrements go to the shards and every read adds the shards back, so callers never see the split.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "franchises.persistence.engine", havingValue = "reactive", matchIfMissing = true)
 public class FranchiseRepositoryAdapter implements FranchiseRepository {
 
+    /**
+     * Demanda máxima pedida al cursor de MongoDB en findAll: el consumidor (p. ej. una respuesta
+     * NDJSON) regula la lectura y no se acumulan documentos en memoria.
+     */
+    private static final int CURSOR_PREFETCH = 64;
+
+    private static final String ID = "_id";
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    static final String REPOSITORY_OBSERVATION = "franchises.repository";
+
     private final FranchiseMongoRepository mongoRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
     private final FranchisePersistenceMapper mapper;
+    private final ObservationRegistry observationRegistry;
+    private final CodecRegistry codecRegistry;
+    private final FranchiseCodec franchiseCodec;
+    private final HotStockCounters hotStock;
 
+    public FranchiseRepositoryAdapter(FranchiseMongoRepository mongoRepository, ReactiveMongoTemplate mongoTemplate,
+                                      FranchisePersistenceMapper mapper, ObservationRegistry observationRegistry,
+                                      FranchiseCodec franchiseCodec, HotStockCounters hotStock) {
+        this.mongoRepository = mongoRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.mapper = mapper;
+        this.observationRegistry = observationRegistry;
+        this.franchiseCodec = franchiseCodec;
+        this.hotStock = hotStock;
+        this.codecRegistry = CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(franchiseCodec), MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    /**
+     * Reemplaza el documento completo (upsert) codificándolo con FranchiseCodec. Sin id se asigna un
+     * ObjectId nuevo, como haría Spring Data al insertar. Solo para franquicias nuevas: los cambios de
+     * una existente son actualizaciones parciales que no reescriben el stock leído.
+     */
     @Override
     public Mono<Franchise> save(Franchise franchise) {
         return Mono.justOrEmpty(franchise)
-                .map(mapper::toDocument)
-                .flatMap(mongoRepository::save)
-                .map(mapper::toEntity)
-                .doOnNext(saved -> log.debug("Franchise saved: id={}", saved != null ? saved.getId() : null))
-                .doOnError(e -> log.error("Error saving franchise", e));
+                .map(FranchiseUpdates::withId)
+                .flatMap(f -> mongoTemplate.execute(FranchiseDocument.class, collection -> franchises(collection)
+                                .replaceOne(Filters.eq(ID, FranchiseCodec.toBsonId(f.getId())), f, UPSERT))
+                        .next()
+                        .thenReturn(f))
+                .transform(RequestDeadline::bound)
+                .transform(recorded("save", franchise != null ? franchise.getId() : null, FranchiseCodec::encodedSize))
+                .transform(UseCaseEvents::aggregate)
+                .doOnNext(saved -> log.debug("Franchise saved: id={}", saved.getId()))
+                .doOnError(e -> log.error("Error saving franchise", e))
+                .transform(observed("save"));
     }
 
     @Override
     public Mono<Franchise> findById(String id) {
         return Mono.justOrEmpty(id)
-                .flatMap(mongoRepository::findById)
-                .map(mapper::toEntity)
+                .flatMap(fid -> withMaxTime(Query.query(Criteria.where("id").is(fid))))
+                .flatMap(query -> mongoTemplate.execute(FranchiseDocument.class, collection -> maxTime(franchises(collection)
+                                        .find(Filters.eq(ID, FranchiseCodec.toBsonId(id))), query)
+                                .first())
+                        .next()
+                        .transform(recorded("findById", id, FranchiseCodec::encodedSize)))
+                .flatMap(hotStock::withShardStock)
+                .transform(UseCaseEvents::aggregate)
                 .doOnNext(f -> log.debug("Franchise found: id={}", id))
-                .doOnError(e -> log.error("Error finding franchise by id={}", id, e));
+                .doOnError(e -> log.error("Error finding franchise by id={}", id, e))
+                .transform(observed("findById"));
+    }
+
+    /**
+     * Lee el documento sin decodificar (RawBsonDocument: una copia de bytes) y lo envuelve en un
+     * RawFranchiseAggregate que decodifica solo la sucursal o el producto que se consulte.
+     */
+    @Override
+    public Mono<FranchiseAggregate> findAggregateById(String id) {
+        return findRaw(id, "findAggregateById")
+                .<FranchiseAggregate>map(RawFranchiseAggregate::new)
+                .flatMap(hotStock::withShardStock)
+                .doOnNext(f -> log.debug("Franchise aggregate found: id={}", id))
+                .doOnError(e -> log.error("Error finding franchise aggregate by id={}", id, e))
+                .transform(observed("findAggregateById"));
+    }
+
+    /**
+     * Bytes BSON del documento tal como los entrega el driver, para transcodificarlos a la respuesta.
+     * Si la franquicia tiene stock en fragmentos, se decodifica, se suma y se vuelve a codificar.
+     */
+    @Override
+    public Mono<ByteBuffer> findBsonById(String id) {
+        return findRaw(id, "findBsonById")
+                .flatMap(raw -> !hotStock.isEnabled()
+                        ? Mono.just(raw.getByteBuffer().asNIO())
+                        : hotStock.shardStock(id).map(stock -> stock.isEmpty()
+                                ? raw.getByteBuffer().asNIO()
+                                : FranchiseCodec.toBson(HotStockCounters.addShardStock(decode(raw), stock))))
+                .doOnError(e -> log.error("Error finding franchise BSON by id={}", id, e))
+                .transform(observed("findBsonById"));
+    }
+
+    private Mono<RawBsonDocument> findRaw(String id, String operation) {
+        return Mono.justOrEmpty(id)
+                .flatMap(fid -> withMaxTime(Query.query(Criteria.where("id").is(fid))))
+                .flatMap(query -> mongoTemplate.execute(FranchiseDocument.class, collection -> maxTime(collection
+                                        .withDocumentClass(RawBsonDocument.class)
+                                        .withCodecRegistry(codecRegistry)
+                                        .find(Filters.eq(ID, FranchiseCodec.toBsonId(id))), query)
+                                .first())
+                        .next()
+                        .transform(recorded(operation, id, raw -> raw.getByteBuffer().remaining())));
     }
 
     @Override
     public Flux<Franchise> findAll() {
-        return mongoRepository.findAll()
-                .map(mapper::toEntity)
+        return withMaxTime(new Query())
+                .flatMapMany(query -> mongoTemplate.execute(FranchiseDocument.class, collection -> maxTime(franchises(collection)
+                        .find(), query)
+                        .batchSize(CURSOR_PREFETCH)))
+                .transform(MongoCallEvents.flux("findAll"))
+                .limitRate(CURSOR_PREFETCH)
+                .transform(hotStock::withShardStock)
                 .doOnComplete(() -> log.debug("Find all franchises completed"))
-                .doOnError(e -> log.error("Error finding all franchises", e));
+                .doOnError(e -> log.error("Error finding all franchises", e))
+                .transform(ReactiveObservation.flux(observationRegistry, REPOSITORY_OBSERVATION, "operation", "findAll"));
     }
 
     @Override
     public Mono<Void> deleteById(String id) {
         return Mono.justOrEmpty(id)
                 .flatMap(mongoRepository::deleteById)
+                .transform(RequestDeadline::bound)
+                .transform(recorded("deleteById", id, v -> 0))
                 .then()
                 .doOnSuccess(v -> log.debug("Franchise deleted: id={}", id))
-                .doOnError(e -> log.error("Error deleting franchise id={}", id, e));
+                .doOnError(e -> log.error("Error deleting franchise id={}", id, e))
+                .transform(observed("deleteById"));
     }
 
     @Override
     public Mono<Boolean> existsById(String id) {
         return Mono.justOrEmpty(id)
-                .flatMap(mongoRepository::existsById)
+                .flatMap(fid -> withMaxTime(Query.query(Criteria.where("id").is(fid))))
+                .flatMap(query -> mongoTemplate.exists(query, FranchiseDocument.class)
+                        .transform(recorded("existsById", id, v -> 0)))
                 .defaultIfEmpty(false)
-                .doOnError(e -> log.error("Error checking existence for franchise id={}", id, e));
+                .doOnError(e -> log.error("Error checking existence for franchise id={}", id, e))
+                .transform(observed("existsById"));
+    }
+
+    @Override
+    public Mono<Boolean> addBranch(String franchiseId, Branch branch) {
+        return updateFirst("addBranch", franchiseId, FranchiseUpdates.pushBranch(franchiseId, mapper.toBranchDocument(branch)))
+                .doOnError(e -> log.error("Error pushing branch franchiseId={}", franchiseId, e))
+                .transform(observed("addBranch"));
+    }
+
+    @Override
+    public Mono<Boolean> setFranchiseName(String franchiseId, String name) {
+        return updateFirst("setFranchiseName", franchiseId, FranchiseUpdates.setFranchiseName(franchiseId, name))
+                .doOnError(e -> log.error("Error renaming franchise franchiseId={}", franchiseId, e))
+                .transform(observed("setFranchiseName"));
+    }
+
+    /**
+     * $push con $each sobre la sucursal (operador posicional): actualización atómica en el servidor,
+     * sin leer ni reescribir el documento completo.
+     */
+    @Override
+    public Mono<Boolean> addProductsToBranch(String franchiseId, String branchId, List<Product> products) {
+        TargetedUpdate push = FranchiseUpdates.pushProducts(franchiseId, branchId,
+                products.stream().map(mapper::toProductDocument).toList());
+        return updateFirst("addProductsToBranch", franchiseId, push)
+                .doOnNext(matched -> log.debug("Products pushed: franchiseId={}, branchId={}, count={}, matched={}",
+                        franchiseId, branchId, products.size(), matched))
+                .doOnError(e -> log.error("Error pushing products franchiseId={}, branchId={}", franchiseId, branchId, e))
+                .transform(observed("addProductsToBranch"));
+    }
+
+    /**
+     * Con contadores fragmentados, el valor fijado sustituye también lo que hubiera en los fragmentos:
+     * primero se vacían con una generación nueva y después se fija el stock con esa generación, así las
+     * unidades en vuelo de la anterior no vuelven (HotStockCounters).
+     */
+    @Override
+    public Mono<Boolean> setProductStock(String franchiseId, String branchId, String productId, int stockQuantity) {
+        TargetedUpdate set = FranchiseUpdates.setProductStock(franchiseId, branchId, productId, stockQuantity);
+        Mono<Boolean> updated = hotStock.isEnabled()
+                ? hotStock.discard(franchiseId, branchId, productId)
+                .flatMap(epoch -> updateFirst("setProductStock", franchiseId, FranchiseUpdates.withStockEpoch(set, epoch)))
+                : updateFirst("setProductStock", franchiseId, set);
+        return updated
+                .doOnError(e -> log.error("Error setting stock franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("setProductStock"));
+    }
+
+    /**
+     * $inc con guarda sobre el documento; los productos marcados en franchises.hot-stock descuentan de
+     * un fragmento (HotStockCounters) y no compiten por el documento de la franquicia.
+     */
+    @Override
+    public Mono<Boolean> decrementProductStock(String franchiseId, String branchId, String productId, int quantity) {
+        Mono<Boolean> decrement = hotStock.isHot(productId)
+                ? hotStock.decrement(franchiseId, branchId, productId, quantity)
+                .transform(recorded("decrementProductStock", franchiseId, v -> 0))
+                : updateFirst("decrementProductStock", franchiseId,
+                FranchiseUpdates.takeProductStock(franchiseId, branchId, productId, quantity));
+        return decrement
+                .doOnError(e -> log.error("Error decrementing stock franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("decrementProductStock"));
+    }
+
+    @Override
+    public Mono<Boolean> setBranchName(String franchiseId, String branchId, String name) {
+        return updateFirst("setBranchName", franchiseId, FranchiseUpdates.setBranchName(franchiseId, branchId, name))
+                .doOnError(e -> log.error("Error renaming branch franchiseId={}, branchId={}", franchiseId, branchId, e))
+                .transform(observed("setBranchName"));
+    }
+
+    @Override
+    public Mono<Boolean> setProductName(String franchiseId, String branchId, String productId, String name) {
+        return updateFirst("setProductName", franchiseId, FranchiseUpdates.setProductName(franchiseId, branchId, productId, name))
+                .doOnError(e -> log.error("Error renaming product franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("setProductName"));
+    }
+
+    /**
+     * Con contadores fragmentados, como al fijar el stock: primero se vacían los fragmentos con una
+     * generación nueva. Un decremento posterior ya no encuentra unidades en ellos y la recarga no toma del
+     * documento de un producto deshabilitado; un fold en vuelo no devuelve sus unidades.
+     */
+    @Override
+    public Mono<Boolean> disableProduct(String franchiseId, String branchId, String productId, Instant disabledAt) {
+        TargetedUpdate disable = FranchiseUpdates.disableProduct(franchiseId, branchId, productId, disabledAt);
+        Mono<Boolean> updated = hotStock.isEnabled()
+                ? hotStock.discard(franchiseId, branchId, productId)
+                .flatMap(epoch -> updateFirst("disableProduct", franchiseId, FranchiseUpdates.withStockEpoch(disable, epoch)))
+                : updateFirst("disableProduct", franchiseId, disable);
+        return updated
+                .doOnError(e -> log.error("Error disabling product franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("disableProduct"));
+    }
+
+    /**
+     * Con contadores fragmentados, como al deshabilitar: primero se vacían los fragmentos del producto, así
+     * sus unidades no quedan en ellos ni vuelven con un fold.
+     */
+    @Override
+    public Mono<Boolean> removeProduct(String franchiseId, String branchId, String productId) {
+        TargetedUpdate pull = FranchiseUpdates.pullProduct(franchiseId, branchId, productId);
+        Mono<Boolean> updated = hotStock.isEnabled()
+                ? hotStock.discard(franchiseId, branchId, productId).then(updateFirst("removeProduct", franchiseId, pull))
+                : updateFirst("removeProduct", franchiseId, pull);
+        return updated
+                .doOnError(e -> log.error("Error removing product franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("removeProduct"));
+    }
+
+    /**
+     * updateFirst acotado por el deadline; true si la query coincidió (el elemento existe).
+     */
+    private Mono<Boolean> updateFirst(String operation, String franchiseId, TargetedUpdate targeted) {
+        return mongoTemplate.updateFirst(targeted.query(), targeted.update(), FranchiseDocument.class)
+                .transform(RequestDeadline::bound)
+                .transform(recorded(operation, franchiseId, result -> bsonBytes(targeted.update().getUpdateObject())))
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    private <T> Function<Mono<T>, Mono<T>> observed(String operation) {
+        return ReactiveObservation.mono(observationRegistry, REPOSITORY_OBSERVATION, "operation", operation);
+    }
+
+    /**
+     * JFR event (MongoCallEvent) around a single Mongo call; bytes are only computed when the event
+     * is actually written.
+     */
+    private static <T> Function<Mono<T>, Mono<T>> recorded(String operation, String franchiseId, ToLongFunction<? super T> bytes) {
+        return MongoCallEvents.mono(operation, franchiseId, bytes);
+    }
+
+    private long bsonBytes(Object source) {
+        return mongoTemplate.getConverter().convertToMongoType(source) instanceof Document document
+                ? FranchiseDocumentMetrics.bsonSize(document)
+                : 0;
+    }
+
+    private Franchise decode(RawBsonDocument raw) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(raw.getByteBuffer().asNIO())) {
+            return franchiseCodec.decode(reader, DECODER_CONTEXT);
+        }
+    }
+
+    /**
+     * Colección de franquicias leída y escrita directamente como entidades de dominio (FranchiseCodec).
+     */
+    private MongoCollection<Franchise> franchises(MongoCollection<Document> collection) {
+        return collection.withDocumentClass(Franchise.class).withCodecRegistry(codecRegistry);
+    }
+
+    /**
+     * Traslada al find del driver el maxTimeMS que withMaxTime dejó en la Query.
+     */
+    private static <T> FindPublisher<T> maxTime(FindPublisher<T> find, Query query) {
+        Long maxTimeMsec = query.getMeta().getMaxTimeMsec();
+        return maxTimeMsec != null ? find.maxTime(maxTimeMsec, TimeUnit.MILLISECONDS) : find;
+    }
+
+    /**
+     * Adds maxTimeMS with the time left on the request deadline. Fails fast without querying
+     * when the deadline has already expired (maxTimeMS=0 would mean "no limit").
+     */
+    private static Mono<Query> withMaxTime(Query query) {
+        return Mono.deferContextual(context -> RequestDeadline.from(context)
+                .map(deadline -> deadline.isExpired()
+                        ? Mono.<Query>error(new TimeoutException("Deadline de la petición agotado"))
+                        : Mono.just(query.maxTime(deadline.remaining())))
+                .orElseGet(() -> Mono.just(query)));
     }
 }
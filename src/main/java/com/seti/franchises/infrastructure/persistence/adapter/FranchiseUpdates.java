@@ -0,0 +1,179 @@
+package com.seti.franchises.infrastructure.persistence.adapter;
+
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.infrastructure.persistence.document.BranchDocument;
+import com.seti.franchises.infrastructure.persistence.document.ProductDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Actualizaciones parciales de una franquicia (query + update), compartidas por los adaptadores
+ * reactivo y de hilos virtuales para que ambos escriban exactamente lo mismo.
+ */
+final class FranchiseUpdates {
+
+    /**
+     * @param query  filtro; solo coincide si el elemento afectado existe (matchedCount &gt; 0)
+     * @param update operación atómica en el servidor, sin reescribir el documento
+     */
+    record TargetedUpdate(Query query, Update update) {
+    }
+
+    private FranchiseUpdates() {
+    }
+
+    /**
+     * $push de la sucursal al final de branches.
+     */
+    static TargetedUpdate pushBranch(String franchiseId, BranchDocument branch) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId));
+        Update update = new Update().push("branches", branch);
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * $set del nombre de la franquicia.
+     */
+    static TargetedUpdate setFranchiseName(String franchiseId, String name) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId));
+        Update update = new Update().set("name", name);
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * $push con $each sobre la sucursal (operador posicional).
+     */
+    static TargetedUpdate pushProducts(String franchiseId, String branchId, List<ProductDocument> products) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId).and("branches.id").is(branchId));
+        Update update = new Update().push("branches.$.products").each(products.toArray());
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * $set con arrayFilters sobre sucursal y producto. El filtro $elemMatch de la query garantiza que
+     * matchedCount solo sea 1 si el producto existe y está habilitado (aunque el stock no cambie).
+     * enabled != false, como en la lectura (FranchiseCodec): un producto sin el campo (documentos
+     * anteriores al borrado lógico) cuenta como habilitado.
+     */
+    static TargetedUpdate setProductStock(String franchiseId, String branchId, String productId, int stockQuantity) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId)
+                .and("branches").elemMatch(Criteria.where("_id").is(branchId)
+                        .and("products").elemMatch(Criteria.where("_id").is(productId).and("enabled").ne(false))));
+        Update update = new Update().set("branches.$[b].products.$[p].stock_quantity", stockQuantity)
+                .filterArray(Criteria.where("b._id").is(branchId))
+                .filterArray(Criteria.where("p._id").is(productId));
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * $inc negativo con arrayFilters, solo si el producto está habilitado y tiene al menos {@code quantity}
+     * unidades: el stock nunca baja de 0 y matchedCount distingue "sin stock suficiente".
+     */
+    static TargetedUpdate takeProductStock(String franchiseId, String branchId, String productId, int quantity) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId)
+                .and("branches").elemMatch(Criteria.where("_id").is(branchId)
+                        .and("products").elemMatch(Criteria.where("_id").is(productId).and("enabled").ne(false)
+                                .and("stock_quantity").gte(quantity))));
+        Update update = new Update().inc("branches.$[b].products.$[p].stock_quantity", -quantity)
+                .filterArray(Criteria.where("b._id").is(branchId))
+                .filterArray(Criteria.where("p._id").is(productId));
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * $inc positivo con arrayFilters (devolución de unidades de un fragmento), habilitado o no el producto,
+     * solo si el stock sigue en la generación {@code stockEpoch} de la que salieron (null: producto sin
+     * el campo). Si el stock se fijó después, no coincide y las unidades no se suman al valor fijado.
+     */
+    static TargetedUpdate addProductStock(String franchiseId, String branchId, String productId, int quantity,
+                                          String stockEpoch) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId)
+                .and("branches").elemMatch(Criteria.where("_id").is(branchId)
+                        .and("products").elemMatch(Criteria.where("_id").is(productId).and("stock_epoch").is(stockEpoch))));
+        Update update = new Update().inc("branches.$[b].products.$[p].stock_quantity", quantity)
+                .filterArray(Criteria.where("b._id").is(branchId))
+                .filterArray(Criteria.where("p._id").is(productId));
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * Añade a una actualización sobre sucursal y producto ($[b], $[p]) el $set de la generación del stock
+     * (contadores fragmentados): las unidades de fragmentos de generaciones anteriores ya no vuelven.
+     */
+    static TargetedUpdate withStockEpoch(TargetedUpdate targeted, String stockEpoch) {
+        targeted.update().set("branches.$[b].products.$[p].stock_epoch", stockEpoch);
+        return targeted;
+    }
+
+    /**
+     * $set del nombre con arrayFilters sobre la sucursal.
+     */
+    static TargetedUpdate setBranchName(String franchiseId, String branchId, String name) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId)
+                .and("branches").elemMatch(Criteria.where("_id").is(branchId)));
+        Update update = new Update().set("branches.$[b].name", name)
+                .filterArray(Criteria.where("b._id").is(branchId));
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * $set del nombre con arrayFilters sobre sucursal y producto, solo si el producto está habilitado
+     * (enabled != false, como en setProductStock).
+     */
+    static TargetedUpdate setProductName(String franchiseId, String branchId, String productId, String name) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId)
+                .and("branches").elemMatch(Criteria.where("_id").is(branchId)
+                        .and("products").elemMatch(Criteria.where("_id").is(productId).and("enabled").ne(false))));
+        Update update = new Update().set("branches.$[b].products.$[p].name", name)
+                .filterArray(Criteria.where("b._id").is(branchId))
+                .filterArray(Criteria.where("p._id").is(productId));
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * $pull del producto con arrayFilters sobre la sucursal; la query solo coincide si el producto existe.
+     */
+    static TargetedUpdate pullProduct(String franchiseId, String branchId, String productId) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId)
+                .and("branches").elemMatch(Criteria.where("_id").is(branchId)
+                        .and("products").elemMatch(Criteria.where("_id").is(productId))));
+        Update update = new Update().pull("branches.$[b].products", new Document("_id", productId))
+                .filterArray(Criteria.where("b._id").is(branchId));
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * $set de enabled=false y disabled_at con arrayFilters sobre sucursal y producto.
+     */
+    static TargetedUpdate disableProduct(String franchiseId, String branchId, String productId, Instant disabledAt) {
+        Query query = Query.query(Criteria.where("id").is(franchiseId)
+                .and("branches").elemMatch(Criteria.where("_id").is(branchId)
+                        .and("products").elemMatch(Criteria.where("_id").is(productId))));
+        Update update = new Update()
+                .set("branches.$[b].products.$[p].enabled", false)
+                .set("branches.$[b].products.$[p].disabled_at", disabledAt)
+                .filterArray(Criteria.where("b._id").is(branchId))
+                .filterArray(Criteria.where("p._id").is(productId));
+        return new TargetedUpdate(query, update);
+    }
+
+    /**
+     * Sin id se asigna un ObjectId nuevo, como haría Spring Data al insertar.
+     */
+    static Franchise withId(Franchise franchise) {
+        if (franchise.getId() != null) {
+            return franchise;
+        }
+        return Franchise.builder()
+                .id(new ObjectId().toHexString())
+                .name(franchise.getName())
+                .branches(franchise.getBranches())
+                .build();
+    }
+}
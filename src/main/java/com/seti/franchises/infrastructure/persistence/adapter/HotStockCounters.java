@@ -0,0 +1,372 @@
+package com.seti.franchises.infrastructure.persistence.adapter;
+
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.FranchiseAggregate;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.persistence.adapter.FranchiseUpdates.TargetedUpdate;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.document.ProductDocument;
+import com.seti.franchises.infrastructure.persistence.document.StockShardDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Contadores de stock fragmentados para los productos marcados en {@code franchises.hot-stock.products}
+ * (promociones: miles de terminales descontando el mismo producto).
+ * <p>
+ * El stock de un producto marcado es el de su ProductDocument más la suma de sus N fragmentos en
+ * product_stock_shards. Cada decremento elige un fragmento al azar y hace un $inc con guarda
+ * ({@code count >= cantidad}), así las escrituras se reparten entre N documentos pequeños en lugar de
+ * competir por el documento de la franquicia. Un fragmento sin unidades se recarga tomando
+ * {@code refill-chunk} unidades del documento (con la misma guarda); si no las hay, se prueba el resto
+ * de fragmentos antes de responder "stock insuficiente".
+ * <p>
+ * Periódicamente ({@code fold-interval}, HotStockFoldJob) cada fragmento se pone a 0 y sus unidades vuelven a
+ * ProductDocument.stockQuantity. Las lecturas de FranchiseRepositoryAdapter suman los fragmentos al
+ * stock del documento, así que para los consumidores de ProductResponse el modo es transparente.
+ * Solo existe con el motor reactivo, como FranchiseRepositoryAdapter, su único usuario: con
+ * engine=virtual-threads no hay fragmentos ni fold y todos los decrementos van al documento.
+ * <p>
+ * Fijar el stock (setProductStock), deshabilitar el producto (disableProduct) o eliminarlo (removeProduct)
+ * es absoluto: primero pone los fragmentos a 0 con una generación nueva ({@code epoch}) y después escribe
+ * esa generación en el producto (ProductDocument.stockEpoch). Las unidades que una recarga o un fold tenían
+ * en vuelo llevan la generación de la que salieron y solo vuelven si sigue siendo la del producto; si no,
+ * se descartan en lugar de sumarse al valor fijado (franchises.hot-stock.discarded.units). El resto de
+ * cambios de una franquicia existente (sucursales, productos nuevos, nombres) son actualizaciones parciales
+ * que no tocan stock_quantity, y save solo escribe franquicias nuevas: ninguna escritura reescribe el stock
+ * con el de una lectura anterior, que ya no incluiría las ventas hechas desde entonces.
+ * <p>
+ * Sin transacciones (MongoDB standalone) cada paso es atómico, pero la secuencia no: si el proceso muere
+ * (o la escritura falla) entre tomar unidades de un documento y sumarlas en el otro, o entre poner los
+ * fragmentos a 0 y fijar el stock del producto, esas unidades se pierden; nunca se crean. Por eso la
+ * recarga no se cancela a medias aunque el cliente se desconecte.
+ * Las lecturas no son atómicas entre documento y fragmentos: durante un fold o una recarga pueden ver
+ * de menos las unidades en vuelo.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "franchises.persistence.engine", havingValue = "reactive", matchIfMissing = true)
+@EnableConfigurationProperties(HotStockProperties.class)
+public class HotStockCounters {
+
+    private static final String COUNT = "count";
+    private static final String EPOCH = "epoch";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final HotStockProperties properties;
+    private final Counter refills;
+    private final Counter foldedUnits;
+    private final Counter discardedUnits;
+
+    public HotStockCounters(ReactiveMongoTemplate mongoTemplate, HotStockProperties properties, MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.refills = Counter.builder("franchises.hot-stock.refills")
+                .description("Recargas de un fragmento de stock desde el documento de la franquicia")
+                .register(registry);
+        this.foldedUnits = Counter.builder("franchises.hot-stock.folded.units")
+                .description("Unidades devueltas de los fragmentos a ProductDocument.stockQuantity")
+                .register(registry);
+        this.discardedUnits = Counter.builder("franchises.hot-stock.discarded.units")
+                .description("Unidades en vuelo descartadas porque el stock se fijó mientras tanto")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndex() {
+        if (!properties.enabled()) {
+            return;
+        }
+        log.info("Contadores de stock fragmentados: productos={}, fragmentos={}, recarga={}",
+                properties.products().size(), properties.shards(), properties.refillChunk());
+        mongoTemplate.indexOps(StockShardDocument.class)
+                .createIndex(new Index().on("franchise_id", Sort.Direction.ASC))
+                .subscribe(name -> log.debug("Índice de fragmentos de stock: {}", name),
+                        e -> log.warn("No se pudo crear el índice de fragmentos de stock", e));
+    }
+
+    boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    boolean isHot(String productId) {
+        return properties.enabled() && properties.products().contains(productId);
+    }
+
+    /**
+     * Decremento con guarda sobre un fragmento al azar; true si se descontó.
+     */
+    Mono<Boolean> decrement(String franchiseId, String branchId, String productId, int quantity) {
+        int first = ThreadLocalRandom.current().nextInt(properties.shards());
+        return takeFromShard(franchiseId, productId, first, quantity)
+                .flatMap(taken -> taken ? Mono.just(true) : refill(franchiseId, branchId, productId, first, quantity))
+                .flatMap(taken -> taken ? Mono.just(true) : takeFromOtherShards(franchiseId, productId, first, quantity));
+    }
+
+    /**
+     * Antes de fijar el stock del producto (PATCH stock), deshabilitarlo o eliminarlo: los fragmentos dejan de
+     * contar y pasan a una generación nueva, que el llamador escribe después en el producto
+     * (FranchiseUpdates.withStockEpoch).
+     */
+    Mono<String> discard(String franchiseId, String branchId, String productId) {
+        String epoch = new ObjectId().toHexString();
+        Query shards = Query.query(Criteria.where("franchise_id").is(franchiseId).and("branch_id").is(branchId)
+                .and("product_id").is(productId));
+        return mongoTemplate.updateMulti(shards, new Update().set(COUNT, 0).set(EPOCH, epoch), StockShardDocument.class)
+                .thenReturn(epoch);
+    }
+
+    /**
+     * Suma al stock de cada producto de la franquicia lo que tenga en sus fragmentos.
+     */
+    Mono<Franchise> withShardStock(Franchise franchise) {
+        if (!properties.enabled()) {
+            return Mono.just(franchise);
+        }
+        return shardStock(franchise.getId()).map(stock -> addShardStock(franchise, stock));
+    }
+
+    Mono<FranchiseAggregate> withShardStock(FranchiseAggregate aggregate) {
+        if (!properties.enabled()) {
+            return Mono.just(aggregate);
+        }
+        return shardStock(aggregate.getId())
+                .map(stock -> stock.isEmpty() ? aggregate : new ShardStockAggregate(aggregate, stock));
+    }
+
+    /**
+     * Para listados: una sola consulta de fragmentos para todas las franquicias.
+     */
+    Flux<Franchise> withShardStock(Flux<Franchise> franchises) {
+        if (!properties.enabled()) {
+            return franchises;
+        }
+        return mongoTemplate.find(Query.query(Criteria.where(COUNT).gt(0)), StockShardDocument.class)
+                .collect(Collectors.groupingBy(StockShardDocument::getFranchiseId,
+                        Collectors.groupingBy(StockShardDocument::getProductId, Collectors.summingInt(StockShardDocument::getCount))))
+                .flatMapMany(stock -> franchises.map(franchise ->
+                        addShardStock(franchise, stock.getOrDefault(franchise.getId(), Map.of()))));
+    }
+
+    /**
+     * Unidades en fragmentos por producto de la franquicia (vacío si no tiene productos marcados).
+     */
+    Mono<Map<String, Integer>> shardStock(String franchiseId) {
+        return mongoTemplate.find(Query.query(Criteria.where("franchise_id").is(franchiseId).and(COUNT).gt(0)), StockShardDocument.class)
+                .collect(Collectors.groupingBy(StockShardDocument::getProductId, Collectors.summingInt(StockShardDocument::getCount)));
+    }
+
+    /**
+     * Devuelve cada fragmento con unidades a su producto y borra los fragmentos vacíos de productos que
+     * ya no están marcados. Lo programa HotStockFoldJob, solo con el modo activado.
+     */
+    Mono<Void> foldBack() {
+        return mongoTemplate.find(Query.query(Criteria.where(COUNT).gt(0)), StockShardDocument.class)
+                .concatMap(this::foldShard)
+                .reduce(0L, Long::sum)
+                .doOnNext(units -> {
+                    if (units > 0) {
+                        foldedUnits.increment(units);
+                        log.debug("Fragmentos de stock devueltos: unidades={}", units);
+                    }
+                })
+                .then(removeUnflaggedShards())
+                .doOnError(e -> log.error("Error devolviendo los fragmentos de stock", e))
+                .onErrorComplete()
+                .then();
+    }
+
+    private Mono<Long> foldShard(StockShardDocument shard) {
+        Query query = Query.query(Criteria.where("id").is(shard.getId()).and(COUNT).gt(0));
+        return mongoTemplate.findAndModify(query, new Update().set(COUNT, 0), StockShardDocument.class)
+                .flatMap(before -> returnToFranchise(before.getFranchiseId(), before.getBranchId(), before.getProductId(),
+                        before.getCount(), before.getEpoch())
+                        .map(returned -> returned ? (long) before.getCount() : 0L));
+    }
+
+    /**
+     * Devuelve unidades al documento solo si el stock sigue en su generación; si no, se descartan.
+     */
+    private Mono<Boolean> returnToFranchise(String franchiseId, String branchId, String productId, int units, String epoch) {
+        return updateFranchise(FranchiseUpdates.addProductStock(franchiseId, branchId, productId, units, epoch))
+                .doOnNext(returned -> {
+                    if (!returned) {
+                        discardedUnits.increment(units);
+                        log.debug("Unidades en vuelo descartadas (stock fijado después o producto inexistente): productId={}, unidades={}",
+                                productId, units);
+                    }
+                });
+    }
+
+    private Mono<Void> removeUnflaggedShards() {
+        Query query = Query.query(Criteria.where(COUNT).is(0).and("product_id").nin(properties.products()));
+        return mongoTemplate.remove(query, StockShardDocument.class).then();
+    }
+
+    private Mono<Boolean> takeFromShard(String franchiseId, String productId, int shard, int quantity) {
+        Query query = Query.query(Criteria.where("id").is(shardId(franchiseId, productId, shard)).and(COUNT).gte(quantity));
+        return mongoTemplate.updateFirst(query, new Update().inc(COUNT, -quantity), StockShardDocument.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    private Mono<Boolean> takeFromOtherShards(String franchiseId, String productId, int first, int quantity) {
+        return Flux.range(1, properties.shards() - 1)
+                .concatMap(offset -> takeFromShard(franchiseId, productId, (first + offset) % properties.shards(), quantity))
+                .any(Boolean::booleanValue);
+    }
+
+    /**
+     * Toma {@code refill-chunk} unidades del documento: las pedidas se consumen y el resto queda en el
+     * fragmento, con la generación del stock de la que salieron. Si el documento no tiene tantas, intenta
+     * tomar solo las pedidas.
+     */
+    private Mono<Boolean> refill(String franchiseId, String branchId, String productId, int shard, int quantity) {
+        int chunk = Math.max(quantity, properties.refillChunk());
+        Mono<Boolean> refill = takeFromFranchise(franchiseId, branchId, productId, chunk)
+                .flatMap(epoch -> {
+                    refills.increment();
+                    return addToShard(franchiseId, branchId, productId, shard, chunk - quantity, epoch.orElse(null))
+                            .thenReturn(true);
+                })
+                .switchIfEmpty(Mono.defer(() -> chunk > quantity
+                        ? updateFranchise(FranchiseUpdates.takeProductStock(franchiseId, branchId, productId, quantity))
+                        : Mono.just(false)));
+        return Mono.fromFuture(refill.toFuture(), true);
+    }
+
+    /**
+     * takeProductStock con findAndModify: devuelve la generación del stock del producto en el momento de
+     * tomar las unidades (vacío si no se tomaron). La proyección solo trae ids y generaciones.
+     */
+    private Mono<Optional<String>> takeFromFranchise(String franchiseId, String branchId, String productId, int quantity) {
+        TargetedUpdate take = FranchiseUpdates.takeProductStock(franchiseId, branchId, productId, quantity);
+        take.query().fields().include("branches._id", "branches.products._id", "branches.products." + FranchiseCodec.STOCK_EPOCH);
+        return mongoTemplate.findAndModify(take.query(), take.update(), FranchiseDocument.class)
+                .map(before -> Optional.ofNullable(before.getBranches()).orElse(List.of()).stream()
+                        .filter(branch -> branchId.equals(branch.getId()))
+                        .flatMap(branch -> Optional.ofNullable(branch.getProducts()).orElse(List.of()).stream())
+                        .filter(product -> productId.equals(product.getId()))
+                        .map(ProductDocument::getStockEpoch)
+                        .filter(Objects::nonNull)
+                        .findFirst());
+    }
+
+    /**
+     * Suma unidades al fragmento si es de la misma generación (o lo crea con ella). Si no lo es, el stock
+     * se fijó después de tomarlas: vuelven al documento si este sigue en su generación, o se descartan.
+     */
+    private Mono<Void> addToShard(String franchiseId, String branchId, String productId, int shard, int units, String epoch) {
+        if (units == 0) {
+            return Mono.empty();
+        }
+        Update update = new Update().inc(COUNT, units)
+                .setOnInsert("franchise_id", franchiseId)
+                .setOnInsert("branch_id", branchId)
+                .setOnInsert("product_id", productId)
+                .setOnInsert("shard", shard);
+        Query query = Query.query(Criteria.where("id").is(shardId(franchiseId, productId, shard)).and(EPOCH).is(epoch));
+        return mongoTemplate.upsert(query, update, StockShardDocument.class)
+                // Dos upserts a la vez sobre un fragmento nuevo: uno inserta y el otro reintenta como update
+                .retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .then()
+                // Sigue duplicado: el fragmento existe con otra generación
+                .onErrorResume(DuplicateKeyException.class,
+                        e -> returnToFranchise(franchiseId, branchId, productId, units, epoch).then());
+    }
+
+    private Mono<Boolean> updateFranchise(TargetedUpdate targeted) {
+        return mongoTemplate.updateFirst(targeted.query(), targeted.update(), FranchiseDocument.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    private static String shardId(String franchiseId, String productId, int shard) {
+        return franchiseId + ':' + productId + ':' + shard;
+    }
+
+    /**
+     * Las entidades recién decodificadas no se comparten: se ajustan en el sitio.
+     */
+    static Franchise addShardStock(Franchise franchise, Map<String, Integer> stock) {
+        if (!stock.isEmpty()) {
+            Optional.ofNullable(franchise.getBranches()).orElse(List.of())
+                    .forEach(branch -> addShardStock(branch, stock));
+        }
+        return franchise;
+    }
+
+    private static Branch addShardStock(Branch branch, Map<String, Integer> stock) {
+        if (branch != null) {
+            Optional.ofNullable(branch.getProducts()).orElse(List.of())
+                    .forEach(product -> addShardStock(product, stock));
+        }
+        return branch;
+    }
+
+    private static Product addShardStock(Product product, Map<String, Integer> stock) {
+        Integer extra = product != null ? stock.get(product.getId()) : null;
+        if (extra != null) {
+            product.setStockQuantity(Optional.ofNullable(product.getStockQuantity()).orElse(0) + extra);
+        }
+        return product;
+    }
+
+    /**
+     * Agregado perezoso con el stock de los fragmentos sumado a lo que se materialice.
+     */
+    private record ShardStockAggregate(FranchiseAggregate delegate, Map<String, Integer> stock) implements FranchiseAggregate {
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public boolean hasBranch(String branchId) {
+            return delegate.hasBranch(branchId);
+        }
+
+        @Override
+        public Optional<Branch> findBranch(String branchId) {
+            return delegate.findBranch(branchId).map(branch -> addShardStock(branch, stock));
+        }
+
+        @Override
+        public Optional<Product> findProduct(String branchId, String productId) {
+            return delegate.findProduct(branchId, productId).map(product -> addShardStock(product, stock));
+        }
+    }
+}
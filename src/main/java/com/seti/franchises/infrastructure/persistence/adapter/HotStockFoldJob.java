@@ -0,0 +1,33 @@
+package com.seti.franchises.infrastructure.persistence.adapter;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Job programado que devuelve los fragmentos de stock a sus productos cada {@code fold-interval}
+ * (HotStockCounters.foldBack). Solo existe con franchises.hot-stock.enabled=true y el motor reactivo: con el
+ * modo desactivado no se programa nada ni se consulta product_stock_shards.
+ */
+@Component
+@Profile("!inmemory")
+@EnableScheduling
+@ConditionalOnProperty(name = "franchises.hot-stock.enabled", havingValue = "true")
+@ConditionalOnProperty(name = "franchises.persistence.engine", havingValue = "reactive", matchIfMissing = true)
+public class HotStockFoldJob {
+
+    private final HotStockCounters hotStock;
+
+    public HotStockFoldJob(HotStockCounters hotStock) {
+        this.hotStock = hotStock;
+    }
+
+    @Scheduled(initialDelayString = "${franchises.hot-stock.fold-interval:PT30S}",
+            fixedDelayString = "${franchises.hot-stock.fold-interval:PT30S}")
+    public Mono<Void> run() {
+        return hotStock.foldBack();
+    }
+}
@@ -0,0 +1,27 @@
+package com.seti.franchises.infrastructure.persistence.adapter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Contadores de stock fragmentados para productos con mucha contención (franchises.hot-stock.*).
+ *
+ * @param enabled      activa el modo; desactivado, todos los decrementos van al documento de la franquicia
+ *                     y no se programa el fold (vaciar antes products para devolver los fragmentos)
+ * @param products     ids de los productos marcados (p. ej. los de una promoción)
+ * @param shards       fragmentos por producto; cada decremento elige uno al azar
+ * @param refillChunk  unidades que un fragmento vacío toma del documento de la franquicia de una vez
+ * @param foldInterval cada cuánto se devuelven los fragmentos a ProductDocument.stockQuantity
+ */
+@ConfigurationProperties("franchises.hot-stock")
+public record HotStockProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue Set<String> products,
+        @DefaultValue("8") int shards,
+        @DefaultValue("100") int refillChunk,
+        @DefaultValue("PT30S") Duration foldInterval
+) {
+}
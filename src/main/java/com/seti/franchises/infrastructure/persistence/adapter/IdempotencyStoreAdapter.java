@@ -0,0 +1,91 @@
+package com.seti.franchises.infrastructure.persistence.adapter;
+
+import com.seti.franchises.infrastructure.persistence.document.IdempotencyRecordDocument;
+import com.seti.franchises.infrastructure.persistence.repository.IdempotencyMongoRepository;
+import com.seti.franchises.infrastructure.web.idempotency.IdempotencyStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Adapter that implements IdempotencyStore on the idempotency_keys collection.
+ * Expired records are filtered on read and removed by MongoDB through a TTL index on expires_at.
+ * A claimed key is a record without body; the unique _id makes the claim atomic across instances.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class IdempotencyStoreAdapter implements IdempotencyStore {
+
+    private final IdempotencyMongoRepository repository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTtlIndex() {
+        mongoTemplate.indexOps(IdempotencyRecordDocument.class)
+                .createIndex(new Index().on("expires_at", Sort.Direction.ASC).expire(Duration.ZERO))
+                .subscribe(name -> log.debug("Índice TTL de idempotencia: {}", name),
+                        e -> log.warn("No se pudo crear el índice TTL de idempotencia", e));
+    }
+
+    @Override
+    public Mono<IdempotentResponse> find(String key) {
+        return repository.findById(key)
+                .filter(record -> record.getExpiresAt() == null || record.getExpiresAt().isAfter(Instant.now()))
+                .map(record -> new IdempotentResponse(record.getRequestHash(), record.getBody()));
+    }
+
+    /**
+     * Upsert condicionado a que el registro no exista o haya expirado: si existe y sigue vigente (pendiente o
+     * completo), la consulta no coincide, el upsert intenta insertar el mismo _id y falla con DuplicateKey.
+     * Un registro expirado que el índice TTL aún no ha borrado se reclama en el sitio.
+     */
+    @Override
+    public Mono<Boolean> claim(String key, String requestHash, Duration lease) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(key).and("expires_at").lte(now));
+        Update update = new Update()
+                .set("request_hash", requestHash)
+                .unset("body")
+                .set("expires_at", now.plus(lease));
+        return mongoTemplate.upsert(query, update, IdempotencyRecordDocument.class)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+
+    /**
+     * save (reemplazo): completa el registro que esta instancia reclamó con {@link #claim}.
+     */
+    @Override
+    public Mono<Void> save(String key, IdempotentResponse response, Duration ttl) {
+        return repository.save(IdempotencyRecordDocument.builder()
+                        .id(key)
+                        .requestHash(response.requestHash())
+                        .body(response.body())
+                        .expiresAt(Instant.now().plus(ttl))
+                        .build())
+                .then();
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").is(key).and("body").exists(false)),
+                        IdempotencyRecordDocument.class)
+                .then();
+    }
+}
@@ -0,0 +1,353 @@
+package com.seti.franchises.infrastructure.persistence.adapter;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.seti.franchises.application.observation.ReactiveObservation;
+import com.seti.franchises.application.observation.UseCaseEvents;
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.FranchiseAggregate;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.domain.port.FranchiseRepository;
+import com.seti.franchises.infrastructure.context.RequestDeadline;
+import com.seti.franchises.infrastructure.persistence.adapter.FranchiseUpdates.TargetedUpdate;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.persistence.codec.RawFranchiseAggregate;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.jfr.MongoCallEvents;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import com.seti.franchises.infrastructure.persistence.metrics.FranchiseDocumentMetrics;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Alternative implementation of the FranchiseRepository port on the synchronous MongoDB driver
+ * (MongoTemplate), selected with franchises.persistence.engine=virtual-threads.
+ * Each call blocks a virtual thread of its own (virtual-thread-per-task executor wrapped as a Reactor
+ * Scheduler) and is exposed as Mono.fromCallable / Flux, so the service and web layers are unchanged.
+ * Queries, codecs, deadlines (maxTimeMS on reads, timeout() on writes), observations and JFR events
+ * are the same as in FranchiseRepositoryAdapter; the repository observation is opened as a scope on
+ * the virtual thread so the driver's command spans stay nested under it.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "franchises.persistence.engine", havingValue = "virtual-threads")
+public class VirtualThreadFranchiseRepositoryAdapter implements FranchiseRepository, DisposableBean {
+
+    /**
+     * Documentos por lote del cursor de findAll; el siguiente lote se pide cuando el consumidor lo demanda.
+     */
+    private static final int CURSOR_BATCH = 64;
+
+    private static final String ID = "_id";
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+
+    private final MongoTemplate mongoTemplate;
+    private final FranchisePersistenceMapper mapper;
+    private final ObservationRegistry observationRegistry;
+    private final CodecRegistry codecRegistry;
+    private final Scheduler scheduler = Schedulers.fromExecutorService(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("franchises-vt-", 0).factory()), "franchises-vt");
+
+    public VirtualThreadFranchiseRepositoryAdapter(MongoTemplate mongoTemplate, FranchisePersistenceMapper mapper,
+                                                   ObservationRegistry observationRegistry, FranchiseCodec franchiseCodec) {
+        this.mongoTemplate = mongoTemplate;
+        this.mapper = mapper;
+        this.observationRegistry = observationRegistry;
+        this.codecRegistry = CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(franchiseCodec), MongoClientSettings.getDefaultCodecRegistry());
+        log.info("Motor de persistencia: driver síncrono de MongoDB sobre hilos virtuales");
+    }
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return Mono.justOrEmpty(franchise)
+                .map(FranchiseUpdates::withId)
+                .flatMap(f -> blocking(maxTimeMs -> {
+                    mongoTemplate.execute(FranchiseDocument.class, collection -> franchises(collection)
+                            .replaceOne(Filters.eq(ID, FranchiseCodec.toBsonId(f.getId())), f, UPSERT));
+                    return f;
+                }))
+                .transform(RequestDeadline::bound)
+                .transform(recorded("save", franchise != null ? franchise.getId() : null, FranchiseCodec::encodedSize))
+                .transform(UseCaseEvents::aggregate)
+                .doOnNext(saved -> log.debug("Franchise saved: id={}", saved.getId()))
+                .doOnError(e -> log.error("Error saving franchise", e))
+                .transform(observed("save"));
+    }
+
+    @Override
+    public Mono<Franchise> findById(String id) {
+        return Mono.justOrEmpty(id)
+                .flatMap(fid -> blocking(maxTimeMs -> mongoTemplate.execute(FranchiseDocument.class, collection ->
+                                maxTime(franchises(collection).find(Filters.eq(ID, FranchiseCodec.toBsonId(fid))), maxTimeMs).first()))
+                        .transform(recorded("findById", id, FranchiseCodec::encodedSize)))
+                .transform(UseCaseEvents::aggregate)
+                .doOnNext(f -> log.debug("Franchise found: id={}", id))
+                .doOnError(e -> log.error("Error finding franchise by id={}", id, e))
+                .transform(observed("findById"));
+    }
+
+    @Override
+    public Mono<FranchiseAggregate> findAggregateById(String id) {
+        return findRaw(id, "findAggregateById")
+                .<FranchiseAggregate>map(RawFranchiseAggregate::new)
+                .doOnNext(f -> log.debug("Franchise aggregate found: id={}", id))
+                .doOnError(e -> log.error("Error finding franchise aggregate by id={}", id, e))
+                .transform(observed("findAggregateById"));
+    }
+
+    @Override
+    public Mono<ByteBuffer> findBsonById(String id) {
+        return findRaw(id, "findBsonById")
+                .map(raw -> raw.getByteBuffer().asNIO())
+                .doOnError(e -> log.error("Error finding franchise BSON by id={}", id, e))
+                .transform(observed("findBsonById"));
+    }
+
+    private Mono<RawBsonDocument> findRaw(String id, String operation) {
+        return Mono.justOrEmpty(id)
+                .flatMap(fid -> blocking(maxTimeMs -> mongoTemplate.execute(FranchiseDocument.class, collection ->
+                                maxTime(collection.withDocumentClass(RawBsonDocument.class)
+                                        .withCodecRegistry(codecRegistry)
+                                        .find(Filters.eq(ID, FranchiseCodec.toBsonId(fid))), maxTimeMs).first()))
+                        .transform(recorded(operation, id, raw -> raw.getByteBuffer().remaining())));
+    }
+
+    /**
+     * Cursor del driver síncrono consumido con backpressure: cada lote (getMore) se lee en un hilo
+     * virtual cuando el consumidor pide más, y el cursor se cierra al completar o cancelar.
+     */
+    @Override
+    public Flux<Franchise> findAll() {
+        return Flux.deferContextual(context -> {
+                    if (deadlineExpired(context)) {
+                        return Flux.<Franchise>error(deadlineExceeded());
+                    }
+                    Long maxTimeMs = maxTimeMs(context);
+                    Observation observation = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+                    return Flux.using(
+                            () -> inScope(observation, () -> mongoTemplate.execute(FranchiseDocument.class, collection ->
+                                    maxTime(franchises(collection).find(), maxTimeMs).batchSize(CURSOR_BATCH).cursor())),
+                            (MongoCursor<Franchise> cursor) -> Flux.fromIterable(() -> cursor),
+                            MongoCursor::close);
+                })
+                .subscribeOn(scheduler)
+                .transform(MongoCallEvents.flux("findAll"))
+                .doOnComplete(() -> log.debug("Find all franchises completed"))
+                .doOnError(e -> log.error("Error finding all franchises", e))
+                .transform(ReactiveObservation.flux(observationRegistry, FranchiseRepositoryAdapter.REPOSITORY_OBSERVATION,
+                        "operation", "findAll"));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return Mono.justOrEmpty(id)
+                .flatMap(fid -> blocking(maxTimeMs -> mongoTemplate.remove(
+                        Query.query(Criteria.where("id").is(fid)), FranchiseDocument.class)))
+                .transform(RequestDeadline::bound)
+                .transform(recorded("deleteById", id, v -> 0))
+                .then()
+                .doOnSuccess(v -> log.debug("Franchise deleted: id={}", id))
+                .doOnError(e -> log.error("Error deleting franchise id={}", id, e))
+                .transform(observed("deleteById"));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return Mono.justOrEmpty(id)
+                .flatMap(fid -> blocking(maxTimeMs -> {
+                    Query query = Query.query(Criteria.where("id").is(fid));
+                    if (maxTimeMs != null) {
+                        query.maxTime(Duration.ofMillis(maxTimeMs));
+                    }
+                    return mongoTemplate.exists(query, FranchiseDocument.class);
+                }).transform(recorded("existsById", id, v -> 0)))
+                .defaultIfEmpty(false)
+                .doOnError(e -> log.error("Error checking existence for franchise id={}", id, e))
+                .transform(observed("existsById"));
+    }
+
+    @Override
+    public Mono<Boolean> addBranch(String franchiseId, Branch branch) {
+        return updateFirst("addBranch", franchiseId, FranchiseUpdates.pushBranch(franchiseId, mapper.toBranchDocument(branch)))
+                .doOnError(e -> log.error("Error pushing branch franchiseId={}", franchiseId, e))
+                .transform(observed("addBranch"));
+    }
+
+    @Override
+    public Mono<Boolean> setFranchiseName(String franchiseId, String name) {
+        return updateFirst("setFranchiseName", franchiseId, FranchiseUpdates.setFranchiseName(franchiseId, name))
+                .doOnError(e -> log.error("Error renaming franchise franchiseId={}", franchiseId, e))
+                .transform(observed("setFranchiseName"));
+    }
+
+    @Override
+    public Mono<Boolean> addProductsToBranch(String franchiseId, String branchId, List<Product> products) {
+        TargetedUpdate push = FranchiseUpdates.pushProducts(franchiseId, branchId,
+                products.stream().map(mapper::toProductDocument).toList());
+        return updateFirst("addProductsToBranch", franchiseId, push)
+                .doOnNext(matched -> log.debug("Products pushed: franchiseId={}, branchId={}, count={}, matched={}",
+                        franchiseId, branchId, products.size(), matched))
+                .doOnError(e -> log.error("Error pushing products franchiseId={}, branchId={}", franchiseId, branchId, e))
+                .transform(observed("addProductsToBranch"));
+    }
+
+    @Override
+    public Mono<Boolean> setProductStock(String franchiseId, String branchId, String productId, int stockQuantity) {
+        return updateFirst("setProductStock", franchiseId,
+                FranchiseUpdates.setProductStock(franchiseId, branchId, productId, stockQuantity))
+                .doOnError(e -> log.error("Error setting stock franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("setProductStock"));
+    }
+
+    @Override
+    public Mono<Boolean> decrementProductStock(String franchiseId, String branchId, String productId, int quantity) {
+        return updateFirst("decrementProductStock", franchiseId,
+                FranchiseUpdates.takeProductStock(franchiseId, branchId, productId, quantity))
+                .doOnError(e -> log.error("Error decrementing stock franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("decrementProductStock"));
+    }
+
+    @Override
+    public Mono<Boolean> setBranchName(String franchiseId, String branchId, String name) {
+        return updateFirst("setBranchName", franchiseId, FranchiseUpdates.setBranchName(franchiseId, branchId, name))
+                .doOnError(e -> log.error("Error renaming branch franchiseId={}, branchId={}", franchiseId, branchId, e))
+                .transform(observed("setBranchName"));
+    }
+
+    @Override
+    public Mono<Boolean> disableProduct(String franchiseId, String branchId, String productId, Instant disabledAt) {
+        return updateFirst("disableProduct", franchiseId,
+                FranchiseUpdates.disableProduct(franchiseId, branchId, productId, disabledAt))
+                .doOnError(e -> log.error("Error disabling product franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("disableProduct"));
+    }
+
+    @Override
+    public Mono<Boolean> setProductName(String franchiseId, String branchId, String productId, String name) {
+        return updateFirst("setProductName", franchiseId, FranchiseUpdates.setProductName(franchiseId, branchId, productId, name))
+                .doOnError(e -> log.error("Error renaming product franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("setProductName"));
+    }
+
+    @Override
+    public Mono<Boolean> removeProduct(String franchiseId, String branchId, String productId) {
+        return updateFirst("removeProduct", franchiseId, FranchiseUpdates.pullProduct(franchiseId, branchId, productId))
+                .doOnError(e -> log.error("Error removing product franchiseId={}, productId={}", franchiseId, productId, e))
+                .transform(observed("removeProduct"));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private Mono<Boolean> updateFirst(String operation, String franchiseId, TargetedUpdate targeted) {
+        return blocking(maxTimeMs -> mongoTemplate.updateFirst(targeted.query(), targeted.update(), FranchiseDocument.class))
+                .transform(RequestDeadline::bound)
+                .transform(recorded(operation, franchiseId, result -> bsonBytes(targeted.update().getUpdateObject())))
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    /**
+     * Ejecuta la llamada bloqueante en un hilo virtual nuevo. Recibe el maxTimeMS que queda del deadline
+     * de la petición (null sin deadline) y falla sin consultar si ya se agotó. Un resultado null es vacío.
+     */
+    private <T> Mono<T> blocking(Function<Long, T> call) {
+        return Mono.deferContextual(context -> {
+            if (deadlineExpired(context)) {
+                return Mono.<T>error(deadlineExceeded());
+            }
+            Long maxTimeMs = maxTimeMs(context);
+            Observation observation = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+            return Mono.fromCallable(() -> inScope(observation, () -> call.apply(maxTimeMs)))
+                    .subscribeOn(scheduler);
+        });
+    }
+
+    /**
+     * La observación del repositorio vive en el Reactor Context; el driver síncrono la busca en el hilo.
+     */
+    private static <T> T inScope(Observation observation, Supplier<T> call) {
+        if (observation == null) {
+            return call.get();
+        }
+        try (Observation.Scope ignored = observation.openScope()) {
+            return call.get();
+        }
+    }
+
+    private static boolean deadlineExpired(ContextView context) {
+        return RequestDeadline.from(context).map(RequestDeadline::isExpired).orElse(false);
+    }
+
+    private static TimeoutException deadlineExceeded() {
+        return new TimeoutException("Deadline de la petición agotado");
+    }
+
+    /**
+     * Milisegundos restantes del deadline (al menos 1: maxTimeMS=0 significaría "sin límite").
+     */
+    private static Long maxTimeMs(ContextView context) {
+        return RequestDeadline.from(context)
+                .map(deadline -> Math.max(1, deadline.remaining().toMillis()))
+                .orElse(null);
+    }
+
+    private static <T> FindIterable<T> maxTime(FindIterable<T> find, Long maxTimeMs) {
+        return maxTimeMs != null ? find.maxTime(maxTimeMs, TimeUnit.MILLISECONDS) : find;
+    }
+
+    private <T> Function<Mono<T>, Mono<T>> observed(String operation) {
+        return ReactiveObservation.mono(observationRegistry, FranchiseRepositoryAdapter.REPOSITORY_OBSERVATION, "operation", operation);
+    }
+
+    private static <T> Function<Mono<T>, Mono<T>> recorded(String operation, String franchiseId, ToLongFunction<? super T> bytes) {
+        return MongoCallEvents.mono(operation, franchiseId, bytes);
+    }
+
+    private long bsonBytes(Object source) {
+        return mongoTemplate.getConverter().convertToMongoType(source) instanceof Document document
+                ? FranchiseDocumentMetrics.bsonSize(document)
+                : 0;
+    }
+
+    private MongoCollection<Franchise> franchises(MongoCollection<Document> collection) {
+        return collection.withDocumentClass(Franchise.class).withCodecRegistry(codecRegistry);
+    }
+}
@@ -0,0 +1,295 @@
+package com.seti.franchises.infrastructure.persistence.codec;
+
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.metrics.FranchiseDocumentMetrics;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonObjectId;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codec BSON escrito a mano para {@link Franchise}: el driver decodifica directamente a entidades de
+ * dominio (sin org.bson.Document intermedio, sin la conversión reflexiva de MappingMongoConverter y sin
+ * la copia FranchiseDocument → Franchise) y codifica de vuelta.
+ * <p>
+ * El formato es el mismo que escribe Spring Data con {@link FranchiseDocument}: mismos nombres de campo,
+ * ids con aspecto de ObjectId guardados como ObjectId, fechas como BSON date y {@code _class}, así que
+ * ambos caminos leen los documentos del otro. Los campos desconocidos se ignoran.
+ * <p>
+ * Con lector/escritor binario (el caso del driver) el tamaño del documento sale gratis de la posición
+ * del buffer y se publica en {@link FranchiseDocumentMetrics} sin muestreo.
+ */
+@Component
+public class FranchiseCodec implements Codec<Franchise> {
+
+    public static final String ID = "_id";
+    public static final String CLASS = "_class";
+    public static final String NAME = "name";
+    public static final String BRANCHES = "branches";
+    public static final String PRODUCTS = "products";
+    public static final String STOCK_QUANTITY = "stock_quantity";
+    public static final String ENABLED = "enabled";
+    public static final String DISABLED_AT = "disabled_at";
+    /**
+     * Solo lo escriben HotStockCounters y el adaptador; el codec no lo lee ni lo escribe.
+     */
+    public static final String STOCK_EPOCH = "stock_epoch";
+
+    private static final String DOCUMENT_CLASS = FranchiseDocument.class.getName();
+
+    private final FranchiseDocumentMetrics metrics;
+
+    public FranchiseCodec(FranchiseDocumentMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Class<Franchise> getEncoderClass() {
+        return Franchise.class;
+    }
+
+    @Override
+    public Franchise decode(BsonReader reader, DecoderContext decoderContext) {
+        int start = reader instanceof BsonBinaryReader binary ? binary.getBsonInput().getPosition() : -1;
+        Franchise franchise = new Franchise();
+        franchise.setBranches(new ArrayList<>());
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case ID -> franchise.setId(readId(reader));
+                case NAME -> franchise.setName(readString(reader));
+                case BRANCHES -> franchise.setBranches(readBranches(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        if (start >= 0 && metrics != null) {
+            metrics.recordLoaded(franchise.getId(), ((BsonBinaryReader) reader).getBsonInput().getPosition() - start);
+        }
+        return franchise;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Franchise franchise, EncoderContext encoderContext) {
+        int start = writer instanceof BsonBinaryWriter binary ? binary.getBsonOutput().getPosition() : -1;
+        writer.writeStartDocument();
+        if (franchise.getId() != null) {
+            writer.writeName(ID);
+            writeId(writer, franchise.getId());
+        }
+        writeString(writer, NAME, franchise.getName());
+        writer.writeStartArray(BRANCHES);
+        if (franchise.getBranches() != null) {
+            for (Branch branch : franchise.getBranches()) {
+                writeBranch(writer, branch);
+            }
+        }
+        writer.writeEndArray();
+        writer.writeString(CLASS, DOCUMENT_CLASS);
+        writer.writeEndDocument();
+        if (start >= 0 && metrics != null) {
+            metrics.recordSaved(franchise.getId(), ((BsonBinaryWriter) writer).getBsonOutput().getPosition() - start);
+        }
+    }
+
+    /**
+     * Tamaño BSON de la franquicia codificada (para eventos JFR; no publica métricas).
+     */
+    public static int encodedSize(Franchise franchise) {
+        try (BasicOutputBuffer buffer = new BasicOutputBuffer(); BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            new FranchiseCodec(null).encode(writer, franchise, EncoderContext.builder().build());
+            return buffer.getPosition();
+        }
+    }
+
+    /**
+     * Franquicia codificada como BSON (para repositorios que no leen del driver; no publica métricas).
+     */
+    public static ByteBuffer toBson(Franchise franchise) {
+        try (BasicOutputBuffer buffer = new BasicOutputBuffer(); BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            new FranchiseCodec(null).encode(writer, franchise, EncoderContext.builder().build());
+            return ByteBuffer.wrap(buffer.toByteArray());
+        }
+    }
+
+    /**
+     * Valor de {@code _id} tal como lo guarda Spring Data para un id String: ObjectId si el texto es un
+     * ObjectId válido, String en otro caso.
+     */
+    public static BsonValue toBsonId(String id) {
+        return ObjectId.isValid(id) ? new BsonObjectId(new ObjectId(id)) : new BsonString(id);
+    }
+
+    private static List<Branch> readBranches(BsonReader reader) {
+        List<Branch> branches = new ArrayList<>();
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            reader.skipValue();
+            return branches;
+        }
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            branches.add(readBranch(reader));
+        }
+        reader.readEndArray();
+        return branches;
+    }
+
+    static Branch readBranch(BsonReader reader) {
+        Branch branch = new Branch();
+        branch.setProducts(new ArrayList<>());
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case ID -> branch.setId(readId(reader));
+                case NAME -> branch.setName(readString(reader));
+                case PRODUCTS -> branch.setProducts(readProducts(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return branch;
+    }
+
+    private static List<Product> readProducts(BsonReader reader) {
+        List<Product> products = new ArrayList<>();
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            reader.skipValue();
+            return products;
+        }
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            products.add(readProduct(reader));
+        }
+        reader.readEndArray();
+        return products;
+    }
+
+    static Product readProduct(BsonReader reader) {
+        Product product = new Product();
+        product.setEnabled(true);
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case ID -> product.setId(readId(reader));
+                case NAME -> product.setName(readString(reader));
+                case STOCK_QUANTITY -> product.setStockQuantity(readInteger(reader));
+                case ENABLED -> {
+                    if (reader.getCurrentBsonType() == BsonType.BOOLEAN) {
+                        product.setEnabled(reader.readBoolean());
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                case DISABLED_AT -> product.setDisabledAt(readInstant(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return product;
+    }
+
+    private static void writeBranch(BsonWriter writer, Branch branch) {
+        writer.writeStartDocument();
+        if (branch.getId() != null) {
+            writer.writeName(ID);
+            writeId(writer, branch.getId());
+        }
+        writeString(writer, NAME, branch.getName());
+        writer.writeStartArray(PRODUCTS);
+        if (branch.getProducts() != null) {
+            for (Product product : branch.getProducts()) {
+                writeProduct(writer, product);
+            }
+        }
+        writer.writeEndArray();
+        writer.writeEndDocument();
+    }
+
+    private static void writeProduct(BsonWriter writer, Product product) {
+        writer.writeStartDocument();
+        if (product.getId() != null) {
+            writer.writeName(ID);
+            writeId(writer, product.getId());
+        }
+        writeString(writer, NAME, product.getName());
+        if (product.getStockQuantity() != null) {
+            writer.writeInt32(STOCK_QUANTITY, product.getStockQuantity());
+        }
+        writer.writeBoolean(ENABLED, product.getEnabled() == null || product.getEnabled());
+        if (product.getDisabledAt() != null) {
+            writer.writeDateTime(DISABLED_AT, product.getDisabledAt().toEpochMilli());
+        }
+        writer.writeEndDocument();
+    }
+
+    public static String readId(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID -> reader.readObjectId().toHexString();
+            case STRING -> reader.readString();
+            default -> {
+                reader.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    private static void writeId(BsonWriter writer, String id) {
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId(new ObjectId(id));
+        } else {
+            writer.writeString(id);
+        }
+    }
+
+    public static String readString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.STRING) {
+            return reader.readString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    public static Integer readInteger(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> reader.readInt32();
+            case INT64 -> (int) reader.readInt64();
+            case DOUBLE -> (int) reader.readDouble();
+            default -> {
+                reader.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    private static Instant readInstant(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.DATE_TIME) {
+            return Instant.ofEpochMilli(reader.readDateTime());
+        }
+        reader.skipValue();
+        return null;
+    }
+}
@@ -0,0 +1,130 @@
+package com.seti.franchises.infrastructure.persistence.codec;
+
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.FranchiseAggregate;
+import com.seti.franchises.domain.entity.Product;
+import org.bson.BsonReader;
+import org.bson.BsonReaderMark;
+import org.bson.BsonType;
+import org.bson.RawBsonDocument;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * {@link FranchiseAggregate} sobre los bytes BSON de la franquicia tal como llegan del driver
+ * ({@link RawBsonDocument}, sin decodificar).
+ * <p>
+ * Cada consulta recorre los bytes con un lector binario: las sucursales y productos que no coinciden se
+ * saltan por su prefijo de longitud (sin leer su contenido) y solo se decodifica, con los mismos
+ * lectores que {@link FranchiseCodec}, el elemento pedido. Localizar un producto cuesta O(sucursales +
+ * productos de su sucursal) saltos y una decodificación, independientemente del tamaño de la franquicia.
+ */
+public final class RawFranchiseAggregate implements FranchiseAggregate {
+
+    private final RawBsonDocument document;
+    private final String id;
+    private final String name;
+
+    public RawFranchiseAggregate(RawBsonDocument document) {
+        this.document = document;
+        String readId = null;
+        String readName = null;
+        try (BsonReader reader = document.asBsonReader()) {
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                switch (reader.readName()) {
+                    case FranchiseCodec.ID -> readId = FranchiseCodec.readId(reader);
+                    case FranchiseCodec.NAME -> readName = FranchiseCodec.readString(reader);
+                    default -> reader.skipValue();
+                }
+            }
+        }
+        this.id = readId;
+        this.name = readName;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean hasBranch(String branchId) {
+        return inBranch(branchId, reader -> {
+            reader.skipValue();
+            return true;
+        }).isPresent();
+    }
+
+    @Override
+    public Optional<Branch> findBranch(String branchId) {
+        return inBranch(branchId, FranchiseCodec::readBranch);
+    }
+
+    @Override
+    public Optional<Product> findProduct(String branchId, String productId) {
+        return inBranch(branchId, reader -> {
+            reader.readStartDocument();
+            return seekField(reader, FranchiseCodec.PRODUCTS) && seekElement(reader, productId)
+                    ? FranchiseCodec.readProduct(reader)
+                    : null;
+        });
+    }
+
+    /**
+     * Posiciona el lector sobre la sucursal {@code branchId} y aplica {@code read}; vacío si no existe.
+     */
+    private <T> Optional<T> inBranch(String branchId, Function<BsonReader, T> read) {
+        try (BsonReader reader = document.asBsonReader()) {
+            reader.readStartDocument();
+            if (!seekField(reader, FranchiseCodec.BRANCHES) || !seekElement(reader, branchId)) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(read.apply(reader));
+        }
+    }
+
+    /**
+     * Avanza dentro del documento actual hasta el campo {@code name}; deja el lector sobre su valor.
+     */
+    private static boolean seekField(BsonReader reader, String name) {
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (name.equals(reader.readName())) {
+                return true;
+            }
+            reader.skipValue();
+        }
+        return false;
+    }
+
+    /**
+     * Avanza dentro del array actual hasta el subdocumento con {@code _id} igual a {@code id}; deja el
+     * lector sobre ese subdocumento. Los demás se saltan enteros tras leer solo su {@code _id}.
+     */
+    private static boolean seekElement(BsonReader reader, String id) {
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            reader.skipValue();
+            return false;
+        }
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (reader.getCurrentBsonType() == BsonType.DOCUMENT) {
+                BsonReaderMark mark = reader.getMark();
+                reader.readStartDocument();
+                boolean matches = seekField(reader, FranchiseCodec.ID) && id.equals(FranchiseCodec.readId(reader));
+                mark.reset();
+                if (matches) {
+                    return true;
+                }
+            }
+            reader.skipValue();
+        }
+        return false;
+    }
+}
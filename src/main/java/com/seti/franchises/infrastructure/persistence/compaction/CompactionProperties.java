@@ -0,0 +1,25 @@
+package com.seti.franchises.infrastructure.persistence.compaction;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Compactación de productos deshabilitados (franchises.compaction.*).
+ *
+ * @param enabled                activa el job programado
+ * @param retention              antigüedad mínima del borrado lógico para archivar el producto
+ * @param maxFranchisesPerRun    franquicias compactadas como mucho en cada ejecución
+ * @param pauseBetweenFranchises pausa entre franquicias para no competir con el tráfico online
+ * @param sizeWarningBytes       tamaño BSON a partir del cual se avisa (el límite de MongoDB es 16 MB)
+ */
+@ConfigurationProperties("franchises.compaction")
+public record CompactionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("30d") Duration retention,
+        @DefaultValue("200") int maxFranchisesPerRun,
+        @DefaultValue("200ms") Duration pauseBetweenFranchises,
+        @DefaultValue("12582912") long sizeWarningBytes
+) {
+}
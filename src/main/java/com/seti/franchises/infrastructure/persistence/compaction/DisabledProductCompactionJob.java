@@ -0,0 +1,207 @@
+package com.seti.franchises.infrastructure.persistence.compaction;
+
+import com.seti.franchises.infrastructure.persistence.document.ArchivedProductDocument;
+import com.seti.franchises.infrastructure.persistence.document.BranchDocument;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.document.ProductDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Job programado que mantiene acotado el tamaño de los documentos de franquicia.
+ * <ol>
+ *     <li>Mide el tamaño BSON de cada franquicia en el servidor ($bsonSize, MongoDB 4.4+), publica el
+ *     máximo y cuántas superan el umbral de aviso, y registra un warning por cada una.</li>
+ *     <li>Pone disabled_at a los productos deshabilitados antes de existir el campo, para que empiecen
+ *     a contar la retención desde ahora.</li>
+ *     <li>Por cada franquicia con productos deshabilitados hace más de {@code retention}: los copia a
+ *     archived_products (upsert por id, idempotente) y después los quita con un único $pull.</li>
+ * </ol>
+ * Para no competir con el tráfico online compacta las franquicias de una en una, con una pausa entre
+ * ellas y un máximo por ejecución; lo que quede se compacta en la siguiente.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(CompactionProperties.class)
+@ConditionalOnProperty(name = "franchises.compaction.enabled", havingValue = "true", matchIfMissing = true)
+public class DisabledProductCompactionJob {
+
+    private static final int MAX_SIZE_WARNINGS = 20;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CompactionProperties properties;
+    private final AtomicLong maxDocumentSize = new AtomicLong();
+    private final AtomicLong documentsNearLimit = new AtomicLong();
+    private final Counter archivedProducts;
+    private final Counter compactedFranchises;
+
+    public DisabledProductCompactionJob(ReactiveMongoTemplate mongoTemplate, CompactionProperties properties, MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        Gauge.builder("franchises.document.size.max", maxDocumentSize, AtomicLong::get)
+                .description("Tamaño BSON del mayor documento de franquicia (última medición)")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("franchises.document.size.near.limit", documentsNearLimit, AtomicLong::get)
+                .description("Documentos de franquicia por encima del umbral de aviso")
+                .register(registry);
+        this.archivedProducts = Counter.builder("franchises.compaction.archived.products")
+                .description("Productos deshabilitados movidos a archived_products")
+                .register(registry);
+        this.compactedFranchises = Counter.builder("franchises.compaction.franchises")
+                .description("Franquicias compactadas")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${franchises.compaction.initial-delay:PT5M}",
+            fixedDelayString = "${franchises.compaction.interval:PT1H}")
+    public Mono<Void> run() {
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(properties.retention());
+        return scanDocumentSizes()
+                .then(stampLegacyDisabledProducts(now))
+                .thenMany(findFranchisesToCompact(cutoff))
+                .concatMap(franchiseId -> compactFranchise(franchiseId, cutoff, now)
+                        .delaySubscription(properties.pauseBetweenFranchises()))
+                .reduce(0L, Long::sum)
+                .doOnNext(total -> log.info("Compactación completada: productos archivados={}", total))
+                .doOnError(e -> log.error("Error en la compactación de productos deshabilitados", e))
+                .onErrorComplete()
+                .then();
+    }
+
+    /**
+     * $bsonSize en el servidor: no transfiere los documentos, solo el resumen y los más grandes.
+     */
+    private Mono<Void> scanDocumentSizes() {
+        long warnBytes = properties.sizeWarningBytes();
+        List<Document> pipeline = List.of(
+                new Document("$project", new Document("size", new Document("$bsonSize", "$$ROOT"))),
+                new Document("$facet", new Document()
+                        .append("stats", List.of(new Document("$group", new Document("_id", null)
+                                .append("max", new Document("$max", "$size"))
+                                .append("nearLimit", new Document("$sum",
+                                        new Document("$cond", List.of(new Document("$gte", List.of("$size", warnBytes)), 1, 0)))))))
+                        .append("large", List.of(
+                                new Document("$match", new Document("size", new Document("$gte", warnBytes))),
+                                new Document("$sort", new Document("size", -1)),
+                                new Document("$limit", MAX_SIZE_WARNINGS)))));
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(FranchiseDocument.class))
+                .flatMap(collection -> Mono.from(collection.aggregate(pipeline).first()))
+                .doOnNext(result -> {
+                    result.getList("stats", Document.class).stream().findFirst().ifPresent(stats -> {
+                        maxDocumentSize.set(stats.get("max", Number.class).longValue());
+                        documentsNearLimit.set(stats.get("nearLimit", Number.class).longValue());
+                    });
+                    result.getList("large", Document.class).forEach(doc ->
+                            log.warn("Documento de franquicia cerca del límite de 16 MB: franchiseId={}, bytes={}",
+                                    doc.get("_id"), doc.get("size")));
+                })
+                .then();
+    }
+
+    private Mono<Void> stampLegacyDisabledProducts(Instant now) {
+        Query query = Query.query(Criteria.where("branches.products").elemMatch(
+                Criteria.where("enabled").is(false).and("disabled_at").exists(false)));
+        Update update = new Update().set("branches.$[].products.$[p].disabled_at", now)
+                .filterArray(Criteria.where("p.enabled").is(false).and("p.disabled_at").exists(false));
+        return mongoTemplate.updateMulti(query, update, FranchiseDocument.class)
+                .doOnNext(result -> {
+                    if (result.getModifiedCount() > 0) {
+                        log.info("Productos deshabilitados sin disabled_at marcados: franquicias={}", result.getModifiedCount());
+                    }
+                })
+                .then();
+    }
+
+    private Flux<String> findFranchisesToCompact(Instant cutoff) {
+        Query query = Query.query(Criteria.where("branches.products").elemMatch(
+                        Criteria.where("enabled").is(false).and("disabled_at").lt(cutoff)))
+                .limit(properties.maxFranchisesPerRun());
+        query.fields().include("id");
+        return mongoTemplate.find(query, FranchiseDocument.class).map(FranchiseDocument::getId);
+    }
+
+    /**
+     * Archiva y luego quita: si el job se corta entre ambos pasos, la siguiente ejecución repite
+     * el upsert (mismo id) y completa el $pull.
+     */
+    private Mono<Long> compactFranchise(String franchiseId, Instant cutoff, Instant now) {
+        return mongoTemplate.findById(franchiseId, FranchiseDocument.class)
+                .map(document -> expiredProducts(document, cutoff, now))
+                .filter(expired -> !expired.isEmpty())
+                .flatMap(expired -> archive(expired)
+                        .then(pullArchived(franchiseId, expired))
+                        .thenReturn((long) expired.size()))
+                .doOnNext(count -> {
+                    archivedProducts.increment(count);
+                    compactedFranchises.increment();
+                    log.debug("Franquicia compactada: franchiseId={}, productosArchivados={}", franchiseId, count);
+                })
+                .defaultIfEmpty(0L);
+    }
+
+    private static List<ArchivedProductDocument> expiredProducts(FranchiseDocument franchise, Instant cutoff, Instant now) {
+        List<ArchivedProductDocument> expired = new ArrayList<>();
+        for (BranchDocument branch : Optional.ofNullable(franchise.getBranches()).orElse(Collections.emptyList())) {
+            for (ProductDocument product : Optional.ofNullable(branch.getProducts()).orElse(Collections.emptyList())) {
+                if (Boolean.FALSE.equals(product.getEnabled()) && product.getDisabledAt() != null
+                        && product.getDisabledAt().isBefore(cutoff)) {
+                    expired.add(ArchivedProductDocument.builder()
+                            .id(product.getId())
+                            .franchiseId(franchise.getId())
+                            .branchId(branch.getId())
+                            .name(product.getName())
+                            .stockQuantity(product.getStockQuantity())
+                            .disabledAt(product.getDisabledAt())
+                            .archivedAt(now)
+                            .build());
+                }
+            }
+        }
+        return expired;
+    }
+
+    private Mono<Void> archive(List<ArchivedProductDocument> products) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedProductDocument.class);
+        products.forEach(product -> bulk.replaceOne(Query.query(Criteria.where("id").is(product.getId())), product,
+                FindAndReplaceOptions.options().upsert()));
+        return bulk.execute().then();
+    }
+
+    /**
+     * Un único $pull sobre todas las sucursales ($[]) con los ids archivados, y solo si siguen deshabilitados.
+     */
+    private Mono<Void> pullArchived(String franchiseId, List<ArchivedProductDocument> products) {
+        List<String> ids = products.stream().map(ArchivedProductDocument::getId).toList();
+        Update update = new Update().pull("branches.$[].products",
+                new Document("_id", new Document("$in", ids)).append("enabled", false));
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(franchiseId)), update, FranchiseDocument.class)
+                .then();
+    }
+}
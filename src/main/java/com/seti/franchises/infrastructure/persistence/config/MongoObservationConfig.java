@@ -0,0 +1,23 @@
+package com.seti.franchises.infrastructure.persistence.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+/**
+ * Un span por comando de MongoDB (find, update, insert...) como hijo del span del repositorio.
+ * El ContextProvider lleva la observación del Reactor Context al driver.
+ */
+@Configuration
+public class MongoObservationConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+        return builder -> builder
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+}
@@ -0,0 +1,55 @@
+package com.seti.franchises.infrastructure.persistence.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.mongodb.autoconfigure.MongoConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+import java.util.Objects;
+
+/**
+ * Cliente síncrono de MongoDB y MongoTemplate, solo para el motor de hilos virtuales
+ * (franchises.persistence.engine=virtual-threads).
+ * <p>
+ * La autoconfiguración síncrona de Spring Boot está excluida (spring.autoconfigure.exclude): con el
+ * driver síncrono en el classpath crearía un segundo pool de conexiones en cada arranque, también con el
+ * motor reactivo y con el perfil inmemory. Aquí se usa la misma URI, los mismos customizers (métricas y
+ * observaciones del driver) y el mismo MappingMongoConverter que el cliente reactivo.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "franchises.persistence.engine", havingValue = "virtual-threads")
+public class SyncMongoConfig {
+
+    private static final String DEFAULT_DATABASE = "test";
+
+    @Bean(destroyMethod = "close")
+    public MongoClient syncMongoClient(MongoConnectionDetails connectionDetails,
+                                       ObjectProvider<MongoClientSettingsBuilderCustomizer> customizers) {
+        MongoClientSettings.Builder settings = MongoClientSettings.builder()
+                .applyConnectionString(connectionDetails.getConnectionString());
+        customizers.orderedStream().forEach(customizer -> customizer.customize(settings));
+        return MongoClients.create(settings.build());
+    }
+
+    @Bean
+    public MongoTemplate mongoTemplate(MongoClient syncMongoClient, MongoConnectionDetails connectionDetails,
+                                       MappingMongoConverter converter,
+                                       @Value("${spring.mongodb.database:}") String database) {
+        ConnectionString connectionString = connectionDetails.getConnectionString();
+        String name = !database.isBlank() ? database
+                : Objects.requireNonNullElse(connectionString.getDatabase(), DEFAULT_DATABASE);
+        return new MongoTemplate(new SimpleMongoClientDatabaseFactory(syncMongoClient, name), converter);
+    }
+}
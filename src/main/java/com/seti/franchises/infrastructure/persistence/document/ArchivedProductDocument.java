@@ -0,0 +1,44 @@
+package com.seti.franchises.infrastructure.persistence.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Producto deshabilitado (borrado lógico) archivado fuera del documento de su franquicia.
+ * Collection: archived_products. El id es el del producto, así archivarlo de nuevo es idempotente.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "archived_products")
+public class ArchivedProductDocument {
+
+    @Id
+    private String id;
+
+    @Field("franchise_id")
+    private String franchiseId;
+
+    @Field("branch_id")
+    private String branchId;
+
+    @Field("name")
+    private String name;
+
+    @Field("stock_quantity")
+    private Integer stockQuantity;
+
+    @Field("disabled_at")
+    private Instant disabledAt;
+
+    @Field("archived_at")
+    private Instant archivedAt;
+}
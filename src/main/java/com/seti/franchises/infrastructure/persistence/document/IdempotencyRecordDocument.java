@@ -0,0 +1,35 @@
+package com.seti.franchises.infrastructure.persistence.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Respuesta guardada para una clave de idempotencia; sin body, la clave está reclamada y la ejecución en curso.
+ * Collection: idempotency_keys. MongoDB borra el documento al llegar a expiresAt (índice TTL).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecordDocument {
+
+    @Id
+    private String id;
+
+    @Field("request_hash")
+    private String requestHash;
+
+    @Field("body")
+    private String body;
+
+    @Field("expires_at")
+    private Instant expiresAt;
+}
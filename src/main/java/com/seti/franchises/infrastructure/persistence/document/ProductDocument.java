@@ -7,6 +7,8 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.time.Instant;
+
 /**
  * MongoDB embedded document for a product.
  * Maps to the domain entity Product (name + stock quantity).
@@ -32,4 +34,17 @@ public class ProductDocument {
     @Field("enabled")
     @Builder.Default
     private Boolean enabled = true;
+
+    /**
+     * Momento del borrado lógico; la compactación archiva los productos con más antigüedad que la retención.
+     */
+    @Field("disabled_at")
+    private Instant disabledAt;
+
+    /**
+     * Generación del stock con contadores fragmentados (HotStockCounters): cambia cada vez que el stock
+     * se fija de forma absoluta. Sin el campo, el producto nunca se ha fijado con el modo activo.
+     */
+    @Field("stock_epoch")
+    private String stockEpoch;
 }
@@ -0,0 +1,45 @@
+package com.seti.franchises.infrastructure.persistence.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Fragmento del contador de stock de un producto con mucha contención de escritura.
+ * Collection: product_stock_shards. Id: {@code franchiseId:productId:shard}.
+ * El stock del producto es el de su ProductDocument más la suma de sus fragmentos.
+ * {@code epoch} es la generación del stock de la que salieron las unidades del fragmento (la misma
+ * que ProductDocument.stockEpoch); fijar el stock la cambia y las unidades de otra generación no vuelven.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "product_stock_shards")
+public class StockShardDocument {
+
+    @Id
+    private String id;
+
+    @Field("franchise_id")
+    private String franchiseId;
+
+    @Field("branch_id")
+    private String branchId;
+
+    @Field("product_id")
+    private String productId;
+
+    @Field("shard")
+    private Integer shard;
+
+    @Field("count")
+    private Integer count;
+
+    @Field("epoch")
+    private String epoch;
+}
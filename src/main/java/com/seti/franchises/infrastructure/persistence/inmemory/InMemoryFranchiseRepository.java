@@ -0,0 +1,317 @@
+package com.seti.franchises.infrastructure.persistence.inmemory;
+
+import com.seti.franchises.application.observation.UseCaseEvents;
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.FranchiseAggregate;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.domain.port.FranchiseRepository;
+import com.seti.franchises.infrastructure.mapping.LargeAggregateMapping;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.persistence.document.BranchDocument;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.document.ProductDocument;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementación en memoria del puerto {@link FranchiseRepository} (perfil {@code inmemory}).
+ * Aísla el coste de la aplicación del de MongoDB en pruebas de integración, pruebas de carga y benchmarks.
+ * <p>
+ * Guarda documentos, no entidades: cada lectura y escritura pasa por {@link FranchisePersistenceMapper}
+ * como con MongoDB, así el coste de mapeo se mantiene y los llamantes nunca comparten instancias.
+ * Las operaciones atómicas ($push, $set con arrayFilters) se emulan con compute sobre el mapa y
+ * findAggregateById mapea solo la sucursal o el producto consultado, como el agregado BSON perezoso.
+ * Las lecturas de franquicias completas mapean las grandes fuera del event loop ({@link LargeAggregateMapping}).
+ */
+@Component
+@Profile("inmemory")
+@RequiredArgsConstructor
+public class InMemoryFranchiseRepository implements FranchiseRepository {
+
+    private final Map<String, FranchiseDocument> store = new ConcurrentHashMap<>();
+    private final FranchisePersistenceMapper mapper;
+    private final LargeAggregateMapping aggregateMapping;
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return Mono.fromSupplier(() -> {
+            FranchiseDocument document = mapper.toDocument(franchise);
+            if (document.getId() == null) {
+                document.setId(UUID.randomUUID().toString());
+            }
+            store.put(document.getId(), document);
+            return mapper.toEntity(document);
+        }).transform(UseCaseEvents::aggregate);
+    }
+
+    @Override
+    public Mono<Franchise> findById(String id) {
+        return Mono.justOrEmpty(id).mapNotNull(store::get).flatMap(this::toEntity)
+                .transform(UseCaseEvents::aggregate);
+    }
+
+    @Override
+    public Mono<FranchiseAggregate> findAggregateById(String id) {
+        return Mono.justOrEmpty(id).mapNotNull(store::get).map(DocumentAggregate::new);
+    }
+
+    /**
+     * Codifica la franquicia con FranchiseCodec: el mismo BSON que devolvería MongoDB.
+     */
+    @Override
+    public Mono<ByteBuffer> findBsonById(String id) {
+        return Mono.justOrEmpty(id).mapNotNull(store::get).flatMap(this::toEntity).map(FranchiseCodec::toBson);
+    }
+
+    @Override
+    public Flux<Franchise> findAll() {
+        return Flux.fromIterable(store.values()).concatMap(this::toEntity);
+    }
+
+    private Mono<Franchise> toEntity(FranchiseDocument document) {
+        return aggregateMapping.map(document, FranchisePersistenceMapper.ENTITY_SPLIT, mapper::toEntity);
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return Mono.fromRunnable(() -> store.remove(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return Mono.fromSupplier(() -> id != null && store.containsKey(id));
+    }
+
+    @Override
+    public Mono<Boolean> addBranch(String franchiseId, Branch branch) {
+        return Mono.fromSupplier(() -> store.computeIfPresent(franchiseId, (id, document) -> {
+            FranchiseDocument copy = copy(document);
+            copy.getBranches().add(mapper.toBranchDocument(branch));
+            return copy;
+        }) != null);
+    }
+
+    @Override
+    public Mono<Boolean> setFranchiseName(String franchiseId, String name) {
+        return Mono.fromSupplier(() -> store.computeIfPresent(franchiseId, (id, document) -> {
+            FranchiseDocument copy = copy(document);
+            copy.setName(name);
+            return copy;
+        }) != null);
+    }
+
+    @Override
+    public Mono<Boolean> addProductsToBranch(String franchiseId, String branchId, List<Product> products) {
+        return Mono.fromSupplier(() -> {
+            boolean[] matched = {false};
+            store.computeIfPresent(franchiseId, (id, document) -> {
+                FranchiseDocument copy = copy(document);
+                copy.getBranches().stream()
+                        .filter(branch -> branchId.equals(branch.getId()))
+                        .findFirst()
+                        .ifPresent(branch -> {
+                            products.forEach(product -> branch.getProducts().add(mapper.toProductDocument(product)));
+                            matched[0] = true;
+                        });
+                return copy;
+            });
+            return matched[0];
+        });
+    }
+
+    @Override
+    public Mono<Boolean> setProductStock(String franchiseId, String branchId, String productId, int stockQuantity) {
+        return Mono.fromSupplier(() -> {
+            boolean[] matched = {false};
+            store.computeIfPresent(franchiseId, (id, document) -> {
+                FranchiseDocument copy = copy(document);
+                copy.getBranches().stream()
+                        .filter(branch -> branchId.equals(branch.getId()))
+                        .flatMap(branch -> branch.getProducts().stream())
+                        .filter(product -> productId.equals(product.getId()) && !Boolean.FALSE.equals(product.getEnabled()))
+                        .findFirst()
+                        .ifPresent(product -> {
+                            product.setStockQuantity(stockQuantity);
+                            matched[0] = true;
+                        });
+                return copy;
+            });
+            return matched[0];
+        });
+    }
+
+    @Override
+    public Mono<Boolean> decrementProductStock(String franchiseId, String branchId, String productId, int quantity) {
+        return Mono.fromSupplier(() -> {
+            boolean[] matched = {false};
+            store.computeIfPresent(franchiseId, (id, document) -> {
+                FranchiseDocument copy = copy(document);
+                copy.getBranches().stream()
+                        .filter(branch -> branchId.equals(branch.getId()))
+                        .flatMap(branch -> branch.getProducts().stream())
+                        .filter(product -> productId.equals(product.getId()) && !Boolean.FALSE.equals(product.getEnabled())
+                                && product.getStockQuantity() != null && product.getStockQuantity() >= quantity)
+                        .findFirst()
+                        .ifPresent(product -> {
+                            product.setStockQuantity(product.getStockQuantity() - quantity);
+                            matched[0] = true;
+                        });
+                return copy;
+            });
+            return matched[0];
+        });
+    }
+
+    @Override
+    public Mono<Boolean> setBranchName(String franchiseId, String branchId, String name) {
+        return Mono.fromSupplier(() -> {
+            boolean[] matched = {false};
+            store.computeIfPresent(franchiseId, (id, document) -> {
+                FranchiseDocument copy = copy(document);
+                copy.getBranches().stream()
+                        .filter(branch -> branchId.equals(branch.getId()))
+                        .findFirst()
+                        .ifPresent(branch -> {
+                            branch.setName(name);
+                            matched[0] = true;
+                        });
+                return copy;
+            });
+            return matched[0];
+        });
+    }
+
+    @Override
+    public Mono<Boolean> disableProduct(String franchiseId, String branchId, String productId, Instant disabledAt) {
+        return Mono.fromSupplier(() -> {
+            boolean[] matched = {false};
+            store.computeIfPresent(franchiseId, (id, document) -> {
+                FranchiseDocument copy = copy(document);
+                copy.getBranches().stream()
+                        .filter(branch -> branchId.equals(branch.getId()))
+                        .flatMap(branch -> branch.getProducts().stream())
+                        .filter(product -> productId.equals(product.getId()))
+                        .findFirst()
+                        .ifPresent(product -> {
+                            product.setEnabled(false);
+                            product.setDisabledAt(disabledAt);
+                            matched[0] = true;
+                        });
+                return copy;
+            });
+            return matched[0];
+        });
+    }
+
+    @Override
+    public Mono<Boolean> setProductName(String franchiseId, String branchId, String productId, String name) {
+        return Mono.fromSupplier(() -> {
+            boolean[] matched = {false};
+            store.computeIfPresent(franchiseId, (id, document) -> {
+                FranchiseDocument copy = copy(document);
+                copy.getBranches().stream()
+                        .filter(branch -> branchId.equals(branch.getId()))
+                        .flatMap(branch -> branch.getProducts().stream())
+                        .filter(product -> productId.equals(product.getId()) && !Boolean.FALSE.equals(product.getEnabled()))
+                        .findFirst()
+                        .ifPresent(product -> {
+                            product.setName(name);
+                            matched[0] = true;
+                        });
+                return copy;
+            });
+            return matched[0];
+        });
+    }
+
+    @Override
+    public Mono<Boolean> removeProduct(String franchiseId, String branchId, String productId) {
+        return Mono.fromSupplier(() -> {
+            boolean[] matched = {false};
+            store.computeIfPresent(franchiseId, (id, document) -> {
+                FranchiseDocument copy = copy(document);
+                copy.getBranches().stream()
+                        .filter(branch -> branchId.equals(branch.getId()))
+                        .findFirst()
+                        .ifPresent(branch -> matched[0] = branch.getProducts().removeIf(product -> productId.equals(product.getId())));
+                return copy;
+            });
+            return matched[0];
+        });
+    }
+
+    /**
+     * Agregado sobre el documento guardado (inmutable: las escrituras lo sustituyen por una copia).
+     */
+    @RequiredArgsConstructor
+    private final class DocumentAggregate implements FranchiseAggregate {
+
+        private final FranchiseDocument document;
+
+        @Override
+        public String getId() {
+            return document.getId();
+        }
+
+        @Override
+        public String getName() {
+            return document.getName();
+        }
+
+        @Override
+        public boolean hasBranch(String branchId) {
+            return branch(branchId).isPresent();
+        }
+
+        @Override
+        public Optional<Branch> findBranch(String branchId) {
+            return branch(branchId).map(mapper::toBranchEntity);
+        }
+
+        @Override
+        public Optional<Product> findProduct(String branchId, String productId) {
+            return branch(branchId)
+                    .flatMap(branch -> branch.getProducts().stream().filter(p -> productId.equals(p.getId())).findFirst())
+                    .map(mapper::toProductEntity);
+        }
+
+        private Optional<BranchDocument> branch(String branchId) {
+            return document.getBranches().stream().filter(b -> branchId.equals(b.getId())).findFirst();
+        }
+    }
+
+    /**
+     * Copia profunda: los lectores concurrentes siguen viendo la versión anterior (como en MongoDB).
+     */
+    private static FranchiseDocument copy(FranchiseDocument document) {
+        List<BranchDocument> branches = new ArrayList<>();
+        for (BranchDocument branch : document.getBranches()) {
+            List<ProductDocument> products = new ArrayList<>();
+            for (ProductDocument product : branch.getProducts()) {
+                products.add(ProductDocument.builder()
+                        .id(product.getId())
+                        .name(product.getName())
+                        .stockQuantity(product.getStockQuantity())
+                        .enabled(product.getEnabled())
+                        .disabledAt(product.getDisabledAt())
+                        .build());
+            }
+            branches.add(BranchDocument.builder().id(branch.getId()).name(branch.getName()).products(products).build());
+        }
+        return FranchiseDocument.builder().id(document.getId()).name(document.getName()).branches(branches).build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.seti.franchises.infrastructure.persistence.inmemory;
+
+import com.seti.franchises.infrastructure.web.idempotency.IdempotencyStore;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Almacén de respuestas idempotentes en memoria (perfil {@code inmemory}); misma semántica que
+ * IdempotencyStoreAdapter: la clave se reclama de forma atómica y los registros expirados no se devuelven.
+ */
+@Component
+@Profile("inmemory")
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> records = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<IdempotentResponse> find(String key) {
+        return Mono.justOrEmpty(records.get(key))
+                .filter(entry -> entry.expiresAt().isAfter(Instant.now()))
+                .map(Entry::response);
+    }
+
+    @Override
+    public Mono<Boolean> claim(String key, String requestHash, Duration lease) {
+        return Mono.fromCallable(() -> {
+            Instant now = Instant.now();
+            Entry pending = new Entry(IdempotentResponse.pending(requestHash), now.plus(lease));
+            return records.compute(key, (k, current) ->
+                    current == null || !current.expiresAt().isAfter(now) ? pending : current) == pending;
+        });
+    }
+
+    @Override
+    public Mono<Void> save(String key, IdempotentResponse response, Duration ttl) {
+        return Mono.fromRunnable(() -> records.put(key, new Entry(response, Instant.now().plus(ttl))));
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return Mono.fromRunnable(() -> records.computeIfPresent(key, (k, current) ->
+                current.response().isPending() ? null : current));
+    }
+
+    private record Entry(IdempotentResponse response, Instant expiresAt) {
+    }
+}
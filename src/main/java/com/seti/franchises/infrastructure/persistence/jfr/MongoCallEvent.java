@@ -0,0 +1,37 @@
+package com.seti.franchises.infrastructure.persistence.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR por llamada a MongoDB desde {@link com.seti.franchises.infrastructure.persistence.adapter.FranchiseRepositoryAdapter}.
+ * La duración es la del propio evento; se emite con {@link MongoCallEvents}.
+ */
+@Name("com.seti.franchises.MongoCall")
+@Label("Franchise Mongo Call")
+@Category({"Franchises", "Persistence"})
+@Description("Operación del repositorio de franquicias contra MongoDB")
+@StackTrace(false)
+public class MongoCallEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Franchise Id")
+    String franchiseId;
+
+    @Label("Bytes")
+    @DataAmount
+    @Description("Tamaño BSON del documento leído/escrito o del update enviado (0 si no aplica)")
+    long bytes;
+
+    @Label("Documents")
+    long documents;
+
+    @Label("Outcome")
+    String outcome;
+}
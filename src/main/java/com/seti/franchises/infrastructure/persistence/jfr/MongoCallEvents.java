@@ -0,0 +1,79 @@
+package com.seti.franchises.infrastructure.persistence.jfr;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Operadores que emiten un {@link MongoCallEvent} (JFR) por llamada a MongoDB.
+ * <p>
+ * Sin grabación activa el publisher se devuelve intacto. Los bytes se calculan (serializando a BSON)
+ * solo después de {@code shouldCommit()}, es decir, cuando el evento va a escribirse de verdad.
+ */
+public final class MongoCallEvents {
+
+    private MongoCallEvents() {
+    }
+
+    /**
+     * @param bytes tamaño BSON del valor emitido (solo se evalúa si el evento se escribe)
+     */
+    public static <T> Function<Mono<T>, Mono<T>> mono(String operation, String franchiseId, ToLongFunction<? super T> bytes) {
+        return source -> {
+            if (!new MongoCallEvent().isEnabled()) {
+                return source;
+            }
+            return Mono.defer(() -> {
+                MongoCallEvent event = start(operation, franchiseId);
+                return source
+                        .doOnSuccess(v -> {
+                            event.end();
+                            if (v != null && event.shouldCommit()) {
+                                event.documents = 1;
+                                event.bytes = bytes.applyAsLong(v);
+                            }
+                            commit(event, "success");
+                        })
+                        .doOnError(e -> commit(event, "error"))
+                        .doOnCancel(() -> commit(event, "cancelled"));
+            });
+        };
+    }
+
+    /**
+     * Streams (findAll): cuenta documentos, sin calcular bytes para no serializar cada franquicia.
+     */
+    public static <T> Function<Flux<T>, Flux<T>> flux(String operation) {
+        return source -> {
+            if (!new MongoCallEvent().isEnabled()) {
+                return source;
+            }
+            return Flux.defer(() -> {
+                MongoCallEvent event = start(operation, null);
+                return source
+                        .doOnNext(v -> event.documents++)
+                        .doOnComplete(() -> commit(event, "success"))
+                        .doOnError(e -> commit(event, "error"))
+                        .doOnCancel(() -> commit(event, "cancelled"));
+            });
+        };
+    }
+
+    private static MongoCallEvent start(String operation, String franchiseId) {
+        MongoCallEvent event = new MongoCallEvent();
+        event.operation = operation;
+        event.franchiseId = franchiseId;
+        event.begin();
+        return event;
+    }
+
+    private static void commit(MongoCallEvent event, String outcome) {
+        if (event.outcome != null) {
+            return;
+        }
+        event.outcome = outcome;
+        event.commit();
+    }
+}
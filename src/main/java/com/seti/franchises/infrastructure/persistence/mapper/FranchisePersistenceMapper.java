@@ -3,6 +3,7 @@ package com.seti.franchises.infrastructure.persistence.mapper;
 import com.seti.franchises.domain.entity.Branch;
 import com.seti.franchises.domain.entity.Franchise;
 import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.mapping.LargeAggregateMapping;
 import com.seti.franchises.infrastructure.persistence.document.BranchDocument;
 import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
 import com.seti.franchises.infrastructure.persistence.document.ProductDocument;
@@ -20,6 +21,23 @@ import java.util.stream.Collectors;
 @Component
 public class FranchisePersistenceMapper {
 
+    /**
+     * Split of {@link #toEntity} by branch for {@link LargeAggregateMapping}.
+     */
+    public static final LargeAggregateMapping.Split<FranchiseDocument, BranchDocument, Franchise> ENTITY_SPLIT =
+            new LargeAggregateMapping.Split<>("franchiseEntity", FranchiseDocument::getBranches,
+                    branch -> branch != null && branch.getProducts() != null ? branch.getProducts().size() : 0,
+                    (document, branches) -> FranchiseDocument.builder()
+                            .id(document.getId())
+                            .name(document.getName())
+                            .branches(branches)
+                            .build(),
+                    parts -> Franchise.builder()
+                            .id(parts.getFirst().getId())
+                            .name(parts.getFirst().getName())
+                            .branches(parts.stream().flatMap(part -> part.getBranches().stream()).collect(Collectors.toList()))
+                            .build());
+
     public FranchiseDocument toDocument(Franchise franchise) {
         if (franchise == null) {
             return null;
@@ -89,6 +107,7 @@ public class FranchisePersistenceMapper {
                 .name(product.getName())
                 .stockQuantity(product.getStockQuantity())
                 .enabled(product.getEnabled() != null ? product.getEnabled() : true)
+                .disabledAt(product.getDisabledAt())
                 .build();
     }
 
@@ -101,6 +120,7 @@ public class FranchisePersistenceMapper {
                 .name(document.getName())
                 .stockQuantity(document.getStockQuantity())
                 .enabled(document.getEnabled() != null ? document.getEnabled() : true)
+                .disabledAt(document.getDisabledAt())
                 .build();
     }
 }
@@ -0,0 +1,99 @@
+package com.seti.franchises.infrastructure.persistence.metrics;
+
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Histograma del tamaño BSON de los documentos de franquicia leídos y escritos
+ * ({@code franchises.document.size}, tag {@code operation=load|save}).
+ * <p>
+ * En lecturas/escrituras por eventos de Spring Data medir exige serializar el documento, así que solo
+ * se mide uno de cada {@code sample-every}; las que pasan por FranchiseCodec traen el tamaño calculado.
+ * Si una medición supera el umbral de aviso (franchises.compaction.size-warning-bytes) se registra
+ * un warning con el id de la franquicia.
+ */
+@Slf4j
+@Component
+public class FranchiseDocumentMetrics extends AbstractMongoEventListener<FranchiseDocument> {
+
+    static final String DOCUMENT_SIZE = "franchises.document.size";
+
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    private final DistributionSummary loadSize;
+    private final DistributionSummary saveSize;
+    private final long sampleEvery;
+    private final long warningBytes;
+    private final AtomicLong events = new AtomicLong();
+
+    public FranchiseDocumentMetrics(MeterRegistry registry,
+                                    @Value("${franchises.metrics.document-size.sample-every:10}") long sampleEvery,
+                                    @Value("${franchises.compaction.size-warning-bytes:12582912}") long warningBytes) {
+        this.loadSize = sizeSummary(registry, "load");
+        this.saveSize = sizeSummary(registry, "save");
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.warningBytes = warningBytes;
+    }
+
+    @Override
+    public void onAfterLoad(AfterLoadEvent<FranchiseDocument> event) {
+        record(loadSize, event.getDocument());
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<FranchiseDocument> event) {
+        record(saveSize, event.getDocument());
+    }
+
+    /**
+     * Tamaño ya conocido de un documento decodificado por FranchiseCodec (sin coste: no se muestrea).
+     */
+    public void recordLoaded(Object franchiseId, int size) {
+        record(loadSize, franchiseId, size);
+    }
+
+    /**
+     * Tamaño ya conocido de un documento codificado por FranchiseCodec.
+     */
+    public void recordSaved(Object franchiseId, int size) {
+        record(saveSize, franchiseId, size);
+    }
+
+    private void record(DistributionSummary summary, Document document) {
+        if (document != null && events.getAndIncrement() % sampleEvery == 0) {
+            record(summary, document.get("_id"), bsonSize(document));
+        }
+    }
+
+    private void record(DistributionSummary summary, Object franchiseId, int size) {
+        summary.record(size);
+        if (size >= warningBytes) {
+            log.warn("Documento de franquicia cerca del límite de 16 MB: franchiseId={}, bytes={}", franchiseId, size);
+        }
+    }
+
+    public static int bsonSize(Document document) {
+        return new RawBsonDocument(document, CODEC).getByteBuffer().remaining();
+    }
+
+    private static DistributionSummary sizeSummary(MeterRegistry registry, String operation) {
+        return DistributionSummary.builder(DOCUMENT_SIZE)
+                .description("Tamaño BSON de los documentos de franquicia")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.seti.franchises.infrastructure.persistence.repository;
+
+import com.seti.franchises.infrastructure.persistence.document.IdempotencyRecordDocument;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB reactive repository for IdempotencyRecordDocument.
+ */
+@Repository
+public interface IdempotencyMongoRepository extends ReactiveMongoRepository<IdempotencyRecordDocument, String> {
+}
@@ -0,0 +1,266 @@
+package com.seti.franchises.infrastructure.warmup;
+
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.domain.port.FranchiseRepository;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.persistence.codec.RawFranchiseAggregate;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.mapper.ApiMapper;
+import com.seti.franchises.infrastructure.web.mapper.FranchiseJsonWriter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinaryReader;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calentamiento al arrancar, antes de que readiness deje pasar tráfico ({@link WarmUpHealthIndicator}).
+ * <ol>
+ *     <li>Pool de MongoDB: {@code mongo-connections} findById concurrentes de ids inexistentes por el
+ *     repositorio real; cada uno ocupa una conexión, así que el pool las abre (handshake y autenticación)
+ *     y quedan disponibles. También recorre el camino de consulta (deadline, observación, codec).</li>
+ *     <li>JIT: durante {@code duration} repite el ciclo de una petición sobre una franquicia sintética:
+ *     codificar y decodificar BSON (FranchiseCodec), búsqueda en RawFranchiseAggregate, mapeo a documento y
+ *     a FranchiseResponse, serialización JSON con el JsonMapper de la aplicación y BSON → JSON directo.</li>
+ * </ol>
+ * Se ejecuta tras ApplicationReadyEvent fuera del event loop. Si MongoDB no responde se sigue con el
+ * resto: readiness no queda bloqueado indefinidamente (el estado de MongoDB lo informa su propio health).
+ * <p>
+ * Métricas de efectividad: duración, conexiones abiertas, ciclos, tiempo del primer ciclo frente a la
+ * media de los últimos (speedup) y tiempo de compilación JIT consumido durante el calentamiento.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class ReadinessWarmUp {
+
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+    private static final List<MediaType> JSON = List.of(MediaType.APPLICATION_JSON);
+
+    /**
+     * Fracción final de los ciclos que se promedia para el tiempo "caliente".
+     */
+    private static final int TAIL_FRACTION = 10;
+
+    enum State {
+        PENDING, RUNNING, DONE
+    }
+
+    private final FranchiseRepository repository;
+    private final FranchisePersistenceMapper persistenceMapper;
+    private final ApiMapper apiMapper;
+    private final JsonMapper jsonMapper;
+    private final FranchiseJsonWriter jsonWriter;
+    private final WarmUpProperties properties;
+    private final FranchiseCodec codec = new FranchiseCodec(null);
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final AtomicLong mongoConnections = new AtomicLong();
+
+    private volatile State state;
+    private volatile long durationNanos;
+    private volatile long cycles;
+    private volatile long firstCycleNanos;
+    private volatile long warmCycleNanos;
+    private volatile long jitCompilationMillis;
+
+    public ReadinessWarmUp(FranchiseRepository repository, FranchisePersistenceMapper persistenceMapper, ApiMapper apiMapper,
+                           JsonMapper jsonMapper, FranchiseJsonWriter jsonWriter,
+                           WarmUpProperties properties, MeterRegistry registry) {
+        this.repository = repository;
+        this.persistenceMapper = persistenceMapper;
+        this.apiMapper = apiMapper;
+        this.jsonMapper = jsonMapper;
+        this.jsonWriter = jsonWriter;
+        this.properties = properties;
+        this.state = properties.enabled() ? State.PENDING : State.DONE;
+        TimeGauge.builder("franchises.warmup.duration", this, TimeUnit.NANOSECONDS, w -> w.durationNanos)
+                .description("Duración total del calentamiento")
+                .register(registry);
+        Gauge.builder("franchises.warmup.mongo.connections", mongoConnections, AtomicLong::get)
+                .description("findById concurrentes completados al cebar el pool de MongoDB")
+                .register(registry);
+        Gauge.builder("franchises.warmup.cycles", this, w -> w.cycles)
+                .description("Ciclos de mapeo/codificación ejecutados sobre datos sintéticos")
+                .register(registry);
+        TimeGauge.builder("franchises.warmup.cycle.time", this, TimeUnit.NANOSECONDS, w -> w.firstCycleNanos)
+                .description("Tiempo de un ciclo: primero (frío) y media de los últimos (caliente)")
+                .tag("phase", "first")
+                .register(registry);
+        TimeGauge.builder("franchises.warmup.cycle.time", this, TimeUnit.NANOSECONDS, w -> w.warmCycleNanos)
+                .description("Tiempo de un ciclo: primero (frío) y media de los últimos (caliente)")
+                .tag("phase", "warm")
+                .register(registry);
+        Gauge.builder("franchises.warmup.speedup", this, ReadinessWarmUp::speedup)
+                .description("Tiempo del primer ciclo / tiempo medio de los últimos ciclos")
+                .register(registry);
+        TimeGauge.builder("franchises.warmup.jit.compilation", this, TimeUnit.MILLISECONDS, w -> w.jitCompilationMillis)
+                .description("Tiempo de compilación JIT consumido durante el calentamiento")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (state == State.PENDING) {
+            run().subscribe();
+        }
+    }
+
+    /**
+     * Ejecuta el calentamiento completo; completa cuando readiness ya informa UP.
+     */
+    Mono<Void> run() {
+        return Mono.defer(() -> {
+                    state = State.RUNNING;
+                    log.info("Calentamiento iniciado: conexionesMongo={}, duración={}, franquicia sintética={}x{}",
+                            properties.mongoConnections(), properties.duration(), properties.branches(), properties.products());
+                    long start = System.nanoTime();
+                    long compilationStart = compilationMillis();
+                    return primeRepository()
+                            .then(Mono.fromRunnable(this::runCycles).subscribeOn(Schedulers.boundedElastic()))
+                            .doFinally(signal -> {
+                                durationNanos = System.nanoTime() - start;
+                                jitCompilationMillis = Math.max(0, compilationMillis() - compilationStart);
+                                state = State.DONE;
+                                log.info("Calentamiento completado en {} ms: conexionesMongo={}, ciclos={}, speedup={}, compilaciónJIT={} ms",
+                                        TimeUnit.NANOSECONDS.toMillis(durationNanos), mongoConnections, cycles,
+                                        String.format("%.1f", speedup()), jitCompilationMillis);
+                            });
+                })
+                .doOnError(e -> log.warn("Error en el calentamiento; se acepta tráfico igualmente", e))
+                .onErrorComplete()
+                .then();
+    }
+
+    /**
+     * Un findById concurrente por conexión a abrir; vacío (id inexistente) es lo esperado.
+     */
+    private Mono<Void> primeRepository() {
+        int connections = Math.max(0, properties.mongoConnections());
+        return Flux.range(0, connections)
+                .flatMap(i -> repository.findById(new ObjectId().toHexString())
+                        .doOnSuccess(ignored -> mongoConnections.incrementAndGet()), Math.max(1, connections))
+                .then()
+                .timeout(properties.mongoTimeout())
+                .doOnError(e -> log.warn("Cebado del pool de MongoDB incompleto: {} de {} conexiones ({})",
+                        mongoConnections, connections, e.toString()))
+                .onErrorComplete();
+    }
+
+    private void runCycles() {
+        Franchise franchise = syntheticFranchise(properties.branches(), properties.products());
+        String branchId = franchise.getBranches().isEmpty() ? "none" : franchise.getBranches().getLast().getId();
+        String productId = franchise.getBranches().isEmpty() || franchise.getBranches().getLast().getProducts().isEmpty()
+                ? "none" : franchise.getBranches().getLast().getProducts().getLast().getId();
+        long deadline = System.nanoTime() + properties.duration().toNanos();
+        List<Long> times = new ArrayList<>();
+        do {
+            long start = System.nanoTime();
+            cycle(franchise, branchId, productId);
+            times.add(System.nanoTime() - start);
+        } while (System.nanoTime() < deadline);
+
+        cycles = times.size();
+        firstCycleNanos = times.getFirst();
+        int tail = Math.max(1, times.size() / TAIL_FRACTION);
+        warmCycleNanos = (long) times.subList(times.size() - tail, times.size()).stream()
+                .mapToLong(Long::longValue).average().orElse(0);
+    }
+
+    /**
+     * Lo que hace una petición típica con la franquicia entre el driver y la respuesta.
+     */
+    private void cycle(Franchise franchise, String branchId, String productId) {
+        ByteBuffer bson = FranchiseCodec.toBson(franchise);
+        Franchise decoded;
+        try (BsonBinaryReader reader = new BsonBinaryReader(bson.duplicate())) {
+            decoded = codec.decode(reader, DECODER_CONTEXT);
+        }
+        new RawFranchiseAggregate(new RawBsonDocument(bson.array())).findProduct(branchId, productId);
+        persistenceMapper.toEntity(persistenceMapper.toDocument(decoded));
+        FranchiseResponse response = apiMapper.toFranchiseResponse(decoded);
+        jsonMapper.writeValueAsBytes(response);
+        if (jsonWriter.accepts(JSON)) {
+            DataBufferUtils.release(jsonWriter.write(bson, bufferFactory));
+        }
+    }
+
+    private static Franchise syntheticFranchise(int branches, int productsPerBranch) {
+        List<Branch> branchList = new ArrayList<>(branches);
+        for (int b = 0; b < branches; b++) {
+            List<Product> products = new ArrayList<>(productsPerBranch);
+            for (int p = 0; p < productsPerBranch; p++) {
+                products.add(Product.builder()
+                        .id(new ObjectId().toHexString())
+                        .name("Producto " + b + "-" + p)
+                        .stockQuantity((b * 31 + p * 17) % 500)
+                        .enabled(p % 10 != 9)
+                        .build());
+            }
+            branchList.add(Branch.builder()
+                    .id(new ObjectId().toHexString())
+                    .name("Sucursal " + b)
+                    .products(products)
+                    .build());
+        }
+        return Franchise.builder()
+                .id(new ObjectId().toHexString())
+                .name("Franquicia de calentamiento")
+                .branches(branchList)
+                .build();
+    }
+
+    private static long compilationMillis() {
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        return compilation != null && compilation.isCompilationTimeMonitoringSupported() ? compilation.getTotalCompilationTime() : 0;
+    }
+
+    private double speedup() {
+        return warmCycleNanos > 0 ? (double) firstCycleNanos / warmCycleNanos : 0;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    long getDurationNanos() {
+        return durationNanos;
+    }
+
+    long getMongoConnections() {
+        return mongoConnections.get();
+    }
+
+    long getCycles() {
+        return cycles;
+    }
+
+    double getSpeedup() {
+        return speedup();
+    }
+}
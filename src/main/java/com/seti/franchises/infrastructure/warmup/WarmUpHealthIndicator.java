@@ -0,0 +1,35 @@
+package com.seti.franchises.infrastructure.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contribuidor {@code warmUp} del grupo de readiness (/actuator/health/readiness): OUT_OF_SERVICE
+ * hasta que termina {@link ReadinessWarmUp}, así el balanceador no envía tráfico a un pod frío.
+ * Liveness no lo incluye: un pod calentándose no se reinicia.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final ReadinessWarmUp warmUp;
+
+    @Override
+    public Health health() {
+        ReadinessWarmUp.State state = warmUp.getState();
+        if (state != ReadinessWarmUp.State.DONE) {
+            return Health.outOfService().withDetail("state", state.name().toLowerCase()).build();
+        }
+        return Health.up()
+                .withDetail("state", state.name().toLowerCase())
+                .withDetail("durationMs", TimeUnit.NANOSECONDS.toMillis(warmUp.getDurationNanos()))
+                .withDetail("mongoConnections", warmUp.getMongoConnections())
+                .withDetail("cycles", warmUp.getCycles())
+                .withDetail("speedup", Math.round(warmUp.getSpeedup() * 10) / 10.0)
+                .build();
+    }
+}
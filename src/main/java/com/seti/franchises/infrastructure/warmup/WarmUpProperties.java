@@ -0,0 +1,27 @@
+package com.seti.franchises.infrastructure.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Calentamiento antes de aceptar tráfico (franchises.warmup.*).
+ *
+ * @param enabled          activa el calentamiento; desactivado, readiness no espera
+ * @param duration         tiempo dedicado a los ciclos de mapeo/codificación sobre datos sintéticos (JIT)
+ * @param mongoConnections findById concurrentes para abrir conexiones del pool (alinearlo con minPoolSize de la URI)
+ * @param mongoTimeout     tiempo máximo del cebado del pool; si MongoDB no responde se continúa igualmente
+ * @param branches         sucursales de la franquicia sintética
+ * @param products         productos por sucursal de la franquicia sintética
+ */
+@ConfigurationProperties("franchises.warmup")
+public record WarmUpProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10s") Duration duration,
+        @DefaultValue("10") int mongoConnections,
+        @DefaultValue("5s") Duration mongoTimeout,
+        @DefaultValue("20") int branches,
+        @DefaultValue("50") int products
+) {
+}
@@ -0,0 +1,26 @@
+package com.seti.franchises.infrastructure.web.config;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Tipos de contenido adicionales soportados por la API (negociados con Accept / Content-Type).
+ * JSON y CBOR usan las constantes de {@link MediaType}.
+ */
+public final class ApiMediaTypes {
+
+    /**
+     * Jackson Smile (JSON binario).
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * JSON, CBOR y Smile: los formatos de todos los endpoints de la API. Es una lista separada por
+     * comas (una anotación no admite una constante de tipo array); Spring la separa al leer
+     * {@code consumes}/{@code produces}.
+     */
+    public static final String ALL = MediaType.APPLICATION_JSON_VALUE + ", " + MediaType.APPLICATION_CBOR_VALUE
+            + ", " + APPLICATION_SMILE_VALUE;
+
+    private ApiMediaTypes() {
+    }
+}
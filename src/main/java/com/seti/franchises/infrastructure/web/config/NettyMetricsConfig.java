@@ -0,0 +1,29 @@
+package com.seti.franchises.infrastructure.web.config;
+
+import org.springframework.boot.reactor.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.regex.Pattern;
+
+/**
+ * Activa las métricas del servidor Reactor Netty (conexiones, bytes enviados/recibidos,
+ * tiempos de respuesta por URI) en el registro global de Micrometer.
+ * Los ids de las rutas se normalizan a {id} para acotar la cardinalidad del tag uri.
+ */
+@Configuration
+public class NettyMetricsConfig {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(?:[0-9a-fA-F]{24}|[0-9a-fA-F-]{36})(?=/|$)");
+
+    @Bean
+    public NettyServerCustomizer nettyMetricsCustomizer() {
+        return httpServer -> httpServer.metrics(true, NettyMetricsConfig::normalizeUri);
+    }
+
+    static String normalizeUri(String uri) {
+        int query = uri.indexOf('?');
+        String path = query >= 0 ? uri.substring(0, query) : uri;
+        return ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+}
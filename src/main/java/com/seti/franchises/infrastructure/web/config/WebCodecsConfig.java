@@ -0,0 +1,42 @@
+package com.seti.franchises.infrastructure.web.config;
+
+import com.seti.franchises.infrastructure.web.json.ApiJsonModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.JacksonCborDecoder;
+import org.springframework.http.codec.cbor.JacksonCborEncoder;
+import org.springframework.http.codec.smile.JacksonSmileDecoder;
+import org.springframework.http.codec.smile.JacksonSmileEncoder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Registra los codecs binarios (CBOR y Smile) junto al JSON por defecto.
+ * El formato se elige por negociación de contenido (Accept / Content-Type).
+ * Los tres formatos usan los (de)serializadores escritos a mano de {@link ApiJsonModule}.
+ */
+@Configuration
+public class WebCodecsConfig implements WebFluxConfigurer {
+
+    /**
+     * Spring Boot registra los beans JacksonModule en el JsonMapper (codecs JSON).
+     */
+    @Bean
+    public ApiJsonModule apiJsonModule() {
+        return new ApiJsonModule();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        CBORMapper cborMapper = CBORMapper.builder().addModule(apiJsonModule()).build();
+        SmileMapper smileMapper = SmileMapper.builder().addModule(apiJsonModule()).build();
+        MediaType smile = MediaType.parseMediaType(ApiMediaTypes.APPLICATION_SMILE_VALUE);
+        configurer.customCodecs().register(new JacksonCborEncoder(cborMapper, MediaType.APPLICATION_CBOR));
+        configurer.customCodecs().register(new JacksonCborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        configurer.customCodecs().register(new JacksonSmileEncoder(smileMapper, smile));
+        configurer.customCodecs().register(new JacksonSmileDecoder(smileMapper, smile));
+    }
+}
@@ -0,0 +1,21 @@
+package com.seti.franchises.infrastructure.web.config;
+
+import com.seti.franchises.infrastructure.web.websocket.StockUpdateWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Registro de los endpoints WebSocket (antes que los controladores anotados).
+ */
+@Configuration
+public class WebSocketConfig {
+
+    @Bean
+    public HandlerMapping webSocketHandlerMapping(StockUpdateWebSocketHandler stockUpdateHandler) {
+        return new SimpleUrlHandlerMapping(Map.of("/ws/v1/stock", stockUpdateHandler), -1);
+    }
+}
@@ -1,12 +1,22 @@
 package com.seti.franchises.infrastructure.web.controller;
 
+import com.seti.franchises.application.observation.ReactiveObservation;
 import com.seti.franchises.application.service.FranchiseUseCaseService;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.infrastructure.mapping.LargeAggregateMapping;
+import com.seti.franchises.infrastructure.web.config.ApiMediaTypes;
 import com.seti.franchises.infrastructure.web.dto.request.*;
 import com.seti.franchises.infrastructure.web.dto.response.BranchResponse;
+import com.seti.franchises.infrastructure.web.dto.response.CatalogEntryResponse;
 import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ImportEventResponse;
 import com.seti.franchises.infrastructure.web.dto.response.ProductResponse;
 import com.seti.franchises.infrastructure.web.dto.response.ProductWithBranchResponse;
+import com.seti.franchises.infrastructure.web.idempotency.IdempotencyService;
+import com.seti.franchises.infrastructure.web.importer.ProductImportParser;
 import com.seti.franchises.infrastructure.web.mapper.ApiMapper;
+import com.seti.franchises.infrastructure.web.mapper.FranchiseJsonWriter;
+import io.micrometer.observation.ObservationRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,22 +26,34 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.function.Function;
+
 /**
  * Controlador REST para franquicias, sucursales y productos.
  * 1. POST agregar franquicia
  * 2. POST agregar sucursal a una franquicia
  * 3. POST agregar producto a una sucursal
  * 4. DELETE eliminar producto de una sucursal
- * 5. PATCH/PUT modificar stock de un producto
+ * 5. PATCH/PUT modificar stock de un producto (y POST descontar stock)
  * 6. GET producto con más stock por sucursal para una franquicia
  * 7. PATCH/PUT actualizar el nombre actualizar nombre de franquicia, sucursal y producto
  * 8. PATCH/PUT Borrado logico de productos.
+ * <p>
+ * Todos los endpoints negocian JSON (por defecto), CBOR y Smile según Accept / Content-Type.
+ * Los listados admiten además NDJSON y SSE para enviar cada elemento en cuanto se produce.
+ * Los POST de creación aceptan la cabecera Idempotency-Key para reintentos seguros.
+ * GET por id en JSON transcodifica el BSON almacenado directamente a la respuesta (FranchiseJsonWriter).
  */
 @Tag(name = "Franquicias", description = "API de franquicias, sucursales y productos")
 @RestController
@@ -39,8 +61,15 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class FranchiseController {
 
+    static final String CONTROLLER_OBSERVATION = "franchises.controller";
+
     private final FranchiseUseCaseService useCaseService;
     private final ApiMapper apiMapper;
+    private final LargeAggregateMapping aggregateMapping;
+    private final FranchiseJsonWriter jsonWriter;
+    private final ProductImportParser importParser;
+    private final IdempotencyService idempotencyService;
+    private final ObservationRegistry observationRegistry;
 
     @Operation(summary = "Agregar franquicia", description = "Crea una nueva franquicia (nombre + listado de sucursales vacío)")
     @ApiResponses({
@@ -48,11 +77,17 @@ public class FranchiseController {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = FranchiseResponse.class))),
             @ApiResponse(responseCode = "400", description = "Datos inválidos")
     })
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(consumes = ApiMediaTypes.ALL, produces = ApiMediaTypes.ALL)
     @ResponseStatus(HttpStatus.CREATED)
-    public Mono<FranchiseResponse> addFranchise(@Valid @RequestBody AddFranchiseRequest request) {
-        return useCaseService.addFranchise(request.name())
-                .map(apiMapper::toFranchiseResponse);
+    public Mono<FranchiseResponse> addFranchise(
+            @Parameter(description = "Clave de idempotencia: los reintentos con la misma clave devuelven la respuesta original")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody AddFranchiseRequest request,
+            ServerHttpRequest httpRequest) {
+        return idempotencyService.execute(idempotencyKey, IdempotencyService.client(httpRequest), "addFranchise", request, FranchiseResponse.class,
+                () -> useCaseService.addFranchise(request.name())
+                        .map(apiMapper::toFranchiseResponse))
+                .transform(observed("addFranchise"));
     }
 
     @Operation(summary = "Agregar sucursal", description = "Agrega una sucursal a una franquicia existente")
@@ -62,13 +97,18 @@ public class FranchiseController {
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
     })
-    @PostMapping(value = "/{franchiseId}/branches", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/{franchiseId}/branches", consumes = ApiMediaTypes.ALL, produces = ApiMediaTypes.ALL)
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<BranchResponse> addBranch(
             @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
-            @Valid @RequestBody AddBranchRequest request) {
-        return useCaseService.addBranchToFranchise(franchiseId, request.name())
-                .map(apiMapper::toBranchResponse);
+            @Parameter(description = "Clave de idempotencia: los reintentos con la misma clave devuelven la respuesta original")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody AddBranchRequest request,
+            ServerHttpRequest httpRequest) {
+        return idempotencyService.execute(idempotencyKey, IdempotencyService.client(httpRequest), "addBranch:" + franchiseId, request, BranchResponse.class,
+                () -> useCaseService.addBranchToFranchise(franchiseId, request.name())
+                        .map(apiMapper::toBranchResponse))
+                .transform(observed("addBranch"));
     }
 
     @Operation(summary = "Agregar producto", description = "Agrega un producto a una sucursal de una franquicia")
@@ -78,15 +118,36 @@ public class FranchiseController {
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "404", description = "Franquicia o sucursal no encontrada")
     })
-    @PostMapping(value = "/{franchiseId}/branches/{branchId}/products", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/{franchiseId}/branches/{branchId}/products", consumes = ApiMediaTypes.ALL, produces = ApiMediaTypes.ALL)
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<ProductResponse> addProduct(
             @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
             @Parameter(description = "ID de la sucursal") @PathVariable String branchId,
-            @Valid @RequestBody AddProductRequest request) {
+            @Parameter(description = "Clave de idempotencia: los reintentos con la misma clave devuelven la respuesta original")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody AddProductRequest request,
+            ServerHttpRequest httpRequest) {
         Integer stock = request.stockQuantity() != null ? request.stockQuantity() : 0;
-        return useCaseService.addProductToBranch(franchiseId, branchId, request.name(), stock)
-                .map(apiMapper::toProductResponse);
+        return idempotencyService.execute(idempotencyKey, IdempotencyService.client(httpRequest), "addProduct:" + franchiseId + "/" + branchId, request, ProductResponse.class,
+                () -> useCaseService.addProductToBranch(franchiseId, branchId, request.name(), stock)
+                        .map(apiMapper::toProductResponse))
+                .transform(observed("addProduct"));
+    }
+
+    @Operation(summary = "Carga masiva de productos (NDJSON)", description = "Importa productos desde un cuerpo NDJSON ({\"branchId\", \"name\", \"stockQuantity\"} por línea) sin cargarlo entero en memoria. Devuelve en streaming un evento ERROR por línea rechazada, PROGRESS por lote escrito y SUMMARY al final")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Eventos de progreso de la importación",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ImportEventResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
+    })
+    @PostMapping(value = "/{franchiseId}/products/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ImportEventResponse> importProducts(
+            @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
+            @RequestBody Flux<DataBuffer> body) {
+        return useCaseService.importProducts(franchiseId, importParser.parse(body))
+                .map(apiMapper::toImportEventResponse)
+                .transform(observedMany("importProducts"));
     }
 
     @Operation(summary = "Eliminar producto (físico)", description = "Elimina físicamente un producto de una sucursal. En producción se recomienda usar borrado lógico (PATCH .../disable).")
@@ -100,7 +161,8 @@ public class FranchiseController {
             @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
             @Parameter(description = "ID de la sucursal") @PathVariable String branchId,
             @Parameter(description = "ID del producto") @PathVariable String productId) {
-        return useCaseService.deleteProductFromBranch(franchiseId, branchId, productId);
+        return useCaseService.deleteProductFromBranch(franchiseId, branchId, productId)
+                .transform(observed("deleteProduct"));
     }
 
     @Operation(summary = "Deshabilitar producto (borrado lógico)", description = "Marca el producto como deshabilitado (enabled=false). Recomendado en entornos productivos: preserva datos, auditoría y posibilidad de recuperación.")
@@ -109,13 +171,14 @@ public class FranchiseController {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponse.class))),
             @ApiResponse(responseCode = "404", description = "Franquicia, sucursal o producto no encontrado")
     })
-    @PatchMapping(value = "/{franchiseId}/branches/{branchId}/products/{productId}/disable", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PatchMapping(value = "/{franchiseId}/branches/{branchId}/products/{productId}/disable", produces = ApiMediaTypes.ALL)
     public Mono<ProductResponse> disableProduct(
             @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
             @Parameter(description = "ID de la sucursal") @PathVariable String branchId,
             @Parameter(description = "ID del producto") @PathVariable String productId) {
         return useCaseService.disableProductInBranch(franchiseId, branchId, productId)
-                .map(apiMapper::toProductResponse);
+                .map(apiMapper::toProductResponse)
+                .transform(observed("disableProduct"));
     }
 
     @Operation(summary = "Modificar stock", description = "Actualiza la cantidad en stock de un producto")
@@ -125,14 +188,34 @@ public class FranchiseController {
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "404", description = "Franquicia, sucursal o producto no encontrado")
     })
-    @PatchMapping(value = "/{franchiseId}/branches/{branchId}/products/{productId}/stock", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PatchMapping(value = "/{franchiseId}/branches/{branchId}/products/{productId}/stock", consumes = ApiMediaTypes.ALL, produces = ApiMediaTypes.ALL)
     public Mono<ProductResponse> updateProductStock(
             @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
             @Parameter(description = "ID de la sucursal") @PathVariable String branchId,
             @Parameter(description = "ID del producto") @PathVariable String productId,
             @Valid @RequestBody UpdateStockRequest request) {
         return useCaseService.updateProductStock(franchiseId, branchId, productId, request.stockQuantity())
-                .map(apiMapper::toProductResponse);
+                .map(apiMapper::toProductResponse)
+                .transform(observed("updateProductStock"));
+    }
+
+    @Operation(summary = "Descontar stock", description = "Resta unidades del stock de un producto de forma atómica, sin bajar de 0 (ventas desde terminales). Devuelve el producto con el stock restante")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stock descontado",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "404", description = "Franquicia, sucursal o producto no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Stock insuficiente")
+    })
+    @PostMapping(value = "/{franchiseId}/branches/{branchId}/products/{productId}/stock/decrement", consumes = ApiMediaTypes.ALL, produces = ApiMediaTypes.ALL)
+    public Mono<ProductResponse> decrementProductStock(
+            @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
+            @Parameter(description = "ID de la sucursal") @PathVariable String branchId,
+            @Parameter(description = "ID del producto") @PathVariable String productId,
+            @Valid @RequestBody DecrementStockRequest request) {
+        return useCaseService.decrementProductStock(franchiseId, branchId, productId, request.quantity())
+                .map(apiMapper::toProductResponse)
+                .transform(observed("decrementProductStock"));
     }
 
     @Operation(summary = "Producto con más stock por sucursal", description = "Lista el producto con mayor stock en cada sucursal de la franquicia (indica a qué sucursal pertenece)")
@@ -141,11 +224,13 @@ public class FranchiseController {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductWithBranchResponse.class))),
             @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
     })
-    @GetMapping(value = "/{franchiseId}/branches/products/max-stock", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{franchiseId}/branches/products/max-stock", produces = {ApiMediaTypes.ALL,
+            MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
     public Flux<ProductWithBranchResponse> getProductWithMostStockPerBranch(
             @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId) {
         return useCaseService.getProductWithMostStockPerBranch(franchiseId)
-                .map(apiMapper::toProductWithBranchResponse);
+                .map(apiMapper::toProductWithBranchResponse)
+                .transform(observedMany("getProductWithMostStockPerBranch"));
     }
 
     @Operation(summary = "Actualizar nombre de franquicia", description = "Modifica el nombre de una franquicia (punto extra)")
@@ -155,12 +240,13 @@ public class FranchiseController {
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
     })
-    @PatchMapping(value = "/{franchiseId}/name", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PatchMapping(value = "/{franchiseId}/name", consumes = ApiMediaTypes.ALL, produces = ApiMediaTypes.ALL)
     public Mono<FranchiseResponse> updateFranchiseName(
             @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
             @Valid @RequestBody UpdateNameRequest request) {
         return useCaseService.updateFranchiseName(franchiseId, request.name())
-                .map(apiMapper::toFranchiseResponse);
+                .flatMap(this::toFranchiseResponse)
+                .transform(observed("updateFranchiseName"));
     }
 
     @Operation(summary = "Actualizar nombre de sucursal", description = "Modifica el nombre de una sucursal (punto extra)")
@@ -170,13 +256,14 @@ public class FranchiseController {
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "404", description = "Franquicia o sucursal no encontrada")
     })
-    @PatchMapping(value = "/{franchiseId}/branches/{branchId}/name", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PatchMapping(value = "/{franchiseId}/branches/{branchId}/name", consumes = ApiMediaTypes.ALL, produces = ApiMediaTypes.ALL)
     public Mono<BranchResponse> updateBranchName(
             @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
             @Parameter(description = "ID de la sucursal") @PathVariable String branchId,
             @Valid @RequestBody UpdateNameRequest request) {
         return useCaseService.updateBranchName(franchiseId, branchId, request.name())
-                .map(apiMapper::toBranchResponse);
+                .map(apiMapper::toBranchResponse)
+                .transform(observed("updateBranchName"));
     }
 
     @Operation(summary = "Actualizar nombre de producto", description = "Modifica el nombre de un producto (punto extra)")
@@ -186,33 +273,78 @@ public class FranchiseController {
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "404", description = "Franquicia, sucursal o producto no encontrado")
     })
-    @PatchMapping(value = "/{franchiseId}/branches/{branchId}/products/{productId}/name", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PatchMapping(value = "/{franchiseId}/branches/{branchId}/products/{productId}/name", consumes = ApiMediaTypes.ALL, produces = ApiMediaTypes.ALL)
     public Mono<ProductResponse> updateProductName(
             @Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
             @Parameter(description = "ID de la sucursal") @PathVariable String branchId,
             @Parameter(description = "ID del producto") @PathVariable String productId,
             @Valid @RequestBody UpdateNameRequest request) {
         return useCaseService.updateProductName(franchiseId, branchId, productId, request.name())
-                .map(apiMapper::toProductResponse);
+                .map(apiMapper::toProductResponse)
+                .transform(observed("updateProductName"));
     }
 
     @Operation(summary = "Obtener franquicia por ID", description = "Devuelve una franquicia con sus sucursales y productos")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Franquicia encontrada"),
+            @ApiResponse(responseCode = "200", description = "Franquicia encontrada",
+                    content = @Content(schema = @Schema(implementation = FranchiseResponse.class))),
             @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
     })
-    @GetMapping(value = "/{franchiseId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<FranchiseResponse> getFranchise(@Parameter(description = "ID de la franquicia") @PathVariable String franchiseId) {
+    @GetMapping(value = "/{franchiseId}", produces = ApiMediaTypes.ALL)
+    public Mono<ResponseEntity<Object>> getFranchise(@Parameter(description = "ID de la franquicia") @PathVariable String franchiseId,
+                                                     ServerWebExchange exchange) {
+        if (jsonWriter.accepts(exchange.getRequest().getHeaders().getAccept())) {
+            // JSON directo desde el BSON almacenado, sin Franchise ni FranchiseResponse intermedios
+            DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
+            return useCaseService.findBsonById(franchiseId)
+                    .switchIfEmpty(Mono.error(() -> new FranchiseUseCaseService.NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                    .map(bson -> ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .<Object>body(jsonWriter.write(bson, bufferFactory)))
+                    .transform(observed("getFranchise"));
+        }
         return useCaseService.findById(franchiseId)
-                .switchIfEmpty(Mono.error(new FranchiseUseCaseService.NotFoundException("Franquicia no encontrada: " + franchiseId)))
-                .map(apiMapper::toFranchiseResponse);
+                .switchIfEmpty(Mono.error(() -> new FranchiseUseCaseService.NotFoundException("Franquicia no encontrada: " + franchiseId)))
+                .flatMap(this::toFranchiseResponse)
+                .map(ResponseEntity::<Object>ok)
+                .transform(observed("getFranchise"));
     }
 
-    @Operation(summary = "Listar franquicias", description = "Devuelve todas las franquicias")
+    @Operation(summary = "Listar franquicias", description = "Devuelve todas las franquicias. Con Accept application/x-ndjson o text/event-stream cada franquicia se envía en cuanto se lee de MongoDB")
     @ApiResponse(responseCode = "200", description = "Listado de franquicias")
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(produces = {ApiMediaTypes.ALL,
+            MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
     public Flux<FranchiseResponse> listFranchises() {
         return useCaseService.findAll()
-                .map(apiMapper::toFranchiseResponse);
+                .concatMap(this::toFranchiseResponse)
+                .transform(observedMany("listFranchises"));
+    }
+
+    @Operation(summary = "Exportar catálogo completo", description = "Exporta todos los productos de todas las franquicias en streaming (una línea NDJSON por producto, con su franquicia y sucursal)")
+    @ApiResponse(responseCode = "200", description = "Catálogo en streaming")
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CatalogEntryResponse> exportCatalog() {
+        return useCaseService.exportCatalog()
+                .map(apiMapper::toCatalogEntryResponse)
+                .transform(observedMany("exportCatalog"));
+    }
+
+    /**
+     * Franquicias grandes se mapean fuera del event loop, repartidas por sucursales (LargeAggregateMapping).
+     */
+    private Mono<FranchiseResponse> toFranchiseResponse(Franchise franchise) {
+        return aggregateMapping.map(franchise, ApiMapper.FRANCHISE_RESPONSE_SPLIT, apiMapper::toFranchiseResponse);
+    }
+
+    /**
+     * Span/timer franchises.controller por handler: incluye el caso de uso y el mapeo a DTOs, no la
+     * serialización de la respuesta (que queda dentro del span del servidor HTTP).
+     */
+    private <T> Function<Mono<T>, Mono<T>> observed(String handler) {
+        return ReactiveObservation.mono(observationRegistry, CONTROLLER_OBSERVATION, "handler", handler);
+    }
+
+    private <T> Function<Flux<T>, Flux<T>> observedMany(String handler) {
+        return ReactiveObservation.flux(observationRegistry, CONTROLLER_OBSERVATION, "handler", handler);
     }
 }
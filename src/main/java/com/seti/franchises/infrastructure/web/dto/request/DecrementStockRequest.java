@@ -0,0 +1,14 @@
+package com.seti.franchises.infrastructure.web.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Unidades a descontar del stock del producto")
+public record DecrementStockRequest(
+        @NotNull(message = "La cantidad es obligatoria")
+        @Min(value = 1, message = "La cantidad debe ser mayor que 0")
+        @Schema(description = "Unidades vendidas", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+        Integer quantity
+) {
+}
@@ -0,0 +1,16 @@
+package com.seti.franchises.infrastructure.web.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Línea NDJSON de la carga masiva de productos")
+public record ImportProductLine(
+        @Schema(description = "ID de la sucursal destino", example = "b1", requiredMode = Schema.RequiredMode.REQUIRED)
+        String branchId,
+
+        @Schema(description = "Nombre del producto", example = "Producto A", requiredMode = Schema.RequiredMode.REQUIRED)
+        String name,
+
+        @Schema(description = "Cantidad en stock", example = "10", defaultValue = "0")
+        Integer stockQuantity
+) {
+}
@@ -0,0 +1,22 @@
+package com.seti.franchises.infrastructure.web.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Comando de stock enviado por el canal WebSocket")
+public record StockCommandMessage(
+        @Schema(description = "Número de secuencia del cliente (creciente por clientId)", example = "42")
+        Long seq,
+
+        @Schema(description = "ID de la franquicia")
+        String franchiseId,
+
+        @Schema(description = "ID de la sucursal")
+        String branchId,
+
+        @Schema(description = "ID del producto")
+        String productId,
+
+        @Schema(description = "Nueva cantidad en stock", example = "25")
+        Integer stockQuantity
+) {
+}
@@ -0,0 +1,22 @@
+package com.seti.franchises.infrastructure.web.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Línea de exportación del catálogo (franquicia + sucursal + producto)")
+public record CatalogEntryResponse(
+        @Schema(description = "Identificador de la franquicia")
+        String franchiseId,
+
+        @Schema(description = "Nombre de la franquicia")
+        String franchiseName,
+
+        @Schema(description = "Identificador de la sucursal")
+        String branchId,
+
+        @Schema(description = "Nombre de la sucursal")
+        String branchName,
+
+        @Schema(description = "Producto")
+        ProductResponse product
+) {
+}
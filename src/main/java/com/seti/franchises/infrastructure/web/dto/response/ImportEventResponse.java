@@ -0,0 +1,30 @@
+package com.seti.franchises.infrastructure.web.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Evento de progreso de la carga masiva (ERROR por línea, PROGRESS por lote escrito, SUMMARY al final)")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportEventResponse(
+        @Schema(description = "Tipo de evento: ERROR, PROGRESS o SUMMARY")
+        String type,
+
+        @Schema(description = "Número de línea (solo ERROR)")
+        Long line,
+
+        @Schema(description = "Sucursal del lote escrito (solo PROGRESS)")
+        String branchId,
+
+        @Schema(description = "Productos escritos en el lote (solo PROGRESS)")
+        Integer count,
+
+        @Schema(description = "Total acumulado de productos importados")
+        Long imported,
+
+        @Schema(description = "Total de líneas rechazadas (solo SUMMARY)")
+        Long failed,
+
+        @Schema(description = "Motivo del rechazo (solo ERROR)")
+        String message
+) {
+}
@@ -0,0 +1,35 @@
+package com.seti.franchises.infrastructure.web.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Mensaje del servidor en el canal WebSocket de stock: RESUME al conectar, ACK por comando")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StockAckMessage(
+        @Schema(description = "RESUME o ACK")
+        String type,
+
+        @Schema(description = "Secuencia del comando confirmado (ACK)")
+        Long seq,
+
+        @Schema(description = "OK, NOT_FOUND, INVALID o DUPLICATE (ACK)")
+        String status,
+
+        @Schema(description = "Stock aplicado (ACK con status OK)")
+        Integer stockQuantity,
+
+        @Schema(description = "Detalle del error")
+        String message,
+
+        @Schema(description = "Última secuencia confirmada para el clientId (RESUME)")
+        Long lastAckedSeq
+) {
+
+    public static StockAckMessage resume(long lastAckedSeq) {
+        return new StockAckMessage("RESUME", null, null, null, null, lastAckedSeq);
+    }
+
+    public static StockAckMessage ack(Long seq, String status, Integer stockQuantity, String message) {
+        return new StockAckMessage("ACK", seq, status, stockQuantity, message, null);
+    }
+}
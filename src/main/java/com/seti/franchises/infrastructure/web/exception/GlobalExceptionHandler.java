@@ -1,8 +1,12 @@
 package com.seti.franchises.infrastructure.web.exception;
 
+import com.mongodb.MongoExecutionTimeoutException;
+import com.seti.franchises.application.observation.LogRateLimiter;
 import com.seti.franchises.application.service.FranchiseUseCaseService;
 import com.seti.franchises.infrastructure.web.dto.response.ErrorResponse;
+import com.seti.franchises.infrastructure.web.idempotency.IdempotencyService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,28 +15,47 @@ import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
 /**
- * Manejador global de excepciones para respuestas REST adecuadas (404, 400, 409).
+ * Manejador global de excepciones para respuestas REST adecuadas (404, 400, 409, 422, 504).
  */
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Un cliente mal configurado puede generar miles de 400 por segundo: se registran como mucho 20/s.
+     */
+    private static final LogRateLimiter BAD_REQUEST_LOG_LIMITER = new LogRateLimiter(20, Duration.ofSeconds(1));
+
     @ExceptionHandler(FranchiseUseCaseService.NotFoundException.class)
     public Mono<ResponseEntity<ErrorResponse>> handleNotFound(
             FranchiseUseCaseService.NotFoundException ex,
             ServerWebExchange exchange) {
-        log.warn("Recurso no encontrado: {}", ex.getMessage());
+        log.debug("Recurso no encontrado: {}", ex.getMessage());
         return Mono.just(ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage())));
     }
 
+    @ExceptionHandler(FranchiseUseCaseService.InsufficientStockException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleInsufficientStock(FranchiseUseCaseService.InsufficientStockException ex) {
+        log.debug("Stock insuficiente: {}", ex.getMessage());
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(HttpStatus.CONFLICT.value(), ex.getMessage())));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public Mono<ResponseEntity<ErrorResponse>> handleBadRequest(
             IllegalArgumentException ex,
             ServerWebExchange exchange) {
-        log.warn("Petición inválida: {}", ex.getMessage());
+        long skipped = BAD_REQUEST_LOG_LIMITER.tryAcquire();
+        if (skipped >= 0) {
+            log.warn("Petición inválida: {} (omitidas={})", ex.getMessage(), skipped);
+        }
         return Mono.just(ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage())));
@@ -44,9 +67,32 @@ public class GlobalExceptionHandler {
                 .map(err -> err.getField() + ": " + err.getDefaultMessage())
                 .reduce((a, b) -> a + "; " + b)
                 .orElse("Error de validación");
-        log.warn("Validación fallida: {}", message);
+        long skipped = BAD_REQUEST_LOG_LIMITER.tryAcquire();
+        if (skipped >= 0) {
+            log.warn("Validación fallida: {} (omitidas={})", message, skipped);
+        }
         return Mono.just(ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), message)));
     }
+
+    @ExceptionHandler(IdempotencyService.IdempotencyConflictException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleIdempotencyConflict(IdempotencyService.IdempotencyConflictException ex) {
+        log.warn("Conflicto de idempotencia: {}", ex.getMessage());
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_CONTENT)
+                .body(new ErrorResponse(HttpStatus.UNPROCESSABLE_CONTENT.value(), ex.getMessage())));
+    }
+
+    /**
+     * Deadline agotado dentro del adaptador: timeout() de RequestDeadline.bound o maxTimeMS en MongoDB
+     * (el driver lanza MongoExecutionTimeoutException; traducida por Spring Data, QueryTimeoutException).
+     */
+    @ExceptionHandler({TimeoutException.class, MongoExecutionTimeoutException.class, QueryTimeoutException.class})
+    public Mono<ResponseEntity<ErrorResponse>> handleDeadlineExceeded(Exception ex, ServerWebExchange exchange) {
+        log.warn("Deadline agotado en persistencia: path={}, causa={}", exchange.getRequest().getPath().value(), ex.toString());
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(new ErrorResponse(HttpStatus.GATEWAY_TIMEOUT.value(), "Tiempo máximo de la petición agotado")));
+    }
 }
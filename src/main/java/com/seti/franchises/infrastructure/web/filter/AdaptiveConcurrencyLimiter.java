@@ -0,0 +1,95 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Límite de concurrencia adaptativo basado en la latencia observada (algoritmo de gradiente).
+ * <p>
+ * Se mantiene una media móvil lenta de la latencia (referencia "sin cola"). Si la latencia de una
+ * petición supera {@code tolerance} veces esa referencia, el límite baja proporcionalmente; si no,
+ * sube con un margen de sqrt(límite). Un error o un 5xx reduce el límite multiplicativamente.
+ * El límite solo crece si se está usando (in-flight &gt;= la mitad del límite).
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Outcome {
+        SUCCESS, DROPPED, IGNORED
+    }
+
+    private static final double LONG_RTT_ALPHA = 0.05;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejections = new AtomicLong();
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Reserva un hueco si hay capacidad; si no, cuenta un rechazo y devuelve false.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejections.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el hueco y ajusta el límite con la latencia de la petición.
+     */
+    public void release(long rttNanos, Outcome outcome) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (outcome != Outcome.IGNORED) {
+            onSample(rttNanos, outcome == Outcome.DROPPED, inFlightBefore);
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, boolean dropped, int inFlightAtSample) {
+        double currentLimit = limit;
+        double newLimit;
+        if (dropped) {
+            newLimit = currentLimit * BACKOFF_RATIO;
+        } else {
+            longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos * (1 - LONG_RTT_ALPHA) + rttNanos * LONG_RTT_ALPHA;
+            if (inFlightAtSample < currentLimit / 2 && rttNanos <= longRttNanos * tolerance) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / Math.max(1, rttNanos)));
+            newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+            newLimit = currentLimit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejections() {
+        return rejections.get();
+    }
+}
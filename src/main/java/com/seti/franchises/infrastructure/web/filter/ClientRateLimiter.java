@@ -0,0 +1,110 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket por cliente: ráfaga de {@code capacity} peticiones y recarga de
+ * {@code refillPerSecond} por segundo.
+ * <p>
+ * El mapa se acota a {@code maxClients}: al llenarse se descartan los clientes inactivos (cubo lleno),
+ * como mucho una vez por SWEEP_INTERVAL para que el barrido no se pague en cada petición. Mientras
+ * siga lleno, un cliente nuevo usa el cubo de su clave de respaldo (la IP): quien rote X-Client-Id
+ * comparte un único cubo en lugar de estrenar uno por petición.
+ */
+public class ClientRateLimiter {
+
+    static final int MAX_CLIENTS = 50_000;
+    static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+    private final AtomicLong rejections = new AtomicLong();
+
+    public ClientRateLimiter(int capacity, int refillPerSecond) {
+        this(capacity, refillPerSecond, MAX_CLIENTS);
+    }
+
+    ClientRateLimiter(int capacity, int refillPerSecond, int maxClients) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+        this.maxClients = maxClients;
+    }
+
+    public long tryAcquire(String clientKey) {
+        return tryAcquire(clientKey, clientKey);
+    }
+
+    /**
+     * Consume un token del cliente.
+     *
+     * @param clientKey   clave declarada por el cliente (X-Client-Id o IP)
+     * @param fallbackKey clave que no controla el cliente (IP), usada para clientes nuevos con el mapa lleno
+     * @return 0 si se admite la petición; si no, nanosegundos hasta que haya un token disponible
+     */
+    public long tryAcquire(String clientKey, String fallbackKey) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                sweepIfDue(now);
+            }
+            String key = buckets.size() < maxClients ? clientKey : fallbackKey;
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+        }
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            rejections.incrementAndGet();
+        }
+        return waitNanos;
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    int getClients() {
+        return buckets.size();
+    }
+
+    private final class TokenBucket {
+
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(long now) {
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+        }
+
+        private synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano);
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
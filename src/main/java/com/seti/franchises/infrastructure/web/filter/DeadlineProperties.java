@@ -0,0 +1,31 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Deadlines por endpoint (franchises.deadline.*).
+ *
+ * @param enabled   activa el filtro de deadlines
+ * @param read      deadline por defecto de GET/HEAD
+ * @param write     deadline por defecto del resto de métodos
+ * @param max       máximo admitido en la cabecera X-Request-Timeout-Ms
+ * @param streaming deadline de las respuestas en streaming (Accept NDJSON o SSE); 0 = sin deadline
+ * @param methods   deadlines por método y patrón de ruta, p. ej. methods.GET.[/api/v1/franchises]=30s;
+ *                  tienen prioridad sobre {@code paths}
+ * @param paths     deadlines por patrón de ruta para cualquier método (la primera coincidencia gana; 0 = sin deadline)
+ */
+@ConfigurationProperties("franchises.deadline")
+public record DeadlineProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2s") Duration read,
+        @DefaultValue("5s") Duration write,
+        @DefaultValue("60s") Duration max,
+        @DefaultValue("0s") Duration streaming,
+        Map<String, Map<String, Duration>> methods,
+        Map<String, Duration> paths
+) {
+}
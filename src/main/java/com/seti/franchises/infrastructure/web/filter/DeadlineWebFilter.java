@@ -0,0 +1,139 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import com.seti.franchises.infrastructure.context.RequestDeadline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Deadline extremo a extremo para /api/**.
+ * <p>
+ * El plazo sale de la cabecera X-Request-Timeout-Ms (acotada a {@code max}); si no, las respuestas en
+ * streaming (Accept NDJSON o SSE) usan {@code streaming}, y el resto el patrón de ruta configurado para su
+ * método, el patrón de ruta para cualquier método o el valor por defecto de lectura/escritura. Se guarda como {@link RequestDeadline}
+ * en el Context de Reactor (los adaptadores lo aplican como maxTimeMS en MongoDB) y acota toda la
+ * cadena con timeout(): al vencer se responde 504. Si el cliente se desconecta, la cancelación se
+ * propaga hasta el driver, que cierra el cursor en curso.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineWebFilter implements WebFilter, Ordered {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+    private static final String API_PATH_PREFIX = "/api/";
+
+    private final DeadlineProperties properties;
+    private final Map<HttpMethod, Map<PathPattern, Duration>> methodDeadlines = new LinkedHashMap<>();
+    private final Map<PathPattern, Duration> pathDeadlines;
+
+    public DeadlineWebFilter(DeadlineProperties properties) {
+        this.properties = properties;
+        if (properties.methods() != null) {
+            properties.methods().forEach((method, paths) ->
+                    methodDeadlines.put(HttpMethod.valueOf(method.toUpperCase(Locale.ROOT)), parse(paths)));
+        }
+        this.pathDeadlines = parse(properties.paths());
+    }
+
+    private static Map<PathPattern, Duration> parse(Map<String, Duration> paths) {
+        Map<PathPattern, Duration> parsed = new LinkedHashMap<>();
+        if (paths != null) {
+            paths.forEach((pattern, timeout) -> parsed.put(PathPatternParser.defaultInstance.parse(pattern), timeout));
+        }
+        return parsed;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.enabled() || !request.getPath().pathWithinApplication().value().startsWith(API_PATH_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        Duration timeout = resolveTimeout(request);
+        if (timeout.isZero() || timeout.isNegative()) {
+            return chain.filter(exchange);
+        }
+        RequestDeadline deadline = RequestDeadline.in(timeout);
+        return chain.filter(exchange)
+                .timeout(timeout, Mono.defer(() -> {
+                    log.warn("Deadline agotado: method={}, path={}, timeout={}ms",
+                            request.getMethod(), request.getPath().value(), timeout.toMillis());
+                    return Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                            "Tiempo máximo de la petición agotado (" + timeout.toMillis() + " ms)"));
+                }))
+                .contextWrite(context -> context.put(RequestDeadline.class, deadline));
+    }
+
+    Duration resolveTimeout(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                long millis = Long.parseLong(header.trim());
+                if (millis > 0) {
+                    Duration requested = Duration.ofMillis(millis);
+                    return requested.compareTo(properties.max()) > 0 ? properties.max() : requested;
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Cabecera {} inválida: {}", TIMEOUT_HEADER, header);
+            }
+        }
+        HttpMethod method = request.getMethod();
+        if (HttpMethod.GET.equals(method) && isStreaming(request)) {
+            return properties.streaming();
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        Optional<Duration> configured = match(methodDeadlines.getOrDefault(method, Map.of()), path)
+                .or(() -> match(pathDeadlines, path));
+        if (configured.isPresent()) {
+            return configured.get();
+        }
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) ? properties.read() : properties.write();
+    }
+
+    private static Optional<Duration> match(Map<PathPattern, Duration> deadlines, PathContainer path) {
+        return deadlines.entrySet().stream()
+                .filter(entry -> entry.getKey().matches(path))
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+
+    /**
+     * Listados en NDJSON/SSE: duran lo que tarde el cliente en consumirlos, no deben cortarse con el plazo de una
+     * lectura puntual.
+     */
+    private static boolean isStreaming(ServerHttpRequest request) {
+        try {
+            return request.getHeaders().getAccept().stream()
+                    .anyMatch(accept -> accept.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)
+                            || accept.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
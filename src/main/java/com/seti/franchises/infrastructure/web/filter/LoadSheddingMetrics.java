@@ -0,0 +1,43 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas del control de carga: límite actual, peticiones en curso y rechazos.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadSheddingMetrics implements MeterBinder {
+
+    private final LoadSheddingWebFilter filter;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindLimiter(registry, "read", filter.getReadLimiter());
+        bindLimiter(registry, "write", filter.getWriteLimiter());
+        FunctionCounter.builder("franchises.load.shedding.rejections", filter.getClientRateLimiter(), ClientRateLimiter::getRejections)
+                .description("Peticiones rechazadas con 429 por el token bucket del cliente")
+                .tag("reason", "client_rate")
+                .register(registry);
+    }
+
+    private static void bindLimiter(MeterRegistry registry, String type, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("franchises.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Límite de concurrencia adaptativo actual")
+                .tag("type", type)
+                .register(registry);
+        Gauge.builder("franchises.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Peticiones en curso")
+                .tag("type", type)
+                .register(registry);
+        FunctionCounter.builder("franchises.load.shedding.rejections", limiter, AdaptiveConcurrencyLimiter::getRejections)
+                .description("Peticiones rechazadas con 503 por el límite de concurrencia")
+                .tag("reason", "concurrency_" + type)
+                .register(registry);
+    }
+}
@@ -0,0 +1,153 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Protección de carga delante de los casos de uso (/api/**).
+ * <ol>
+ *   <li>Token bucket por cliente (IP): si se agota, 429 con Retry-After. Con
+ *   {@code client.trust-client-id=true} se usa la cabecera X-Client-Id (o la IP si falta); solo detrás de
+ *   un proxy que la fije, porque un cliente que la rote tendría un bucket nuevo en cada petición.</li>
+ *   <li>Límite de concurrencia adaptativo, separado para lecturas (GET/HEAD) y escrituras:
+ *   si se supera, 503 con Retry-After. El límite se ajusta con la latencia observada, de modo que
+ *   cuando MongoDB se degrada se rechaza rápido en lugar de acumular cadenas findById/save.</li>
+ * </ol>
+ * La latencia de la muestra es el tiempo hasta el primer byte (commit de la respuesta), y en ese
+ * momento se libera el hueco: una exportación NDJSON/SSE que emite durante minutos no arrastra el
+ * límite a la baja ni ocupa un hueco mientras transmite. El canal WebSocket (/ws/**) queda fuera.
+ */
+@Slf4j
+@Component
+public class LoadSheddingWebFilter implements WebFilter, Ordered {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final String API_PATH_PREFIX = "/api/";
+
+    private final boolean enabled;
+    private final boolean trustClientId;
+
+    @Getter
+    private final AdaptiveConcurrencyLimiter readLimiter;
+
+    @Getter
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    @Getter
+    private final ClientRateLimiter clientRateLimiter;
+
+    public LoadSheddingWebFilter(
+            @Value("${franchises.load-shedding.enabled:true}") boolean enabled,
+            @Value("${franchises.load-shedding.read.initial-limit:64}") int readInitialLimit,
+            @Value("${franchises.load-shedding.read.min-limit:8}") int readMinLimit,
+            @Value("${franchises.load-shedding.read.max-limit:1000}") int readMaxLimit,
+            @Value("${franchises.load-shedding.write.initial-limit:32}") int writeInitialLimit,
+            @Value("${franchises.load-shedding.write.min-limit:4}") int writeMinLimit,
+            @Value("${franchises.load-shedding.write.max-limit:500}") int writeMaxLimit,
+            @Value("${franchises.load-shedding.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${franchises.load-shedding.client.capacity:200}") int clientCapacity,
+            @Value("${franchises.load-shedding.client.refill-per-second:100}") int clientRefillPerSecond,
+            @Value("${franchises.load-shedding.client.trust-client-id:false}") boolean trustClientId) {
+        this.enabled = enabled;
+        this.trustClientId = trustClientId;
+        this.readLimiter = new AdaptiveConcurrencyLimiter(readInitialLimit, readMinLimit, readMaxLimit, latencyTolerance);
+        this.writeLimiter = new AdaptiveConcurrencyLimiter(writeInitialLimit, writeMinLimit, writeMaxLimit, latencyTolerance);
+        this.clientRateLimiter = new ClientRateLimiter(clientCapacity, clientRefillPerSecond);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || !request.getPath().pathWithinApplication().value().startsWith(API_PATH_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        String remoteKey = remoteKey(request);
+        long waitNanos = clientRateLimiter.tryAcquire(trustClientId ? clientKey(request, remoteKey) : remoteKey, remoteKey);
+        if (waitNanos > 0) {
+            return reject(exchange, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1,
+                    "Demasiadas peticiones para este cliente");
+        }
+        AdaptiveConcurrencyLimiter limiter = isRead(request.getMethod()) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            log.debug("Petición rechazada por límite de concurrencia: method={}, limit={}", request.getMethod(), limiter.getLimit());
+            return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, 1, "Servicio saturado, reintente más tarde");
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> Mono.fromRunnable(() ->
+                release(limiter, released, start, outcome(SignalType.ON_COMPLETE, response))));
+        return chain.filter(exchange)
+                .doFinally(signal -> release(limiter, released, start, outcome(signal, response)));
+    }
+
+    /**
+     * Una sola vez por petición: al hacer commit de la respuesta o, si no llega a hacerse, al terminar.
+     */
+    private static void release(AdaptiveConcurrencyLimiter limiter, AtomicBoolean released, long start,
+                                AdaptiveConcurrencyLimiter.Outcome outcome) {
+        if (released.compareAndSet(false, true)) {
+            limiter.release(System.nanoTime() - start, outcome);
+        }
+    }
+
+    private static boolean isRead(HttpMethod method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+    }
+
+    private static String clientKey(ServerHttpRequest request, String remoteKey) {
+        String clientId = request.getHeaders().getFirst(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : remoteKey;
+    }
+
+    private static String remoteKey(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+    }
+
+    private static AdaptiveConcurrencyLimiter.Outcome outcome(SignalType signal, ServerHttpResponse response) {
+        if (signal == SignalType.CANCEL) {
+            return AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+        }
+        HttpStatusCode status = response.getStatusCode();
+        if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+            return AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+        }
+        return AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, long retryAfterSeconds, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"status\":" + status.value() + ",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,68 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import com.seti.franchises.infrastructure.context.LoggingContext;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Pone en el Context de Reactor el id de la petición (cabecera X-Request-Id o el id que asigna
+ * el servidor) y, en las rutas de una franquicia, su id. Llegan al MDC de cada línea de log
+ * vía {@link LoggingContext}. El id se devuelve en la cabecera X-Request-Id de la respuesta.
+ * Va primero para que también los rechazos del control de carga queden identificados.
+ */
+@Component
+public class LoggingContextWebFilter implements WebFilter, Ordered {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final String FRANCHISES_PATH_PREFIX = "/api/v1/franchises/";
+    private static final int MAX_REQUEST_ID_LENGTH = 128;
+
+    public LoggingContextWebFilter() {
+        LoggingContext.registerMdcAccessors();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String requestId = resolveRequestId(request);
+        String franchiseId = franchiseId(request.getPath().pathWithinApplication().value());
+        exchange.getResponse().getHeaders().set(REQUEST_ID_HEADER, requestId);
+        return chain.filter(exchange)
+                .contextWrite(context -> {
+                    Context withRequest = context.put(LoggingContext.REQUEST_ID, requestId);
+                    return franchiseId != null ? withRequest.put(LoggingContext.FRANCHISE_ID, franchiseId) : withRequest;
+                });
+    }
+
+    private static String resolveRequestId(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(REQUEST_ID_HEADER);
+        if (header != null && !header.isBlank() && header.length() <= MAX_REQUEST_ID_LENGTH) {
+            return header;
+        }
+        return request.getId();
+    }
+
+    /**
+     * Primer segmento tras /api/v1/franchises/ (excepto rutas sin franquicia como /export).
+     */
+    static String franchiseId(String path) {
+        if (!path.startsWith(FRANCHISES_PATH_PREFIX)) {
+            return null;
+        }
+        int start = FRANCHISES_PATH_PREFIX.length();
+        int end = path.indexOf('/', start);
+        String segment = end < 0 ? path.substring(start) : path.substring(start, end);
+        return segment.isEmpty() || "export".equals(segment) ? null : segment;
+    }
+}
@@ -0,0 +1,182 @@
+package com.seti.franchises.infrastructure.web.idempotency;
+
+import com.seti.franchises.infrastructure.web.idempotency.IdempotencyStore.IdempotentResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Ejecución idempotente de los endpoints de creación (cabecera Idempotency-Key).
+ * <p>
+ * La primera petición con una clave ejecuta el caso de uso y guarda su respuesta; los reintentos con
+ * la misma clave reciben la respuesta original sin volver a ejecutarlo. Niveles de consulta:
+ * <ol>
+ *   <li>Ejecuciones en curso en esta instancia: los duplicados concurrentes esperan a la primera.</li>
+ *   <li>Caché en memoria acotada (LRU) con TTL.</li>
+ *   <li>{@link IdempotencyStore} persistente (colección MongoDB con índice TTL), compartido entre instancias.</li>
+ * </ol>
+ * Antes de ejecutar, la clave se reclama en el almacén con un registro pendiente; una instancia que encuentra
+ * la clave reclamada por otra consulta el registro cada {@link #POLL_INTERVAL} hasta que se completa, en lugar
+ * de ejecutar el caso de uso otra vez. Si la instancia dueña cae, el registro pendiente expira tras
+ * {@code franchises.idempotency.lease} y otra puede reclamarlo.
+ * <p>
+ * Solo se guardan respuestas correctas: si el caso de uso falla, la clave se libera y un reintento vuelve a
+ * ejecutarlo. Las claves son por cliente ({@link #client}), de modo que dos clientes con la misma clave no
+ * comparten respuesta.
+ * Reutilizar una clave con otro cuerpo de petición se rechaza con {@link IdempotencyConflictException}.
+ */
+@Slf4j
+@Component
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final IdempotencyStore store;
+    private final JsonMapper jsonMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Map<String, CachedResponse> cache;
+    private final ConcurrentHashMap<String, Mono<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyStore store,
+                              JsonMapper jsonMapper,
+                              @Value("${franchises.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${franchises.idempotency.lease:30s}") Duration lease,
+                              @Value("${franchises.idempotency.max-cached-keys:10000}") int maxCachedKeys) {
+        this.store = store;
+        this.jsonMapper = jsonMapper;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxCachedKeys;
+            }
+        };
+    }
+
+    /**
+     * Ejecuta {@code action} una sola vez por (cliente, ámbito, clave). Sin clave, ejecuta directamente.
+     *
+     * @param idempotencyKey valor de la cabecera Idempotency-Key (puede ser null)
+     * @param client         identidad del cliente, ver {@link #client}
+     * @param scope          endpoint y recurso padre, p. ej. "addBranch:f1"
+     * @param request        cuerpo de la petición (para detectar reutilización de la clave)
+     * @param responseType   tipo de la respuesta a reproducir
+     * @param action         caso de uso a ejecutar
+     */
+    public <T> Mono<T> execute(String idempotencyKey, String client, String scope, Object request, Class<T> responseType,
+                               Supplier<Mono<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = client + "|" + scope + ":" + idempotencyKey.trim();
+        String requestHash = DigestUtils.md5DigestAsHex(jsonMapper.writeValueAsBytes(request));
+        return Mono.defer(() -> {
+                    CachedResponse cached = cached(key);
+                    if (cached != null) {
+                        return Mono.just(cached.response());
+                    }
+                    return inFlight.computeIfAbsent(key, k -> lookupOrExecute(k, requestHash, action)
+                            .doFinally(signal -> inFlight.remove(k))
+                            .cache());
+                })
+                .map(response -> {
+                    if (!requestHash.equals(response.requestHash())) {
+                        throw new IdempotencyConflictException(
+                                "La clave de idempotencia ya se usó con otra petición: " + idempotencyKey);
+                    }
+                    return jsonMapper.readValue(response.body(), responseType);
+                });
+    }
+
+    /**
+     * Identidad del cliente para el ámbito de las claves: la cabecera X-Client-Id o, sin ella, la IP remota.
+     */
+    public static String client(ServerHttpRequest request) {
+        String clientId = request.getHeaders().getFirst(CLIENT_ID_HEADER);
+        if (clientId != null && !clientId.isBlank()) {
+            return clientId.trim();
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+    }
+
+    /**
+     * Un registro pendiente con otro hash se devuelve tal cual (execute responde 422 sin esperar).
+     */
+    private <T> Mono<IdempotentResponse> lookupOrExecute(String key, String requestHash, Supplier<Mono<T>> action) {
+        return store.find(key)
+                .flatMap(found -> found.isPending() && requestHash.equals(found.requestHash())
+                        ? awaitCompletion(key, requestHash, action)
+                        : Mono.just(found))
+                .doOnNext(found -> {
+                    if (!found.isPending()) {
+                        log.debug("Respuesta idempotente recuperada del almacén: key={}", key);
+                        remember(key, found);
+                    }
+                })
+                .switchIfEmpty(Mono.defer(() -> store.claim(key, requestHash, lease)
+                        .flatMap(claimed -> claimed
+                                ? executeAndSave(key, requestHash, action)
+                                : lookupOrExecute(key, requestHash, action))));
+    }
+
+    /**
+     * Otra instancia ejecuta la misma petición: se vuelve a consultar hasta que la complete, la libere (falló) o
+     * expire su reclamación; en los dos últimos casos esta instancia intenta reclamarla.
+     */
+    private <T> Mono<IdempotentResponse> awaitCompletion(String key, String requestHash, Supplier<Mono<T>> action) {
+        log.debug("Clave de idempotencia en curso en otra instancia, esperando: key={}", key);
+        return Mono.delay(POLL_INTERVAL).then(Mono.defer(() -> lookupOrExecute(key, requestHash, action)));
+    }
+
+    private <T> Mono<IdempotentResponse> executeAndSave(String key, String requestHash, Supplier<Mono<T>> action) {
+        return action.get()
+                .map(result -> new IdempotentResponse(requestHash, jsonMapper.writeValueAsString(result)))
+                .flatMap(response -> store.save(key, response, ttl).thenReturn(response))
+                .doOnNext(response -> remember(key, response))
+                .onErrorResume(e -> store.release(key)
+                        .onErrorComplete()
+                        .then(Mono.error(e)));
+    }
+
+    private synchronized CachedResponse cached(String key) {
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.expiresAtMillis() < System.currentTimeMillis()) {
+            cache.remove(key);
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized void remember(String key, IdempotentResponse response) {
+        cache.put(key, new CachedResponse(response, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    private record CachedResponse(IdempotentResponse response, long expiresAtMillis) {
+    }
+
+    /**
+     * La clave de idempotencia se reutilizó con un cuerpo de petición distinto (422).
+     */
+    public static class IdempotencyConflictException extends RuntimeException {
+        public IdempotencyConflictException(String message) {
+            super(message);
+        }
+    }
+}
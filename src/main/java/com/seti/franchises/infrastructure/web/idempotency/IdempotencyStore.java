@@ -0,0 +1,66 @@
+package com.seti.franchises.infrastructure.web.idempotency;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Almacén persistente de respuestas idempotentes (compartido entre instancias).
+ * <p>
+ * Protocolo: la instancia que ejecuta el caso de uso reclama antes la clave ({@link #claim}) con un registro
+ * pendiente; al terminar lo completa con la respuesta ({@link #save}) o lo libera si falla ({@link #release}).
+ * Las demás instancias ven el registro pendiente y esperan a que se complete.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Busca el registro guardado para una clave.
+     *
+     * @param key clave (cliente + ámbito + Idempotency-Key)
+     * @return Mono con el registro (pendiente o completo) o vacío si no existe o ha expirado
+     */
+    Mono<IdempotentResponse> find(String key);
+
+    /**
+     * Reclama la clave con un registro pendiente si no existe o ha expirado.
+     *
+     * @param key         clave (cliente + ámbito + Idempotency-Key)
+     * @param requestHash hash de la petición que se va a ejecutar
+     * @param lease       vida del registro pendiente: si la instancia cae, otra puede reclamar la clave al expirar
+     * @return Mono con true si esta llamada obtuvo la clave, false si ya estaba reclamada o completa
+     */
+    Mono<Boolean> claim(String key, String requestHash, Duration lease);
+
+    /**
+     * Completa el registro reclamado con la respuesta de la ejecución.
+     *
+     * @param key      clave (cliente + ámbito + Idempotency-Key)
+     * @param response respuesta a reproducir en los reintentos
+     * @param ttl      tiempo de vida del registro
+     * @return Mono que completa al guardar
+     */
+    Mono<Void> save(String key, IdempotentResponse response, Duration ttl);
+
+    /**
+     * Libera una clave reclamada cuya ejecución falló, para que un reintento vuelva a ejecutarla.
+     * Un registro ya completo no se toca.
+     *
+     * @param key clave (cliente + ámbito + Idempotency-Key)
+     * @return Mono que completa al liberar
+     */
+    Mono<Void> release(String key);
+
+    /**
+     * Registro guardado: hash de la petición original y cuerpo JSON de la respuesta (null mientras está pendiente).
+     */
+    record IdempotentResponse(String requestHash, String body) {
+
+        public static IdempotentResponse pending(String requestHash) {
+            return new IdempotentResponse(requestHash, null);
+        }
+
+        public boolean isPending() {
+            return body == null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.seti.franchises.infrastructure.web.importer;
+
+import com.seti.franchises.application.service.FranchiseUseCaseService.ProductImportCommand;
+import com.seti.franchises.infrastructure.web.dto.request.ImportProductLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Convierte un cuerpo NDJSON (Flux de DataBuffer) en comandos de importación, línea a línea.
+ * No acumula el fichero: cada buffer se libera en cuanto se extraen sus líneas, y una línea
+ * mal formada se reporta como error sin cortar el resto de la carga.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductImportParser {
+
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+    private final StringDecoder lineDecoder = StringDecoder.allMimeTypes();
+    private final JsonMapper jsonMapper;
+
+    public Flux<ProductImportCommand> parse(Flux<DataBuffer> body) {
+        return lineDecoder.decode(body, STRING_TYPE, null, null)
+                .index()
+                .filter(indexed -> !indexed.getT2().isBlank())
+                .map(indexed -> toCommand(indexed.getT1() + 1, indexed.getT2()));
+    }
+
+    private ProductImportCommand toCommand(long lineNumber, String line) {
+        try {
+            ImportProductLine parsed = jsonMapper.readValue(line, ImportProductLine.class);
+            return ProductImportCommand.builder()
+                    .line(lineNumber)
+                    .branchId(parsed.branchId())
+                    .name(parsed.name())
+                    .stockQuantity(parsed.stockQuantity())
+                    .build();
+        } catch (JacksonException e) {
+            return ProductImportCommand.builder()
+                    .line(lineNumber)
+                    .error("Línea JSON inválida: " + e.getOriginalMessage())
+                    .build();
+        }
+    }
+}
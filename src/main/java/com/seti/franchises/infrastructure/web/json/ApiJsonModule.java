@@ -0,0 +1,39 @@
+package com.seti.franchises.infrastructure.web.json;
+
+import com.seti.franchises.infrastructure.web.dto.request.AddBranchRequest;
+import com.seti.franchises.infrastructure.web.dto.request.AddFranchiseRequest;
+import com.seti.franchises.infrastructure.web.dto.request.AddProductRequest;
+import com.seti.franchises.infrastructure.web.dto.request.DecrementStockRequest;
+import com.seti.franchises.infrastructure.web.dto.request.UpdateNameRequest;
+import com.seti.franchises.infrastructure.web.dto.request.UpdateStockRequest;
+import com.seti.franchises.infrastructure.web.dto.response.BranchResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ErrorResponse;
+import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ProductResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ProductWithBranchResponse;
+import tools.jackson.databind.module.SimpleModule;
+
+/**
+ * Módulo Jackson con los (de)serializadores escritos a mano de los DTOs de la API
+ * ({@link ResponseSerializers}, {@link RequestDeserializers}).
+ * <p>
+ * Como bean lo registra Spring Boot en el JsonMapper de la aplicación (codecs JSON de WebFlux,
+ * idempotencia, WebSocket); WebCodecsConfig lo añade también a los mappers de CBOR y Smile.
+ */
+public class ApiJsonModule extends SimpleModule {
+
+    public ApiJsonModule() {
+        super("franchises-api");
+        addSerializer(FranchiseResponse.class, new ResponseSerializers.FranchiseSerializer());
+        addSerializer(BranchResponse.class, new ResponseSerializers.BranchSerializer());
+        addSerializer(ProductResponse.class, new ResponseSerializers.ProductSerializer());
+        addSerializer(ProductWithBranchResponse.class, new ResponseSerializers.ProductWithBranchSerializer());
+        addSerializer(ErrorResponse.class, new ResponseSerializers.ErrorSerializer());
+        addDeserializer(AddFranchiseRequest.class, new RequestDeserializers.AddFranchiseDeserializer());
+        addDeserializer(AddBranchRequest.class, new RequestDeserializers.AddBranchDeserializer());
+        addDeserializer(AddProductRequest.class, new RequestDeserializers.AddProductDeserializer());
+        addDeserializer(UpdateNameRequest.class, new RequestDeserializers.UpdateNameDeserializer());
+        addDeserializer(UpdateStockRequest.class, new RequestDeserializers.UpdateStockDeserializer());
+        addDeserializer(DecrementStockRequest.class, new RequestDeserializers.DecrementStockDeserializer());
+    }
+}
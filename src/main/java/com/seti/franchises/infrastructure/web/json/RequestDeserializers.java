@@ -0,0 +1,162 @@
+package com.seti.franchises.infrastructure.web.json;
+
+import com.seti.franchises.infrastructure.web.dto.request.AddBranchRequest;
+import com.seti.franchises.infrastructure.web.dto.request.AddFranchiseRequest;
+import com.seti.franchises.infrastructure.web.dto.request.AddProductRequest;
+import com.seti.franchises.infrastructure.web.dto.request.DecrementStockRequest;
+import com.seti.franchises.infrastructure.web.dto.request.UpdateNameRequest;
+import com.seti.franchises.infrastructure.web.dto.request.UpdateStockRequest;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Deserializadores escritos a mano para los records de petición: recorren los tokens y llaman al
+ * constructor canónico, sin introspección de creadores.
+ * <p>
+ * Se comportan como la deserialización por defecto: propiedades ausentes a null, propiedades
+ * desconocidas según FAIL_ON_UNKNOWN_PROPERTIES (handleUnknownProperty) y, para tokens que no son
+ * el caso rápido (p. ej. "10" como número), las mismas coerciones de Jackson vía ctxt.readValue.
+ * La validación (@Valid) se aplica después sobre el record, igual que antes.
+ */
+final class RequestDeserializers {
+
+    private RequestDeserializers() {
+    }
+
+    /**
+     * Deserializador de un record cuyos componentes son solo {@code name} y/o una cantidad entera
+     * ({@code stockQuantity} o, en los decrementos, {@code quantity}).
+     */
+    private abstract static class NameStockDeserializer<T> extends StdDeserializer<T> {
+
+        private final boolean hasName;
+        private final String stockProperty;
+
+        NameStockDeserializer(Class<T> type, boolean hasName, boolean hasStock) {
+            this(type, hasName, hasStock ? "stockQuantity" : null);
+        }
+
+        NameStockDeserializer(Class<T> type, boolean hasName, String stockProperty) {
+            super(type);
+            this.hasName = hasName;
+            this.stockProperty = stockProperty;
+        }
+
+        abstract T create(String name, Integer stockQuantity);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T deserialize(JsonParser p, DeserializationContext ctxt) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            } else if (token != JsonToken.PROPERTY_NAME && token != JsonToken.END_OBJECT) {
+                return (T) ctxt.handleUnexpectedToken(handledType(), p);
+            }
+            String name = null;
+            Integer stockQuantity = null;
+            for (; token == JsonToken.PROPERTY_NAME; token = p.nextToken()) {
+                String property = p.currentName();
+                p.nextToken();
+                if (hasName && "name".equals(property)) {
+                    name = readString(p, ctxt);
+                } else if (stockProperty != null && stockProperty.equals(property)) {
+                    stockQuantity = readInteger(p, ctxt);
+                } else {
+                    ctxt.handleUnknownProperty(p, this, handledType(), property);
+                }
+            }
+            return create(name, stockQuantity);
+        }
+
+        private static String readString(JsonParser p, DeserializationContext ctxt) {
+            return switch (p.currentToken()) {
+                case VALUE_STRING -> p.getValueAsString();
+                case VALUE_NULL -> null;
+                default -> ctxt.readValue(p, String.class);
+            };
+        }
+
+        private static Integer readInteger(JsonParser p, DeserializationContext ctxt) {
+            return switch (p.currentToken()) {
+                case VALUE_NUMBER_INT -> p.getIntValue();
+                case VALUE_NULL -> null;
+                default -> ctxt.readValue(p, Integer.class);
+            };
+        }
+    }
+
+    static final class AddFranchiseDeserializer extends NameStockDeserializer<AddFranchiseRequest> {
+
+        AddFranchiseDeserializer() {
+            super(AddFranchiseRequest.class, true, false);
+        }
+
+        @Override
+        AddFranchiseRequest create(String name, Integer stockQuantity) {
+            return new AddFranchiseRequest(name);
+        }
+    }
+
+    static final class AddBranchDeserializer extends NameStockDeserializer<AddBranchRequest> {
+
+        AddBranchDeserializer() {
+            super(AddBranchRequest.class, true, false);
+        }
+
+        @Override
+        AddBranchRequest create(String name, Integer stockQuantity) {
+            return new AddBranchRequest(name);
+        }
+    }
+
+    static final class AddProductDeserializer extends NameStockDeserializer<AddProductRequest> {
+
+        AddProductDeserializer() {
+            super(AddProductRequest.class, true, true);
+        }
+
+        @Override
+        AddProductRequest create(String name, Integer stockQuantity) {
+            return new AddProductRequest(name, stockQuantity);
+        }
+    }
+
+    static final class UpdateNameDeserializer extends NameStockDeserializer<UpdateNameRequest> {
+
+        UpdateNameDeserializer() {
+            super(UpdateNameRequest.class, true, false);
+        }
+
+        @Override
+        UpdateNameRequest create(String name, Integer stockQuantity) {
+            return new UpdateNameRequest(name);
+        }
+    }
+
+    static final class UpdateStockDeserializer extends NameStockDeserializer<UpdateStockRequest> {
+
+        UpdateStockDeserializer() {
+            super(UpdateStockRequest.class, false, true);
+        }
+
+        @Override
+        UpdateStockRequest create(String name, Integer stockQuantity) {
+            return new UpdateStockRequest(stockQuantity);
+        }
+    }
+
+    static final class DecrementStockDeserializer extends NameStockDeserializer<DecrementStockRequest> {
+
+        DecrementStockDeserializer() {
+            super(DecrementStockRequest.class, false, "quantity");
+        }
+
+        @Override
+        DecrementStockRequest create(String name, Integer quantity) {
+            return new DecrementStockRequest(quantity);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.seti.franchises.infrastructure.web.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.seti.franchises.infrastructure.web.dto.response.BranchResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ErrorResponse;
+import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ProductResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ProductWithBranchResponse;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.PropertyNamingStrategy;
+import tools.jackson.databind.SerializationConfig;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Serializadores escritos a mano para los records de respuesta: llamadas directas al JsonGenerator,
+ * sin introspección ni accesores reflexivos de BeanSerializer.
+ * <p>
+ * Escriben lo mismo que la serialización por defecto de Jackson con la configuración del mapper que
+ * los usa: el orden (declaración, o alfabético si {@link MapperFeature#SORT_PROPERTIES_ALPHABETICALLY}
+ * está activo, como en Jackson 3 por defecto), la estrategia de nombres ({@link Properties#name}) y la
+ * inclusión por defecto del tipo (ALWAYS, NON_NULL, NON_ABSENT, NON_EMPTY y NON_DEFAULT; CUSTOM no se
+ * admite y escribe todas las propiedades). Con CBOR y Smile funcionan igual (mismo JsonGenerator abstracto).
+ */
+final class ResponseSerializers {
+
+    private ResponseSerializers() {
+    }
+
+    private static boolean alphabetical(SerializationContext ctxt) {
+        return ctxt.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY);
+    }
+
+    /**
+     * Estrategia de nombres e inclusión del mapper para un tipo de respuesta. Con la configuración por
+     * defecto (sin estrategia, se escriben los nulls) se reutiliza {@link #DEFAULTS} sin reservar memoria.
+     */
+    private record Properties(SerializationConfig config, PropertyNamingStrategy naming, JsonInclude.Include inclusion) {
+
+        private static final Properties DEFAULTS = new Properties(null, null, JsonInclude.Include.ALWAYS);
+
+        static Properties of(SerializationContext ctxt, Class<?> type) {
+            SerializationConfig config = ctxt.getConfig();
+            PropertyNamingStrategy naming = config.getPropertyNamingStrategy();
+            JsonInclude.Include inclusion = config.getDefaultPropertyInclusion(type).getValueInclusion();
+            boolean writesAll = inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS
+                    || inclusion == JsonInclude.Include.CUSTOM;
+            if (naming == null && writesAll) {
+                return DEFAULTS;
+            }
+            return new Properties(config, naming, writesAll ? JsonInclude.Include.ALWAYS : inclusion);
+        }
+
+        /**
+         * Nombre tras la estrategia del mapper. Las estrategias estándar conservan el orden alfabético relativo
+         * de los nombres de estos records, así que el orden no cambia al renombrar.
+         */
+        String name(String name) {
+            if (naming == null) {
+                return name;
+            }
+            if (naming instanceof PropertyNamingStrategies.NamingBase base) {
+                return base.translate(name);
+            }
+            return naming.nameForField(config, null, name);
+        }
+
+        /**
+         * Como BeanPropertyWriter: NON_EMPTY omite además cadenas y colecciones vacías, y NON_DEFAULT también
+         * el valor por defecto del tipo primitivo (0, false).
+         */
+        boolean suppress(Object value) {
+            return switch (inclusion) {
+                case NON_NULL, NON_ABSENT -> value == null;
+                case NON_EMPTY -> value == null || isEmpty(value);
+                case NON_DEFAULT -> value == null || isEmpty(value) || Integer.valueOf(0).equals(value)
+                        || Boolean.FALSE.equals(value);
+                default -> false;
+            };
+        }
+
+        private static boolean isEmpty(Object value) {
+            return value instanceof String string && string.isEmpty()
+                    || value instanceof Collection<?> collection && collection.isEmpty();
+        }
+
+        /**
+         * Escribe el nombre si la propiedad no se omite; devuelve false si se omite.
+         */
+        boolean writeName(JsonGenerator gen, String name, Object value) {
+            if (suppress(value)) {
+                return false;
+            }
+            gen.writeName(name(name));
+            return true;
+        }
+
+        void writeString(JsonGenerator gen, String name, String value) {
+            if (!writeName(gen, name, value)) {
+                return;
+            }
+            if (value != null) {
+                gen.writeString(value);
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        void writeNumber(JsonGenerator gen, String name, Integer value) {
+            if (!writeName(gen, name, value)) {
+                return;
+            }
+            if (value != null) {
+                gen.writeNumber(value);
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        void writeInt(JsonGenerator gen, String name, int value) {
+            if (inclusion == JsonInclude.Include.NON_DEFAULT && value == 0) {
+                return;
+            }
+            gen.writeName(name(name));
+            gen.writeNumber(value);
+        }
+
+        void writeBoolean(JsonGenerator gen, String name, boolean value) {
+            if (writeName(gen, name, value)) {
+                gen.writeBoolean(value);
+            }
+        }
+    }
+
+    static final class FranchiseSerializer extends StdSerializer<FranchiseResponse> {
+
+        FranchiseSerializer() {
+            super(FranchiseResponse.class);
+        }
+
+        @Override
+        public void serialize(FranchiseResponse value, JsonGenerator gen, SerializationContext ctxt) {
+            Properties properties = Properties.of(ctxt, FranchiseResponse.class);
+            gen.writeStartObject(value);
+            if (alphabetical(ctxt)) {
+                writeBranches(value.branches(), gen, ctxt, properties);
+                properties.writeString(gen, "id", value.id());
+                properties.writeString(gen, "name", value.name());
+            } else {
+                properties.writeString(gen, "id", value.id());
+                properties.writeString(gen, "name", value.name());
+                writeBranches(value.branches(), gen, ctxt, properties);
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeBranches(List<BranchResponse> branches, JsonGenerator gen, SerializationContext ctxt,
+                                          Properties properties) {
+            if (!properties.writeName(gen, "branches", branches)) {
+                return;
+            }
+            if (branches == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartArray(branches, branches.size());
+            for (BranchResponse branch : branches) {
+                BranchSerializer.write(branch, gen, ctxt);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    static final class BranchSerializer extends StdSerializer<BranchResponse> {
+
+        BranchSerializer() {
+            super(BranchResponse.class);
+        }
+
+        @Override
+        public void serialize(BranchResponse value, JsonGenerator gen, SerializationContext ctxt) {
+            write(value, gen, ctxt);
+        }
+
+        /**
+         * El orden alfabético coincide con el de declaración (id, name, products).
+         */
+        static void write(BranchResponse value, JsonGenerator gen, SerializationContext ctxt) {
+            if (value == null) {
+                gen.writeNull();
+                return;
+            }
+            Properties properties = Properties.of(ctxt, BranchResponse.class);
+            gen.writeStartObject(value);
+            properties.writeString(gen, "id", value.id());
+            properties.writeString(gen, "name", value.name());
+            List<ProductResponse> products = value.products();
+            if (properties.writeName(gen, "products", products)) {
+                if (products == null) {
+                    gen.writeNull();
+                } else {
+                    gen.writeStartArray(products, products.size());
+                    for (ProductResponse product : products) {
+                        ProductSerializer.write(product, gen, ctxt);
+                    }
+                    gen.writeEndArray();
+                }
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static final class ProductSerializer extends StdSerializer<ProductResponse> {
+
+        ProductSerializer() {
+            super(ProductResponse.class);
+        }
+
+        @Override
+        public void serialize(ProductResponse value, JsonGenerator gen, SerializationContext ctxt) {
+            write(value, gen, ctxt);
+        }
+
+        static void write(ProductResponse value, JsonGenerator gen, SerializationContext ctxt) {
+            if (value == null) {
+                gen.writeNull();
+                return;
+            }
+            Properties properties = Properties.of(ctxt, ProductResponse.class);
+            gen.writeStartObject(value);
+            if (alphabetical(ctxt)) {
+                properties.writeBoolean(gen, "enabled", value.enabled());
+                properties.writeString(gen, "id", value.id());
+                properties.writeString(gen, "name", value.name());
+                properties.writeNumber(gen, "stockQuantity", value.stockQuantity());
+            } else {
+                properties.writeString(gen, "id", value.id());
+                properties.writeString(gen, "name", value.name());
+                properties.writeNumber(gen, "stockQuantity", value.stockQuantity());
+                properties.writeBoolean(gen, "enabled", value.enabled());
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static final class ProductWithBranchSerializer extends StdSerializer<ProductWithBranchResponse> {
+
+        ProductWithBranchSerializer() {
+            super(ProductWithBranchResponse.class);
+        }
+
+        /**
+         * El orden alfabético coincide con el de declaración (branchId, branchName, product).
+         */
+        @Override
+        public void serialize(ProductWithBranchResponse value, JsonGenerator gen, SerializationContext ctxt) {
+            Properties properties = Properties.of(ctxt, ProductWithBranchResponse.class);
+            gen.writeStartObject(value);
+            properties.writeString(gen, "branchId", value.branchId());
+            properties.writeString(gen, "branchName", value.branchName());
+            if (properties.writeName(gen, "product", value.product())) {
+                ProductSerializer.write(value.product(), gen, ctxt);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static final class ErrorSerializer extends StdSerializer<ErrorResponse> {
+
+        ErrorSerializer() {
+            super(ErrorResponse.class);
+        }
+
+        @Override
+        public void serialize(ErrorResponse value, JsonGenerator gen, SerializationContext ctxt) {
+            Properties properties = Properties.of(ctxt, ErrorResponse.class);
+            gen.writeStartObject(value);
+            if (alphabetical(ctxt)) {
+                properties.writeString(gen, "message", value.message());
+                properties.writeInt(gen, "status", value.status());
+            } else {
+                properties.writeInt(gen, "status", value.status());
+                properties.writeString(gen, "message", value.message());
+            }
+            gen.writeEndObject();
+        }
+    }
+}
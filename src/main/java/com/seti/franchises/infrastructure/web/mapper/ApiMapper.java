@@ -4,8 +4,11 @@ import com.seti.franchises.application.service.FranchiseUseCaseService;
 import com.seti.franchises.domain.entity.Branch;
 import com.seti.franchises.domain.entity.Franchise;
 import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.mapping.LargeAggregateMapping;
 import com.seti.franchises.infrastructure.web.dto.response.BranchResponse;
+import com.seti.franchises.infrastructure.web.dto.response.CatalogEntryResponse;
 import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ImportEventResponse;
 import com.seti.franchises.infrastructure.web.dto.response.ProductResponse;
 import com.seti.franchises.infrastructure.web.dto.response.ProductWithBranchResponse;
 import org.springframework.stereotype.Component;
@@ -18,6 +21,20 @@ import java.util.stream.Collectors;
 @Component
 public class ApiMapper {
 
+    /**
+     * Reparto de {@link #toFranchiseResponse} por sucursales para {@link LargeAggregateMapping}.
+     */
+    public static final LargeAggregateMapping.Split<Franchise, Branch, FranchiseResponse> FRANCHISE_RESPONSE_SPLIT =
+            new LargeAggregateMapping.Split<>("franchiseResponse", Franchise::getBranches,
+                    branch -> branch != null && branch.getProducts() != null ? branch.getProducts().size() : 0,
+                    (franchise, branches) -> Franchise.builder()
+                            .id(franchise.getId())
+                            .name(franchise.getName())
+                            .branches(branches)
+                            .build(),
+                    parts -> new FranchiseResponse(parts.getFirst().id(), parts.getFirst().name(),
+                            parts.stream().flatMap(part -> part.branches().stream()).collect(Collectors.toList())));
+
     public FranchiseResponse toFranchiseResponse(Franchise franchise) {
         if (franchise == null) return null;
         List<BranchResponse> branches = Optional.ofNullable(franchise.getBranches())
@@ -48,4 +65,17 @@ public class ApiMapper {
         if (dto == null) return null;
         return new ProductWithBranchResponse(dto.getBranchId(), dto.getBranchName(), toProductResponse(dto.getProduct()));
     }
+
+    public CatalogEntryResponse toCatalogEntryResponse(FranchiseUseCaseService.CatalogEntryDto dto) {
+        if (dto == null) return null;
+        return new CatalogEntryResponse(dto.getFranchiseId(), dto.getFranchiseName(),
+                dto.getBranchId(), dto.getBranchName(), toProductResponse(dto.getProduct()));
+    }
+
+    public ImportEventResponse toImportEventResponse(FranchiseUseCaseService.ImportEventDto dto) {
+        if (dto == null) return null;
+        Integer count = dto.getType() == FranchiseUseCaseService.ImportEventType.PROGRESS ? dto.getCount() : null;
+        return new ImportEventResponse(dto.getType().name(), dto.getLine(), dto.getBranchId(), count,
+                dto.getImported(), dto.getFailed(), dto.getMessage());
+    }
 }
@@ -0,0 +1,287 @@
+package com.seti.franchises.infrastructure.web.mapper;
+
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.web.config.ApiMediaTypes;
+import com.seti.franchises.infrastructure.web.dto.response.BranchResponse;
+import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ProductResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonReader;
+import org.bson.BsonReaderMark;
+import org.bson.BsonType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Transcodifica el BSON almacenado de una franquicia directamente a JSON en un {@link DataBuffer} del
+ * servidor (pooled en Netty), sin construir Franchise ni {@link FranchiseResponse}.
+ * <p>
+ * La salida es byte a byte la que produce el JsonMapper de la aplicación para
+ * {@code ApiMapper.toFranchiseResponse}: {@code stock_quantity} pasa a {@code stockQuantity},
+ * {@code enabled} es true por defecto, los nulls se escriben y {@code disabled_at}/{@code _class} no.
+ * El orden y los nombres de las propiedades no se fijan aquí: se obtienen al arrancar serializando
+ * DTOs de muestra con ese mismo JsonMapper (orden alfabético de Jackson 3, estrategias de nombres...).
+ * Si el mapper omite propiedades (inclusión NON_NULL/NON_EMPTY, que ApiJsonModule respeta) el atajo se desactiva.
+ * <p>
+ * El orden de los campos en el documento BSON tampoco importa: id y name se leen con una marca y el
+ * array de hijos (que se salta por su longitud) se recorre después.
+ */
+@Slf4j
+@Component
+public class FranchiseJsonWriter {
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(ApiMediaTypes.APPLICATION_SMILE_VALUE);
+
+    /**
+     * Componentes de los records de respuesta: id, name, hijos (branches/products) o stockQuantity, enabled.
+     */
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int CHILDREN = 2;
+    private static final int STOCK_QUANTITY = 2;
+    private static final int ENABLED = 3;
+
+    private static final String PROBE_ID = "probe-id";
+    private static final String PROBE_NAME = "probe-name";
+
+    private final JsonMapper jsonMapper;
+    private final Layout franchiseLayout;
+    private final Layout branchLayout;
+    private final Layout productLayout;
+    private final boolean enabled;
+
+    public FranchiseJsonWriter(JsonMapper jsonMapper,
+                               @Value("${franchises.web.json-passthrough.enabled:true}") boolean enabled) {
+        this.jsonMapper = jsonMapper;
+        this.franchiseLayout = probe(jsonMapper, new FranchiseResponse(PROBE_ID, PROBE_NAME, List.of()), 3);
+        this.branchLayout = probe(jsonMapper, new BranchResponse(PROBE_ID, PROBE_NAME, List.of()), 3);
+        this.productLayout = probe(jsonMapper, new ProductResponse(PROBE_ID, PROBE_NAME, 7, false), 4);
+        boolean compatible = franchiseLayout != null && branchLayout != null && productLayout != null
+                && propertyCount(jsonMapper, new ProductResponse(null, null, null, true)) == 4;
+        if (enabled && !compatible) {
+            log.warn("JSON directo desde BSON desactivado: la configuración de Jackson omite propiedades de las respuestas");
+        }
+        this.enabled = enabled && compatible;
+    }
+
+    /**
+     * Indica si la negociación de contenido elegiría JSON para este Accept (JSON es el primer tipo
+     * producible, así que gana salvo que CBOR o Smile se pidan con más preferencia).
+     */
+    public boolean accepts(List<MediaType> accept) {
+        if (!enabled) {
+            return false;
+        }
+        if (accept.isEmpty()) {
+            return true;
+        }
+        List<MediaType> sorted = new ArrayList<>(accept);
+        sorted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : sorted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_CBOR) || mediaType.includes(APPLICATION_SMILE)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Escribe la franquicia como JSON en un buffer nuevo de {@code bufferFactory}; lo libera si falla.
+     */
+    public DataBuffer write(ByteBuffer bson, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(bson.remaining());
+        try {
+            try (BsonReader reader = new BsonBinaryReader(bson.duplicate());
+                 JsonGenerator generator = jsonMapper.createGenerator(buffer.asOutputStream())) {
+                writeContainer(reader, generator, franchiseLayout, FranchiseCodec.BRANCHES);
+            }
+            return buffer;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    /**
+     * Franquicia o sucursal: id, name y el array de hijos en el orden del layout.
+     */
+    private void writeContainer(BsonReader reader, JsonGenerator generator, Layout layout, String childrenField) {
+        reader.readStartDocument();
+        BsonReaderMark start = reader.getMark();
+        String id = null;
+        String name = null;
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case FranchiseCodec.ID -> id = FranchiseCodec.readId(reader);
+                case FranchiseCodec.NAME -> name = FranchiseCodec.readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        start.reset();
+        generator.writeStartObject();
+        for (int component : layout.order()) {
+            generator.writeName(layout.names()[component]);
+            switch (component) {
+                case ID -> writeString(generator, id);
+                case NAME -> writeString(generator, name);
+                default -> writeChildren(reader, generator, childrenField);
+            }
+        }
+        generator.writeEndObject();
+        reader.readEndDocument();
+    }
+
+    /**
+     * Deja el lector al final del documento actual (haya o no array de hijos).
+     */
+    private void writeChildren(BsonReader reader, JsonGenerator generator, String childrenField) {
+        generator.writeStartArray();
+        if (seekArray(reader, childrenField)) {
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                if (FranchiseCodec.BRANCHES.equals(childrenField)) {
+                    writeContainer(reader, generator, branchLayout, FranchiseCodec.PRODUCTS);
+                } else {
+                    writeProduct(reader, generator);
+                }
+            }
+            reader.readEndArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                reader.skipName();
+                reader.skipValue();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeProduct(BsonReader reader, JsonGenerator generator) {
+        String id = null;
+        String name = null;
+        Integer stockQuantity = null;
+        boolean productEnabled = true;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case FranchiseCodec.ID -> id = FranchiseCodec.readId(reader);
+                case FranchiseCodec.NAME -> name = FranchiseCodec.readString(reader);
+                case FranchiseCodec.STOCK_QUANTITY -> stockQuantity = FranchiseCodec.readInteger(reader);
+                case FranchiseCodec.ENABLED -> {
+                    if (reader.getCurrentBsonType() == BsonType.BOOLEAN) {
+                        productEnabled = reader.readBoolean();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        generator.writeStartObject();
+        for (int component : productLayout.order()) {
+            generator.writeName(productLayout.names()[component]);
+            switch (component) {
+                case ID -> writeString(generator, id);
+                case NAME -> writeString(generator, name);
+                case STOCK_QUANTITY -> {
+                    if (stockQuantity != null) {
+                        generator.writeNumber(stockQuantity);
+                    } else {
+                        generator.writeNull();
+                    }
+                }
+                default -> generator.writeBoolean(productEnabled);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Avanza hasta el campo array {@code name}. Si no existe (o no es un array) consume el documento
+     * hasta el final y devuelve false.
+     */
+    private static boolean seekArray(BsonReader reader, String name) {
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (name.equals(reader.readName()) && reader.getCurrentBsonType() == BsonType.ARRAY) {
+                return true;
+            }
+            reader.skipValue();
+        }
+        return false;
+    }
+
+    private static void writeString(JsonGenerator generator, String value) {
+        if (value != null) {
+            generator.writeString(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    /**
+     * Nombres y orden de las propiedades de un DTO según el JsonMapper, identificando cada componente
+     * por su valor de muestra. null si falta alguna o aparece una inesperada.
+     */
+    private static Layout probe(JsonMapper jsonMapper, Object sample, int components) {
+        String[] names = new String[components];
+        int[] order = new int[components];
+        int count = 0;
+        try (JsonParser parser = jsonMapper.createParser(jsonMapper.writeValueAsBytes(sample))) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String name = parser.currentName();
+                int component = switch (parser.nextToken()) {
+                    case VALUE_STRING -> PROBE_ID.equals(parser.getValueAsString()) ? ID : NAME;
+                    case VALUE_NUMBER_INT, START_ARRAY -> CHILDREN;
+                    case VALUE_FALSE -> ENABLED;
+                    default -> -1;
+                };
+                parser.skipChildren();
+                if (component < 0 || component >= components || count == components || names[component] != null) {
+                    return null;
+                }
+                names[component] = name;
+                order[count++] = component;
+            }
+        }
+        return count == components ? new Layout(names, order) : null;
+    }
+
+    private static int propertyCount(JsonMapper jsonMapper, Object sample) {
+        int count = 0;
+        try (JsonParser parser = jsonMapper.createParser(jsonMapper.writeValueAsBytes(sample))) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                count++;
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * names: nombre JSON por componente; order: componentes en el orden en que se escriben.
+     */
+    private record Layout(String[] names, int[] order) {
+    }
+}
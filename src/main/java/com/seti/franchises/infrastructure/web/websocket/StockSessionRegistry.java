@@ -0,0 +1,29 @@
+package com.seti.franchises.infrastructure.web.websocket;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Última secuencia confirmada por clientId, para reanudar tras una reconexión.
+ * Acotado (LRU): los clientes inactivos más antiguos se olvidan y reanudan desde 0,
+ * lo que es seguro porque fijar el stock es idempotente.
+ */
+@Component
+public class StockSessionRegistry {
+
+    static final int MAX_CLIENTS = 10_000;
+
+    private final Map<String, AtomicLong> lastAckedByClient = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AtomicLong> eldest) {
+            return size() > MAX_CLIENTS;
+        }
+    };
+
+    public synchronized AtomicLong lastAcked(String clientId) {
+        return lastAckedByClient.computeIfAbsent(clientId, k -> new AtomicLong());
+    }
+}
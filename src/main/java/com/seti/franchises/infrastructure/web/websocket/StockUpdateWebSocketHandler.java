@@ -0,0 +1,111 @@
+package com.seti.franchises.infrastructure.web.websocket;
+
+import com.seti.franchises.application.service.FranchiseUseCaseService;
+import com.seti.franchises.application.service.FranchiseUseCaseService.StockUpdateCommand;
+import com.seti.franchises.infrastructure.web.dto.request.StockCommandMessage;
+import com.seti.franchises.infrastructure.web.dto.response.StockAckMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Canal WebSocket para actualizaciones de stock de alta frecuencia (escáneres de mano).
+ * <p>
+ * Protocolo (texto JSON):
+ * <ul>
+ *   <li>Conexión: {@code /ws/v1/stock?clientId=...}. El servidor envía primero
+ *   {@code {"type":"RESUME","lastAckedSeq":N}}; el cliente reenvía solo los comandos con seq &gt; N.</li>
+ *   <li>Cliente → servidor: {@link StockCommandMessage} con seq creciente.</li>
+ *   <li>Servidor → cliente: un {@code ACK} por comando (OK, NOT_FOUND, INVALID o DUPLICATE si seq &lt;= N).</li>
+ * </ul>
+ * Los comandos se agrupan en lotes (hasta MAX_BATCH o BATCH_WINDOW) y se procesan de uno en uno por
+ * conexión con un lote en cola (pipelining). Cuando la escritura va por detrás, se deja de leer del
+ * socket y el control de flujo de TCP frena al cliente.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockUpdateWebSocketHandler implements WebSocketHandler {
+
+    static final int MAX_BATCH = 128;
+    static final Duration BATCH_WINDOW = Duration.ofMillis(5);
+    static final int QUEUED_BATCHES = 1;
+
+    private final FranchiseUseCaseService useCaseService;
+    private final StockSessionRegistry sessionRegistry;
+    private final JsonMapper jsonMapper;
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        String clientId = UriComponentsBuilder.fromUri(session.getHandshakeInfo().getUri()).build()
+                .getQueryParams().getFirst("clientId");
+        AtomicLong lastAcked = clientId != null ? sessionRegistry.lastAcked(clientId) : new AtomicLong();
+        log.debug("Canal de stock abierto: sessionId={}, clientId={}, lastAckedSeq={}", session.getId(), clientId, lastAcked.get());
+
+        Flux<StockAckMessage> acks = session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                .bufferTimeout(MAX_BATCH, BATCH_WINDOW, true)
+                .concatMap(batch -> processBatch(batch, lastAcked), QUEUED_BATCHES);
+
+        Flux<WebSocketMessage> outbound = Mono.fromSupplier(() -> StockAckMessage.resume(lastAcked.get()))
+                .concatWith(acks)
+                .map(message -> session.textMessage(jsonMapper.writeValueAsString(message)));
+        return session.send(outbound)
+                .doFinally(signal -> log.debug("Canal de stock cerrado: sessionId={}, clientId={}, signal={}",
+                        session.getId(), clientId, signal));
+    }
+
+    /**
+     * Acks en el orden recibido: los rechazos (INVALID, DUPLICATE) ocupan su posición y los huecos se
+     * rellenan, en orden, con los resultados de applyStockUpdates (uno por comando, en el mismo orden).
+     */
+    private Flux<StockAckMessage> processBatch(List<String> payloads, AtomicLong lastAcked) {
+        long resumeFrom = lastAcked.get();
+        List<StockAckMessage> acks = new ArrayList<>(payloads.size());
+        List<StockUpdateCommand> commands = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            StockCommandMessage message;
+            try {
+                message = jsonMapper.readValue(payload, StockCommandMessage.class);
+            } catch (JacksonException e) {
+                acks.add(StockAckMessage.ack(null, "INVALID", null, "Mensaje JSON inválido"));
+                continue;
+            }
+            if (message.seq() != null && message.seq() <= resumeFrom) {
+                acks.add(StockAckMessage.ack(message.seq(), "DUPLICATE", null, null));
+                continue;
+            }
+            acks.add(null);
+            commands.add(new StockUpdateCommand(message.seq(), message.franchiseId(), message.branchId(),
+                    message.productId(), message.stockQuantity()));
+        }
+        return useCaseService.applyStockUpdates(commands)
+                .map(result -> StockAckMessage.ack(result.getSeq(), result.getStatus().name(),
+                        result.getStockQuantity(), result.getMessage()))
+                .collectList()
+                .flatMapIterable(results -> {
+                    Iterator<StockAckMessage> applied = results.iterator();
+                    acks.replaceAll(ack -> ack != null ? ack : applied.next());
+                    return acks;
+                })
+                .doOnComplete(() -> commands.stream()
+                        .map(StockUpdateCommand::getSeq)
+                        .filter(seq -> seq != null)
+                        .max(Long::compare)
+                        .ifPresent(max -> lastAcked.accumulateAndGet(max, Math::max)));
+    }
+}
@@ -0,0 +1,176 @@
+package com.seti.franchises;
+
+import com.seti.franchises.infrastructure.web.dto.response.BranchResponse;
+import com.seti.franchises.infrastructure.web.dto.response.CatalogEntryResponse;
+import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ImportEventResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ProductResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ProductWithBranchResponse;
+import com.seti.franchises.infrastructure.web.idempotency.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de integración: aplicación completa sobre Netty (perfil inmemory, sin MongoDB) recorriendo
+ * todos los endpoints. BlockHound está activo, así que cualquier llamada bloqueante en el event loop
+ * hace fallar la petición. Ejecutar: ./gradlew integrationTest
+ */
+@Tag("integration")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("inmemory")
+class FranchiseApiIntegrationTest {
+
+    private static final String BASE = "/api/v1/franchises";
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .responseTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @Test
+    @DisplayName("BlockHound está instalado: bloquear en un hilo no bloqueante falla")
+    void blockHoundIsInstalled() {
+        StepVerifier.create(Mono.fromCallable(() -> {
+                            Thread.sleep(1);
+                            return "";
+                        })
+                        .subscribeOn(Schedulers.parallel()))
+                .expectErrorMatches(e -> e instanceof BlockingOperationError
+                        || e.getCause() instanceof BlockingOperationError)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("recorre todos los endpoints REST y el canal WebSocket sin bloquear el event loop")
+    void allEndpoints() {
+        FranchiseResponse franchise = post(BASE, "{\"name\": \"Franquicia IT\"}", FranchiseResponse.class);
+        String franchiseId = franchise.id();
+
+        // Idempotency-Key: el reintento devuelve la misma franquicia
+        FranchiseResponse first = client.post().uri(BASE)
+                .header(IdempotencyService.HEADER, "it-key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"Franquicia Idempotente\"}")
+                .exchange().expectStatus().isCreated()
+                .expectBody(FranchiseResponse.class).returnResult().getResponseBody();
+        client.post().uri(BASE)
+                .header(IdempotencyService.HEADER, "it-key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"Franquicia Idempotente\"}")
+                .exchange().expectStatus().isCreated()
+                .expectBody(FranchiseResponse.class).value(replay -> assertThat(replay.id()).isEqualTo(first.id()));
+
+        BranchResponse branch = post(BASE + "/" + franchiseId + "/branches", "{\"name\": \"Sucursal IT\"}", BranchResponse.class);
+        String branchId = branch.id();
+        String productsPath = BASE + "/" + franchiseId + "/branches/" + branchId + "/products";
+        ProductResponse product = post(productsPath, "{\"name\": \"Producto A\", \"stockQuantity\": 10}", ProductResponse.class);
+        ProductResponse other = post(productsPath, "{\"name\": \"Producto B\", \"stockQuantity\": 3}", ProductResponse.class);
+
+        client.patch().uri(productsPath + "/" + product.id() + "/stock")
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"stockQuantity\": 50}")
+                .exchange().expectStatus().isOk()
+                .expectBody(ProductResponse.class).value(p -> assertThat(p.stockQuantity()).isEqualTo(50));
+        client.post().uri(productsPath + "/" + product.id() + "/stock/decrement")
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"quantity\": 8}")
+                .exchange().expectStatus().isOk()
+                .expectBody(ProductResponse.class).value(p -> assertThat(p.stockQuantity()).isEqualTo(42));
+        client.post().uri(productsPath + "/" + product.id() + "/stock/decrement")
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"quantity\": 100}")
+                .exchange().expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        client.patch().uri(BASE + "/" + franchiseId + "/name")
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"name\": \"Franquicia IT Renombrada\"}")
+                .exchange().expectStatus().isOk();
+        client.patch().uri(BASE + "/" + franchiseId + "/branches/" + branchId + "/name")
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"name\": \"Sucursal IT Renombrada\"}")
+                .exchange().expectStatus().isOk();
+        client.patch().uri(productsPath + "/" + product.id() + "/name")
+                .contentType(MediaType.APPLICATION_JSON).bodyValue("{\"name\": \"Producto A2\"}")
+                .exchange().expectStatus().isOk();
+
+        client.post().uri(BASE + "/" + franchiseId + "/products/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"branchId\": \"" + branchId + "\", \"name\": \"Importado\", \"stockQuantity\": 7}\n{mal json}\n")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange().expectStatus().isOk()
+                .expectBodyList(ImportEventResponse.class)
+                .value(events -> assertThat(events).extracting(ImportEventResponse::type).contains("ERROR", "SUMMARY"));
+
+        client.get().uri(BASE + "/" + franchiseId + "/branches/products/max-stock")
+                .exchange().expectStatus().isOk()
+                .expectBodyList(ProductWithBranchResponse.class)
+                .value(list -> assertThat(list).singleElement()
+                        .satisfies(entry -> assertThat(entry.product().id()).isEqualTo(product.id())));
+
+        client.get().uri(BASE + "/" + franchiseId)
+                .exchange().expectStatus().isOk()
+                .expectBody(FranchiseResponse.class)
+                .value(f -> assertThat(f.name()).isEqualTo("Franquicia IT Renombrada"));
+        client.get().uri(BASE).accept(MediaType.APPLICATION_NDJSON)
+                .exchange().expectStatus().isOk()
+                .expectBodyList(FranchiseResponse.class).value(list -> assertThat(list).hasSizeGreaterThanOrEqualTo(2));
+        client.get().uri(BASE + "/export").accept(MediaType.APPLICATION_NDJSON)
+                .exchange().expectStatus().isOk()
+                .expectBodyList(CatalogEntryResponse.class).value(list -> assertThat(list).hasSizeGreaterThanOrEqualTo(3));
+
+        String ack = new ReactorNettyWebSocketClient().execute(URI.create("ws://localhost:" + port + "/ws/v1/stock?clientId=it"),
+                        session -> session.send(Mono.just(session.textMessage("{\"seq\": 1, \"franchiseId\": \"" + franchiseId
+                                        + "\", \"branchId\": \"" + branchId + "\", \"productId\": \"" + other.id() + "\", \"stockQuantity\": 9}")))
+                                .thenMany(session.receive().map(WebSocketMessage::getPayloadAsText).take(2))
+                                .last()
+                                .doOnNext(last -> assertThat(last).contains("\"status\":\"OK\""))
+                                .then())
+                .then(Mono.just("ok"))
+                .block(Duration.ofSeconds(10));
+        assertThat(ack).isEqualTo("ok");
+
+        client.patch().uri(productsPath + "/" + other.id() + "/disable")
+                .exchange().expectStatus().isOk()
+                .expectBody(ProductResponse.class).value(p -> assertThat(p.enabled()).isFalse());
+        client.delete().uri(productsPath + "/" + product.id())
+                .exchange().expectStatus().isNoContent();
+
+        client.get().uri(BASE + "/no-existe").exchange().expectStatus().isNotFound();
+        client.post().uri(BASE).contentType(MediaType.APPLICATION_JSON).bodyValue("{\"name\": \"\"}")
+                .exchange().expectStatus().isBadRequest();
+    }
+
+    private <T> T post(String path, String body, Class<T> type) {
+        return client.post().uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(type)
+                .returnResult()
+                .getResponseBody();
+    }
+}
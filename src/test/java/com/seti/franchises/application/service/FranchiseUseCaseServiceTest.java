@@ -1,9 +1,18 @@
 package com.seti.franchises.application.service;
 
+import com.seti.franchises.application.observation.UseCaseEvent;
 import com.seti.franchises.domain.entity.Branch;
 import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.FranchiseAggregate;
 import com.seti.franchises.domain.entity.Product;
 import com.seti.franchises.domain.port.FranchiseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,16 +20,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,6 +54,11 @@ class FranchiseUseCaseServiceTest {
     @Mock
     private FranchiseRepository franchiseRepository;
 
+    @Spy
+    private ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private FranchiseUseCaseService useCaseService;
 
@@ -46,8 +72,8 @@ class FranchiseUseCaseServiceTest {
 
     @BeforeEach
     void setUp() {
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
         product = Product.builder().id(PRODUCT_ID).name("Producto A").stockQuantity(10).build();
-        // Listas mutables: el servicio hace removeIf sobre products en deleteProductFromBranch
         branchWithProduct = Branch.builder()
                 .id(BRANCH_ID)
                 .name("Sucursal Centro")
@@ -70,7 +96,7 @@ class FranchiseUseCaseServiceTest {
             Franchise saved = Franchise.builder().id(FRANCHISE_ID).name("Nueva Franquicia").branches(List.of()).build();
             when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(saved));
 
-            StepVerifier.create(useCaseService.addFranchise("Nueva Franquicia"))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.addFranchise("Nueva Franquicia")))
                     .expectNext(saved)
                     .verifyComplete();
 
@@ -80,11 +106,11 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("retorna error cuando el nombre está vacío")
         void addFranchise_emptyName() {
-            StepVerifier.create(useCaseService.addFranchise("   "))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.addFranchise("   ")))
                     .expectError(IllegalArgumentException.class)
                     .verify();
 
-            StepVerifier.create(useCaseService.addFranchise(null))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.addFranchise(null)))
                     .expectError(IllegalArgumentException.class)
                     .verify();
         }
@@ -97,25 +123,21 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("agrega sucursal cuando franquicia existe")
         void addBranch_success() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
-            Franchise savedWithNewBranch = Franchise.builder()
-                    .id(FRANCHISE_ID)
-                    .name(franchiseWithBranch.getName())
-                    .branches(List.of(branchWithProduct, Branch.builder().id("b2").name("Nueva Sucursal").products(List.of()).build()))
-                    .build();
-            when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(savedWithNewBranch));
-
-            StepVerifier.create(useCaseService.addBranchToFranchise(FRANCHISE_ID, "Nueva Sucursal"))
-                    .expectNextMatches(b -> "Nueva Sucursal".equals(b.getName()))
+            when(franchiseRepository.addBranch(eq(FRANCHISE_ID), any(Branch.class))).thenReturn(Mono.just(true));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.addBranchToFranchise(FRANCHISE_ID, "Nueva Sucursal")))
+                    .expectNextMatches(b -> "Nueva Sucursal".equals(b.getName()) && b.getProducts().isEmpty())
                     .verifyComplete();
+
+            verify(franchiseRepository, never()).save(any(Franchise.class));
         }
 
         @Test
         @DisplayName("retorna NotFoundException cuando franquicia no existe")
         void addBranch_franchiseNotFound() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.empty());
+            when(franchiseRepository.addBranch(eq(FRANCHISE_ID), any(Branch.class))).thenReturn(Mono.just(false));
 
-            StepVerifier.create(useCaseService.addBranchToFranchise(FRANCHISE_ID, "Sucursal"))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.addBranchToFranchise(FRANCHISE_ID, "Sucursal")))
                     .expectError(FranchiseUseCaseService.NotFoundException.class)
                     .verify();
         }
@@ -123,11 +145,11 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("retorna error cuando nombre de sucursal está vacío")
         void addBranch_emptyBranchName() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
-
-            StepVerifier.create(useCaseService.addBranchToFranchise(FRANCHISE_ID, "   "))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.addBranchToFranchise(FRANCHISE_ID, "   ")))
                     .expectError(IllegalArgumentException.class)
                     .verify();
+
+            verify(franchiseRepository, never()).addBranch(any(), any());
         }
     }
 
@@ -138,20 +160,22 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("agrega producto cuando franquicia y sucursal existen")
         void addProduct_success() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
-            when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(franchiseWithBranch));
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+            when(franchiseRepository.addProductsToBranch(eq(FRANCHISE_ID), eq(BRANCH_ID), anyList())).thenReturn(Mono.just(true));
 
-            StepVerifier.create(useCaseService.addProductToBranch(FRANCHISE_ID, BRANCH_ID, "Nuevo Producto", 5))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.addProductToBranch(FRANCHISE_ID, BRANCH_ID, "Nuevo Producto", 5)))
                     .expectNextMatches(p -> "Nuevo Producto".equals(p.getName()) && Integer.valueOf(5).equals(p.getStockQuantity()))
                     .verifyComplete();
+
+            verify(franchiseRepository, never()).save(any(Franchise.class));
         }
 
         @Test
         @DisplayName("retorna NotFoundException cuando franquicia no existe")
         void addProduct_franchiseNotFound() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.empty());
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.empty());
 
-            StepVerifier.create(useCaseService.addProductToBranch(FRANCHISE_ID, BRANCH_ID, "Producto", 0))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.addProductToBranch(FRANCHISE_ID, BRANCH_ID, "Producto", 0)))
                     .expectError(FranchiseUseCaseService.NotFoundException.class)
                     .verify();
         }
@@ -159,9 +183,9 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("retorna NotFoundException cuando sucursal no existe")
         void addProduct_branchNotFound() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
 
-            StepVerifier.create(useCaseService.addProductToBranch(FRANCHISE_ID, "branch-inexistente", "Producto", 0))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.addProductToBranch(FRANCHISE_ID, "branch-inexistente", "Producto", 0)))
                     .expectError(FranchiseUseCaseService.NotFoundException.class)
                     .verify();
         }
@@ -174,24 +198,21 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("elimina producto cuando existe")
         void deleteProduct_success() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
-            Franchise withoutProduct = Franchise.builder()
-                    .id(FRANCHISE_ID)
-                    .name(franchiseWithBranch.getName())
-                    .branches(List.of(Branch.builder().id(BRANCH_ID).name(branchWithProduct.getName()).products(List.of()).build()))
-                    .build();
-            when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(withoutProduct));
-
-            StepVerifier.create(useCaseService.deleteProductFromBranch(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID))
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+            when(franchiseRepository.removeProduct(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID)).thenReturn(Mono.just(true));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.deleteProductFromBranch(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID)))
                     .verifyComplete();
+
+            verify(franchiseRepository, never()).save(any(Franchise.class));
         }
 
         @Test
         @DisplayName("retorna NotFoundException cuando franquicia no existe")
         void deleteProduct_franchiseNotFound() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.empty());
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.empty());
 
-            StepVerifier.create(useCaseService.deleteProductFromBranch(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.deleteProductFromBranch(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID)))
                     .expectError(FranchiseUseCaseService.NotFoundException.class)
                     .verify();
         }
@@ -199,11 +220,13 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("retorna NotFoundException cuando producto no existe")
         void deleteProduct_productNotFound() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
 
-            StepVerifier.create(useCaseService.deleteProductFromBranch(FRANCHISE_ID, BRANCH_ID, "producto-inexistente"))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.deleteProductFromBranch(FRANCHISE_ID, BRANCH_ID, "producto-inexistente")))
                     .expectError(FranchiseUseCaseService.NotFoundException.class)
                     .verify();
+
+            verify(franchiseRepository, never()).removeProduct(any(), any(), any());
         }
     }
 
@@ -214,21 +237,31 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("actualiza stock cuando datos son válidos")
         void updateStock_success() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
-            Product updated = Product.builder().id(PRODUCT_ID).name(product.getName()).stockQuantity(20).build();
-            Branch branchUpdated = Branch.builder().id(BRANCH_ID).name(branchWithProduct.getName()).products(List.of(updated)).build();
-            Franchise saved = Franchise.builder().id(FRANCHISE_ID).name(franchiseWithBranch.getName()).branches(List.of(branchUpdated)).build();
-            when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(saved));
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+            when(franchiseRepository.setProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 20)).thenReturn(Mono.just(true));
 
-            StepVerifier.create(useCaseService.updateProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 20))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 20)))
                     .expectNextMatches(p -> Integer.valueOf(20).equals(p.getStockQuantity()))
                     .verifyComplete();
+
+            verify(franchiseRepository, never()).save(any(Franchise.class));
+        }
+
+        @Test
+        @DisplayName("retorna NotFoundException cuando el producto está deshabilitado")
+        void updateStock_disabledProduct() {
+            product.setEnabled(false);
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 20)))
+                    .expectError(FranchiseUseCaseService.NotFoundException.class)
+                    .verify();
         }
 
         @Test
         @DisplayName("retorna error cuando stock es negativo")
         void updateStock_negativeStock() {
-            StepVerifier.create(useCaseService.updateProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, -1))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, -1)))
                     .expectError(IllegalArgumentException.class)
                     .verify();
         }
@@ -236,14 +269,63 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("retorna NotFoundException cuando franquicia no existe")
         void updateStock_franchiseNotFound() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.empty());
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.empty());
 
-            StepVerifier.create(useCaseService.updateProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 10))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 10)))
                     .expectError(FranchiseUseCaseService.NotFoundException.class)
                     .verify();
         }
     }
 
+    @Nested
+    @DisplayName("decrementProductStock")
+    class DecrementProductStockTests {
+
+        @Test
+        @DisplayName("descuenta stock y retorna el producto actualizado")
+        void decrementStock_success() {
+            product.setStockQuantity(7);
+            when(franchiseRepository.decrementProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 3)).thenReturn(Mono.just(true));
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.decrementProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 3)))
+                    .expectNextMatches(p -> Integer.valueOf(7).equals(p.getStockQuantity()))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("retorna InsufficientStockException cuando no hay stock suficiente")
+        void decrementStock_insufficientStock() {
+            when(franchiseRepository.decrementProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 50)).thenReturn(Mono.just(false));
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.decrementProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 50)))
+                    .expectError(FranchiseUseCaseService.InsufficientStockException.class)
+                    .verify();
+        }
+
+        @Test
+        @DisplayName("retorna NotFoundException cuando el producto no existe")
+        void decrementStock_productNotFound() {
+            when(franchiseRepository.decrementProductStock(FRANCHISE_ID, BRANCH_ID, "p-inexistente", 1)).thenReturn(Mono.just(false));
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.decrementProductStock(FRANCHISE_ID, BRANCH_ID, "p-inexistente", 1)))
+                    .expectError(FranchiseUseCaseService.NotFoundException.class)
+                    .verify();
+        }
+
+        @Test
+        @DisplayName("retorna error cuando la cantidad no es positiva")
+        void decrementStock_invalidQuantity() {
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.decrementProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 0)))
+                    .expectError(IllegalArgumentException.class)
+                    .verify();
+
+            verify(franchiseRepository, never()).decrementProductStock(any(), any(), any(), anyInt());
+        }
+    }
+
     @Nested
     @DisplayName("getProductWithMostStockPerBranch")
     class GetProductWithMostStockPerBranchTests {
@@ -253,7 +335,7 @@ class FranchiseUseCaseServiceTest {
         void getMaxStock_success() {
             when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
 
-            StepVerifier.create(useCaseService.getProductWithMostStockPerBranch(FRANCHISE_ID))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.getProductWithMostStockPerBranch(FRANCHISE_ID)))
                     .expectNextMatches(dto -> dto.getBranchId().equals(BRANCH_ID)
                             && dto.getProduct() != null
                             && dto.getProduct().getId().equals(PRODUCT_ID))
@@ -265,7 +347,7 @@ class FranchiseUseCaseServiceTest {
         void getMaxStock_franchiseNotFound() {
             when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.empty());
 
-            StepVerifier.create(useCaseService.getProductWithMostStockPerBranch(FRANCHISE_ID))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.getProductWithMostStockPerBranch(FRANCHISE_ID)))
                     .expectError(FranchiseUseCaseService.NotFoundException.class)
                     .verify();
         }
@@ -277,7 +359,7 @@ class FranchiseUseCaseServiceTest {
             Franchise f = Franchise.builder().id(FRANCHISE_ID).name("F").branches(List.of(emptyBranch)).build();
             when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(f));
 
-            StepVerifier.create(useCaseService.getProductWithMostStockPerBranch(FRANCHISE_ID))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.getProductWithMostStockPerBranch(FRANCHISE_ID)))
                     .verifyComplete();
         }
     }
@@ -290,18 +372,19 @@ class FranchiseUseCaseServiceTest {
         @DisplayName("actualiza nombre de franquicia")
         void updateFranchiseName_success() {
             when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
-            Franchise updated = Franchise.builder().id(FRANCHISE_ID).name("Nombre Actualizado").branches(franchiseWithBranch.getBranches()).build();
-            when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(updated));
+            when(franchiseRepository.setFranchiseName(FRANCHISE_ID, "Nombre Actualizado")).thenReturn(Mono.just(true));
 
-            StepVerifier.create(useCaseService.updateFranchiseName(FRANCHISE_ID, "Nombre Actualizado"))
-                    .expectNextMatches(f -> "Nombre Actualizado".equals(f.getName()))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateFranchiseName(FRANCHISE_ID, "Nombre Actualizado")))
+                    .expectNextMatches(f -> "Nombre Actualizado".equals(f.getName()) && f.getBranches().size() == 1)
                     .verifyComplete();
+
+            verify(franchiseRepository, never()).save(any(Franchise.class));
         }
 
         @Test
         @DisplayName("retorna error cuando nombre está vacío")
         void updateFranchiseName_emptyName() {
-            StepVerifier.create(useCaseService.updateFranchiseName(FRANCHISE_ID, "   "))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateFranchiseName(FRANCHISE_ID, "   ")))
                     .expectError(IllegalArgumentException.class)
                     .verify();
         }
@@ -314,15 +397,25 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("actualiza nombre de sucursal")
         void updateBranchName_success() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
-            Branch updatedBranch = Branch.builder().id(BRANCH_ID).name("Sucursal Renombrada").products(branchWithProduct.getProducts()).build();
-            Franchise saved = Franchise.builder().id(FRANCHISE_ID).name(franchiseWithBranch.getName()).branches(List.of(updatedBranch)).build();
-            when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(saved));
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+            when(franchiseRepository.setBranchName(FRANCHISE_ID, BRANCH_ID, "Sucursal Renombrada")).thenReturn(Mono.just(true));
 
-            StepVerifier.create(useCaseService.updateBranchName(FRANCHISE_ID, BRANCH_ID, "Sucursal Renombrada"))
-                    .expectNextMatches(b -> "Sucursal Renombrada".equals(b.getName()))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateBranchName(FRANCHISE_ID, BRANCH_ID, "Sucursal Renombrada")))
+                    .expectNextMatches(b -> "Sucursal Renombrada".equals(b.getName()) && b.getProducts().size() == 1)
                     .verifyComplete();
         }
+
+        @Test
+        @DisplayName("retorna NotFoundException cuando la sucursal no existe")
+        void updateBranchName_branchNotFound() {
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateBranchName(FRANCHISE_ID, "b-inexistente", "Otra")))
+                    .expectError(FranchiseUseCaseService.NotFoundException.class)
+                    .verify();
+
+            verify(franchiseRepository, never()).setBranchName(any(), any(), any());
+        }
     }
 
     @Nested
@@ -332,16 +425,100 @@ class FranchiseUseCaseServiceTest {
         @Test
         @DisplayName("actualiza nombre de producto")
         void updateProductName_success() {
-            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
-            Product updatedProduct = Product.builder().id(PRODUCT_ID).name("Producto Renombrado").stockQuantity(product.getStockQuantity()).build();
-            Branch b = Branch.builder().id(BRANCH_ID).name(branchWithProduct.getName()).products(List.of(updatedProduct)).build();
-            Franchise saved = Franchise.builder().id(FRANCHISE_ID).name(franchiseWithBranch.getName()).branches(List.of(b)).build();
-            when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(saved));
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+            when(franchiseRepository.setProductName(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, "Producto Renombrado")).thenReturn(Mono.just(true));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateProductName(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, "Producto Renombrado")))
+                    .expectNextMatches(p -> "Producto Renombrado".equals(p.getName()) && Integer.valueOf(10).equals(p.getStockQuantity()))
+                    .verifyComplete();
+
+            verify(franchiseRepository, never()).save(any(Franchise.class));
+        }
+
+        @Test
+        @DisplayName("retorna NotFoundException cuando el producto está deshabilitado")
+        void updateProductName_disabledProduct() {
+            product.setEnabled(false);
+            when(franchiseRepository.findAggregateById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseAggregate.of(franchiseWithBranch)));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateProductName(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, "Otro")))
+                    .expectError(FranchiseUseCaseService.NotFoundException.class)
+                    .verify();
+
+            verify(franchiseRepository, never()).setProductName(any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("importProducts")
+    class ImportProductsTests {
 
-            StepVerifier.create(useCaseService.updateProductName(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, "Producto Renombrado"))
-                    .expectNextMatches(p -> "Producto Renombrado".equals(p.getName()))
+        private FranchiseUseCaseService.ProductImportCommand command(long line, String branchId, String name, Integer stock) {
+            return FranchiseUseCaseService.ProductImportCommand.builder()
+                    .line(line).branchId(branchId).name(name).stockQuantity(stock).build();
+        }
+
+        @Test
+        @DisplayName("agrupa por sucursal, reporta líneas inválidas y emite resumen")
+        void importProducts_batchesAndReportsErrors() {
+            when(franchiseRepository.existsById(FRANCHISE_ID)).thenReturn(Mono.just(true));
+            when(franchiseRepository.addProductsToBranch(eq(FRANCHISE_ID), eq(BRANCH_ID), any())).thenReturn(Mono.just(true));
+            when(franchiseRepository.addProductsToBranch(eq(FRANCHISE_ID), eq("b-inexistente"), any())).thenReturn(Mono.just(false));
+
+            Flux<FranchiseUseCaseService.ProductImportCommand> commands = Flux.just(
+                    command(1, BRANCH_ID, "Producto 1", 5),
+                    command(2, BRANCH_ID, "  ", 5),
+                    command(3, BRANCH_ID, "Producto 3", null),
+                    command(4, "b-inexistente", "Producto 4", 1),
+                    FranchiseUseCaseService.ProductImportCommand.builder().line(5).error("Línea JSON inválida").build());
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.importProducts(FRANCHISE_ID, commands).collectList()))
+                    .assertNext(events -> {
+                        FranchiseUseCaseService.ImportEventDto summary = events.get(events.size() - 1);
+                        assertEquals(FranchiseUseCaseService.ImportEventType.SUMMARY, summary.getType());
+                        assertEquals(2L, summary.getImported());
+                        assertEquals(3L, summary.getFailed());
+                    })
                     .verifyComplete();
         }
+
+        @Test
+        @DisplayName("retorna NotFoundException cuando franquicia no existe")
+        void importProducts_franchiseNotFound() {
+            when(franchiseRepository.existsById(FRANCHISE_ID)).thenReturn(Mono.just(false));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.importProducts(FRANCHISE_ID, Flux.empty())))
+                    .expectError(FranchiseUseCaseService.NotFoundException.class)
+                    .verify();
+        }
+    }
+
+    @Nested
+    @DisplayName("applyStockUpdates")
+    class ApplyStockUpdatesTests {
+
+        @Test
+        @DisplayName("agrupa comandos del mismo producto en una escritura y confirma cada comando")
+        void applyStockUpdates_coalescesAndAcksEachCommand() {
+            when(franchiseRepository.setProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 7)).thenReturn(Mono.just(true));
+            when(franchiseRepository.setProductStock(FRANCHISE_ID, BRANCH_ID, "p-inexistente", 1)).thenReturn(Mono.just(false));
+
+            List<FranchiseUseCaseService.StockUpdateCommand> batch = List.of(
+                    new FranchiseUseCaseService.StockUpdateCommand(1L, FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 5),
+                    new FranchiseUseCaseService.StockUpdateCommand(2L, FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 7),
+                    new FranchiseUseCaseService.StockUpdateCommand(3L, FRANCHISE_ID, BRANCH_ID, "p-inexistente", 1),
+                    new FranchiseUseCaseService.StockUpdateCommand(4L, FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, -1));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.applyStockUpdates(batch).map(FranchiseUseCaseService.StockUpdateResultDto::getStatus)))
+                    .expectNext(FranchiseUseCaseService.StockUpdateStatus.OK,
+                            FranchiseUseCaseService.StockUpdateStatus.OK,
+                            FranchiseUseCaseService.StockUpdateStatus.NOT_FOUND,
+                            FranchiseUseCaseService.StockUpdateStatus.INVALID)
+                    .verifyComplete();
+
+            verify(franchiseRepository, times(1)).setProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 7);
+            verify(franchiseRepository, never()).setProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 5);
+        }
     }
 
     @Nested
@@ -353,19 +530,100 @@ class FranchiseUseCaseServiceTest {
         void findById() {
             when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
 
-            StepVerifier.create(useCaseService.findById(FRANCHISE_ID))
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.findById(FRANCHISE_ID)))
                     .expectNext(franchiseWithBranch)
                     .verifyComplete();
         }
 
+        @Test
+        @DisplayName("exportCatalog emite una entrada por producto con su franquicia y sucursal")
+        void exportCatalog() {
+            when(franchiseRepository.findAll()).thenReturn(Flux.just(franchiseWithBranch));
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.exportCatalog()))
+                    .expectNextMatches(e -> FRANCHISE_ID.equals(e.getFranchiseId())
+                            && BRANCH_ID.equals(e.getBranchId())
+                            && PRODUCT_ID.equals(e.getProduct().getId()))
+                    .verifyComplete();
+        }
+
         @Test
         @DisplayName("findAll delega al repositorio")
         void findAll() {
             when(franchiseRepository.findAll()).thenReturn(Flux.just(franchiseWithBranch));
 
-            StepVerifier.create(useCaseService.findAll())
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.findAll()))
                     .expectNext(franchiseWithBranch)
                     .verifyComplete();
         }
     }
+
+    @Nested
+    @DisplayName("métricas")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("registra la observación (timer) del caso de uso con su resultado")
+        void recordsUseCaseTimerWithOutcome() {
+            when(franchiseRepository.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchiseWithBranch));
+            when(franchiseRepository.findById("no-existe")).thenReturn(Mono.empty());
+
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateFranchiseName(FRANCHISE_ID, " ")))
+                    .expectError(IllegalArgumentException.class)
+                    .verify();
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.getProductWithMostStockPerBranch("no-existe")))
+                    .expectError(FranchiseUseCaseService.NotFoundException.class)
+                    .verify();
+            StepVerifier.create(onNonBlockingThread(() -> useCaseService.findById(FRANCHISE_ID)))
+                    .expectNext(franchiseWithBranch)
+                    .verifyComplete();
+
+            assertEquals(1, meterRegistry.get(FranchiseUseCaseService.USE_CASE_OBSERVATION)
+                    .tags("use_case", "getProductWithMostStockPerBranch", "outcome", "not_found").timer().count());
+            assertEquals(1, meterRegistry.get(FranchiseUseCaseService.USE_CASE_OBSERVATION)
+                    .tags("use_case", "findById", "outcome", "success").timer().count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Eventos JFR")
+    class JfrEventsTests {
+
+        @Test
+        @DisplayName("emite un UseCaseEvent por caso de uso con franquicia y resultado mientras hay una grabación")
+        void emitsUseCaseEventWhileRecording() throws IOException {
+            when(franchiseRepository.findById("no-existe")).thenReturn(Mono.empty());
+            Path file = Files.createTempFile("use-case-events", ".jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable(UseCaseEvent.class).withoutThreshold();
+                recording.start();
+
+                StepVerifier.create(onNonBlockingThread(() -> useCaseService.updateFranchiseName("no-existe", "Nombre")))
+                        .expectError(FranchiseUseCaseService.NotFoundException.class)
+                        .verify();
+
+                recording.stop();
+                recording.dump(file);
+                List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+                RecordedEvent event = events.stream()
+                        .filter(e -> e.getEventType().getName().equals("com.seti.franchises.UseCase"))
+                        .findFirst()
+                        .orElseThrow();
+                assertEquals("updateFranchiseName", event.getString("useCase"));
+                assertEquals("no-existe", event.getString("franchiseId"));
+                assertEquals("not_found", event.getString("outcome"));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Ensambla y ejecuta el caso de uso en un hilo no bloqueante (Schedulers.parallel), como en el
+     * event loop: BlockHound hace fallar la prueba si el servicio bloquea.
+     */
+    private static <T> Flux<T> onNonBlockingThread(Supplier<? extends Publisher<T>> useCase) {
+        return Flux.<T>defer(useCase).subscribeOn(Schedulers.parallel());
+    }
 }
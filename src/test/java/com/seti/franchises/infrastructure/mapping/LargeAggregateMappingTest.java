@@ -0,0 +1,127 @@
+package com.seti.franchises.infrastructure.mapping;
+
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import com.seti.franchises.infrastructure.web.mapper.ApiMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las franquicias pequeñas se mapean en el hilo que llama; las grandes, repartidas en el scheduler de
+ * mapeo con el mismo resultado (y orden) que el mapeo secuencial.
+ */
+class LargeAggregateMappingTest {
+
+    private final ApiMapper apiMapper = new ApiMapper();
+    private final FranchisePersistenceMapper persistenceMapper = new FranchisePersistenceMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LargeAggregateMapping mapping = new LargeAggregateMapping(
+            new LargeAggregateMappingProperties(true, 50, 500, 4), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        mapping.destroy();
+    }
+
+    private static Franchise franchise(int branches, int productsPerBranch) {
+        List<Branch> branchList = new ArrayList<>(branches);
+        for (int b = 0; b < branches; b++) {
+            List<Product> products = new ArrayList<>(productsPerBranch);
+            for (int p = 0; p < productsPerBranch; p++) {
+                products.add(Product.builder().id("p-" + b + "-" + p).name("Producto " + p)
+                        .stockQuantity(p).enabled(p % 10 != 9).build());
+            }
+            branchList.add(Branch.builder().id("b-" + b).name("Sucursal " + b).products(products).build());
+        }
+        return Franchise.builder().id("f-1").name("Franquicia").branches(branchList).build();
+    }
+
+    @Test
+    @DisplayName("franquicia pequeña: se mapea en el hilo que llama")
+    void smallAggregateStaysOnCallingThread() {
+        Franchise small = franchise(5, 10);
+        Thread caller = Thread.currentThread();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        StepVerifier.create(mapping.map(small, ApiMapper.FRANCHISE_RESPONSE_SPLIT, franchise -> {
+                    threads.add(Thread.currentThread());
+                    return apiMapper.toFranchiseResponse(franchise);
+                }))
+                .expectNext(apiMapper.toFranchiseResponse(small))
+                .verifyComplete();
+
+        assertThat(threads).containsExactly(caller);
+        assertThat(meterRegistry.get("franchises.mapping").tag("path", "inline").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("franchises.mapping").tag("path", "offloaded").timer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("franquicia grande: se reparte por sucursales en el scheduler de mapeo y conserva el orden")
+    void largeAggregateIsSplitAcrossMappingThreads() {
+        Franchise large = franchise(80, 20);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        StepVerifier.create(mapping.map(large, ApiMapper.FRANCHISE_RESPONSE_SPLIT, franchise -> {
+                    threads.add(Thread.currentThread().getName());
+                    return apiMapper.toFranchiseResponse(franchise);
+                }))
+                .expectNext(apiMapper.toFranchiseResponse(large))
+                .verifyComplete();
+
+        assertThat(threads).hasSizeGreaterThan(1).allMatch(name -> name.startsWith("franchises-mapping"));
+        assertThat(meterRegistry.get("franchises.mapping").tag("path", "offloaded").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("documento grande a entidad: mismo resultado que toEntity secuencial")
+    void largeDocumentMapsToSameEntity() {
+        FranchiseDocument document = persistenceMapper.toDocument(franchise(10, 100));
+
+        StepVerifier.create(mapping.map(document, FranchisePersistenceMapper.ENTITY_SPLIT, persistenceMapper::toEntity))
+                .expectNext(persistenceMapper.toEntity(document))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("trozos contiguos de peso parecido, sin perder sucursales")
+    void partitionBalancesByProducts() {
+        List<Integer> products = List.of(100, 1, 1, 1, 100, 1, 1, 100);
+
+        List<List<Integer>> chunks = LargeAggregateMapping.partition(products, Integer::intValue, 3);
+
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.stream().flatMap(List::stream).toList()).isEqualTo(products);
+        assertThat(chunks.getFirst()).containsExactly(100, 1, 1);
+    }
+
+    @Test
+    @DisplayName("desactivado: todo en línea y registra el bloqueo del event loop")
+    void disabledMapsInlineAndRecordsEventLoopStall() {
+        LargeAggregateMapping disabled = new LargeAggregateMapping(
+                new LargeAggregateMappingProperties(false, 50, 500, 4), meterRegistry);
+        Franchise large = franchise(80, 20);
+
+        StepVerifier.create(Mono.just(large)
+                        .publishOn(Schedulers.parallel())
+                        .flatMap(franchise -> disabled.map(franchise, ApiMapper.FRANCHISE_RESPONSE_SPLIT, apiMapper::toFranchiseResponse)))
+                .expectNextMatches(response -> response.branches().size() == 80)
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("franchises.mapping.event-loop.stall").timer().count()).isEqualTo(1);
+    }
+}
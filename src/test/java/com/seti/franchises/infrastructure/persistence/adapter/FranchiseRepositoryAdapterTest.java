@@ -0,0 +1,118 @@
+package com.seti.franchises.infrastructure.persistence.adapter;
+
+import com.mongodb.client.result.UpdateResult;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.document.StockShardDocument;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import com.seti.franchises.infrastructure.persistence.metrics.FranchiseDocumentMetrics;
+import com.seti.franchises.infrastructure.persistence.repository.FranchiseMongoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Contadores de stock fragmentados en el adaptador: deshabilitar un producto vacía sus fragmentos antes de
+ * tocar el documento, y un producto deshabilitado no recarga fragmentos.
+ */
+@ExtendWith(MockitoExtension.class)
+class FranchiseRepositoryAdapterTest {
+
+    private static final UpdateResult MATCHED = UpdateResult.acknowledged(1, 1L, null);
+    private static final UpdateResult NOT_MATCHED = UpdateResult.acknowledged(0, 0L, null);
+
+    @Mock
+    private FranchiseMongoRepository mongoRepository;
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private FranchiseRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HotStockCounters hotStock = new HotStockCounters(mongoTemplate,
+                new HotStockProperties(true, Set.of("p1"), 8, 100, Duration.ofSeconds(30)), registry);
+        adapter = new FranchiseRepositoryAdapter(mongoRepository, mongoTemplate, new FranchisePersistenceMapper(),
+                ObservationRegistry.NOOP, new FranchiseCodec(new FranchiseDocumentMetrics(registry, 1, Long.MAX_VALUE)), hotStock);
+    }
+
+    @Test
+    @DisplayName("disableProduct: vacía los fragmentos con una generación nueva y después la escribe al deshabilitar")
+    void disableProduct_discardsShardsBeforeDisabling() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(StockShardDocument.class)))
+                .thenReturn(Mono.just(MATCHED));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(FranchiseDocument.class)))
+                .thenReturn(Mono.just(MATCHED));
+
+        StepVerifier.create(adapter.disableProduct("f1", "b1", "p1", Instant.now()))
+                .expectNext(true)
+                .verifyComplete();
+
+        ArgumentCaptor<Query> shardQuery = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> shardUpdate = ArgumentCaptor.forClass(UpdateDefinition.class);
+        ArgumentCaptor<UpdateDefinition> productUpdate = ArgumentCaptor.forClass(UpdateDefinition.class);
+        InOrder order = inOrder(mongoTemplate);
+        order.verify(mongoTemplate).updateMulti(shardQuery.capture(), shardUpdate.capture(), eq(StockShardDocument.class));
+        order.verify(mongoTemplate).updateFirst(any(Query.class), productUpdate.capture(), eq(FranchiseDocument.class));
+
+        assertThat(shardQuery.getValue().getQueryObject())
+                .containsEntry("franchise_id", "f1")
+                .containsEntry("branch_id", "b1")
+                .containsEntry("product_id", "p1");
+        Document shardSet = shardUpdate.getValue().getUpdateObject().get("$set", Document.class);
+        Document productSet = productUpdate.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(shardSet).containsEntry("count", 0);
+        assertThat(productSet)
+                .containsEntry("branches.$[b].products.$[p].enabled", false)
+                .containsEntry("branches.$[b].products.$[p].stock_epoch", shardSet.getString("epoch"));
+    }
+
+    @Test
+    @DisplayName("decremento de un producto deshabilitado: no toma unidades del documento ni las pasa a un fragmento")
+    void decrementProductStock_disabledProductDoesNotRefillShards() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(StockShardDocument.class)))
+                .thenReturn(Mono.just(NOT_MATCHED));
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), eq(FranchiseDocument.class)))
+                .thenReturn(Mono.empty());
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(FranchiseDocument.class)))
+                .thenReturn(Mono.just(NOT_MATCHED));
+
+        StepVerifier.create(adapter.decrementProductStock("f1", "b1", "p1", 1))
+                .expectNext(false)
+                .verifyComplete();
+
+        ArgumentCaptor<Query> refill = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(refill.capture(), any(UpdateDefinition.class), eq(FranchiseDocument.class));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(UpdateDefinition.class), eq(StockShardDocument.class));
+        Document product = refill.getValue().getQueryObject().get("branches", Document.class).get("$elemMatch", Document.class)
+                .get("products", Document.class).get("$elemMatch", Document.class);
+        assertThat(product.get("enabled", Document.class)).containsEntry("$ne", false);
+    }
+}
@@ -0,0 +1,151 @@
+package com.seti.franchises.infrastructure.persistence.adapter;
+
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.persistence.document.BranchDocument;
+import com.seti.franchises.infrastructure.persistence.metrics.FranchiseDocumentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las actualizaciones parciales deben encontrar los mismos productos que la lectura considera habilitados,
+ * incluidos los de documentos anteriores al borrado lógico (sin campo enabled).
+ */
+class FranchiseUpdatesTest {
+
+    private static final String LEGACY_FRANCHISE = """
+            {"_id": "f1", "name": "Franquicia", "branches": [
+              {"_id": "b1", "name": "Centro", "products": [
+                {"_id": "p1", "name": "Producto sin enabled", "stock_quantity": 10},
+                {"_id": "p2", "name": "Producto deshabilitado", "stock_quantity": 10, "enabled": false}
+              ]}
+            ]}""";
+
+    private final FranchiseCodec codec = new FranchiseCodec(new FranchiseDocumentMetrics(new SimpleMeterRegistry(), 1, Long.MAX_VALUE));
+
+    @Test
+    @DisplayName("producto sin campo enabled: habilitado al leer y coincide en setProductStock/takeProductStock")
+    void legacyProductWithoutEnabledField() {
+        RawBsonDocument legacy = RawBsonDocument.parse(LEGACY_FRANCHISE);
+        Franchise read = codec.decode(new BsonBinaryReader(legacy.getByteBuffer().asNIO()), DecoderContext.builder().build());
+        Document product = product(legacy, "p1");
+
+        assertThat(read.getBranches().getFirst().getProducts().getFirst().getEnabled()).isTrue();
+        assertThat(matches(productFilter(FranchiseUpdates.setProductStock("f1", "b1", "p1", 5)), product)).isTrue();
+        assertThat(matches(productFilter(FranchiseUpdates.takeProductStock("f1", "b1", "p1", 3)), product)).isTrue();
+        assertThat(matches(productFilter(FranchiseUpdates.takeProductStock("f1", "b1", "p1", 11)), product)).isFalse();
+    }
+
+    @Test
+    @DisplayName("producto con enabled=false: no coincide")
+    void disabledProductDoesNotMatch() {
+        Document product = product(RawBsonDocument.parse(LEGACY_FRANCHISE), "p2");
+
+        assertThat(matches(productFilter(FranchiseUpdates.setProductStock("f1", "b1", "p2", 5)), product)).isFalse();
+        assertThat(matches(productFilter(FranchiseUpdates.takeProductStock("f1", "b1", "p2", 1)), product)).isFalse();
+    }
+
+    @Test
+    @DisplayName("devolución de unidades de un fragmento: solo si el stock sigue en la generación de la que salieron")
+    void addProductStockOnlyMatchesSameStockEpoch() {
+        Document legacy = product(RawBsonDocument.parse(LEGACY_FRANCHISE), "p1");
+        Document reset = new Document(legacy).append("stock_epoch", "e2");
+
+        assertThat(matches(productFilter(FranchiseUpdates.addProductStock("f1", "b1", "p1", 4, null)), legacy)).isTrue();
+        assertThat(matches(productFilter(FranchiseUpdates.addProductStock("f1", "b1", "p1", 4, "e1")), legacy)).isFalse();
+        assertThat(matches(productFilter(FranchiseUpdates.addProductStock("f1", "b1", "p1", 4, null)), reset)).isFalse();
+        assertThat(matches(productFilter(FranchiseUpdates.addProductStock("f1", "b1", "p1", 4, "e1")), reset)).isFalse();
+        assertThat(matches(productFilter(FranchiseUpdates.addProductStock("f1", "b1", "p1", 4, "e2")), reset)).isTrue();
+    }
+
+    @Test
+    @DisplayName("fijar el stock con contadores fragmentados escribe también la generación nueva")
+    void withStockEpochSetsEpochOnTheSameProduct() {
+        FranchiseUpdates.TargetedUpdate set = FranchiseUpdates.withStockEpoch(
+                FranchiseUpdates.setProductStock("f1", "b1", "p1", 5), "e2");
+
+        Document fields = set.update().getUpdateObject().get("$set", Document.class);
+        assertThat(fields).containsEntry("branches.$[b].products.$[p].stock_quantity", 5)
+                .containsEntry("branches.$[b].products.$[p].stock_epoch", "e2");
+    }
+
+    @Test
+    @DisplayName("renombrar un producto: solo si está habilitado y sin tocar stock_quantity")
+    void setProductNameOnlyTouchesName() {
+        Document legacy = product(RawBsonDocument.parse(LEGACY_FRANCHISE), "p1");
+        Document disabled = product(RawBsonDocument.parse(LEGACY_FRANCHISE), "p2");
+        FranchiseUpdates.TargetedUpdate rename = FranchiseUpdates.setProductName("f1", "b1", "p1", "Nuevo");
+
+        assertThat(matches(productFilter(rename), legacy)).isTrue();
+        assertThat(matches(productFilter(FranchiseUpdates.setProductName("f1", "b1", "p2", "Nuevo")), disabled)).isFalse();
+        assertThat(rename.update().getUpdateObject().get("$set", Document.class))
+                .containsOnlyKeys("branches.$[b].products.$[p].name");
+    }
+
+    @Test
+    @DisplayName("sucursal nueva, nombre de franquicia y borrado de producto: $push, $set y $pull sin reescribir el stock")
+    void branchFranchiseNameAndRemovalAreTargeted() {
+        Document push = FranchiseUpdates.pushBranch("f1", BranchDocument.builder().id("b2").name("Norte").build())
+                .update().getUpdateObject();
+        Document rename = FranchiseUpdates.setFranchiseName("f1", "Otra").update().getUpdateObject();
+        FranchiseUpdates.TargetedUpdate pull = FranchiseUpdates.pullProduct("f1", "b1", "p1");
+
+        assertThat(push).containsOnlyKeys("$push");
+        assertThat(rename.get("$set", Document.class)).containsOnly(Map.entry("name", "Otra"));
+        assertThat(pull.update().getUpdateObject().get("$pull", Document.class))
+                .containsOnly(Map.entry("branches.$[b].products", new Document("_id", "p1")));
+        assertThat(matches(productFilter(pull), product(RawBsonDocument.parse(LEGACY_FRANCHISE), "p1"))).isTrue();
+    }
+
+    /**
+     * Filtro $elemMatch sobre products dentro del $elemMatch sobre branches.
+     */
+    private static Document productFilter(FranchiseUpdates.TargetedUpdate targeted) {
+        Document branches = targeted.query().getQueryObject().get("branches", Document.class);
+        Document branchFilter = branches.get("$elemMatch", Document.class);
+        return branchFilter.get("products", Document.class).get("$elemMatch", Document.class);
+    }
+
+    private static Document product(RawBsonDocument franchise, String productId) {
+        Document document = Document.parse(franchise.toJson());
+        return document.getList("branches", Document.class).getFirst().getList("products", Document.class).stream()
+                .filter(product -> productId.equals(product.get("_id")))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Evaluación mínima del filtro (igualdad, $ne y $gte) con la semántica de MongoDB: $ne coincide
+     * también cuando el campo no existe.
+     */
+    private static boolean matches(Document filter, Document document) {
+        for (Map.Entry<String, Object> condition : filter.entrySet()) {
+            Object actual = document.get(condition.getKey());
+            if (condition.getValue() instanceof Document operators) {
+                for (Map.Entry<String, Object> operator : operators.entrySet()) {
+                    boolean ok = switch (operator.getKey()) {
+                        case "$ne" -> !Objects.equals(actual, operator.getValue());
+                        case "$gte" -> actual instanceof Number n && n.longValue() >= ((Number) operator.getValue()).longValue();
+                        default -> throw new IllegalArgumentException("Operador no soportado: " + operator.getKey());
+                    };
+                    if (!ok) {
+                        return false;
+                    }
+                }
+            } else if (!Objects.equals(actual, condition.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,139 @@
+package com.seti.franchises.infrastructure.persistence.codec;
+
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.persistence.document.FranchiseDocument;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import com.seti.franchises.infrastructure.persistence.metrics.FranchiseDocumentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compatibilidad de FranchiseCodec con el formato que escribe Spring Data (MappingMongoConverter) en
+ * ambos sentidos: el cambio de camino no puede dejar documentos ilegibles para ninguno de los dos.
+ */
+class FranchiseCodecTest {
+
+    private final FranchisePersistenceMapper mapper = new FranchisePersistenceMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FranchiseCodec codec = new FranchiseCodec(new FranchiseDocumentMetrics(meterRegistry, 1, Long.MAX_VALUE));
+    private MappingMongoConverter converter;
+    private Franchise franchise;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext context = new MongoMappingContext();
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.afterPropertiesSet();
+
+        franchise = Franchise.builder()
+                .id(new ObjectId().toHexString())
+                .name("Franquicia Norte")
+                .branches(List.of(
+                        Branch.builder().id("b-1").name("Centro").products(List.of(
+                                Product.builder().id("p-1").name("Producto A").stockQuantity(10).enabled(true).build(),
+                                Product.builder().id("p-2").name("Producto B").stockQuantity(0).enabled(false)
+                                        .disabledAt(Instant.ofEpochMilli(1_700_000_000_123L)).build(),
+                                Product.builder().id("p-3").name("Sin stock").enabled(true).build())).build(),
+                        Branch.builder().id("b-2").name("Vacía").products(List.of()).build()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("decodifica los documentos escritos por Spring Data igual que el camino converter + mapper")
+    void decodesSpringDataDocuments() {
+        byte[] bson = springDataBson(franchise);
+
+        Franchise decoded = decode(bson);
+
+        assertThat(decoded).isEqualTo(mapper.toEntity(springDataRead(bson)));
+        assertThat(decoded).isEqualTo(franchise);
+    }
+
+    @Test
+    @DisplayName("Spring Data lee los documentos escritos por el codec")
+    void encodesDocumentsReadableBySpringData() {
+        byte[] bson = encode(franchise);
+
+        assertThat(mapper.toEntity(springDataRead(bson))).isEqualTo(franchise);
+        assertThat(new RawBsonDocument(bson).get("_id").isObjectId()).isTrue();
+    }
+
+    @Test
+    @DisplayName("publica el tamaño del documento leído sin volver a serializarlo")
+    void recordsDecodedDocumentSize() {
+        byte[] bson = springDataBson(franchise);
+
+        decode(bson);
+
+        assertThat(meterRegistry.get("franchises.document.size").tag("operation", "load").summary().totalAmount())
+                .isEqualTo(bson.length);
+    }
+
+    @Test
+    @DisplayName("el agregado perezoso sobre RawBsonDocument devuelve lo mismo que la decodificación completa")
+    void rawAggregateMatchesFullDecode() {
+        RawFranchiseAggregate aggregate = new RawFranchiseAggregate(new RawBsonDocument(springDataBson(franchise)));
+
+        assertThat(aggregate.getId()).isEqualTo(franchise.getId());
+        assertThat(aggregate.getName()).isEqualTo(franchise.getName());
+        assertThat(aggregate.findBranch("b-1")).contains(franchise.getBranches().get(0));
+        assertThat(aggregate.findBranch("b-2")).contains(franchise.getBranches().get(1));
+        assertThat(aggregate.findProduct("b-1", "p-2")).contains(franchise.getBranches().get(0).getProducts().get(1));
+        assertThat(aggregate.findProduct("b-1", "p-3")).contains(franchise.getBranches().get(0).getProducts().get(2));
+        assertThat(aggregate.hasBranch("b-2")).isTrue();
+        assertThat(aggregate.hasBranch("b-3")).isFalse();
+        assertThat(aggregate.findProduct("b-2", "p-1")).isEmpty();
+        assertThat(aggregate.findProduct("b-3", "p-1")).isEmpty();
+    }
+
+    private Franchise decode(byte[] bson) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return codec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    private byte[] encode(Franchise value) {
+        try (BasicOutputBuffer buffer = new BasicOutputBuffer(); BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            codec.encode(writer, value, EncoderContext.builder().build());
+            return buffer.toByteArray();
+        }
+    }
+
+    private byte[] springDataBson(Franchise value) {
+        Document document = new Document();
+        converter.write(mapper.toDocument(value), document);
+        RawBsonDocument raw = new RawBsonDocument(document, new DocumentCodec());
+        byte[] bytes = new byte[raw.getByteBuffer().remaining()];
+        raw.getByteBuffer().asNIO().get(bytes);
+        return bytes;
+    }
+
+    private FranchiseDocument springDataRead(byte[] bson) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return converter.read(FranchiseDocument.class, new DocumentCodec().decode(reader, DecoderContext.builder().build()));
+        }
+    }
+}
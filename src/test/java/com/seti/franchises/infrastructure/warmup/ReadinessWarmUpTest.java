@@ -0,0 +1,76 @@
+package com.seti.franchises.infrastructure.warmup;
+
+import com.seti.franchises.domain.port.FranchiseRepository;
+import com.seti.franchises.infrastructure.persistence.mapper.FranchisePersistenceMapper;
+import com.seti.franchises.infrastructure.web.mapper.ApiMapper;
+import com.seti.franchises.infrastructure.web.mapper.FranchiseJsonWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Status;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Readiness no informa UP hasta que termina el calentamiento, y un MongoDB caído no lo bloquea.
+ */
+class ReadinessWarmUpTest {
+
+    private final FranchiseRepository repository = mock(FranchiseRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private ReadinessWarmUp warmUp(boolean enabled) {
+        return new ReadinessWarmUp(repository, new FranchisePersistenceMapper(), new ApiMapper(), jsonMapper,
+                new FranchiseJsonWriter(jsonMapper, true),
+                new WarmUpProperties(enabled, Duration.ofMillis(200), 3, Duration.ofSeconds(1), 5, 10), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("fuera de servicio hasta terminar; después UP con métricas del calentamiento")
+    void reportsReadyOnlyAfterWarmUp() {
+        when(repository.findById(anyString())).thenReturn(Mono.empty());
+        ReadinessWarmUp warmUp = warmUp(true);
+        WarmUpHealthIndicator health = new WarmUpHealthIndicator(warmUp);
+
+        assertThat(health.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        StepVerifier.create(warmUp.run()).verifyComplete();
+
+        assertThat(health.health().getStatus()).isEqualTo(Status.UP);
+        verify(repository, times(3)).findById(anyString());
+        assertThat(warmUp.getMongoConnections()).isEqualTo(3);
+        assertThat(warmUp.getCycles()).isPositive();
+        assertThat(meterRegistry.get("franchises.warmup.cycles").gauge().value()).isEqualTo(warmUp.getCycles());
+        assertThat(meterRegistry.get("franchises.warmup.cycle.time").tag("phase", "warm").timeGauge().value()).isPositive();
+    }
+
+    @Test
+    @DisplayName("si MongoDB falla el calentamiento termina igualmente")
+    void repositoryFailureDoesNotBlockReadiness() {
+        when(repository.findById(anyString())).thenReturn(Mono.error(new IllegalStateException("sin MongoDB")));
+        ReadinessWarmUp warmUp = warmUp(true);
+
+        StepVerifier.create(warmUp.run()).verifyComplete();
+
+        assertThat(new WarmUpHealthIndicator(warmUp).health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmUp.getMongoConnections()).isZero();
+        assertThat(warmUp.getCycles()).isPositive();
+    }
+
+    @Test
+    @DisplayName("desactivado, readiness no espera")
+    void disabledIsReadyImmediately() {
+        assertThat(new WarmUpHealthIndicator(warmUp(false)).health().getStatus()).isEqualTo(Status.UP);
+    }
+}
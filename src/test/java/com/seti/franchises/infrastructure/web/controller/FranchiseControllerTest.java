@@ -1,37 +1,67 @@
 package com.seti.franchises.infrastructure.web.controller;
 
+import com.mongodb.MongoExecutionTimeoutException;
 import com.seti.franchises.application.service.FranchiseUseCaseService;
 import com.seti.franchises.domain.entity.Branch;
 import com.seti.franchises.domain.entity.Franchise;
 import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.context.RequestDeadline;
+import com.seti.franchises.infrastructure.mapping.LargeAggregateMapping;
+import com.seti.franchises.infrastructure.mapping.LargeAggregateMappingProperties;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.web.config.ApiMediaTypes;
 import com.seti.franchises.infrastructure.web.dto.response.BranchResponse;
+import com.seti.franchises.infrastructure.web.dto.response.CatalogEntryResponse;
 import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ImportEventResponse;
 import com.seti.franchises.infrastructure.web.dto.response.ProductResponse;
 import com.seti.franchises.infrastructure.web.dto.response.ProductWithBranchResponse;
 import com.seti.franchises.infrastructure.web.exception.GlobalExceptionHandler;
+import com.seti.franchises.infrastructure.web.filter.DeadlineWebFilter;
+import com.seti.franchises.infrastructure.web.filter.LoggingContextWebFilter;
+import com.seti.franchises.infrastructure.web.idempotency.IdempotencyService;
+import com.seti.franchises.infrastructure.web.idempotency.IdempotencyStore;
+import com.seti.franchises.infrastructure.web.importer.ProductImportParser;
 import com.seti.franchises.infrastructure.web.mapper.ApiMapper;
+import com.seti.franchises.infrastructure.web.mapper.FranchiseJsonWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.webflux.test.autoconfigure.WebFluxTest;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.core.Ordered;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
  * Pruebas del controlador REST (FranchiseController) con WebTestClient.
+ * Cada intercambio se suscribe en Schedulers.parallel() (NON_BLOCKING_ON_PARALLEL_FILTER), como en el
+ * event loop de Netty: BlockHound detecta cualquier llamada bloqueante del controlador o de los filtros.
  */
 @WebFluxTest(FranchiseController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, ProductImportParser.class, IdempotencyService.class, FranchiseJsonWriter.class})
 class FranchiseControllerTest {
 
     @Autowired
@@ -43,6 +73,34 @@ class FranchiseControllerTest {
     @MockitoBean
     private ApiMapper apiMapper;
 
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * El controlador abre observaciones por handler; en el slice basta un registro sin handlers.
+     * Las franquicias de estas pruebas son pequeñas: se mapean en línea con el ApiMapper simulado.
+     */
+    @TestConfiguration
+    static class ObservationTestConfig {
+        /**
+         * Sin esto, WebTestClient ejecuta el controlador en el hilo main de JUnit, donde BlockHound no mira.
+         */
+        @Bean
+        WebFilter nonBlockingOnParallelFilter() {
+            return new NonBlockingOnParallelFilter();
+        }
+
+        @Bean
+        ObservationRegistry observationRegistry() {
+            return ObservationRegistry.NOOP;
+        }
+
+        @Bean
+        LargeAggregateMapping largeAggregateMapping() {
+            return new LargeAggregateMapping(new LargeAggregateMappingProperties(true, 200, 2000, 2), new SimpleMeterRegistry());
+        }
+    }
+
     private static final String FRANCHISE_ID = "f1";
     private static final String BRANCH_ID = "b1";
     private static final String PRODUCT_ID = "p1";
@@ -66,6 +124,40 @@ class FranchiseControllerTest {
                 .jsonPath("$.name").isEqualTo("Franquicia Norte");
     }
 
+    @Test
+    @DisplayName("POST /api/v1/franchises - reintento con Idempotency-Key devuelve la respuesta original sin re-ejecutar")
+    void addFranchise_idempotencyKey_replaysResponse() {
+        Franchise franchise = Franchise.builder().id(FRANCHISE_ID).name("Franquicia Norte").branches(List.of()).build();
+        FranchiseResponse response = new FranchiseResponse(FRANCHISE_ID, "Franquicia Norte", List.of());
+        when(useCaseService.addFranchise("Franquicia Norte")).thenReturn(Mono.just(franchise));
+        when(apiMapper.toFranchiseResponse(franchise)).thenReturn(response);
+        when(idempotencyStore.find(any())).thenReturn(Mono.empty());
+        when(idempotencyStore.claim(any(), any(), any())).thenReturn(Mono.just(true));
+        when(idempotencyStore.save(any(), any(), any())).thenReturn(Mono.empty());
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.post()
+                    .uri("/api/v1/franchises")
+                    .header(IdempotencyService.HEADER, "retry-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"name\": \"Franquicia Norte\"}")
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectBody()
+                    .jsonPath("$.id").isEqualTo(FRANCHISE_ID);
+        }
+
+        webTestClient.post()
+                .uri("/api/v1/franchises")
+                .header(IdempotencyService.HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"Otra Franquicia\"}")
+                .exchange()
+                .expectStatus().isEqualTo(422);
+
+        verify(useCaseService, times(1)).addFranchise("Franquicia Norte");
+    }
+
     @Test
     @DisplayName("POST /api/v1/franchises - nombre vacío retorna 400")
     void addFranchise_emptyName_returns400() {
@@ -131,6 +223,39 @@ class FranchiseControllerTest {
                 .jsonPath("$.stockQuantity").isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("POST .../products/import - carga NDJSON devuelve eventos y reporta líneas inválidas")
+    void importProducts_returnsEvents() {
+        when(useCaseService.importProducts(eq(FRANCHISE_ID), any())).thenAnswer(invocation -> {
+            Flux<FranchiseUseCaseService.ProductImportCommand> commands = invocation.getArgument(1);
+            return commands.map(c -> c.getError() != null
+                    ? FranchiseUseCaseService.ImportEventDto.builder()
+                            .type(FranchiseUseCaseService.ImportEventType.ERROR).line(c.getLine()).message(c.getError()).build()
+                    : FranchiseUseCaseService.ImportEventDto.builder()
+                            .type(FranchiseUseCaseService.ImportEventType.PROGRESS).branchId(c.getBranchId()).count(1).imported(1L).build());
+        });
+        when(apiMapper.toImportEventResponse(any())).thenAnswer(invocation -> {
+            FranchiseUseCaseService.ImportEventDto dto = invocation.getArgument(0);
+            return new ImportEventResponse(dto.getType().name(), dto.getLine(), dto.getBranchId(), dto.getCount(),
+                    dto.getImported(), dto.getFailed(), dto.getMessage());
+        });
+
+        webTestClient.post()
+                .uri("/api/v1/franchises/{franchiseId}/products/import", FRANCHISE_ID)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"branchId\": \"b1\", \"name\": \"Producto A\", \"stockQuantity\": 3}\n{no-json\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ImportEventResponse.class)
+                .value(events -> {
+                    assertThat(events).hasSize(2);
+                    assertThat(events.get(0).type()).isEqualTo("PROGRESS");
+                    assertThat(events.get(1).type()).isEqualTo("ERROR");
+                    assertThat(events.get(1).line()).isEqualTo(2L);
+                });
+    }
+
     @Test
     @DisplayName("DELETE /api/v1/franchises/.../products/{productId} - eliminar producto retorna 204")
     void deleteProduct_returns204() {
@@ -193,6 +318,40 @@ class FranchiseControllerTest {
                 .jsonPath("$.stockQuantity").isEqualTo(20);
     }
 
+    @Test
+    @DisplayName("POST .../products/{productId}/stock/decrement - descontar stock retorna 200")
+    void decrementProductStock_returns200() {
+        Product product = Product.builder().id(PRODUCT_ID).name("Producto A").stockQuantity(7).build();
+        ProductResponse response = new ProductResponse(PRODUCT_ID, "Producto A", 7, true);
+        when(useCaseService.decrementProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 3)).thenReturn(Mono.just(product));
+        when(apiMapper.toProductResponse(product)).thenReturn(response);
+
+        webTestClient.post()
+                .uri("/api/v1/franchises/{franchiseId}/branches/{branchId}/products/{productId}/stock/decrement",
+                        FRANCHISE_ID, BRANCH_ID, PRODUCT_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"quantity\": 3}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.stockQuantity").isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("POST .../stock/decrement - stock insuficiente retorna 409")
+    void decrementProductStock_insufficientStock_returns409() {
+        when(useCaseService.decrementProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 50))
+                .thenReturn(Mono.error(new FranchiseUseCaseService.InsufficientStockException("Stock insuficiente")));
+
+        webTestClient.post()
+                .uri("/api/v1/franchises/{franchiseId}/branches/{branchId}/products/{productId}/stock/decrement",
+                        FRANCHISE_ID, BRANCH_ID, PRODUCT_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"quantity\": 50}")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
     @Test
     @DisplayName("GET .../branches/products/max-stock - producto con más stock por sucursal retorna 200")
     void getProductWithMostStockPerBranch_returns200() {
@@ -264,9 +423,69 @@ class FranchiseControllerTest {
                 .jsonPath("$[0].name").isEqualTo("F1");
     }
 
+    @Test
+    @DisplayName("GET /api/v1/franchises - Accept NDJSON emite una franquicia por línea")
+    void listFranchises_ndjson_returns200() {
+        Franchise f = Franchise.builder().id(FRANCHISE_ID).name("F1").branches(List.of()).build();
+        FranchiseResponse r = new FranchiseResponse(FRANCHISE_ID, "F1", List.of());
+        when(useCaseService.findAll()).thenReturn(Flux.just(f, f));
+        when(apiMapper.toFranchiseResponse(any(Franchise.class))).thenReturn(r);
+
+        webTestClient.get()
+                .uri("/api/v1/franchises")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(FranchiseResponse.class)
+                .hasSize(2);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/franchises/export - exporta catálogo en NDJSON")
+    void exportCatalog_returns200() {
+        Product product = Product.builder().id(PRODUCT_ID).name("Producto A").stockQuantity(15).build();
+        FranchiseUseCaseService.CatalogEntryDto dto = new FranchiseUseCaseService.CatalogEntryDto(
+                FRANCHISE_ID, "F1", BRANCH_ID, "Sucursal Centro", product);
+        CatalogEntryResponse response = new CatalogEntryResponse(FRANCHISE_ID, "F1", BRANCH_ID, "Sucursal Centro",
+                new ProductResponse(PRODUCT_ID, "Producto A", 15, true));
+        when(useCaseService.exportCatalog()).thenReturn(Flux.just(dto));
+        when(apiMapper.toCatalogEntryResponse(dto)).thenReturn(response);
+
+        webTestClient.get()
+                .uri("/api/v1/franchises/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CatalogEntryResponse.class)
+                .contains(response);
+    }
+
     @Test
     @DisplayName("GET /api/v1/franchises/{franchiseId} - obtener franquicia retorna 200")
     void getFranchise_returns200() {
+        Product product = Product.builder().id(PRODUCT_ID).name("Producto").stockQuantity(5).build();
+        Branch branch = Branch.builder().id(BRANCH_ID).name("Sucursal").products(List.of(product)).build();
+        Franchise franchise = Franchise.builder().id(FRANCHISE_ID).name("Franquicia").branches(List.of(branch)).build();
+        when(useCaseService.findBsonById(FRANCHISE_ID)).thenReturn(Mono.just(FranchiseCodec.toBson(franchise)));
+
+        webTestClient.get()
+                .uri("/api/v1/franchises/{franchiseId}", FRANCHISE_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(FRANCHISE_ID)
+                .jsonPath("$.name").isEqualTo("Franquicia")
+                .jsonPath("$.branches[0].products[0].stockQuantity").isEqualTo(5)
+                .jsonPath("$.branches[0].products[0].enabled").isEqualTo(true);
+
+        verify(useCaseService, times(0)).findById(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/franchises/{franchiseId} - Accept CBOR/Smile negocia formato binario")
+    void getFranchise_binaryFormats_negotiated() {
         Franchise franchise = Franchise.builder().id(FRANCHISE_ID).name("Franquicia").branches(List.of()).build();
         FranchiseResponse response = new FranchiseResponse(FRANCHISE_ID, "Franquicia", List.of());
         when(useCaseService.findById(FRANCHISE_ID)).thenReturn(Mono.just(franchise));
@@ -274,21 +493,117 @@ class FranchiseControllerTest {
 
         webTestClient.get()
                 .uri("/api/v1/franchises/{franchiseId}", FRANCHISE_ID)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR);
+
+        webTestClient.get()
+                .uri("/api/v1/franchises/{franchiseId}", FRANCHISE_ID)
+                .accept(MediaType.parseMediaType(ApiMediaTypes.APPLICATION_SMILE_VALUE))
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().contentType(ApiMediaTypes.APPLICATION_SMILE_VALUE);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/franchises/{franchiseId} - deadline agotado (X-Request-Timeout-Ms) retorna 504")
+    void getFranchise_deadlineExceeded_returns504() {
+        when(useCaseService.findBsonById(FRANCHISE_ID)).thenReturn(Mono.never());
+
+        webTestClient.get()
+                .uri("/api/v1/franchises/{franchiseId}", FRANCHISE_ID)
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, "50")
+                .exchange()
+                .expectStatus().isEqualTo(504);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/franchises/{franchiseId} - timeout() del adaptador (RequestDeadline.bound) retorna 504")
+    void getFranchise_adapterDeadline_returns504() {
+        when(useCaseService.findBsonById(FRANCHISE_ID)).thenReturn(Mono.<ByteBuffer>never().transform(RequestDeadline::bound));
+
+        webTestClient.get()
+                .uri("/api/v1/franchises/{franchiseId}", FRANCHISE_ID)
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, "200")
+                .exchange()
+                .expectStatus().isEqualTo(504)
                 .expectBody()
-                .jsonPath("$.id").isEqualTo(FRANCHISE_ID)
-                .jsonPath("$.name").isEqualTo("Franquicia");
+                .jsonPath("$.status").isEqualTo(504);
+    }
+
+    @Test
+    @DisplayName("PATCH .../stock - maxTimeMS agotado en MongoDB (MongoExecutionTimeoutException) retorna 504")
+    void updateProductStock_mongoMaxTime_returns504() {
+        when(useCaseService.updateProductStock(FRANCHISE_ID, BRANCH_ID, PRODUCT_ID, 20))
+                .thenReturn(Mono.error(new MongoExecutionTimeoutException(50, "operation exceeded time limit")));
+
+        webTestClient.patch()
+                .uri("/api/v1/franchises/{franchiseId}/branches/{branchId}/products/{productId}/stock",
+                        FRANCHISE_ID, BRANCH_ID, PRODUCT_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"stockQuantity\": 20}")
+                .exchange()
+                .expectStatus().isEqualTo(504);
     }
 
     @Test
     @DisplayName("GET /api/v1/franchises/{franchiseId} - no encontrada retorna 404")
     void getFranchise_notFound_returns404() {
-        when(useCaseService.findById(FRANCHISE_ID)).thenReturn(Mono.empty());
+        when(useCaseService.findBsonById(FRANCHISE_ID)).thenReturn(Mono.empty());
 
         webTestClient.get()
                 .uri("/api/v1/franchises/{franchiseId}", FRANCHISE_ID)
                 .exchange()
                 .expectStatus().isNotFound();
     }
+
+    @Test
+    @DisplayName("GET /api/v1/franchises/{franchiseId} - devuelve el X-Request-Id recibido")
+    void getFranchise_echoesRequestId() {
+        when(useCaseService.findBsonById(FRANCHISE_ID)).thenReturn(Mono.empty());
+
+        webTestClient.get()
+                .uri("/api/v1/franchises/{franchiseId}", FRANCHISE_ID)
+                .header(LoggingContextWebFilter.REQUEST_ID_HEADER, "req-123")
+                .exchange()
+                .expectHeader().valueEquals(LoggingContextWebFilter.REQUEST_ID_HEADER, "req-123");
+    }
+
+    @Test
+    @DisplayName("los handlers se ejecutan en un hilo no bloqueante (BlockHound activo)")
+    void handlersRunOnNonBlockingThread() {
+        AtomicBoolean nonBlocking = new AtomicBoolean();
+        Franchise franchise = Franchise.builder().id(FRANCHISE_ID).name("Franquicia Norte").branches(List.of()).build();
+        when(useCaseService.addFranchise("Franquicia Norte")).thenAnswer(invocation -> {
+            nonBlocking.set(Schedulers.isInNonBlockingThread());
+            return Mono.just(franchise);
+        });
+        when(apiMapper.toFranchiseResponse(franchise)).thenReturn(new FranchiseResponse(FRANCHISE_ID, "Franquicia Norte", List.of()));
+
+        webTestClient.post()
+                .uri("/api/v1/franchises")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"Franquicia Norte\"}")
+                .exchange()
+                .expectStatus().isCreated();
+
+        assertThat(nonBlocking).isTrue();
+    }
+
+    /**
+     * Suscribe la cadena de filtros y el handler en Schedulers.parallel() (hilos NonBlocking).
+     */
+    static class NonBlockingOnParallelFilter implements WebFilter, Ordered {
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+            return chain.filter(exchange).subscribeOn(Schedulers.parallel());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del límite de concurrencia adaptativo y del token bucket por cliente.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = 1_000_000L;
+
+    @Test
+    @DisplayName("rechaza cuando las peticiones en curso alcanzan el límite")
+    void tryAcquire_rejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejections()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("reduce el límite ante errores y cuando la latencia se dispara")
+    void release_decreasesLimitOnDropsAndLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 4, 1000, 2.0);
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(RTT, AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+        }
+        int afterDrops = limiter.getLimit();
+        assertThat(afterDrops).isLessThan(100);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire();
+            limiter.release(RTT * 50, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        }
+        assertThat(limiter.getLimit()).isLessThanOrEqualTo(afterDrops).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("aumenta el límite cuando está saturado y la latencia es estable")
+    void release_increasesLimitWhenSaturatedWithStableLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0);
+        for (int round = 0; round < 20; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(RTT, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+            }
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("token bucket: admite la ráfaga y luego indica el tiempo de espera")
+    void clientRateLimiter_rejectsAfterBurst() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(3, 1);
+
+        assertThat(rateLimiter.tryAcquire("c1")).isZero();
+        assertThat(rateLimiter.tryAcquire("c1")).isZero();
+        assertThat(rateLimiter.tryAcquire("c1")).isZero();
+        assertThat(rateLimiter.tryAcquire("c1")).isPositive();
+        assertThat(rateLimiter.tryAcquire("c2")).isZero();
+        assertThat(rateLimiter.getRejections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("token bucket: con el mapa lleno, los ids nuevos comparten el cubo de la IP")
+    void clientRateLimiter_rotatingIdsFallBackToRemoteAddress() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(2, 1, 2);
+        rateLimiter.tryAcquire("c1", "10.0.0.1");
+        rateLimiter.tryAcquire("c2", "10.0.0.1");
+
+        assertThat(rateLimiter.tryAcquire("rotado-1", "10.0.0.9")).isZero();
+        assertThat(rateLimiter.tryAcquire("rotado-2", "10.0.0.9")).isZero();
+        assertThat(rateLimiter.tryAcquire("rotado-3", "10.0.0.9")).isPositive();
+        assertThat(rateLimiter.getClients()).isEqualTo(3);
+    }
+}
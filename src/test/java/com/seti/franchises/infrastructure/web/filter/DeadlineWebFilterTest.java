@@ -0,0 +1,54 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Resolución del plazo: los deadlines por ruta distinguen el método y los listados en streaming no se cortan.
+ */
+class DeadlineWebFilterTest {
+
+    private final DeadlineWebFilter filter = new DeadlineWebFilter(new DeadlineProperties(true,
+            Duration.ofSeconds(2), Duration.ofSeconds(5), Duration.ofSeconds(60), Duration.ZERO,
+            Map.of("get", Map.of("/api/v1/franchises", Duration.ofSeconds(30))),
+            Map.of("/api/v1/franchises/export", Duration.ZERO)));
+
+    @Test
+    @DisplayName("GET JSON del listado: plazo de la ruta para GET")
+    void listingUsesMethodPathDeadline() {
+        assertThat(filter.resolveTimeout(MockServerHttpRequest.get("/api/v1/franchises").build()))
+                .isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("POST a la misma ruta: plazo de escritura por defecto")
+    void postOnSamePathUsesWriteDefault() {
+        assertThat(filter.resolveTimeout(MockServerHttpRequest.post("/api/v1/franchises").build()))
+                .isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("GET en NDJSON o SSE: sin plazo")
+    void streamingListingHasNoDeadline() {
+        assertThat(filter.resolveTimeout(MockServerHttpRequest.get("/api/v1/franchises")
+                .accept(MediaType.APPLICATION_NDJSON).build())).isZero();
+        assertThat(filter.resolveTimeout(MockServerHttpRequest.get("/api/v1/franchises")
+                .accept(MediaType.TEXT_EVENT_STREAM).build())).isZero();
+    }
+
+    @Test
+    @DisplayName("la cabecera X-Request-Timeout-Ms tiene prioridad, acotada por max")
+    void headerOverridesConfiguredDeadline() {
+        assertThat(filter.resolveTimeout(MockServerHttpRequest.get("/api/v1/franchises")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, "120000").build()))
+                .isEqualTo(Duration.ofSeconds(60));
+    }
+}
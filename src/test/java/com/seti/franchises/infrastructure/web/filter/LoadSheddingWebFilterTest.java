@@ -0,0 +1,37 @@
+package com.seti.franchises.infrastructure.web.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las respuestas en streaming liberan su hueco del límite de concurrencia en el primer byte.
+ */
+class LoadSheddingWebFilterTest {
+
+    private final LoadSheddingWebFilter filter = new LoadSheddingWebFilter(true, 64, 8, 1000, 32, 4, 500, 2.0, 200, 100, true);
+
+    @Test
+    @DisplayName("una exportación en curso no ocupa hueco tras enviar el primer byte")
+    void streamingResponseReleasesOnCommit() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/franchises/export"));
+        byte[] line = "{\"id\":\"f1\"}\n".getBytes(StandardCharsets.UTF_8);
+
+        Disposable streaming = filter.filter(exchange, ex -> ex.getResponse().writeWith(
+                        Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(line)).concatWith(Flux.never())))
+                .subscribe();
+
+        assertThat(exchange.getResponse().isCommitted()).isTrue();
+        assertThat(filter.getReadLimiter().getInFlight()).isZero();
+        streaming.dispose();
+        assertThat(filter.getReadLimiter().getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,151 @@
+package com.seti.franchises.infrastructure.web.idempotency;
+
+import com.seti.franchises.infrastructure.persistence.inmemory.InMemoryIdempotencyStore;
+import com.seti.franchises.infrastructure.web.idempotency.IdempotencyService.IdempotencyConflictException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Idempotencia de los POST de creación: una ejecución por (cliente, ámbito, clave), 422 al reutilizar la clave
+ * con otro cuerpo, reejecución al expirar el TTL y espera entre instancias que comparten el almacén.
+ */
+class IdempotencyServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final IdempotencyStore store = new InMemoryIdempotencyStore();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    @DisplayName("reintento con la misma clave: respuesta original sin volver a ejecutar")
+    void retryReplaysResponse() {
+        IdempotencyService service = service(Duration.ofHours(1));
+
+        StepVerifier.create(service.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, created("f1")))
+                .expectNext(new Body("f1"))
+                .verifyComplete();
+        StepVerifier.create(service.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, created("f2")))
+                .expectNext(new Body("f1"))
+                .verifyComplete();
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("misma clave con otro cuerpo: IdempotencyConflictException (422)")
+    void sameKeyOtherBody_conflict() {
+        IdempotencyService service = service(Duration.ofHours(1));
+        service.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, created("f1")).block(TIMEOUT);
+
+        StepVerifier.create(service.execute("k1", "cliente-1", "addFranchise", new Body("Sur"), Body.class, created("f2")))
+                .expectError(IdempotencyConflictException.class)
+                .verify(TIMEOUT);
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("la clave es por cliente: otro cliente con la misma clave ejecuta su propia petición")
+    void sameKeyOtherClient_executes() {
+        IdempotencyService service = service(Duration.ofHours(1));
+        service.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, created("f1")).block(TIMEOUT);
+
+        StepVerifier.create(service.execute("k1", "cliente-2", "addFranchise", new Body("Sur"), Body.class, created("f2")))
+                .expectNext(new Body("f2"))
+                .verifyComplete();
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("TTL: al expirar la respuesta guardada, la misma clave vuelve a ejecutar")
+    void expiredKey_executesAgain() {
+        IdempotencyService service = service(Duration.ofMillis(50));
+        service.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, created("f1")).block(TIMEOUT);
+
+        StepVerifier.create(Mono.delay(Duration.ofMillis(100))
+                        .then(service.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, created("f2"))))
+                .expectNext(new Body("f2"))
+                .verifyComplete();
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("si el caso de uso falla, la clave se libera y el reintento vuelve a ejecutarlo")
+    void failedExecution_releasesKey() {
+        IdempotencyService service = service(Duration.ofHours(1));
+
+        StepVerifier.create(service.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class,
+                        () -> Mono.<Body>error(new IllegalStateException("caída"))))
+                .expectError(IllegalStateException.class)
+                .verify(TIMEOUT);
+        StepVerifier.create(service.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, created("f1")))
+                .expectNext(new Body("f1"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("dos instancias con el mismo almacén: la segunda espera a la primera y devuelve su respuesta")
+    void concurrentInstances_secondWaitsForFirst() {
+        IdempotencyService first = service(Duration.ofHours(1));
+        IdempotencyService second = service(Duration.ofHours(1));
+        Sinks.One<Body> result = Sinks.one();
+
+        Mono<Body> winner = first.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, () -> {
+            executions.incrementAndGet();
+            return result.asMono();
+        }).cache();
+        winner.subscribe();
+        Mono<Body> waiter = second.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, created("f2"));
+
+        StepVerifier.create(waiter)
+                .expectSubscription()
+                .expectNoEvent(IdempotencyService.POLL_INTERVAL.multipliedBy(3))
+                .then(() -> result.tryEmitValue(new Body("f1")))
+                .expectNext(new Body("f1"))
+                .verifyComplete();
+        StepVerifier.create(winner).expectNext(new Body("f1")).verifyComplete();
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("otra instancia con la clave pendiente y otro cuerpo: 422 sin esperar")
+    void concurrentInstances_otherBody_conflictWithoutWaiting() {
+        IdempotencyService first = service(Duration.ofHours(1));
+        IdempotencyService second = service(Duration.ofHours(1));
+        first.execute("k1", "cliente-1", "addFranchise", new Body("Norte"), Body.class, () -> Mono.<Body>never()).subscribe();
+
+        StepVerifier.create(second.execute("k1", "cliente-1", "addFranchise", new Body("Sur"), Body.class, created("f2")))
+                .expectError(IdempotencyConflictException.class)
+                .verify(TIMEOUT);
+
+        assertThat(executions).hasValue(0);
+    }
+
+    private IdempotencyService service(Duration ttl) {
+        return new IdempotencyService(store, jsonMapper, ttl, Duration.ofSeconds(30), 100);
+    }
+
+    private Supplier<Mono<Body>> created(String id) {
+        return () -> Mono.fromCallable(() -> {
+            executions.incrementAndGet();
+            return new Body(id);
+        });
+    }
+
+    record Body(String name) {
+    }
+}
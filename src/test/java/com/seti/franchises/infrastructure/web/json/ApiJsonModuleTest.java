@@ -0,0 +1,122 @@
+package com.seti.franchises.infrastructure.web.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.seti.franchises.infrastructure.web.dto.request.AddFranchiseRequest;
+import com.seti.franchises.infrastructure.web.dto.request.AddProductRequest;
+import com.seti.franchises.infrastructure.web.dto.request.DecrementStockRequest;
+import com.seti.franchises.infrastructure.web.dto.request.UpdateStockRequest;
+import com.seti.franchises.infrastructure.web.dto.response.BranchResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ErrorResponse;
+import com.seti.franchises.infrastructure.web.dto.response.FranchiseResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ProductResponse;
+import com.seti.franchises.infrastructure.web.dto.response.ProductWithBranchResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.exc.UnrecognizedPropertyException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Los (de)serializadores escritos a mano deben producir y aceptar exactamente lo mismo que la
+ * serialización reflexiva de Jackson con la misma configuración del mapper.
+ */
+class ApiJsonModuleTest {
+
+    private final ProductResponse product = new ProductResponse("p-1", "Producto \"A\" ☃", 10, true);
+    private final List<Object> responses = List.of(
+            new FranchiseResponse("f-1", "Franquicia", List.of(
+                    new BranchResponse("b-1", null, List.of(product, new ProductResponse("p-2", null, null, false))),
+                    new BranchResponse("b-2", "Vacía", List.of()))),
+            new FranchiseResponse("f-2", null, null),
+            new ProductWithBranchResponse("b-1", "Centro", product),
+            new ProductWithBranchResponse("b-1", "Centro", null),
+            new ErrorResponse(404, "Franquicia no encontrada: f-3"));
+
+    @ParameterizedTest(name = "orden alfabético={0}")
+    @ValueSource(booleans = {true, false})
+    @DisplayName("las respuestas se serializan igual que con el serializador por defecto")
+    void responsesMatchDefaultSerialization(boolean sortAlphabetically) {
+        JsonMapper reflective = JsonMapper.builder()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, sortAlphabetically)
+                .build();
+        JsonMapper handWritten = JsonMapper.builder()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, sortAlphabetically)
+                .addModule(new ApiJsonModule())
+                .build();
+
+        for (Object response : responses) {
+            assertThat(handWritten.writeValueAsString(response)).isEqualTo(reflective.writeValueAsString(response));
+        }
+    }
+
+    static Stream<Arguments> mapperConfigurations() {
+        return Stream.of(
+                Arguments.of("NON_NULL", inclusion(JsonInclude.Include.NON_NULL)),
+                Arguments.of("NON_ABSENT", inclusion(JsonInclude.Include.NON_ABSENT)),
+                Arguments.of("NON_EMPTY", inclusion(JsonInclude.Include.NON_EMPTY)),
+                Arguments.of("NON_DEFAULT", inclusion(JsonInclude.Include.NON_DEFAULT)),
+                Arguments.of("SNAKE_CASE", (UnaryOperator<JsonMapper.Builder>) builder ->
+                        builder.propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)),
+                Arguments.of("UPPER_CAMEL_CASE + NON_NULL + orden de declaración", (UnaryOperator<JsonMapper.Builder>) builder ->
+                        inclusion(JsonInclude.Include.NON_NULL).apply(builder)
+                                .propertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE)
+                                .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mapperConfigurations")
+    @DisplayName("respetan la inclusión y la estrategia de nombres del mapper")
+    void responsesFollowMapperConfiguration(String name, UnaryOperator<JsonMapper.Builder> configuration) {
+        JsonMapper reflective = configuration.apply(JsonMapper.builder()).build();
+        JsonMapper handWritten = configuration.apply(JsonMapper.builder()).addModule(new ApiJsonModule()).build();
+
+        for (Object response : responses) {
+            assertThat(handWritten.writeValueAsString(response)).isEqualTo(reflective.writeValueAsString(response));
+        }
+        assertThat(handWritten.writeValueAsString(new ErrorResponse(0, "")))
+                .isEqualTo(reflective.writeValueAsString(new ErrorResponse(0, "")));
+    }
+
+    private static UnaryOperator<JsonMapper.Builder> inclusion(JsonInclude.Include include) {
+        return builder -> builder.changeDefaultPropertyInclusion(value -> value.withValueInclusion(include));
+    }
+
+    @Test
+    @DisplayName("las peticiones se leen igual que con el deserializador por defecto")
+    void requestsMatchDefaultDeserialization() {
+        JsonMapper reflective = JsonMapper.builder().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build();
+        JsonMapper handWritten = JsonMapper.builder().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addModule(new ApiJsonModule()).build();
+
+        for (String json : List.of("{\"name\":\"Producto\",\"stockQuantity\":5}", "{\"stockQuantity\":\"7\",\"extra\":{\"a\":[1]}}",
+                "{\"name\":null}", "{}")) {
+            assertThat(handWritten.readValue(json, AddProductRequest.class)).isEqualTo(reflective.readValue(json, AddProductRequest.class));
+        }
+        assertThat(handWritten.readValue("{\"stockQuantity\":25}", UpdateStockRequest.class)).isEqualTo(new UpdateStockRequest(25));
+        assertThat(handWritten.readValue("{\"quantity\":3}", DecrementStockRequest.class)).isEqualTo(new DecrementStockRequest(3));
+        assertThat(handWritten.readValue("{\"name\":\"Norte\"}", AddFranchiseRequest.class)).isEqualTo(new AddFranchiseRequest("Norte"));
+    }
+
+    @Test
+    @DisplayName("respeta FAIL_ON_UNKNOWN_PROPERTIES")
+    void unknownPropertiesFailWhenConfigured() {
+        JsonMapper strict = JsonMapper.builder().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addModule(new ApiJsonModule()).build();
+
+        assertThatThrownBy(() -> strict.readValue("{\"name\":\"Norte\",\"otro\":1}", AddFranchiseRequest.class))
+                .isInstanceOf(UnrecognizedPropertyException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.seti.franchises.infrastructure.web.mapper;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.seti.franchises.domain.entity.Branch;
+import com.seti.franchises.domain.entity.Franchise;
+import com.seti.franchises.domain.entity.Product;
+import com.seti.franchises.infrastructure.persistence.codec.FranchiseCodec;
+import com.seti.franchises.infrastructure.web.json.ApiJsonModule;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El JSON transcodificado desde BSON debe ser idéntico, byte a byte, al de Jackson sobre
+ * ApiMapper.toFranchiseResponse con el mismo JsonMapper.
+ */
+class FranchiseJsonWriterTest {
+
+    private final ApiMapper apiMapper = new ApiMapper();
+
+    private final Franchise franchise = Franchise.builder()
+            .id(new ObjectId().toHexString())
+            .name("Franquicia \"Ñandú\" ☃ \n")
+            .branches(List.of(
+                    Branch.builder().id("b-1").name("Centro").products(List.of(
+                            Product.builder().id("p-1").name("Producto A").stockQuantity(10).enabled(true).build(),
+                            Product.builder().id("p-2").name("Producto B").stockQuantity(0).enabled(false)
+                                    .disabledAt(Instant.ofEpochMilli(1_700_000_000_123L)).build(),
+                            Product.builder().id("p-3").name(null).enabled(true).build())).build(),
+                    Branch.builder().id("b-2").name(null).products(List.of()).build()))
+            .build();
+
+    @ParameterizedTest(name = "orden alfabético={0}")
+    @ValueSource(booleans = {true, false})
+    @DisplayName("produce los mismos bytes que Jackson sobre FranchiseResponse")
+    void matchesJacksonOutput(boolean sortAlphabetically) {
+        JsonMapper jsonMapper = JsonMapper.builder()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, sortAlphabetically)
+                .build();
+        FranchiseJsonWriter writer = new FranchiseJsonWriter(jsonMapper, true);
+
+        DataBuffer buffer = writer.write(FranchiseCodec.toBson(franchise), DefaultDataBufferFactory.sharedInstance);
+
+        assertThat(buffer.toString(StandardCharsets.UTF_8))
+                .isEqualTo(jsonMapper.writeValueAsString(apiMapper.toFranchiseResponse(franchise)));
+    }
+
+    @Test
+    @DisplayName("se desactiva si Jackson omite los nulls (también con ApiJsonModule) y solo atiende peticiones que negocian JSON")
+    void negotiation() {
+        FranchiseJsonWriter writer = new FranchiseJsonWriter(JsonMapper.builder().build(), true);
+        FranchiseJsonWriter nonNull = new FranchiseJsonWriter(JsonMapper.builder()
+                .changeDefaultPropertyInclusion(inclusion -> inclusion.withValueInclusion(JsonInclude.Include.NON_NULL))
+                .addModule(new ApiJsonModule())
+                .build(), true);
+
+        assertThat(writer.accepts(List.of())).isTrue();
+        assertThat(writer.accepts(List.of(MediaType.ALL))).isTrue();
+        assertThat(writer.accepts(MediaType.parseMediaTypes("application/cbor, application/json;q=0.5"))).isFalse();
+        assertThat(writer.accepts(List.of(MediaType.APPLICATION_CBOR))).isFalse();
+        assertThat(nonNull.accepts(List.of(MediaType.APPLICATION_JSON))).isFalse();
+    }
+}
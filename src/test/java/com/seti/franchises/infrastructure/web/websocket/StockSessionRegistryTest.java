@@ -0,0 +1,31 @@
+package com.seti.franchises.infrastructure.web.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El registro de reanudación está acotado: por encima de MAX_CLIENTS se olvida el cliente usado hace más
+ * tiempo, que vuelve a empezar desde 0.
+ */
+class StockSessionRegistryTest {
+
+    @Test
+    @DisplayName("LRU: se olvida el cliente menos usado, no el más antiguo en conectarse")
+    void evictsLeastRecentlyUsedClient() {
+        StockSessionRegistry registry = new StockSessionRegistry();
+        registry.lastAcked("primero").set(7);
+        registry.lastAcked("segundo").set(9);
+        for (int i = 0; i < StockSessionRegistry.MAX_CLIENTS - 2; i++) {
+            registry.lastAcked("cliente-" + i);
+        }
+        // Uso reciente de "primero": el menos usado pasa a ser "segundo"
+        assertThat(registry.lastAcked("primero")).hasValue(7);
+
+        registry.lastAcked("nuevo");
+
+        assertThat(registry.lastAcked("primero")).hasValue(7);
+        assertThat(registry.lastAcked("segundo")).hasValue(0);
+    }
+}
@@ -0,0 +1,151 @@
+package com.seti.franchises.infrastructure.web.websocket;
+
+import com.seti.franchises.application.service.FranchiseUseCaseService;
+import com.seti.franchises.application.service.FranchiseUseCaseService.StockUpdateCommand;
+import com.seti.franchises.application.service.FranchiseUseCaseService.StockUpdateResultDto;
+import com.seti.franchises.application.service.FranchiseUseCaseService.StockUpdateStatus;
+import com.seti.franchises.infrastructure.web.dto.response.StockAckMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Protocolo del canal de stock: RESUME al conectar, un ACK por mensaje en el orden recibido (también entre
+ * lotes), DUPLICATE para seq &lt;= la última confirmada e INVALID para mensajes o comandos inválidos.
+ */
+@ExtendWith(MockitoExtension.class)
+class StockUpdateWebSocketHandlerTest {
+
+    private static final String CLIENT_ID = "escaner-1";
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Mock
+    private FranchiseUseCaseService useCaseService;
+
+    private StockSessionRegistry sessionRegistry;
+    private StockUpdateWebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        sessionRegistry = new StockSessionRegistry();
+        handler = new StockUpdateWebSocketHandler(useCaseService, sessionRegistry, jsonMapper);
+        // Como el servicio real: un resultado por comando, en el mismo orden; stock negativo es INVALID
+        when(useCaseService.applyStockUpdates(anyList())).thenAnswer(invocation -> {
+            List<StockUpdateCommand> commands = invocation.getArgument(0);
+            return Flux.fromIterable(commands).map(command -> command.getStockQuantity() != null && command.getStockQuantity() >= 0
+                    ? new StockUpdateResultDto(command.getSeq(), StockUpdateStatus.OK, command.getStockQuantity(), null)
+                    : new StockUpdateResultDto(command.getSeq(), StockUpdateStatus.INVALID, null, "El stock debe ser un número mayor o igual a 0"));
+        });
+    }
+
+    @Test
+    @DisplayName("acks en el orden recibido aunque las seq lleguen desordenadas y haya mensajes inválidos")
+    void acksFollowInputOrder() {
+        List<StockAckMessage> acks = exchange(Flux.just(command(3, 30), "no es json", command(1, 10), command(2, -1)));
+
+        assertThat(acks).containsExactly(
+                StockAckMessage.resume(0),
+                StockAckMessage.ack(3L, "OK", 30, null),
+                StockAckMessage.ack(null, "INVALID", null, "Mensaje JSON inválido"),
+                StockAckMessage.ack(1L, "OK", 10, null),
+                StockAckMessage.ack(2L, "INVALID", null, "El stock debe ser un número mayor o igual a 0"));
+        assertThat(sessionRegistry.lastAcked(CLIENT_ID)).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("reconexión: RESUME con lastAckedSeq, DUPLICATE para seq <= N y los posteriores se aplican")
+    void resumeAfterReconnect() {
+        exchange(Flux.just(command(1, 10), command(2, 20)));
+
+        List<StockAckMessage> acks = exchange(Flux.just(command(1, 10), command(2, 20), command(3, 30)));
+
+        assertThat(acks).containsExactly(
+                StockAckMessage.resume(2),
+                StockAckMessage.ack(1L, "DUPLICATE", null, null),
+                StockAckMessage.ack(2L, "DUPLICATE", null, null),
+                StockAckMessage.ack(3L, "OK", 30, null));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockUpdateCommand>> batches = ArgumentCaptor.forClass(List.class);
+        verify(useCaseService, times(2)).applyStockUpdates(batches.capture());
+        assertThat(batches.getValue()).extracting(StockUpdateCommand::getSeq).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("entre lotes: el orden se mantiene y un reenvío de un lote ya confirmado es DUPLICATE")
+    void duplicatesAcrossBatches() {
+        Flux<String> twoBatches = Flux.just(command(1, 10), command(2, 20))
+                .concatWith(Flux.just(command(2, 20), command(3, 30))
+                        .delaySubscription(StockUpdateWebSocketHandler.BATCH_WINDOW.multipliedBy(10)));
+
+        List<StockAckMessage> acks = exchange(twoBatches);
+
+        assertThat(acks).containsExactly(
+                StockAckMessage.resume(0),
+                StockAckMessage.ack(1L, "OK", 10, null),
+                StockAckMessage.ack(2L, "OK", 20, null),
+                StockAckMessage.ack(2L, "DUPLICATE", null, null),
+                StockAckMessage.ack(3L, "OK", 30, null));
+        verify(useCaseService, times(2)).applyStockUpdates(anyList());
+    }
+
+    /**
+     * Ejecuta el handler con una sesión simulada que recibe {@code inbound} y devuelve los mensajes enviados.
+     */
+    private List<StockAckMessage> exchange(Flux<String> inbound) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        when(session.getId()).thenReturn("s1");
+        when(session.getHandshakeInfo()).thenReturn(new HandshakeInfo(
+                URI.create("ws://localhost/ws/v1/stock?clientId=" + CLIENT_ID), new HttpHeaders(), Mono.empty(), null));
+        when(session.receive()).thenReturn(inbound.map(StockUpdateWebSocketHandlerTest::textMessage));
+        when(session.textMessage(anyString())).thenAnswer(invocation -> textMessage(invocation.getArgument(0)));
+        when(session.send(any())).thenAnswer(invocation -> {
+            Publisher<WebSocketMessage> outbound = invocation.getArgument(0);
+            return Flux.from(outbound).map(WebSocketMessage::getPayloadAsText).doOnNext(sent::add).then();
+        });
+
+        StepVerifier.create(handler.handle(session)).expectComplete().verify(Duration.ofSeconds(5));
+
+        return sent.stream().map(json -> jsonMapper.readValue(json, StockAckMessage.class)).toList();
+    }
+
+    private static WebSocketMessage textMessage(String payload) {
+        return new WebSocketMessage(WebSocketMessage.Type.TEXT,
+                DefaultDataBufferFactory.sharedInstance.wrap(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String command(long seq, int stockQuantity) {
+        return "{\"seq\":" + seq + ",\"franchiseId\":\"f1\",\"branchId\":\"b1\",\"productId\":\"p1\",\"stockQuantity\":"
+                + stockQuantity + "}";
+    }
+}
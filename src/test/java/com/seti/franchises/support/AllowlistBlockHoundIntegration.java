@@ -0,0 +1,44 @@
+package com.seti.franchises.support;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lista de llamadas bloqueantes permitidas para BlockHound, leída de blockhound-allowlist.txt
+ * (una entrada {@code clase#metodo} por línea, # para comentarios).
+ * <p>
+ * blockhound-junit-platform instala BlockHound al arrancar JUnit y carga esta integración por
+ * ServiceLoader (META-INF/services), junto a las de Reactor, Reactor Netty y Spring.
+ */
+public class AllowlistBlockHoundIntegration implements BlockHoundIntegration {
+
+    static final String ALLOWLIST_RESOURCE = "blockhound-allowlist.txt";
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        try (InputStream in = AllowlistBlockHoundIntegration.class.getClassLoader().getResourceAsStream(ALLOWLIST_RESOURCE)) {
+            if (in == null) {
+                return;
+            }
+            new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .forEach(entry -> {
+                        int separator = entry.indexOf('#');
+                        if (separator <= 0) {
+                            throw new IllegalStateException("Entrada inválida en " + ALLOWLIST_RESOURCE + ": " + entry);
+                        }
+                        builder.allowBlockingCallsInside(entry.substring(0, separator), entry.substring(separator + 1));
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}